@@ -0,0 +1,55 @@
+// Comparación de throughput entre el adaptador JPA y el adaptador R2DBC.
+//
+// Levantar la aplicación una vez por perfil, sobre la misma base de datos:
+//   ./gradlew :app-service:bootRun                                   (adaptador JPA)
+//   SPRING_PROFILES_ACTIVE=r2dbc ./gradlew :app-service:bootRun      (adaptador R2DBC)
+// y ejecutar en cada caso:
+//   k6 run -e BASE_URL=http://localhost:8080 -e FRANCHISE_ID=1 -e PRODUCT_ID=1 deployment/load-test/gateway-throughput.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const FRANCHISE_ID = __ENV.FRANCHISE_ID || '1';
+const PRODUCT_ID = __ENV.PRODUCT_ID || '1';
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            exec: 'reads',
+            rate: Number(__ENV.READ_RATE || 400),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+        },
+        stockUpdates: {
+            executor: 'constant-arrival-rate',
+            exec: 'stockUpdates',
+            rate: Number(__ENV.WRITE_RATE || 200),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function reads() {
+    const franchises = http.get(`${BASE_URL}/api/v1/franchises`, { tags: { endpoint: 'franchises' } });
+    check(franchises, { 'franchises 200': (r) => r.status === 200 });
+
+    const branches = http.get(`${BASE_URL}/api/v1/franchises/${FRANCHISE_ID}/branches`, { tags: { endpoint: 'branches' } });
+    check(branches, { 'branches 200': (r) => r.status === 200 });
+
+    const topStock = http.get(`${BASE_URL}/api/v1/franchises/${FRANCHISE_ID}/top-stock-products`, { tags: { endpoint: 'top-stock' } });
+    check(topStock, { 'top-stock 200': (r) => r.status === 200 });
+}
+
+export function stockUpdates() {
+    const body = JSON.stringify({ stock_producto: Math.floor(Math.random() * 1000) });
+    const res = http.put(`${BASE_URL}/api/v1/products/${PRODUCT_ID}/stock`, body, {
+        headers: { 'Content-Type': 'application/json', Accept: 'application/json' },
+        tags: { endpoint: 'stock' },
+    });
+    check(res, { 'stock 200': (r) => r.status === 200 });
+}
@@ -17,5 +17,7 @@ public class Branch {
     private Long id;
     private Long franchiseId;
     private String name;
+    /** Sube con cada escritura; se compara en las actualizaciones condicionales ({@code If-Match}). */
+    private Long version;
 
 }
@@ -1,15 +1,28 @@
 package co.com.franquicia.model.branch.gateway;
 
 import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.catalog.VersionConflictException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface BranchGateway {
 
     Mono<Branch> save(Branch branch);
+    /** Inserta en una sola sentencia; vacío si el nombre ya existe o la franquicia no existe. */
+    Mono<Branch> insertIfAbsent(Branch branch);
     Mono<Branch> findById(Long id);
+    Flux<Branch> findAllById(Collection<Long> ids);
     Flux<Branch> findByFranchiseId(Long franchiseId);
-    Mono<Branch> updateName(Long id, String newName);
+    Flux<Branch> findByFranchiseIdAfter(Long franchiseId, Long afterId, int limit);
+    /**
+     * Con {@code expectedVersion} solo escribe si la versión vigente coincide y si no falla con
+     * {@link VersionConflictException}; con {@code null} escribe sin condición. Vacío si no existe.
+     */
+    Mono<Branch> updateName(Long id, String newName, Long expectedVersion);
     Mono<Branch> findByName(String name);
+    /** Todos los nombres en streaming, para cargar estructuras en memoria sin materializar la tabla. */
+    Flux<String> streamNames();
 
 }
@@ -0,0 +1,88 @@
+package co.com.franquicia.model.catalog;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.product.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class CatalogChange {
+
+    public enum Aggregate { FRANCHISE, BRANCH, PRODUCT }
+
+    /**
+     * {@code RESYNC} no trae datos: avisa que hubo cambios que no se pueden detallar (una
+     * importación masiva, eventos descartados por un consumidor lento) y que hay que releer.
+     */
+    public enum Type { UPSERTED, DELETED, RESYNC }
+
+    private Type type;
+    private Aggregate aggregate;
+    private Long id;
+    private Long franchiseId;
+    private Long branchId;
+    private String name;
+    private Integer stock;
+    private String version;
+    /** Versión de la fila del producto que produjo el cambio; ordena los cambios de una misma fila. */
+    private Long entityVersion;
+    private LocalDateTime occurredAt;
+    /** Posición en el outbox; con entrega al menos una vez, sirve para descartar repetidos. */
+    private Long sequence;
+
+    public static CatalogChange franchise(Type type, Franchise franchise, String version) {
+        return CatalogChange.builder()
+                .type(type)
+                .aggregate(Aggregate.FRANCHISE)
+                .id(franchise.getId())
+                .franchiseId(franchise.getId())
+                .name(franchise.getName())
+                .version(version)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static CatalogChange branch(Type type, Branch branch, String version) {
+        return CatalogChange.builder()
+                .type(type)
+                .aggregate(Aggregate.BRANCH)
+                .id(branch.getId())
+                .franchiseId(branch.getFranchiseId())
+                .name(branch.getName())
+                .version(version)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static CatalogChange product(Type type, Product product, Long franchiseId, String version) {
+        return CatalogChange.builder()
+                .type(type)
+                .aggregate(Aggregate.PRODUCT)
+                .id(product.getId())
+                .franchiseId(franchiseId)
+                .branchId(product.getBranchId())
+                .name(product.getName())
+                .stock(product.getStock())
+                .version(version)
+                .entityVersion(product.getVersion())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    /** Con {@code franchiseId} nulo aplica a todas las franquicias. */
+    public static CatalogChange resync(Long franchiseId) {
+        return CatalogChange.builder()
+                .type(Type.RESYNC)
+                .franchiseId(franchiseId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
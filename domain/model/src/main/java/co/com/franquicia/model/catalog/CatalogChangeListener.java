@@ -0,0 +1,14 @@
+package co.com.franquicia.model.catalog;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Consumidor de los cambios que el outbox entrega fuera de la petición que los escribió. La
+ * entrega es al menos una vez: si un consumidor falla, el lote completo se repite más tarde, así
+ * que el mismo cambio ({@link CatalogChange#getSequence()}) puede llegar varias veces.
+ */
+public interface CatalogChangeListener {
+
+    Mono<Void> onChange(CatalogChange change);
+
+}
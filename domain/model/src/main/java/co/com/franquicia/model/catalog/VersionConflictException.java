@@ -0,0 +1,19 @@
+package co.com.franquicia.model.catalog;
+
+import lombok.Getter;
+
+/**
+ * Una actualización condicional encontró la entidad en otra versión: alguien la escribió desde
+ * que el cliente la leyó. {@code currentVersion} es la versión vigente.
+ */
+@Getter
+public class VersionConflictException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public VersionConflictException(String entity, Long id, Long currentVersion) {
+        super("Versión desactualizada para " + entity + " con id " + id + ": la versión actual es " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+}
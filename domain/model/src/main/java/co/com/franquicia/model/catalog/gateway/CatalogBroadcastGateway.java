@@ -0,0 +1,21 @@
+package co.com.franquicia.model.catalog.gateway;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CatalogBroadcastGateway {
+
+    /**
+     * Avisa a las demás instancias de un cambio ya confirmado. Es best-effort: un fallo al avisar
+     * se registra y no llega al que escribió.
+     */
+    Mono<Void> broadcast(CatalogChange change);
+
+    /**
+     * Cambios avisados por otras instancias, sin los propios. Tras perder la conexión emite un
+     * {@code RESYNC} global, porque los avisos de ese intervalo no se recuperan.
+     */
+    Flux<CatalogChange> remoteChanges();
+
+}
@@ -0,0 +1,14 @@
+package co.com.franquicia.model.catalog.gateway;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import reactor.core.publisher.Flux;
+
+public interface CatalogChangeGateway {
+
+    /**
+     * Cambios de la franquicia a medida que se confirman, más los {@code RESYNC} globales. No
+     * termina: el flujo dura lo que dure la suscripción y no repite lo ocurrido antes de ella.
+     */
+    Flux<CatalogChange> changes(Long franchiseId);
+
+}
@@ -0,0 +1,12 @@
+package co.com.franquicia.model.catalog.gateway;
+
+public interface CatalogOutboxGateway {
+
+    /**
+     * {@code true} si las escrituras dejan su cambio en un outbox que luego lo entrega a los
+     * {@link co.com.franquicia.model.catalog.CatalogChangeListener}. En ese caso el cambio no se
+     * publica al escribir: llega por el outbox, fuera de la petición.
+     */
+    boolean isRelaying();
+
+}
@@ -0,0 +1,13 @@
+package co.com.franquicia.model.catalog.gateway;
+
+import reactor.core.publisher.Mono;
+
+public interface CatalogVersionGateway {
+
+    /**
+     * Versión opaca de los datos de la franquicia (sucursales, productos y stock); cambia con cada
+     * escritura que los afecte. Con {@code franchiseId} nulo, la versión de la lista de franquicias.
+     */
+    Mono<String> currentVersion(Long franchiseId);
+
+}
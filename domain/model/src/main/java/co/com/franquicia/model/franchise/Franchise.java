@@ -16,5 +16,7 @@ public class Franchise {
 
     private Long id;
     private String name;
+    /** Sube con cada escritura; se compara en las actualizaciones condicionales ({@code If-Match}). */
+    private Long version;
 
 }
\ No newline at end of file
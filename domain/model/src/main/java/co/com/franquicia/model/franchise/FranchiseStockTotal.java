@@ -0,0 +1,25 @@
+package co.com.franquicia.model.franchise;
+
+import co.com.franquicia.model.page.RankKey;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranchiseStockTotal {
+
+    private Long position;
+    private Long franchiseId;
+    private String franchiseName;
+    private Long totalStock;
+    private Long productCount;
+
+    public RankKey rankKey() {
+        return new RankKey(totalStock, franchiseId, position);
+    }
+
+}
@@ -1,5 +1,6 @@
 package co.com.franquicia.model.franchise.gateway;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
 import co.com.franquicia.model.franchise.Franchise;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -7,9 +8,18 @@ import reactor.core.publisher.Mono;
 public interface FranchiseGateway {
 
     Mono<Franchise> save(Franchise franchise);
+    /** Inserta en una sola sentencia; vacío si el nombre ya existe. */
+    Mono<Franchise> insertIfAbsent(Franchise franchise);
     Mono<Franchise> findById(Long id);
     Mono<Franchise> findByName(String name);
+    /** Todos los nombres en streaming, para cargar estructuras en memoria sin materializar la tabla. */
+    Flux<String> streamNames();
     Flux<Franchise> findAll();
-    Mono<Franchise> updateName(Long id, String newName);
+    Flux<Franchise> findAllAfter(Long afterId, int limit);
+    /**
+     * Con {@code expectedVersion} solo escribe si la versión vigente coincide y si no falla con
+     * {@link VersionConflictException}; con {@code null} escribe sin condición. Vacío si no existe.
+     */
+    Mono<Franchise> updateName(Long id, String newName, Long expectedVersion);
 
 }
@@ -0,0 +1,19 @@
+package co.com.franquicia.model.idempotency;
+
+import lombok.Getter;
+
+/**
+ * La clave ya está en uso: por una petición que todavía no terminó ({@code inProgress}) o por
+ * otra petición distinta.
+ */
+@Getter
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyKeyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+}
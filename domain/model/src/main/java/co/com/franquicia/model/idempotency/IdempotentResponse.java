@@ -0,0 +1,28 @@
+package co.com.franquicia.model.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta guardada para una {@code Idempotency-Key}. {@code fingerprint} identifica la petición
+ * (método, ruta y SHA-256 del cuerpo) para no devolverla a otra distinta con la misma clave. Mientras la petición
+ * original no termina, {@code status} es nulo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class IdempotentResponse {
+
+    private String key;
+    private String fingerprint;
+    private Integer status;
+    private String etag;
+    private String body;
+
+    public boolean isPending() {
+        return status == null;
+    }
+}
@@ -0,0 +1,26 @@
+package co.com.franquicia.model.idempotency.gateway;
+
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import reactor.core.publisher.Mono;
+
+public interface IdempotencyGateway {
+
+    /**
+     * Reserva la clave si es nueva (o ya venció) y devuelve vacío; si no, devuelve lo guardado,
+     * pendiente mientras la petición que la reservó no termine.
+     */
+    Mono<IdempotentResponse> claim(String key, String fingerprint);
+    /**
+     * Guarda la respuesta de una clave reservada; {@code false} si la reserva ya no era de esta
+     * petición y no se guardó nada.
+     */
+    Mono<Boolean> complete(IdempotentResponse response);
+    /**
+     * Renueva la reserva mientras haya suscripción, para que otra instancia no la tome como
+     * abandonada; termina si la reserva deja de ser de esta petición.
+     */
+    Mono<Void> keepAlive(String key, String fingerprint);
+    /** Libera una clave reservada sin respuesta, para que un reintento vuelva a ejecutarse. */
+    Mono<Void> release(String key);
+
+}
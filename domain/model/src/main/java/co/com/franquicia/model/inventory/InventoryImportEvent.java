@@ -0,0 +1,38 @@
+package co.com.franquicia.model.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class InventoryImportEvent {
+
+    public enum Type { PROGRESS, REJECTED, COMPLETED }
+
+    private Type type;
+    private Long lineNumber;
+    private String reason;
+    private Long rowsCopied;
+    private Long rowsInserted;
+    private Long rowsUpdated;
+    private Long rowsRejected;
+
+    public static InventoryImportEvent progress(long rowsCopied) {
+        return InventoryImportEvent.builder()
+                .type(Type.PROGRESS)
+                .rowsCopied(rowsCopied)
+                .build();
+    }
+
+    public static InventoryImportEvent rejected(Long lineNumber, String reason) {
+        return InventoryImportEvent.builder()
+                .type(Type.REJECTED)
+                .lineNumber(lineNumber)
+                .reason(reason)
+                .build();
+    }
+}
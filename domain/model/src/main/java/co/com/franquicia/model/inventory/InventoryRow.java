@@ -0,0 +1,23 @@
+package co.com.franquicia.model.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class InventoryRow {
+
+    private Long lineNumber;
+    private Long branchId;
+    private String name;
+    private Integer stock;
+    private String rejectionReason;
+
+    public boolean isRejected() {
+        return rejectionReason != null;
+    }
+}
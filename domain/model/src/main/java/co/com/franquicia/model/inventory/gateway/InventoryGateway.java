@@ -0,0 +1,11 @@
+package co.com.franquicia.model.inventory.gateway;
+
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import co.com.franquicia.model.inventory.InventoryRow;
+import reactor.core.publisher.Flux;
+
+public interface InventoryGateway {
+
+    Flux<InventoryImportEvent> importRows(Flux<InventoryRow> rows);
+
+}
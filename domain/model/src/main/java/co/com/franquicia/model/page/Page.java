@@ -0,0 +1,37 @@
+package co.com.franquicia.model.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado paginado por clave (keyset) sobre el id: la siguiente página se pide
+ * con {@code id > nextAfterId}, así que su costo no depende de cuántas páginas se hayan recorrido.
+ * {@code nextAfterId} es {@code null} en la última página.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class Page<T> {
+
+    private List<T> items;
+    private Long nextAfterId;
+
+    /**
+     * Arma la página a partir de una consulta que pidió {@code size + 1} filas: si llegó la
+     * fila extra hay más resultados y se descarta.
+     */
+    public static <T> Page<T> fromProbe(List<T> fetched, int size, Function<T, Long> idOf) {
+        if (fetched.size() <= size) {
+            return new Page<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new Page<>(items, idOf.apply(items.get(size - 1)));
+    }
+
+}
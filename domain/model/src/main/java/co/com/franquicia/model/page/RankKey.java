@@ -0,0 +1,28 @@
+package co.com.franquicia.model.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clave de la última fila entregada en un ranking ordenado por {@code score} descendente y
+ * {@code id} ascendente como desempate. La página siguiente empieza en la primera fila que va
+ * después de esa pareja; {@code position} es el puesto de esa fila, para seguir numerando.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankKey {
+
+    private long score;
+    private long id;
+    private long position;
+
+    /** Clave anterior a cualquier fila: primera página. */
+    public static RankKey first() {
+        return new RankKey(Long.MAX_VALUE, 0L, 0L);
+    }
+
+}
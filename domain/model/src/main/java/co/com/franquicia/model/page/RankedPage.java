@@ -0,0 +1,35 @@
+package co.com.franquicia.model.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un ranking paginado por clave (puntaje, id); ver {@link RankKey}.
+ * {@code nextAfter} es {@code null} en la última página.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedPage<T> {
+
+    private List<T> items;
+    private RankKey nextAfter;
+
+    /**
+     * Igual que {@link Page#fromProbe}: la consulta pidió {@code size + 1} filas.
+     */
+    public static <T> RankedPage<T> fromProbe(List<T> fetched, int size, Function<T, RankKey> keyOf) {
+        if (fetched.size() <= size) {
+            return new RankedPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new RankedPage<>(items, keyOf.apply(items.get(size - 1)));
+    }
+
+}
@@ -15,6 +15,8 @@ public class Product {
     private Long branchId;
     private String name;
     private Integer stock;
+    /** Sube con cada escritura; se compara en las actualizaciones condicionales ({@code If-Match}). */
+    private Long version;
 
     public void validateStock() {
         if (stock == null || stock < 0) {
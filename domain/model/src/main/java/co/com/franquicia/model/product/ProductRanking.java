@@ -0,0 +1,26 @@
+package co.com.franquicia.model.product;
+
+import co.com.franquicia.model.page.RankKey;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRanking {
+
+    private Long position;
+    private Long productId;
+    private String productName;
+    private Long branchId;
+    private String branchName;
+    private Integer stock;
+
+    public RankKey rankKey() {
+        return new RankKey(stock, productId, position);
+    }
+
+}
@@ -0,0 +1,25 @@
+package co.com.franquicia.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock que tenía un producto en {@code at}, según el historial de movimientos.
+ * {@code recordedAt} es el instante del último movimiento (o foto) anterior a esa fecha.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockAt {
+
+    private Long productId;
+    private Integer stock;
+    private LocalDateTime at;
+    private LocalDateTime recordedAt;
+
+}
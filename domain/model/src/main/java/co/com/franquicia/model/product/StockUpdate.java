@@ -0,0 +1,27 @@
+package co.com.franquicia.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un elemento de la actualización masiva de stock. El producto se identifica por {@code id} o,
+ * si no viene, por {@code branchId} y {@code name}. {@code lineNumber} es su posición en la carga.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StockUpdate {
+
+    private Long lineNumber;
+    private Long id;
+    private Long branchId;
+    private String name;
+    private Integer stock;
+
+    public boolean isById() {
+        return id != null;
+    }
+}
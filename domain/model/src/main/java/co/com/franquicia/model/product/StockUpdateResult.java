@@ -0,0 +1,46 @@
+package co.com.franquicia.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StockUpdateResult {
+
+    public enum Status { UPDATED, NOT_FOUND, REJECTED }
+
+    private Status status;
+    private Long lineNumber;
+    private Product product;
+    private String reason;
+
+    public static StockUpdateResult updated(StockUpdate update, Product product) {
+        return StockUpdateResult.builder()
+                .status(Status.UPDATED)
+                .lineNumber(update.getLineNumber())
+                .product(product)
+                .build();
+    }
+
+    public static StockUpdateResult notFound(StockUpdate update) {
+        return StockUpdateResult.builder()
+                .status(Status.NOT_FOUND)
+                .lineNumber(update.getLineNumber())
+                .reason(update.isById()
+                        ? "Producto no encontrado con el id: " + update.getId()
+                        : "Producto no encontrado con el nombre " + update.getName() + " en la sucursal " + update.getBranchId())
+                .build();
+    }
+
+    public static StockUpdateResult rejected(StockUpdate update, String reason) {
+        return StockUpdateResult.builder()
+                .status(Status.REJECTED)
+                .lineNumber(update.getLineNumber())
+                .reason(reason)
+                .build();
+    }
+}
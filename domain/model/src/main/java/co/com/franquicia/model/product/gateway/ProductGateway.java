@@ -1,18 +1,52 @@
 package co.com.franquicia.model.product.gateway;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
 import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.StockUpdate;
 import co.com.franquicia.model.product.TopStockProduct;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ProductGateway {
 
     Mono<Product> save(Product product);
+    /** Inserta en una sola sentencia; vacío si el nombre ya existe o la sucursal no existe. */
+    Mono<Product> insertIfAbsent(Product product);
+    Flux<Product> saveAll(List<Product> products);
     Mono<Product> findById(Long id);
     Mono<Product> findByName(String name);
-    Mono<Product> updateStock(Long id, Integer newStock);
-    Mono<Product> updateName(Long id, String newName);
+    Flux<Product> findByBranchIdAfter(Long branchId, Long afterId, int limit);
+    Flux<String> findExistingNames(Collection<String> names);
+    /** Todos los nombres en streaming, para cargar estructuras en memoria sin materializar la tabla. */
+    Flux<String> streamNames();
+    /**
+     * Con {@code expectedVersion} solo escribe si la versión vigente coincide y si no falla con
+     * {@link VersionConflictException}; con {@code null} escribe sin condición. Vacío si no existe.
+     */
+    Mono<Product> updateStock(Long id, Integer newStock, Long expectedVersion);
+    Mono<Product> adjustStock(Long id, Integer delta);
+    /**
+     * Fija el stock de todo el bloque en una sola sentencia, sin condición de versión. Devuelve las
+     * filas actualizadas; los elementos que no corresponden a ningún producto no aparecen.
+     */
+    Flux<Product> updateStocks(List<StockUpdate> updates);
+    /** Misma condición de versión que {@link #updateStock}. */
+    Mono<Product> updateName(Long id, String newName, Long expectedVersion);
     Mono<Void> deleteById(Long id);
+    Flux<Product> streamByFranchise(Long franchiseId);
+    Flux<Product> streamByBranch(Long branchId);
     Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId);
+    /** Hasta {@code k} productos por sucursal, de mayor a menor stock. */
+    Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId, int k);
+    /** Productos de toda la franquicia por stock descendente, desde la fila siguiente a {@code after}. */
+    Flux<ProductRanking> findTopProductsByFranchise(Long franchiseId, RankKey after, int limit);
+    /** Franquicias por stock total descendente; el total puede ir un intervalo de refresco atrasado. */
+    Flux<FranchiseStockTotal> findTopFranchisesByStock(RankKey after, int limit);
 
 }
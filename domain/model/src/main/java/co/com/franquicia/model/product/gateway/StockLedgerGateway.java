@@ -0,0 +1,20 @@
+package co.com.franquicia.model.product.gateway;
+
+import co.com.franquicia.model.product.ProductStockAt;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface StockLedgerGateway {
+
+    /**
+     * Desde cuándo hay historial de stock completo; vacío si el historial no está activo.
+     */
+    Mono<LocalDateTime> historySince();
+
+    /**
+     * Stock del producto en {@code at}; vacío si el producto no existía (o ya se había borrado).
+     */
+    Mono<ProductStockAt> stockAt(Long productId, LocalDateTime at);
+
+}
@@ -13,22 +13,19 @@ public class CreateBranchUseCase {
     private final FranchiseGateway franchiseGateway;
 
     public Mono<Branch> execute(Long franchiseId, String name) {
-        return franchiseGateway.findById(franchiseId)
-                .switchIfEmpty(Mono.error(
-                        new IllegalArgumentException("Franquicia no encontrada con el id: " + franchiseId)
-                ))
-                .flatMap(franchise ->  branchGateway.findByName(name)
-                            .flatMap(existing -> Mono.<Branch>error(
-                                    new IllegalArgumentException("Ya existe una sucursal con el nombre: " + name)
-                            ))
-                            .switchIfEmpty(Mono.defer(() -> {
-                                Branch branch = Branch.builder()
-                                        .franchiseId(franchiseId)
-                                        .name(name)
-                                        .build();
-                                return branchGateway.save(branch);
-                            }))
-                );
+        Branch branch = Branch.builder()
+                .franchiseId(franchiseId)
+                .name(name)
+                .build();
+        // La franquicia solo se consulta si el insert no devolvió fila, para saber qué falló
+        return branchGateway.insertIfAbsent(branch)
+                .switchIfEmpty(Mono.defer(() -> franchiseGateway.findById(franchiseId)
+                        .switchIfEmpty(Mono.error(
+                                new IllegalArgumentException("Franquicia no encontrada con el id: " + franchiseId)
+                        ))
+                        .flatMap(franchise -> Mono.<Branch>error(
+                                new IllegalArgumentException("Ya existe una sucursal con el nombre: " + name)
+                        ))));
     }
 
 }
@@ -3,8 +3,8 @@ package co.com.franquicia.usecase.branch;
 import co.com.franquicia.model.branch.Branch;
 import co.com.franquicia.model.branch.gateway.BranchGateway;
 import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.page.Page;
 import lombok.RequiredArgsConstructor;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
@@ -13,12 +13,14 @@ public class GetBranchesByFranchiseUseCase {
     private final BranchGateway branchGateway;
     private final FranchiseGateway franchiseGateway;
 
-    public Flux<Branch> execute(Long franchiseId) {
+    public Mono<Page<Branch>> execute(Long franchiseId, Long afterId, int size) {
         return franchiseGateway.findById(franchiseId)
                 .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("Franquicia no encontrada con este id: " + franchiseId)
                 ))
-                .flatMapMany(franchise -> branchGateway.findByFranchiseId(franchiseId));
+                .flatMap(franchise -> branchGateway.findByFranchiseIdAfter(franchiseId, afterId, size + 1)
+                        .collectList())
+                .map(branches -> Page.fromProbe(branches, size, Branch::getId));
     }
 
 }
@@ -11,7 +11,7 @@ public class UpdateBranchNameUseCase {
 
     private final BranchGateway gateway;
 
-    public Mono<Branch> execute(Long id, String newName) {
+    public Mono<Branch> execute(Long id, String newName, Long expectedVersion) {
         return gateway.findById(id)
                 .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("Sucursal no encontrada con el id: " + id)
@@ -30,7 +30,7 @@ public class UpdateBranchNameUseCase {
                         })
                         .switchIfEmpty(Mono.just(existing))
                 )
-                .flatMap(franchise -> gateway.updateName(id, newName));
+                .flatMap(franchise -> gateway.updateName(id, newName, expectedVersion));
     }
 
 }
@@ -0,0 +1,17 @@
+package co.com.franquicia.usecase.catalog;
+
+import co.com.franquicia.model.catalog.gateway.CatalogVersionGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class GetCatalogVersionUseCase {
+
+    private final CatalogVersionGateway versionGateway;
+
+    /** Versión de la franquicia, o de la lista de franquicias si {@code franchiseId} es nulo. */
+    public Mono<String> execute(Long franchiseId) {
+        return versionGateway.currentVersion(franchiseId);
+    }
+
+}
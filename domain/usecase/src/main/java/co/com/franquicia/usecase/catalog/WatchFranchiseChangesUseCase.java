@@ -0,0 +1,33 @@
+package co.com.franquicia.usecase.catalog;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.gateway.CatalogChangeGateway;
+import co.com.franquicia.model.catalog.gateway.CatalogVersionGateway;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class WatchFranchiseChangesUseCase {
+
+    private final CatalogChangeGateway changeGateway;
+    private final CatalogVersionGateway versionGateway;
+    private final FranchiseGateway franchiseGateway;
+
+    /**
+     * El primer evento es un {@code RESYNC} con la versión vigente: el cliente lee el estado una vez
+     * y a partir de ahí aplica los cambios. Así además la respuesta empieza sin esperar a la
+     * primera escritura.
+     */
+    public Flux<CatalogChange> execute(Long franchiseId) {
+        return franchiseGateway.findById(franchiseId)
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Franquicia no encontrada con el id: " + franchiseId)
+                ))
+                .flatMap(franchise -> versionGateway.currentVersion(franchiseId))
+                .flatMapMany(version -> changeGateway.changes(franchiseId)
+                        .startWith(CatalogChange.resync(franchiseId).toBuilder().version(version).build()));
+    }
+
+}
@@ -11,15 +11,12 @@ public class CreateFranchiseUseCase {
     private final FranchiseGateway gateway;
 
     public Mono<Franchise> execute(String name) {
-        return gateway.findByName(name)
-                .flatMap(existing -> Mono.<Franchise>error(
+        Franchise franchise = Franchise.builder()
+                .name(name)
+                .build();
+        return gateway.insertIfAbsent(franchise)
+                .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("La franquicia con nombre '" + name + "' ya existe.")
-                ))
-                .switchIfEmpty(Mono.defer(() -> {
-                    Franchise franchise = Franchise.builder()
-                            .name(name)
-                            .build();
-                    return gateway.save(franchise);
-                }));
+                ));
     }
 }
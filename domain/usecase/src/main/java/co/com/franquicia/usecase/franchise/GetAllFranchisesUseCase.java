@@ -2,16 +2,19 @@ package co.com.franquicia.usecase.franchise;
 
 import co.com.franquicia.model.franchise.Franchise;
 import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.page.Page;
 import lombok.RequiredArgsConstructor;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
 public class GetAllFranchisesUseCase {
 
     private final FranchiseGateway gateway;
 
-    public Flux<Franchise> execute() {
-        return gateway.findAll();
+    public Mono<Page<Franchise>> execute(Long afterId, int size) {
+        return gateway.findAllAfter(afterId, size + 1)
+                .collectList()
+                .map(franchises -> Page.fromProbe(franchises, size, Franchise::getId));
     }
 
 }
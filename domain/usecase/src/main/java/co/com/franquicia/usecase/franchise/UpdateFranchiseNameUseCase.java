@@ -10,7 +10,7 @@ public class UpdateFranchiseNameUseCase {
 
     private final FranchiseGateway gateway;
 
-    public Mono<Franchise> execute(Long id, String newName) {
+    public Mono<Franchise> execute(Long id, String newName, Long expectedVersion) {
         return gateway.findById(id)
                 .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("Franquicia no encontrada con el id: " + id)
@@ -30,7 +30,7 @@ public class UpdateFranchiseNameUseCase {
                         })
                         .switchIfEmpty(Mono.just(existing))
                 )
-                .flatMap(franchise -> gateway.updateName(id, newName));
+                .flatMap(franchise -> gateway.updateName(id, newName, expectedVersion));
     }
 
 }
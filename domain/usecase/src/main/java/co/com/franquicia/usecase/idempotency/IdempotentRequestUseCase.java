@@ -0,0 +1,58 @@
+package co.com.franquicia.usecase.idempotency;
+
+import co.com.franquicia.model.idempotency.IdempotencyKeyConflictException;
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ciclo de una petición con {@code Idempotency-Key}: {@link #begin} la reserva o devuelve la
+ * respuesta guardada, {@link #whileReserved} la ejecuta renovando la reserva, y al terminar se
+ * guarda la respuesta ({@link #complete}) o se libera la clave ({@link #abandon}) si no hay nada
+ * que repetir.
+ */
+@RequiredArgsConstructor
+public class IdempotentRequestUseCase {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyGateway gateway;
+
+    /** Vacío si la clave quedó reservada para esta petición; si no, la respuesta a repetir. */
+    public Mono<IdempotentResponse> begin(String key, String fingerprint) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new IllegalArgumentException(
+                    "El encabezado Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres"));
+        }
+        return gateway.claim(key, fingerprint)
+                .flatMap(stored -> {
+                    if (!stored.getFingerprint().equals(fingerprint)) {
+                        return Mono.error(new IdempotencyKeyConflictException(
+                                "La Idempotency-Key ya se usó con otra petición: " + stored.getFingerprint(), false));
+                    }
+                    if (stored.isPending()) {
+                        return Mono.error(new IdempotencyKeyConflictException(
+                                "Hay una petición en curso con la misma Idempotency-Key", true));
+                    }
+                    return Mono.just(stored);
+                });
+    }
+
+    /**
+     * Ejecuta la petición que tiene la clave y renueva la reserva hasta que termine, así un
+     * reintento no la toma como abandonada aunque tarde más que {@code pending-timeout-ms}.
+     */
+    public Mono<Void> whileReserved(String key, String fingerprint, Mono<Void> request) {
+        return Mono.firstWithSignal(request, gateway.keepAlive(key, fingerprint).then(Mono.<Void>never()));
+    }
+
+    public Mono<Void> complete(IdempotentResponse response) {
+        return gateway.complete(response).then();
+    }
+
+    public Mono<Void> abandon(String key) {
+        return gateway.release(key);
+    }
+
+}
@@ -0,0 +1,24 @@
+package co.com.franquicia.usecase.inventory;
+
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ExportBranchInventoryUseCase {
+
+    private final ProductGateway productGateway;
+    private final BranchGateway branchGateway;
+
+    public Flux<Product> execute(Long branchId) {
+        return branchGateway.findById(branchId)
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Sucursal no encontrada con el id: " + branchId)
+                ))
+                .flatMapMany(branch -> productGateway.streamByBranch(branchId));
+    }
+
+}
@@ -0,0 +1,24 @@
+package co.com.franquicia.usecase.inventory;
+
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ExportFranchiseInventoryUseCase {
+
+    private final ProductGateway productGateway;
+    private final FranchiseGateway franchiseGateway;
+
+    public Flux<Product> execute(Long franchiseId) {
+        return franchiseGateway.findById(franchiseId)
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Franquicia no encontrada con el id: " + franchiseId)
+                ))
+                .flatMapMany(franchise -> productGateway.streamByFranchise(franchiseId));
+    }
+
+}
@@ -0,0 +1,34 @@
+package co.com.franquicia.usecase.inventory;
+
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import co.com.franquicia.model.inventory.InventoryRow;
+import co.com.franquicia.model.inventory.gateway.InventoryGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class ImportInventoryUseCase {
+
+    private final InventoryGateway gateway;
+
+    public Flux<InventoryImportEvent> execute(Flux<InventoryRow> rows) {
+        return gateway.importRows(rows.map(this::validate));
+    }
+
+    private InventoryRow validate(InventoryRow row) {
+        if (row.isRejected()) {
+            return row;
+        }
+        if (row.getBranchId() == null) {
+            return row.toBuilder().rejectionReason("El campo sucursal_id es obligatorio").build();
+        }
+        if (row.getName() == null || row.getName().isBlank()) {
+            return row.toBuilder().rejectionReason("El campo nombre_producto es obligatorio").build();
+        }
+        if (row.getStock() == null || row.getStock() < 0) {
+            return row.toBuilder().rejectionReason("El campo stock_producto es obligatorio y debe ser >= 0").build();
+        }
+        return row;
+    }
+
+}
@@ -0,0 +1,27 @@
+package co.com.franquicia.usecase.leaderboard;
+
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.page.RankedPage;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class GetFranchiseProductLeaderboardUseCase {
+
+    private final ProductGateway productGateway;
+    private final FranchiseGateway franchiseGateway;
+
+    public Mono<RankedPage<ProductRanking>> execute(Long franchiseId, RankKey after, int size) {
+        return franchiseGateway.findById(franchiseId)
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Franquicia no encontrada con el id: " + franchiseId)
+                ))
+                .flatMap(franchise -> productGateway.findTopProductsByFranchise(franchiseId, after, size + 1)
+                        .collectList())
+                .map(rankings -> RankedPage.fromProbe(rankings, size, ProductRanking::rankKey));
+    }
+
+}
@@ -0,0 +1,21 @@
+package co.com.franquicia.usecase.leaderboard;
+
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.page.RankedPage;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class GetFranchiseStockLeaderboardUseCase {
+
+    private final ProductGateway productGateway;
+
+    public Mono<RankedPage<FranchiseStockTotal>> execute(RankKey after, int size) {
+        return productGateway.findTopFranchisesByStock(after, size + 1)
+                .collectList()
+                .map(totals -> RankedPage.fromProbe(totals, size, FranchiseStockTotal::rankKey));
+    }
+
+}
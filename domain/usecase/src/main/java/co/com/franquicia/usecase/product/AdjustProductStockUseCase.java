@@ -0,0 +1,29 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class AdjustProductStockUseCase {
+
+    private final ProductGateway gateway;
+
+    public Mono<Product> execute(Long productId, Integer delta) {
+        return gateway.adjustStock(productId, delta)
+                .switchIfEmpty(Mono.defer(() -> gateway.findById(productId)
+                        .flatMap(product -> Mono.<Product>error(rejected(productId, product.getStock(), delta)))
+                        .switchIfEmpty(Mono.error(
+                                new IllegalArgumentException("Producto no encontrado con id: " + productId)
+                        ))));
+    }
+
+    private static IllegalArgumentException rejected(Long productId, Integer stock, Integer delta) {
+        String reason = (long) stock + delta > Integer.MAX_VALUE
+                ? "El stock resultante supera el máximo permitido para el producto con id: "
+                : "Stock insuficiente para el producto con id: ";
+        return new IllegalArgumentException(reason + productId + " (stock actual: " + stock + ", ajuste: " + delta + ")");
+    }
+
+}
@@ -1,6 +1,5 @@
 package co.com.franquicia.usecase.product;
 
-import co.com.franquicia.model.branch.Branch;
 import co.com.franquicia.model.branch.gateway.BranchGateway;
 import co.com.franquicia.model.product.Product;
 import co.com.franquicia.model.product.gateway.ProductGateway;
@@ -14,22 +13,20 @@ public class CreateProductUseCase {
     private final BranchGateway branchGateway;
 
     public Mono<Product> execute(Long branchId, String name, Integer stock) {
-        return branchGateway.findById(branchId)
-                .switchIfEmpty(Mono.error(
-                        new IllegalArgumentException("Sucursal no encontrada con el id: " + branchId)
-                ))
-                .flatMap(branch -> productGateway.findByName(name)
-                        .flatMap(existing -> Mono.<Product>error(
-                                new IllegalArgumentException("Ya existe un producto con el nombre: " + name)
+        Product product = Product.builder()
+                .branchId(branchId)
+                .name(name)
+                .stock(stock)
+                .build();
+        // La sucursal solo se consulta si el insert no devolvió fila, para saber qué falló
+        return productGateway.insertIfAbsent(product)
+                .switchIfEmpty(Mono.defer(() -> branchGateway.findById(branchId)
+                        .switchIfEmpty(Mono.error(
+                                new IllegalArgumentException("Sucursal no encontrada con el id: " + branchId)
                         ))
-                        .switchIfEmpty(Mono.defer(() -> {
-                            Product product = Product.builder()
-                                    .branchId(branchId)
-                                    .name(name)
-                                    .stock(stock)
-                                    .build();
-                            return productGateway.save(product);
-                        })));
+                        .flatMap(branch -> Mono.<Product>error(
+                                new IllegalArgumentException("Ya existe un producto con el nombre: " + name)
+                        ))));
     }
 
 }
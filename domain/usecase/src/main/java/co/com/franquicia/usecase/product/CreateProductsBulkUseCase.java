@@ -0,0 +1,58 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Crea productos en bloques de {@value #CHUNK_SIZE}: cada bloque valida sucursales y nombres con
+ * una consulta por conjunto y se inserta en lote. Los bloques se confirman por separado, en orden.
+ */
+@RequiredArgsConstructor
+public class CreateProductsBulkUseCase {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ProductGateway productGateway;
+    private final BranchGateway branchGateway;
+
+    public Flux<Product> execute(Flux<Product> products) {
+        return products
+                .buffer(CHUNK_SIZE)
+                .concatMap(this::createChunk);
+    }
+
+    private Flux<Product> createChunk(List<Product> chunk) {
+        Set<String> names = new HashSet<>();
+        for (Product product : chunk) {
+            if (!names.add(product.getName())) {
+                return Flux.error(new IllegalArgumentException("El nombre de producto está repetido en la carga: " + product.getName()));
+            }
+        }
+        Set<Long> branchIds = chunk.stream().map(Product::getBranchId).collect(Collectors.toSet());
+
+        return branchGateway.findAllById(branchIds)
+                .map(Branch::getId)
+                .collect(Collectors.toSet())
+                .flatMap(found -> branchIds.stream()
+                        .filter(id -> !found.contains(id))
+                        .findFirst()
+                        .map(missing -> Mono.<Set<Long>>error(
+                                new IllegalArgumentException("Sucursal no encontrada con el id: " + missing)))
+                        .orElseGet(() -> Mono.just(found)))
+                .thenMany(productGateway.findExistingNames(names).take(1))
+                .flatMap(existing -> Mono.<String>error(
+                        new IllegalArgumentException("Ya existe un producto con el nombre: " + existing)))
+                .thenMany(Flux.defer(() -> productGateway.saveAll(chunk)));
+    }
+
+}
@@ -0,0 +1,28 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.product.ProductStockAt;
+import co.com.franquicia.model.product.gateway.StockLedgerGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class GetProductStockAtUseCase {
+
+    private final StockLedgerGateway ledgerGateway;
+
+    public Mono<ProductStockAt> execute(Long productId, LocalDateTime at) {
+        return ledgerGateway.historySince()
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("El historial de stock no está habilitado")
+                ))
+                .flatMap(since -> at.isBefore(since)
+                        ? Mono.error(new IllegalArgumentException("Solo hay historial de stock desde " + since))
+                        : ledgerGateway.stockAt(productId, at))
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("El producto con id " + productId + " no existía en " + at)
+                ));
+    }
+
+}
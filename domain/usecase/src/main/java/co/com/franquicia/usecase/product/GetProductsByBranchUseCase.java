@@ -0,0 +1,26 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.page.Page;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class GetProductsByBranchUseCase {
+
+    private final ProductGateway productGateway;
+    private final BranchGateway branchGateway;
+
+    public Mono<Page<Product>> execute(Long branchId, Long afterId, int size) {
+        return branchGateway.findById(branchId)
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Sucursal no encontrada con el id: " + branchId)
+                ))
+                .flatMap(branch -> productGateway.findByBranchIdAfter(branchId, afterId, size + 1)
+                        .collectList())
+                .map(products -> Page.fromProbe(products, size, Product::getId));
+    }
+
+}
@@ -10,6 +10,8 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class GetTopStockByFranchiseUseCase {
 
+    public static final int MAX_K = 100;
+
     private final ProductGateway productGateway;
     private final FranchiseGateway franchiseGateway;
 
@@ -21,4 +23,18 @@ public class GetTopStockByFranchiseUseCase {
                 .flatMapMany(franchise -> productGateway.findTopStockByFranchise(franchiseId));
     }
 
+    public Flux<TopStockProduct> execute(Long franchiseId, int k) {
+        if (k < 1 || k > MAX_K) {
+            return Flux.error(new IllegalArgumentException("El parámetro k debe ser un número entre 1 y " + MAX_K));
+        }
+        if (k == 1) {
+            return execute(franchiseId);
+        }
+        return franchiseGateway.findById(franchiseId)
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Franquicia no encontrada con el id: " + franchiseId)
+                ))
+                .flatMapMany(franchise -> productGateway.findTopStockByFranchise(franchiseId, k));
+    }
+
 }
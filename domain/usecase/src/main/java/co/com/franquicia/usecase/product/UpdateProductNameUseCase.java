@@ -11,7 +11,7 @@ public class UpdateProductNameUseCase {
 
     private final ProductGateway gateway;
 
-    public Mono<Product> execute(Long id, String newName) {
+    public Mono<Product> execute(Long id, String newName, Long expectedVersion) {
         return gateway.findById(id)
                 .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("Producto no encontrado con el id: " + id)
@@ -31,7 +31,7 @@ public class UpdateProductNameUseCase {
                         })
                         .switchIfEmpty(Mono.just(existing))
                 )
-                .flatMap(franchise -> gateway.updateName(id, newName));
+                .flatMap(franchise -> gateway.updateName(id, newName, expectedVersion));
     }
 
 }
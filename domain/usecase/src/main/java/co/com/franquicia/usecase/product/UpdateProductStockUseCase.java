@@ -10,12 +10,15 @@ public class UpdateProductStockUseCase {
 
     private final ProductGateway gateway;
 
-    public Mono<Product> execute(Long productId, Integer newStock) {
-        return gateway.findById(productId)
+    /**
+     * Con {@code expectedVersion} (el {@code If-Match} del cliente) solo actualiza si nadie escribió
+     * el producto desde que lo leyó; {@code null} actualiza sin condición.
+     */
+    public Mono<Product> execute(Long productId, Integer newStock, Long expectedVersion) {
+        return gateway.updateStock(productId, newStock, expectedVersion)
                 .switchIfEmpty(Mono.error(
                         new IllegalArgumentException("Producto no encontrado con id: " + productId)
-                ))
-                .flatMap(product -> gateway.updateStock(productId, newStock));
+                ));
     }
 
 }
@@ -0,0 +1,89 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.StockUpdate;
+import co.com.franquicia.model.product.StockUpdateResult;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fija el stock de muchos productos en bloques de {@value #CHUNK_SIZE}: cada bloque se escribe con
+ * una sola sentencia y se confirma por separado, en orden. Devuelve un resultado por elemento, en
+ * el orden de la carga, a medida que se confirma cada bloque.
+ * <p>
+ * Un producto repetido dentro del mismo bloque se rechaza, porque la sentencia solo aplicaría uno
+ * de los valores; entre bloques distintos gana el último.
+ */
+@RequiredArgsConstructor
+public class UpdateProductStocksBulkUseCase {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ProductGateway gateway;
+
+    public Flux<StockUpdateResult> execute(Flux<StockUpdate> updates) {
+        return updates
+                .buffer(CHUNK_SIZE)
+                .concatMap(this::updateChunk);
+    }
+
+    private Flux<StockUpdateResult> updateChunk(List<StockUpdate> chunk) {
+        Map<StockUpdate, String> rejected = new IdentityHashMap<>();
+        List<StockUpdate> valid = new ArrayList<>();
+        Set<Object> keys = new HashSet<>();
+        for (StockUpdate update : chunk) {
+            String reason = validate(update);
+            if (reason == null && !keys.add(update.isById() ? update.getId() : update.getName())) {
+                reason = "El producto aparece más de una vez en el mismo bloque de la carga";
+            }
+            if (reason != null) {
+                rejected.put(update, reason);
+            } else {
+                valid.add(update);
+            }
+        }
+
+        Mono<List<Product>> applied = valid.isEmpty()
+                ? Mono.just(List.of())
+                : gateway.updateStocks(valid).collectList();
+        return applied.flatMapMany(products -> {
+            Map<Long, Product> byId = new HashMap<>();
+            Map<String, Product> byName = new HashMap<>();
+            products.forEach(product -> {
+                byId.put(product.getId(), product);
+                byName.put(product.getName(), product);
+            });
+            return Flux.fromIterable(chunk)
+                    .map(update -> rejected.containsKey(update)
+                            ? StockUpdateResult.rejected(update, rejected.get(update))
+                            : outcome(update, update.isById() ? byId.get(update.getId()) : byName.get(update.getName())));
+        });
+    }
+
+    private StockUpdateResult outcome(StockUpdate update, Product product) {
+        // por nombre solo cuenta si además coincide la sucursal pedida
+        boolean matched = product != null && (update.isById() || product.getBranchId().equals(update.getBranchId()));
+        return matched ? StockUpdateResult.updated(update, product) : StockUpdateResult.notFound(update);
+    }
+
+    private String validate(StockUpdate update) {
+        if (!update.isById() && (update.getBranchId() == null || update.getName() == null || update.getName().isBlank())) {
+            return "Cada elemento necesita id, o sucursal_id y nombre_producto";
+        }
+        if (update.getStock() == null || update.getStock() < 0) {
+            return "El campo stock_producto es obligatorio y debe ser >= 0";
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,85 @@
+package co.com.franquicia.usecase.catalog;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.gateway.CatalogChangeGateway;
+import co.com.franquicia.model.catalog.gateway.CatalogVersionGateway;
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WatchFranchiseChangesUseCaseTest {
+
+    @Mock
+    private CatalogChangeGateway changeGateway;
+
+    @Mock
+    private CatalogVersionGateway versionGateway;
+
+    @Mock
+    private FranchiseGateway franchiseGateway;
+
+    @InjectMocks
+    private WatchFranchiseChangesUseCase watchFranchiseChangesUseCase;
+
+    @Test
+    void givenExistingFranchise_whenExecute_thenStartsWithResyncAndStreamsChanges() {
+        // Arrange
+        CatalogChange change = CatalogChange.builder()
+                .type(CatalogChange.Type.UPSERTED)
+                .aggregate(CatalogChange.Aggregate.PRODUCT)
+                .id(10L)
+                .franchiseId(1L)
+                .stock(150)
+                .version("v2")
+                .build();
+
+        when(franchiseGateway.findById(1L)).thenReturn(Mono.just(Franchise.builder().id(1L).name("Franquicia Norte").build()));
+        when(versionGateway.currentVersion(1L)).thenReturn(Mono.just("v1"));
+        when(changeGateway.changes(1L)).thenReturn(Flux.just(change));
+
+        // Act
+        Flux<CatalogChange> actualResult = watchFranchiseChangesUseCase.execute(1L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(first -> {
+                    assertEquals(CatalogChange.Type.RESYNC, first.getType());
+                    assertEquals(1L, first.getFranchiseId());
+                    assertEquals("v1", first.getVersion());
+                })
+                .expectNext(change)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenUnknownFranchise_whenExecute_thenReturnsErrorWithoutSubscribing() {
+        // Arrange
+        when(franchiseGateway.findById(99L)).thenReturn(Mono.empty());
+
+        // Act
+        Flux<CatalogChange> actualResult = watchFranchiseChangesUseCase.execute(99L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().equals("Franquicia no encontrada con el id: 99"))
+                .verify();
+
+        verify(changeGateway, never()).changes(any());
+    }
+
+}
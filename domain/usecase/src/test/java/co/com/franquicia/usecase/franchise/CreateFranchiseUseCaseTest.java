@@ -12,7 +12,8 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,8 +41,7 @@ public class CreateFranchiseUseCaseTest {
     @Test
     void givenValidName_whenExecute_thenFranchiseCreatedSuccessfully() {
         // Arrange
-        when(franchiseGateway.findByName(eq(inputName))).thenReturn(Mono.empty());
-        when(franchiseGateway.save(any(Franchise.class))).thenReturn(Mono.just(expectedFranchise));
+        when(franchiseGateway.insertIfAbsent(any(Franchise.class))).thenReturn(Mono.just(expectedFranchise));
 
         // Act
         Mono<Franchise> actualResult = createFranchiseUseCase.execute(inputName);
@@ -51,20 +51,16 @@ public class CreateFranchiseUseCaseTest {
                 .expectNext(expectedFranchise)
                 .verifyComplete();
 
-        verify(franchiseGateway).findByName(eq(inputName));
-        verify(franchiseGateway).save(any(Franchise.class));
+        verify(franchiseGateway).insertIfAbsent(argThat(franchise -> inputName.equals(franchise.getName())));
+        verify(franchiseGateway, never()).findByName(any());
     }
 
     @Test
     void givenDuplicateName_whenExecute_thenThrowsIllegalArgumentException() {
         // Arrange
-        Franchise existingFranchise = Franchise.builder()
-                .id(2L)
-                .name("Franquicia Colombia")
-                .build();
         String expectedErrorMessage = "La franquicia con nombre 'Franquicia Colombia' ya existe.";
 
-        when(franchiseGateway.findByName(eq(inputName))).thenReturn(Mono.just(existingFranchise));
+        when(franchiseGateway.insertIfAbsent(any(Franchise.class))).thenReturn(Mono.empty());
 
         // Act
         Mono<Franchise> actualResult = createFranchiseUseCase.execute(inputName);
@@ -76,7 +72,7 @@ public class CreateFranchiseUseCaseTest {
                                 throwable.getMessage().equals(expectedErrorMessage))
                 .verify();
 
-        verify(franchiseGateway).findByName(eq(inputName));
+        verify(franchiseGateway).insertIfAbsent(any(Franchise.class));
     }
 
     @Test
@@ -84,7 +80,7 @@ public class CreateFranchiseUseCaseTest {
         // Arrange
         RuntimeException expectedException = new RuntimeException("Database connection failed");
 
-        when(franchiseGateway.findByName(eq(inputName))).thenReturn(Mono.error(expectedException));
+        when(franchiseGateway.insertIfAbsent(any(Franchise.class))).thenReturn(Mono.error(expectedException));
 
         // Act
         Mono<Franchise> actualResult = createFranchiseUseCase.execute(inputName);
@@ -94,6 +90,6 @@ public class CreateFranchiseUseCaseTest {
                 .expectError(RuntimeException.class)
                 .verify();
 
-        verify(franchiseGateway).findByName(eq(inputName));
+        verify(franchiseGateway).insertIfAbsent(any(Franchise.class));
     }
 }
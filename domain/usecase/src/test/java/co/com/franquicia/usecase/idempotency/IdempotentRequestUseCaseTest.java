@@ -0,0 +1,138 @@
+package co.com.franquicia.usecase.idempotency;
+
+import co.com.franquicia.model.idempotency.IdempotencyKeyConflictException;
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotentRequestUseCaseTest {
+
+    private static final String FINGERPRINT = "POST /api/v1/products/create";
+
+    @Mock
+    private IdempotencyGateway gateway;
+
+    @InjectMocks
+    private IdempotentRequestUseCase useCase;
+
+    @Test
+    void givenNewKey_whenBegin_thenReturnsEmptySoTheRequestRuns() {
+        // Arrange
+        when(gateway.claim("k-1", FINGERPRINT)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<IdempotentResponse> actualResult = useCase.begin("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenCompletedKey_whenBegin_thenReturnsStoredResponse() {
+        // Arrange
+        IdempotentResponse stored = IdempotentResponse.builder()
+                .key("k-1").fingerprint(FINGERPRINT).status(200).body("{\"status\":200}").build();
+        when(gateway.claim("k-1", FINGERPRINT)).thenReturn(Mono.just(stored));
+
+        // Act
+        Mono<IdempotentResponse> actualResult = useCase.begin("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(stored)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenKeyInProgress_whenBegin_thenFailsWithInProgressConflict() {
+        // Arrange
+        when(gateway.claim("k-1", FINGERPRINT))
+                .thenReturn(Mono.just(IdempotentResponse.builder().key("k-1").fingerprint(FINGERPRINT).build()));
+
+        // Act
+        Mono<IdempotentResponse> actualResult = useCase.begin("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IdempotencyKeyConflictException conflict
+                        && conflict.isInProgress())
+                .verify();
+    }
+
+    @Test
+    void givenKeyUsedByAnotherRequest_whenBegin_thenFailsWithoutReplaying() {
+        // Arrange
+        when(gateway.claim("k-1", FINGERPRINT)).thenReturn(Mono.just(IdempotentResponse.builder()
+                .key("k-1").fingerprint("PUT /api/v1/products/10/stock").status(200).body("{}").build()));
+
+        // Act
+        Mono<IdempotentResponse> actualResult = useCase.begin("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IdempotencyKeyConflictException conflict
+                        && !conflict.isInProgress())
+                .verify();
+    }
+
+    @Test
+    void givenTooLongKey_whenBegin_thenFailsWithoutClaiming() {
+        // Arrange
+        String key = "k".repeat(IdempotentRequestUseCase.MAX_KEY_LENGTH + 1);
+
+        // Act
+        Mono<IdempotentResponse> actualResult = useCase.begin(key, FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(gateway);
+    }
+
+    @Test
+    void givenReservedKey_whenRequestEnds_thenStopsRenewingTheReservation() {
+        // Arrange
+        PublisherProbe<Void> renewals = PublisherProbe.of(Mono.never());
+        when(gateway.keepAlive("k-1", FINGERPRINT)).thenReturn(renewals.mono());
+
+        // Act
+        Mono<Void> actualResult = useCase.whileReserved("k-1", FINGERPRINT, Mono.delay(Duration.ofMillis(10)).then());
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+        renewals.assertWasSubscribed();
+        renewals.assertWasCancelled();
+    }
+
+    @Test
+    void givenLostReservation_whenRequestRuns_thenRequestStillDecides() {
+        // Arrange
+        when(gateway.keepAlive("k-1", FINGERPRINT)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Void> actualResult = useCase.whileReserved("k-1", FINGERPRINT,
+                Mono.delay(Duration.ofMillis(10)).then(Mono.error(new IllegalStateException("fallo"))));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyError(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,68 @@
+package co.com.franquicia.usecase.inventory;
+
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportFranchiseInventoryUseCaseTest {
+
+    @Mock
+    private ProductGateway productGateway;
+
+    @Mock
+    private FranchiseGateway franchiseGateway;
+
+    @InjectMocks
+    private ExportFranchiseInventoryUseCase exportFranchiseInventoryUseCase;
+
+    @Test
+    void givenExistingFranchise_whenExecute_thenStreamsItsProducts() {
+        // Arrange
+        Product firstProduct = Product.builder().id(1L).branchId(1L).name("Laptop Dell XPS 15").stock(10).build();
+        Product secondProduct = Product.builder().id(2L).branchId(2L).name("Mouse Logitech MX").stock(40).build();
+
+        when(franchiseGateway.findById(1L)).thenReturn(Mono.just(Franchise.builder().id(1L).name("Franquicia Norte").build()));
+        when(productGateway.streamByFranchise(1L)).thenReturn(Flux.just(firstProduct, secondProduct));
+
+        // Act
+        Flux<Product> actualResult = exportFranchiseInventoryUseCase.execute(1L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(firstProduct, secondProduct)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenUnknownFranchise_whenExecute_thenReturnsErrorWithoutStreaming() {
+        // Arrange
+        when(franchiseGateway.findById(99L)).thenReturn(Mono.empty());
+
+        // Act
+        Flux<Product> actualResult = exportFranchiseInventoryUseCase.execute(99L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().equals("Franquicia no encontrada con el id: 99"))
+                .verify();
+
+        verify(productGateway, never()).streamByFranchise(any());
+    }
+
+}
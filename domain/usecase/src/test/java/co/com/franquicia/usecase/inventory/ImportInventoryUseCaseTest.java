@@ -0,0 +1,58 @@
+package co.com.franquicia.usecase.inventory;
+
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import co.com.franquicia.model.inventory.InventoryRow;
+import co.com.franquicia.model.inventory.gateway.InventoryGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportInventoryUseCaseTest {
+
+    @Mock
+    private InventoryGateway inventoryGateway;
+
+    @InjectMocks
+    private ImportInventoryUseCase importInventoryUseCase;
+
+    @Test
+    void givenInvalidRows_whenExecute_thenMarksThemRejectedBeforeReachingGateway() {
+        // Arrange
+        InventoryRow validRow = InventoryRow.builder().lineNumber(1L).branchId(4L).name("AirPods Pro 2").stock(200).build();
+        InventoryRow negativeStock = InventoryRow.builder().lineNumber(2L).branchId(4L).name("iPad").stock(-1).build();
+        InventoryRow missingName = InventoryRow.builder().lineNumber(3L).branchId(4L).name(" ").stock(5).build();
+
+        when(inventoryGateway.importRows(any())).thenAnswer(invocation -> {
+            Flux<InventoryRow> rows = invocation.getArgument(0);
+            return rows.map(row -> row.isRejected()
+                    ? InventoryImportEvent.rejected(row.getLineNumber(), row.getRejectionReason())
+                    : InventoryImportEvent.progress(row.getLineNumber()));
+        });
+
+        // Act
+        Flux<InventoryImportEvent> actualResult = importInventoryUseCase.execute(Flux.just(validRow, negativeStock, missingName));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(event -> assertEquals(InventoryImportEvent.Type.PROGRESS, event.getType()))
+                .assertNext(event -> {
+                    assertEquals(2L, event.getLineNumber());
+                    assertEquals("El campo stock_producto es obligatorio y debe ser >= 0", event.getReason());
+                })
+                .assertNext(event -> {
+                    assertEquals(3L, event.getLineNumber());
+                    assertEquals("El campo nombre_producto es obligatorio", event.getReason());
+                })
+                .verifyComplete();
+    }
+
+}
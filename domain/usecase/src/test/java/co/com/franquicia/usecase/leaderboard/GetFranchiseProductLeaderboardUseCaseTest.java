@@ -0,0 +1,110 @@
+package co.com.franquicia.usecase.leaderboard;
+
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.page.RankedPage;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GetFranchiseProductLeaderboardUseCaseTest {
+
+    @Mock
+    private ProductGateway productGateway;
+
+    @Mock
+    private FranchiseGateway franchiseGateway;
+
+    @InjectMocks
+    private GetFranchiseProductLeaderboardUseCase getFranchiseProductLeaderboardUseCase;
+
+    private ProductRanking first;
+    private ProductRanking second;
+    private ProductRanking third;
+
+    @BeforeEach
+    void setUp() {
+        first = ProductRanking.builder().position(1L).productId(12L).productName("JBL Flip 6")
+                .branchId(6L).branchName("Sucursal Bogotá Centro").stock(250).build();
+        second = ProductRanking.builder().position(2L).productId(10L).productName("AirPods Pro 2")
+                .branchId(4L).branchName("Sucursal Bogotá Norte").stock(200).build();
+        third = ProductRanking.builder().position(3L).productId(11L).productName("AirPods Max")
+                .branchId(5L).branchName("Sucursal Centro").stock(200).build();
+    }
+
+    @Test
+    void givenMoreRowsThanPageSize_whenExecute_thenReturnsPageWithKeyOfLastItem() {
+        // Arrange
+        when(franchiseGateway.findById(1L)).thenReturn(Mono.just(Franchise.builder().id(1L).name("Franquicia Colombia").build()));
+        when(productGateway.findTopProductsByFranchise(1L, null, 3)).thenReturn(Flux.just(first, second, third));
+
+        // Act
+        Mono<RankedPage<ProductRanking>> actualResult = getFranchiseProductLeaderboardUseCase.execute(1L, null, 2);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(page -> {
+                    assertEquals(List.of(first, second), page.getItems());
+                    assertEquals(new RankKey(200L, 10L, 2L), page.getNextAfter());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void givenLastPage_whenExecute_thenReturnsPageWithoutNextKey() {
+        // Arrange
+        RankKey after = new RankKey(200L, 10L, 2L);
+        when(franchiseGateway.findById(1L)).thenReturn(Mono.just(Franchise.builder().id(1L).name("Franquicia Colombia").build()));
+        when(productGateway.findTopProductsByFranchise(1L, after, 3)).thenReturn(Flux.just(third));
+
+        // Act
+        Mono<RankedPage<ProductRanking>> actualResult = getFranchiseProductLeaderboardUseCase.execute(1L, after, 2);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(page -> {
+                    assertEquals(List.of(third), page.getItems());
+                    assertNull(page.getNextAfter());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void givenUnknownFranchise_whenExecute_thenReturnsError() {
+        // Arrange
+        when(franchiseGateway.findById(99L)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<RankedPage<ProductRanking>> actualResult = getFranchiseProductLeaderboardUseCase.execute(99L, null, 50);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().equals("Franquicia no encontrada con el id: 99"))
+                .verify();
+
+        verify(productGateway, never()).findTopProductsByFranchise(anyLong(), any(), anyInt());
+    }
+
+}
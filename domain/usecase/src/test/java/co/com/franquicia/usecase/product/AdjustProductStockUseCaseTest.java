@@ -0,0 +1,120 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AdjustProductStockUseCaseTest {
+
+    @Mock
+    private ProductGateway productGateway;
+
+    @InjectMocks
+    private AdjustProductStockUseCase adjustProductStockUseCase;
+
+    private Long inputProductId;
+    private Product currentProduct;
+
+    @BeforeEach
+    void setUp() {
+        inputProductId = 1L;
+
+        currentProduct = Product.builder()
+                .id(1L)
+                .branchId(1L)
+                .name("Laptop Dell XPS 15")
+                .stock(2)
+                .build();
+    }
+
+    @Test
+    void givenEnoughStock_whenExecute_thenReturnsAdjustedProductWithoutPriorRead() {
+        // Arrange
+        Product adjustedProduct = currentProduct.toBuilder().stock(7).build();
+
+        when(productGateway.adjustStock(eq(inputProductId), eq(5))).thenReturn(Mono.just(adjustedProduct));
+
+        // Act
+        Mono<Product> actualResult = adjustProductStockUseCase.execute(inputProductId, 5);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(adjustedProduct)
+                .verifyComplete();
+
+        verify(productGateway, never()).findById(any());
+    }
+
+    @Test
+    void givenInsufficientStock_whenExecute_thenThrowsIllegalArgumentException() {
+        // Arrange
+        String expectedErrorMessage = "Stock insuficiente para el producto con id: 1 (stock actual: 2, ajuste: -3)";
+
+        when(productGateway.adjustStock(eq(inputProductId), eq(-3))).thenReturn(Mono.empty());
+        when(productGateway.findById(eq(inputProductId))).thenReturn(Mono.just(currentProduct));
+
+        // Act
+        Mono<Product> actualResult = adjustProductStockUseCase.execute(inputProductId, -3);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalArgumentException &&
+                                throwable.getMessage().equals(expectedErrorMessage))
+                .verify();
+    }
+
+    @Test
+    void givenDeltaBeyondIntegerRange_whenExecute_thenThrowsIllegalArgumentException() {
+        // Arrange
+        String expectedErrorMessage = "El stock resultante supera el máximo permitido para el producto con id: 1"
+                + " (stock actual: 2, ajuste: " + Integer.MAX_VALUE + ")";
+
+        when(productGateway.adjustStock(eq(inputProductId), eq(Integer.MAX_VALUE))).thenReturn(Mono.empty());
+        when(productGateway.findById(eq(inputProductId))).thenReturn(Mono.just(currentProduct));
+
+        // Act
+        Mono<Product> actualResult = adjustProductStockUseCase.execute(inputProductId, Integer.MAX_VALUE);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalArgumentException &&
+                                throwable.getMessage().equals(expectedErrorMessage))
+                .verify();
+    }
+
+    @Test
+    void givenNonExistentProduct_whenExecute_thenThrowsIllegalArgumentException() {
+        // Arrange
+        String expectedErrorMessage = "Producto no encontrado con id: " + inputProductId;
+
+        when(productGateway.adjustStock(eq(inputProductId), eq(-3))).thenReturn(Mono.empty());
+        when(productGateway.findById(eq(inputProductId))).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Product> actualResult = adjustProductStockUseCase.execute(inputProductId, -3);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalArgumentException &&
+                                throwable.getMessage().equals(expectedErrorMessage))
+                .verify();
+    }
+
+}
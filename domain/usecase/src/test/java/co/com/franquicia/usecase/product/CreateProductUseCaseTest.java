@@ -0,0 +1,94 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CreateProductUseCaseTest {
+
+    @Mock
+    private ProductGateway productGateway;
+
+    @Mock
+    private BranchGateway branchGateway;
+
+    @InjectMocks
+    private CreateProductUseCase createProductUseCase;
+
+    private Product expectedProduct;
+
+    @BeforeEach
+    void setUp() {
+        expectedProduct = Product.builder()
+                .id(10L)
+                .branchId(4L)
+                .name("AirPods Pro 2")
+                .stock(200)
+                .build();
+    }
+
+    @Test
+    void givenAvailableName_whenExecute_thenCreatesWithSingleInsert() {
+        // Arrange
+        when(productGateway.insertIfAbsent(any(Product.class))).thenReturn(Mono.just(expectedProduct));
+
+        // Act
+        Mono<Product> actualResult = createProductUseCase.execute(4L, "AirPods Pro 2", 200);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(expectedProduct)
+                .verifyComplete();
+
+        verify(branchGateway, never()).findById(any());
+        verify(productGateway, never()).findByName(any());
+    }
+
+    @Test
+    void givenDuplicateName_whenExecute_thenReturnsDuplicateError() {
+        // Arrange
+        when(productGateway.insertIfAbsent(any(Product.class))).thenReturn(Mono.empty());
+        when(branchGateway.findById(4L)).thenReturn(Mono.just(Branch.builder().id(4L).franchiseId(1L).name("Sucursal Bogotá Norte").build()));
+
+        // Act
+        Mono<Product> actualResult = createProductUseCase.execute(4L, "AirPods Pro 2", 200);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().equals("Ya existe un producto con el nombre: AirPods Pro 2"))
+                .verify();
+    }
+
+    @Test
+    void givenUnknownBranch_whenExecute_thenReturnsBranchNotFoundError() {
+        // Arrange
+        when(productGateway.insertIfAbsent(any(Product.class))).thenReturn(Mono.empty());
+        when(branchGateway.findById(99L)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Product> actualResult = createProductUseCase.execute(99L, "AirPods Pro 2", 200);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().equals("Sucursal no encontrada con el id: 99"))
+                .verify();
+    }
+
+}
@@ -0,0 +1,89 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.product.ProductStockAt;
+import co.com.franquicia.model.product.gateway.StockLedgerGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GetProductStockAtUseCaseTest {
+
+    @Mock
+    private StockLedgerGateway ledgerGateway;
+
+    @InjectMocks
+    private GetProductStockAtUseCase getProductStockAtUseCase;
+
+    private final LocalDateTime since = LocalDateTime.of(2025, 12, 1, 0, 0);
+    private final LocalDateTime at = LocalDateTime.of(2025, 12, 18, 10, 30);
+
+    @Test
+    void givenHistoryCoversDate_whenExecute_thenReturnsStockAtThatDate() {
+        // Arrange
+        ProductStockAt expectedStock = ProductStockAt.builder()
+                .productId(10L)
+                .stock(150)
+                .at(at)
+                .recordedAt(at.minusHours(2))
+                .build();
+        when(ledgerGateway.historySince()).thenReturn(Mono.just(since));
+        when(ledgerGateway.stockAt(10L, at)).thenReturn(Mono.just(expectedStock));
+
+        // Act
+        Mono<ProductStockAt> actualResult = getProductStockAtUseCase.execute(10L, at);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(expectedStock)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenDateBeforeHistory_whenExecute_thenThrowsIllegalArgumentException() {
+        // Arrange
+        String expectedErrorMessage = "Solo hay historial de stock desde " + since;
+        when(ledgerGateway.historySince()).thenReturn(Mono.just(since));
+
+        // Act
+        Mono<ProductStockAt> actualResult = getProductStockAtUseCase.execute(10L, since.minusDays(1));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalArgumentException &&
+                                throwable.getMessage().equals(expectedErrorMessage))
+                .verify();
+
+        verify(ledgerGateway, never()).stockAt(any(), any());
+    }
+
+    @Test
+    void givenLedgerDisabled_whenExecute_thenThrowsIllegalArgumentException() {
+        // Arrange
+        String expectedErrorMessage = "El historial de stock no está habilitado";
+        when(ledgerGateway.historySince()).thenReturn(Mono.empty());
+
+        // Act
+        Mono<ProductStockAt> actualResult = getProductStockAtUseCase.execute(10L, at);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalArgumentException &&
+                                throwable.getMessage().equals(expectedErrorMessage))
+                .verify();
+    }
+
+}
@@ -0,0 +1,104 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.page.Page;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GetProductsByBranchUseCaseTest {
+
+    @Mock
+    private ProductGateway productGateway;
+
+    @Mock
+    private BranchGateway branchGateway;
+
+    @InjectMocks
+    private GetProductsByBranchUseCase getProductsByBranchUseCase;
+
+    private Product firstProduct;
+    private Product secondProduct;
+    private Product thirdProduct;
+
+    @BeforeEach
+    void setUp() {
+        firstProduct = Product.builder().id(10L).branchId(4L).name("AirPods Pro 2").stock(200).build();
+        secondProduct = Product.builder().id(11L).branchId(4L).name("JBL Flip 6").stock(250).build();
+        thirdProduct = Product.builder().id(12L).branchId(4L).name("Sony WH-1000XM5").stock(160).build();
+    }
+
+    @Test
+    void givenMoreRowsThanPageSize_whenExecute_thenReturnsPageWithNextAfterId() {
+        // Arrange
+        when(branchGateway.findById(4L)).thenReturn(Mono.just(Branch.builder().id(4L).franchiseId(1L).name("Sucursal Bogotá Norte").build()));
+        when(productGateway.findByBranchIdAfter(4L, 9L, 3)).thenReturn(Flux.just(firstProduct, secondProduct, thirdProduct));
+
+        // Act
+        Mono<Page<Product>> actualResult = getProductsByBranchUseCase.execute(4L, 9L, 2);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(page -> {
+                    assertEquals(List.of(firstProduct, secondProduct), page.getItems());
+                    assertEquals(11L, page.getNextAfterId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void givenLastPage_whenExecute_thenReturnsPageWithoutNextAfterId() {
+        // Arrange
+        when(branchGateway.findById(4L)).thenReturn(Mono.just(Branch.builder().id(4L).franchiseId(1L).name("Sucursal Bogotá Norte").build()));
+        when(productGateway.findByBranchIdAfter(4L, null, 3)).thenReturn(Flux.just(firstProduct));
+
+        // Act
+        Mono<Page<Product>> actualResult = getProductsByBranchUseCase.execute(4L, null, 2);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(page -> {
+                    assertEquals(List.of(firstProduct), page.getItems());
+                    assertNull(page.getNextAfterId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void givenUnknownBranch_whenExecute_thenReturnsError() {
+        // Arrange
+        when(branchGateway.findById(99L)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Page<Product>> actualResult = getProductsByBranchUseCase.execute(99L, null, 50);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().equals("Sucursal no encontrada con el id: 99"))
+                .verify();
+
+        verify(productGateway, never()).findByBranchIdAfter(anyLong(), anyLong(), anyInt());
+    }
+
+}
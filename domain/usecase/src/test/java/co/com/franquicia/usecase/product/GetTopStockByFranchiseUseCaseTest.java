@@ -18,6 +18,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -134,4 +135,36 @@ public class GetTopStockByFranchiseUseCaseTest {
 
         verify(franchiseGateway).findById(eq(inputFranchiseId));
     }
+
+    @Test
+    void givenKGreaterThanOne_whenExecute_thenQueriesTopKPerBranch() {
+        // Arrange
+        when(franchiseGateway.findById(eq(inputFranchiseId))).thenReturn(Mono.just(existingFranchise));
+        when(productGateway.findTopStockByFranchise(eq(inputFranchiseId), eq(3)))
+                .thenReturn(Flux.fromIterable(expectedTopStockProducts));
+
+        // Act
+        Flux<TopStockProduct> actualResult = getTopStockByFranchiseUseCase.execute(inputFranchiseId, 3);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextSequence(expectedTopStockProducts)
+                .verifyComplete();
+
+        verify(productGateway).findTopStockByFranchise(eq(inputFranchiseId), eq(3));
+    }
+
+    @Test
+    void givenKOutOfRange_whenExecute_thenThrowsIllegalArgumentException() {
+        // Act
+        Flux<TopStockProduct> actualResult = getTopStockByFranchiseUseCase.execute(inputFranchiseId, 0);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable -> throwable instanceof IllegalArgumentException &&
+                        throwable.getMessage().equals("El parámetro k debe ser un número entre 1 y 100"))
+                .verify();
+
+        verifyNoInteractions(franchiseGateway, productGateway);
+    }
 }
@@ -1,5 +1,6 @@
 package co.com.franquicia.usecase.product;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
 import co.com.franquicia.model.product.Product;
 
 import co.com.franquicia.model.product.gateway.ProductGateway;
@@ -14,6 +15,8 @@ import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,15 +54,33 @@ public class UpdateProductStockUseCaseTest {
                 .build();
     }
 
+    @Test
+    void givenExistingProduct_whenExecute_thenReturnsUpdatedProductInSingleCall() {
+        // Arrange
+        when(productGateway.updateStock(eq(inputProductId), eq(inputNewStock), isNull()))
+                .thenReturn(Mono.just(expectedUpdatedProduct));
+
+        // Act
+        Mono<Product> actualResult = updateProductStockUseCase.execute(inputProductId, inputNewStock, null);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(expectedUpdatedProduct)
+                .verifyComplete();
+
+        verify(productGateway).updateStock(eq(inputProductId), eq(inputNewStock), isNull());
+        verify(productGateway, never()).findById(any());
+    }
+
     @Test
     void givenNonExistentProduct_whenExecute_thenThrowsIllegalArgumentException() {
         // Arrange
         String expectedErrorMessage = "Producto no encontrado con id: " + inputProductId;
 
-        when(productGateway.findById(eq(inputProductId))).thenReturn(Mono.empty());
+        when(productGateway.updateStock(eq(inputProductId), eq(inputNewStock), isNull())).thenReturn(Mono.empty());
 
         // Act
-        Mono<Product> actualResult = updateProductStockUseCase.execute(inputProductId, inputNewStock);
+        Mono<Product> actualResult = updateProductStockUseCase.execute(inputProductId, inputNewStock, null);
 
         // Assert
         StepVerifier.create(actualResult)
@@ -68,7 +89,24 @@ public class UpdateProductStockUseCaseTest {
                                 throwable.getMessage().equals(expectedErrorMessage))
                 .verify();
 
-        verify(productGateway).findById(eq(inputProductId));
+        verify(productGateway).updateStock(eq(inputProductId), eq(inputNewStock), isNull());
+    }
+
+    @Test
+    void givenStaleExpectedVersion_whenExecute_thenPropagatesVersionConflict() {
+        // Arrange
+        when(productGateway.updateStock(eq(inputProductId), eq(inputNewStock), eq(3L)))
+                .thenReturn(Mono.error(new VersionConflictException("el producto", inputProductId, 4L)));
+
+        // Act
+        Mono<Product> actualResult = updateProductStockUseCase.execute(inputProductId, inputNewStock, 3L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof VersionConflictException &&
+                                ((VersionConflictException) throwable).getCurrentVersion().equals(4L))
+                .verify();
     }
 
 }
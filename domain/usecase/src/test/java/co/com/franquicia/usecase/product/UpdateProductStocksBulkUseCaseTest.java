@@ -0,0 +1,125 @@
+package co.com.franquicia.usecase.product;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.StockUpdate;
+import co.com.franquicia.model.product.StockUpdateResult;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UpdateProductStocksBulkUseCaseTest {
+
+    @Mock
+    private ProductGateway productGateway;
+
+    @InjectMocks
+    private UpdateProductStocksBulkUseCase useCase;
+
+    @Captor
+    private ArgumentCaptor<List<StockUpdate>> chunkCaptor;
+
+    @Test
+    void givenItemsByIdAndByName_whenExecute_thenReturnsOutcomeForEachItemInOrder() {
+        // Arrange
+        StockUpdate byId = StockUpdate.builder().lineNumber(1L).id(10L).stock(150).build();
+        StockUpdate byName = StockUpdate.builder().lineNumber(2L).branchId(4L).name("AirPods Pro 2").stock(80).build();
+        StockUpdate missing = StockUpdate.builder().lineNumber(3L).id(99L).stock(5).build();
+        StockUpdate otherBranch = StockUpdate.builder().lineNumber(4L).branchId(5L).name("iPad Air").stock(7).build();
+        when(productGateway.updateStocks(anyList())).thenReturn(Flux.just(
+                Product.builder().id(10L).branchId(4L).name("iPhone 15").stock(150).version(3L).build(),
+                Product.builder().id(11L).branchId(4L).name("AirPods Pro 2").stock(80).version(8L).build()));
+
+        // Act
+        Flux<StockUpdateResult> actualResult = useCase.execute(Flux.just(byId, byName, missing, otherBranch));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(result -> {
+                    assertEquals(StockUpdateResult.Status.UPDATED, result.getStatus());
+                    assertEquals(3L, result.getProduct().getVersion());
+                })
+                .assertNext(result -> assertEquals(11L, result.getProduct().getId()))
+                .assertNext(result -> assertEquals(StockUpdateResult.Status.NOT_FOUND, result.getStatus()))
+                .assertNext(result -> assertEquals(StockUpdateResult.Status.NOT_FOUND, result.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    void givenInvalidAndRepeatedItems_whenExecute_thenRejectsThemWithoutSendingThem() {
+        // Arrange
+        StockUpdate first = StockUpdate.builder().lineNumber(1L).id(10L).stock(150).build();
+        StockUpdate repeated = StockUpdate.builder().lineNumber(2L).id(10L).stock(160).build();
+        StockUpdate negative = StockUpdate.builder().lineNumber(3L).id(12L).stock(-1).build();
+        StockUpdate noKey = StockUpdate.builder().lineNumber(4L).name("iPad Air").stock(7).build();
+        when(productGateway.updateStocks(anyList())).thenReturn(Flux.just(
+                Product.builder().id(10L).branchId(4L).name("iPhone 15").stock(150).build()));
+
+        // Act
+        Flux<StockUpdateResult> actualResult = useCase.execute(Flux.just(first, repeated, negative, noKey));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(result -> assertEquals(StockUpdateResult.Status.UPDATED, result.getStatus()))
+                .assertNext(result -> assertEquals(StockUpdateResult.Status.REJECTED, result.getStatus()))
+                .assertNext(result -> assertEquals(StockUpdateResult.Status.REJECTED, result.getStatus()))
+                .assertNext(result -> assertEquals(4L, result.getLineNumber()))
+                .verifyComplete();
+
+        verify(productGateway).updateStocks(chunkCaptor.capture());
+        assertEquals(List.of(first), chunkCaptor.getValue());
+    }
+
+    @Test
+    void givenMoreItemsThanChunkSize_whenExecute_thenWritesOneStatementPerChunk() {
+        // Arrange
+        int total = UpdateProductStocksBulkUseCase.CHUNK_SIZE + 1;
+        Flux<StockUpdate> updates = Flux.fromStream(LongStream.rangeClosed(1, total)
+                .mapToObj(id -> StockUpdate.builder().lineNumber(id).id(id).stock(1).build()));
+        when(productGateway.updateStocks(anyList())).thenReturn(Flux.empty());
+
+        // Act
+        Flux<StockUpdateResult> actualResult = useCase.execute(updates);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextCount(total)
+                .verifyComplete();
+
+        verify(productGateway, times(2)).updateStocks(anyList());
+    }
+
+    @Test
+    void givenOnlyInvalidItems_whenExecute_thenDoesNotCallGateway() {
+        // Arrange
+        StockUpdate noStock = StockUpdate.builder().lineNumber(1L).id(10L).build();
+
+        // Act
+        Flux<StockUpdateResult> actualResult = useCase.execute(Flux.just(noStock));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .assertNext(result -> assertEquals(StockUpdateResult.Status.REJECTED, result.getStatus()))
+                .verifyComplete();
+
+        verifyNoInteractions(productGateway);
+    }
+
+}
@@ -0,0 +1,43 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import co.com.franquicia.model.inventory.InventoryRow;
+import co.com.franquicia.model.inventory.gateway.InventoryGateway;
+import co.com.franquicia.model.product.Product;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * La importación escribe productos con un {@code MERGE} que no devuelve las filas, así que al
+ * terminar (bien o mal) se vacía la caché de productos. El filtro de nombres se suspende mientras
+ * dura, porque los nombres importados no pasan por él, y se recarga al terminar. La importación
+ * puede tocar cualquier franquicia, así que también invalida todas las versiones del catálogo y
+ * publica un {@code RESYNC} para todas. Con el outbox activo ese {@code RESYNC} no sale: cada
+ * producto importado llega por el outbox a los suscriptores y a las demás instancias.
+ * La caché y el filtro pueden ser {@code null} si están desactivados.
+ */
+@RequiredArgsConstructor
+public class CacheInvalidatingInventoryGateway implements InventoryGateway {
+
+    private final InventoryGateway delegate;
+    private final ReactiveCache<Long, Product> productCache;
+    private final NameFilter productNames;
+    private final CatalogVersionTracker versions;
+    private final CatalogChangeBus changes;
+
+    @Override
+    public Flux<InventoryImportEvent> importRows(Flux<InventoryRow> rows) {
+        return delegate.importRows(rows)
+                .doOnSubscribe(subscription -> {
+                    if (productNames != null) productNames.suspend();
+                })
+                .doFinally(signal -> {
+                    versions.bumpAll();
+                    changes.publish(CatalogChange.resync(null));
+                    if (productCache != null) productCache.invalidateAll();
+                    if (productNames != null) productNames.reload().subscribe();
+                });
+    }
+
+}
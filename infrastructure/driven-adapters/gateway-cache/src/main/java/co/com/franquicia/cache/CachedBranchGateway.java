@@ -0,0 +1,74 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Cachea {@code findById}; las escrituras hechas a través de este gateway dejan en la caché
+ * el valor que devolvió la base de datos. Los listados de sucursales por franquicia idénticos y
+ * simultáneos comparten una sola consulta.
+ */
+@RequiredArgsConstructor
+public class CachedBranchGateway implements BranchGateway {
+
+    private final BranchGateway delegate;
+    private final ReactiveCache<Long, Branch> cache;
+    private final SingleFlight<Long, Branch> byFranchiseFlights;
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return delegate.save(branch).doOnNext(this::store);
+    }
+
+    @Override
+    public Mono<Branch> insertIfAbsent(Branch branch) {
+        return delegate.insertIfAbsent(branch).doOnNext(this::store);
+    }
+
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return byFranchiseFlights.execute(franchiseId, () -> delegate.findByFranchiseId(franchiseId));
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseIdAfter(Long franchiseId, Long afterId, int limit) {
+        return delegate.findByFranchiseIdAfter(franchiseId, afterId, limit);
+    }
+
+    @Override
+    public Mono<Branch> updateName(Long id, String newName, Long expectedVersion) {
+        return delegate.updateName(id, newName, expectedVersion)
+                .doOnNext(this::store)
+                .doOnError(error -> cache.invalidate(id));
+    }
+
+    @Override
+    public Mono<Branch> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    private void store(Branch branch) {
+        cache.put(branch.getId(), branch);
+    }
+
+}
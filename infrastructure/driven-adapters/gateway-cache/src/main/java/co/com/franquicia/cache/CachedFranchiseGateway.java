@@ -0,0 +1,65 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cachea {@code findById}; las escrituras hechas a través de este gateway dejan en la caché
+ * el valor que devolvió la base de datos.
+ */
+@RequiredArgsConstructor
+public class CachedFranchiseGateway implements FranchiseGateway {
+
+    private final FranchiseGateway delegate;
+    private final ReactiveCache<Long, Franchise> cache;
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return delegate.save(franchise).doOnNext(this::store);
+    }
+
+    @Override
+    public Mono<Franchise> insertIfAbsent(Franchise franchise) {
+        return delegate.insertIfAbsent(franchise).doOnNext(this::store);
+    }
+
+    @Override
+    public Mono<Franchise> findById(Long id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public Mono<Franchise> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Flux<Franchise> findAllAfter(Long afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public Mono<Franchise> updateName(Long id, String newName, Long expectedVersion) {
+        return delegate.updateName(id, newName, expectedVersion)
+                .doOnNext(this::store)
+                .doOnError(error -> cache.invalidate(id));
+    }
+
+    private void store(Franchise franchise) {
+        cache.put(franchise.getId(), franchise);
+    }
+
+}
@@ -0,0 +1,49 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Guarda en memoria las respuestas completas que escribió o leyó esta instancia, para repetirlas
+ * sin ir a la base de datos. Las reservas en curso no se cachean: quién tiene la clave lo decide
+ * siempre la tabla, que comparten todas las réplicas. La caché vence con el mismo TTL que la tabla.
+ */
+@RequiredArgsConstructor
+public class CachedIdempotencyGateway implements IdempotencyGateway {
+
+    private final IdempotencyGateway delegate;
+    private final ReactiveCache<String, IdempotentResponse> cache;
+
+    @Override
+    public Mono<IdempotentResponse> claim(String key, String fingerprint) {
+        return cache.getIfPresent(key)
+                .switchIfEmpty(Mono.defer(() -> delegate.claim(key, fingerprint)
+                        .doOnNext(stored -> {
+                            if (!stored.isPending()) cache.put(key, stored);
+                        })));
+    }
+
+    @Override
+    public Mono<Boolean> complete(IdempotentResponse response) {
+        // solo se cachea lo que quedó en la tabla: si la reserva se perdió, la respuesta que
+        // repetirían las réplicas es otra
+        return delegate.complete(response)
+                .doOnNext(stored -> {
+                    if (stored) cache.put(response.getKey(), response);
+                });
+    }
+
+    @Override
+    public Mono<Void> keepAlive(String key, String fingerprint) {
+        return delegate.keepAlive(key, fingerprint);
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return delegate.release(key)
+                .doFinally(signal -> cache.invalidate(key));
+    }
+
+}
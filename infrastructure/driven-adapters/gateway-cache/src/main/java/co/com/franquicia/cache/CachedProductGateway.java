@@ -0,0 +1,153 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.StockUpdate;
+import co.com.franquicia.model.product.TopStockProduct;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cachea {@code findById}. Cada escritura deja en la caché la fila que devolvió la base de
+ * datos; si la escritura falla, la entrada se descarta porque no se sabe cómo quedó la fila.
+ * Las consultas de top de stock idénticas y simultáneas comparten una sola ejecución.
+ */
+@RequiredArgsConstructor
+public class CachedProductGateway implements ProductGateway {
+
+    private final ProductGateway delegate;
+    private final ReactiveCache<Long, Product> cache;
+    private final SingleFlight<TopStockKey, TopStockProduct> topStockFlights;
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return delegate.save(product)
+                .doOnNext(this::store)
+                .doOnError(error -> invalidate(product.getId()));
+    }
+
+    @Override
+    public Mono<Product> insertIfAbsent(Product product) {
+        return delegate.insertIfAbsent(product).doOnNext(this::store);
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return delegate.saveAll(products)
+                .doOnNext(this::store)
+                .doOnError(error -> products.forEach(product -> invalidate(product.getId())));
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public Mono<Product> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Flux<Product> findByBranchIdAfter(Long branchId, Long afterId, int limit) {
+        return delegate.findByBranchIdAfter(branchId, afterId, limit);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return delegate.findExistingNames(names);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    @Override
+    public Mono<Product> updateStock(Long id, Integer newStock, Long expectedVersion) {
+        return delegate.updateStock(id, newStock, expectedVersion)
+                .doOnNext(this::store)
+                .doOnError(error -> invalidate(id));
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        return delegate.adjustStock(id, delta)
+                .doOnNext(this::store)
+                .doOnError(error -> invalidate(id));
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        return delegate.updateStocks(updates)
+                .doOnNext(this::store)
+                .doOnError(error -> updates.forEach(update -> invalidate(update.getId())));
+    }
+
+    @Override
+    public Mono<Product> updateName(Long id, String newName, Long expectedVersion) {
+        return delegate.updateName(id, newName, expectedVersion)
+                .doOnNext(this::store)
+                .doOnError(error -> invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return delegate.deleteById(id)
+                .doFinally(signal -> invalidate(id));
+    }
+
+    @Override
+    public Flux<Product> streamByFranchise(Long franchiseId) {
+        return delegate.streamByFranchise(franchiseId);
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(Long branchId) {
+        return delegate.streamByBranch(branchId);
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId) {
+        return topStockFlights.execute(new TopStockKey(franchiseId, null),
+                () -> delegate.findTopStockByFranchise(franchiseId));
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId, int k) {
+        return topStockFlights.execute(new TopStockKey(franchiseId, k),
+                () -> delegate.findTopStockByFranchise(franchiseId, k));
+    }
+
+    @Override
+    public Flux<ProductRanking> findTopProductsByFranchise(Long franchiseId, RankKey after, int limit) {
+        return delegate.findTopProductsByFranchise(franchiseId, after, limit);
+    }
+
+    @Override
+    public Flux<FranchiseStockTotal> findTopFranchisesByStock(RankKey after, int limit) {
+        return delegate.findTopFranchisesByStock(after, limit);
+    }
+
+    private void store(Product product) {
+        cache.put(product.getId(), product);
+    }
+
+    private void invalidate(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    /** {@code k} nulo: la variante que lee el modelo de lectura con un producto por sucursal. */
+    private record TopStockKey(Long franchiseId, Integer k) {
+    }
+
+}
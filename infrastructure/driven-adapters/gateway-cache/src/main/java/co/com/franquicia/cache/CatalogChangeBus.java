@@ -0,0 +1,102 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.gateway.CatalogBroadcastGateway;
+import co.com.franquicia.model.catalog.gateway.CatalogChangeGateway;
+import co.com.franquicia.model.catalog.gateway.CatalogOutboxGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Difusión en memoria de los cambios confirmados del catálogo. Los entrega el outbox
+ * ({@link CatalogOutboxGateway}) o, sin él, los decoradores {@code Versioned*Gateway} después de
+ * cada escritura.
+ * <p>
+ * El sink es multicast sin réplica: quien se suscribe recibe lo que pase desde ese momento. Cada
+ * suscriptor tiene su propio buffer de {@code bufferSize} eventos, así que publicar nunca espera a
+ * un consumidor lento; si el buffer se llena se descarta el más antiguo ({@code DROP_OLDEST}) o el
+ * recién llegado ({@code DROP_LATEST}), o se corta la suscripción ({@code ERROR}). Tras un descarte
+ * el suscriptor recibe un {@code RESYNC} antes del siguiente evento, para que relea en vez de
+ * quedarse con datos a medias. Los descartes se cuentan en {@code catalog_changes.dropped}.
+ * <p>
+ * Si hay un {@link CatalogBroadcastGateway}, {@link #publish} avisa además a las demás instancias,
+ * que entregan el cambio a sus suscriptores con {@link #deliver}. Sin él, cada instancia solo ve
+ * sus propias escrituras.
+ * <p>
+ * Si el outbox está entregando los cambios, {@link #publish} no hace nada: el mismo cambio llega
+ * después desde el outbox, fuera de la petición que escribió.
+ */
+public class CatalogChangeBus implements CatalogChangeGateway {
+
+    private final Sinks.Many<CatalogChange> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferSize;
+    private final BufferOverflowStrategy overflowStrategy;
+    private final Counter dropped;
+    private final Supplier<CatalogBroadcastGateway> broadcaster;
+    private final Supplier<CatalogOutboxGateway> outbox;
+
+    public CatalogChangeBus(int bufferSize, BufferOverflowStrategy overflowStrategy, MeterRegistry meterRegistry) {
+        this(bufferSize, overflowStrategy, meterRegistry, () -> null, () -> null);
+    }
+
+    /**
+     * {@code broadcaster} y {@code outbox} se resuelven en cada publicación y pueden devolver
+     * {@code null}.
+     */
+    public CatalogChangeBus(int bufferSize, BufferOverflowStrategy overflowStrategy, MeterRegistry meterRegistry,
+                            Supplier<CatalogBroadcastGateway> broadcaster, Supplier<CatalogOutboxGateway> outbox) {
+        this.broadcaster = broadcaster;
+        this.outbox = outbox;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+        this.dropped = Counter.builder("catalog_changes.dropped").register(meterRegistry);
+        Gauge.builder("catalog_changes.subscribers", sink, Sinks.Many::currentSubscriberCount)
+                .register(meterRegistry);
+    }
+
+    /** Cambio hecho por esta instancia: se entrega aquí y se avisa a las demás, salvo que lo entregue el outbox. */
+    public void publish(CatalogChange change) {
+        if (isRelayed()) return;
+        deliver(change);
+        CatalogBroadcastGateway gateway = broadcaster.get();
+        if (gateway != null) {
+            gateway.broadcast(change).subscribe();
+        }
+    }
+
+    private boolean isRelayed() {
+        CatalogOutboxGateway gateway = outbox.get();
+        return gateway != null && gateway.isRelaying();
+    }
+
+    // el sink no admite emisiones concurrentes; cada una solo deja el evento en los buffers
+    public synchronized void deliver(CatalogChange change) {
+        sink.tryEmitNext(change);
+    }
+
+    @Override
+    public Flux<CatalogChange> changes(Long franchiseId) {
+        return Flux.defer(() -> {
+            AtomicBoolean lost = new AtomicBoolean();
+            return sink.asFlux()
+                    .filter(change -> change.getFranchiseId() == null || change.getFranchiseId().equals(franchiseId))
+                    .onBackpressureBuffer(bufferSize, change -> {
+                        lost.set(true);
+                        dropped.increment();
+                    }, overflowStrategy)
+                    // prefetch 1: con el valor por defecto habría 256 eventos más por suscriptor
+                    .concatMapIterable(change -> lost.getAndSet(false) && change.getType() != CatalogChange.Type.RESYNC
+                            ? List.of(CatalogChange.resync(franchiseId), change)
+                            : List.of(change), 1);
+        });
+    }
+
+}
@@ -0,0 +1,53 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.gateway.CatalogVersionGateway;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versión en memoria: uno por franquicia y otro para la lista de franquicias, que
+ * suben los decoradores {@code Versioned*Gateway} después de cada escritura.
+ * <p>
+ * La versión es {@code <arranque>.<generación>.<contador>}. El prefijo de arranque, aleatorio,
+ * evita que una versión emitida por otra instancia o antes de reiniciar coincida por casualidad;
+ * la generación sube con {@link #bumpAll()} cuando una escritura no se puede atribuir a una
+ * franquicia (p. ej. la importación masiva) e invalida todas las versiones de golpe.
+ */
+public class CatalogVersionTracker implements CatalogVersionGateway {
+
+    private final String boot = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong franchiseList = new AtomicLong();
+    private final Map<Long, AtomicLong> franchises = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<String> currentVersion(Long franchiseId) {
+        return Mono.fromSupplier(() -> version(franchiseId));
+    }
+
+    public String version(Long franchiseId) {
+        AtomicLong counter = franchiseId == null ? franchiseList : franchises.get(franchiseId);
+        return boot + "." + generation.get() + "." + (counter == null ? 0 : counter.get());
+    }
+
+    public void bump(Long franchiseId) {
+        if (franchiseId == null) {
+            bumpAll();
+            return;
+        }
+        franchises.computeIfAbsent(franchiseId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public void bumpFranchiseList() {
+        franchiseList.incrementAndGet();
+    }
+
+    public void bumpAll() {
+        generation.incrementAndGet();
+    }
+
+}
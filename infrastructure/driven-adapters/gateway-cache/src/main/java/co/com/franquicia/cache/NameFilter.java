@@ -0,0 +1,196 @@
+package co.com.franquicia.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Filtro de Bloom con los nombres de un agregado, para responder "ese nombre no existe" sin ir a
+ * la base de datos.
+ * <p>
+ * Un {@code false} de {@link #mightContain(String)} es definitivo para lo que se cargó o se
+ * registró con {@link #put(String)}; un {@code true} puede ser un falso positivo (alrededor de
+ * {@code fpp}) y hay que consultar la base de datos. Los nombres borrados o renombrados se quedan
+ * en el filtro hasta la siguiente recarga, que además lo redimensiona si la tabla creció. Mientras
+ * no haya una carga completa, o entre {@link #suspend()} y la recarga siguiente, el filtro
+ * responde siempre {@code true}.
+ */
+@Slf4j
+public class NameFilter {
+
+    private final String name;
+    private final long expectedNames;
+    private final double fpp;
+    private final Counter absent;
+    private final Counter maybe;
+
+    private volatile Supplier<Flux<String>> source;
+    private volatile Bits current;
+    private Bits building;
+    private long generation;
+
+    public NameFilter(String name, long expectedNames, double fpp, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.expectedNames = expectedNames;
+        this.fpp = fpp;
+        this.absent = Counter.builder("name_filter.lookups").tag("filter", name).tag("result", "absent")
+                .register(meterRegistry);
+        this.maybe = Counter.builder("name_filter.lookups").tag("filter", name).tag("result", "maybe")
+                .register(meterRegistry);
+    }
+
+    /** Origen de los nombres para {@link #reload()}: normalmente {@code streamNames()} del adaptador. */
+    public void bind(Supplier<Flux<String>> source) {
+        this.source = source;
+    }
+
+    public boolean mightContain(String value) {
+        Bits bits = current;
+        if (bits == null || value == null) return true;
+        boolean result = bits.mightContain(value);
+        (result ? maybe : absent).increment();
+        return result;
+    }
+
+    public synchronized void put(String value) {
+        if (value == null) return;
+        if (current != null) current.put(value);
+        if (building != null) building.put(value);
+    }
+
+    /** Deja de responder "no existe" hasta la próxima recarga completa. */
+    public synchronized void suspend() {
+        current = null;
+        building = null;
+        generation++;
+    }
+
+    /**
+     * Vuelve a leer todos los nombres en un filtro nuevo y lo pone en uso al terminar. Los
+     * {@link #put(String)} que lleguen durante la lectura se aplican a ambos filtros; si entre
+     * medias se llamó a {@link #suspend()}, el resultado se descarta. Un error se registra en el
+     * log y deja el filtro como estaba.
+     */
+    public Mono<Void> reload() {
+        Supplier<Flux<String>> names = source;
+        if (names == null) return Mono.empty();
+        return Mono.defer(() -> {
+            Bits fresh;
+            long started;
+            synchronized (this) {
+                Bits previous = current;
+                fresh = new Bits(Math.max(expectedNames, previous == null ? 0 : previous.count() * 2), fpp);
+                building = fresh;
+                started = generation;
+            }
+            return names.get()
+                    .doOnNext(fresh::put)
+                    .then(Mono.<Void>fromRunnable(() -> swap(fresh, started)))
+                    .onErrorResume(error -> {
+                        synchronized (this) {
+                            if (building == fresh) building = null;
+                        }
+                        log.error("No se pudo cargar el filtro de nombres de {}", name, error);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private synchronized void swap(Bits fresh, long started) {
+        if (building == fresh) building = null;
+        if (generation != started) return;
+        current = fresh;
+        if (fresh.count() > fresh.capacity()) {
+            log.warn("Filtro de nombres de {} con {} nombres sobre una capacidad de {}; se redimensiona en la próxima recarga",
+                    name, fresh.count(), fresh.capacity());
+        }
+        log.info("Filtro de nombres de {} cargado: {} nombres, {} bits", name, fresh.count(), fresh.size());
+    }
+
+    /** Bits del filtro; {@code count} cuenta inserciones, no nombres distintos. */
+    private static final class Bits {
+
+        private static final double LN2 = Math.log(2);
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final long capacity;
+        private final AtomicLong count = new AtomicLong();
+
+        private Bits(long capacity, double fpp) {
+            long bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(fpp) / (LN2 * LN2)));
+            this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * LN2));
+            this.capacity = capacity;
+        }
+
+        private void put(String value) {
+            long hash = hash(value);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long previous;
+                do {
+                    previous = words.get(word);
+                } while ((previous & mask) == 0 && !words.compareAndSet(word, previous, previous | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        private long count() {
+            return count.get();
+        }
+
+        private long capacity() {
+            return capacity;
+        }
+
+        private long size() {
+            return size;
+        }
+
+        // FNV-1a de 64 bits sobre UTF-8, igual en todas las JVM (String.hashCode solo tiene 32 bits)
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        // finalizador de MurmurHash3: reparte los bits para las dos funciones del doble hashing
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb93e53fe1a87L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Responde {@code findByName} vacío sin consultar la base de datos cuando el filtro de nombres
+ * descarta el nombre; las escrituras registran su nombre antes de ejecutarse.
+ */
+@RequiredArgsConstructor
+public class NameFilteredBranchGateway implements BranchGateway {
+
+    private final BranchGateway delegate;
+    private final NameFilter names;
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return Mono.defer(() -> {
+            names.put(branch.getName());
+            return delegate.save(branch);
+        });
+    }
+
+    @Override
+    public Mono<Branch> insertIfAbsent(Branch branch) {
+        return Mono.defer(() -> {
+            names.put(branch.getName());
+            return delegate.insertIfAbsent(branch);
+        });
+    }
+
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseIdAfter(Long franchiseId, Long afterId, int limit) {
+        return delegate.findByFranchiseIdAfter(franchiseId, afterId, limit);
+    }
+
+    @Override
+    public Mono<Branch> updateName(Long id, String newName, Long expectedVersion) {
+        return Mono.defer(() -> {
+            names.put(newName);
+            return delegate.updateName(id, newName, expectedVersion);
+        });
+    }
+
+    @Override
+    public Mono<Branch> findByName(String name) {
+        return Mono.defer(() -> names.mightContain(name) ? delegate.findByName(name) : Mono.empty());
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+}
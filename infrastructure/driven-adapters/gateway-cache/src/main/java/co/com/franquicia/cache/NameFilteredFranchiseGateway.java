@@ -0,0 +1,69 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Responde {@code findByName} vacío sin consultar la base de datos cuando el filtro de nombres
+ * descarta el nombre. Cada escritura registra su nombre antes de ejecutarse, así el filtro nunca
+ * niega un nombre que ya pueda estar confirmado.
+ */
+@RequiredArgsConstructor
+public class NameFilteredFranchiseGateway implements FranchiseGateway {
+
+    private final FranchiseGateway delegate;
+    private final NameFilter names;
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return Mono.defer(() -> {
+            names.put(franchise.getName());
+            return delegate.save(franchise);
+        });
+    }
+
+    @Override
+    public Mono<Franchise> insertIfAbsent(Franchise franchise) {
+        return Mono.defer(() -> {
+            names.put(franchise.getName());
+            return delegate.insertIfAbsent(franchise);
+        });
+    }
+
+    @Override
+    public Mono<Franchise> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Mono<Franchise> findByName(String name) {
+        return Mono.defer(() -> names.mightContain(name) ? delegate.findByName(name) : Mono.empty());
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Flux<Franchise> findAllAfter(Long afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public Mono<Franchise> updateName(Long id, String newName, Long expectedVersion) {
+        return Mono.defer(() -> {
+            names.put(newName);
+            return delegate.updateName(id, newName, expectedVersion);
+        });
+    }
+
+}
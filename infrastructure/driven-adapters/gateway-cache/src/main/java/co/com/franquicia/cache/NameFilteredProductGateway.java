@@ -0,0 +1,138 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.StockUpdate;
+import co.com.franquicia.model.product.TopStockProduct;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Responde {@code findByName} y {@code findExistingNames} sin consultar la base de datos para
+ * los nombres que el filtro descarta; las escrituras registran su nombre antes de ejecutarse.
+ */
+@RequiredArgsConstructor
+public class NameFilteredProductGateway implements ProductGateway {
+
+    private final ProductGateway delegate;
+    private final NameFilter names;
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return Mono.defer(() -> {
+            names.put(product.getName());
+            return delegate.save(product);
+        });
+    }
+
+    @Override
+    public Mono<Product> insertIfAbsent(Product product) {
+        return Mono.defer(() -> {
+            names.put(product.getName());
+            return delegate.insertIfAbsent(product);
+        });
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return Flux.defer(() -> {
+            products.forEach(product -> names.put(product.getName()));
+            return delegate.saveAll(products);
+        });
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Mono<Product> findByName(String name) {
+        return Mono.defer(() -> names.mightContain(name) ? delegate.findByName(name) : Mono.empty());
+    }
+
+    @Override
+    public Flux<Product> findByBranchIdAfter(Long branchId, Long afterId, int limit) {
+        return delegate.findByBranchIdAfter(branchId, afterId, limit);
+    }
+
+    /** Solo consulta los nombres que el filtro no descarta; si no queda ninguno, no hay consulta. */
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return Flux.defer(() -> {
+            List<String> candidates = names.stream().filter(this.names::mightContain).toList();
+            return candidates.isEmpty() ? Flux.empty() : delegate.findExistingNames(candidates);
+        });
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    @Override
+    public Mono<Product> updateStock(Long id, Integer newStock, Long expectedVersion) {
+        return delegate.updateStock(id, newStock, expectedVersion);
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        return delegate.adjustStock(id, delta);
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        return delegate.updateStocks(updates);
+    }
+
+    @Override
+    public Mono<Product> updateName(Long id, String newName, Long expectedVersion) {
+        return Mono.defer(() -> {
+            names.put(newName);
+            return delegate.updateName(id, newName, expectedVersion);
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return delegate.deleteById(id);
+    }
+
+    @Override
+    public Flux<Product> streamByFranchise(Long franchiseId) {
+        return delegate.streamByFranchise(franchiseId);
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(Long branchId) {
+        return delegate.streamByBranch(branchId);
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId) {
+        return delegate.findTopStockByFranchise(franchiseId);
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId, int k) {
+        return delegate.findTopStockByFranchise(franchiseId, k);
+    }
+
+    @Override
+    public Flux<ProductRanking> findTopProductsByFranchise(Long franchiseId, RankKey after, int limit) {
+        return delegate.findTopProductsByFranchise(franchiseId, after, limit);
+    }
+
+    @Override
+    public Flux<FranchiseStockTotal> findTopFranchisesByStock(RankKey after, int limit) {
+        return delegate.findTopFranchisesByStock(after, limit);
+    }
+
+}
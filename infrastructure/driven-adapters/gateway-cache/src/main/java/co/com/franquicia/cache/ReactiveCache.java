@@ -0,0 +1,59 @@
+package co.com.franquicia.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caché Caffeine de lectura delegada ({@code read-through}) para gateways reactivos.
+ * <p>
+ * Se guarda el futuro de la carga, no el valor: las peticiones simultáneas por la misma clave
+ * comparten una sola consulta. Una carga vacía o con error no queda en la caché. Las
+ * estadísticas se publican en Micrometer como {@code cache.gets{cache=<nombre>,result=hit|miss}},
+ * {@code cache.evictions} y {@code cache.size}.
+ */
+public class ReactiveCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    public ReactiveCache(String name, long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), name);
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        // suppressCancel: cancelar una suscripción no debe cancelar la carga que comparten otras
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+
+    /** Solo lo que ya está en la caché, sin cargar nada si falta. */
+    public Mono<V> getIfPresent(K key) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> future = cache.getIfPresent(key);
+            return future == null ? Mono.empty() : Mono.fromFuture(future, true);
+        });
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+}
@@ -0,0 +1,52 @@
+package co.com.franquicia.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa lecturas idénticas concurrentes ({@code single-flight}): mientras una consulta con la
+ * misma clave está en curso, los demás suscriptores se enganchan a ella y reciben las mismas
+ * filas, incluidas las ya emitidas. Al terminar (bien o con error) la clave se libera y la
+ * siguiente petición vuelve a consultar; no es una caché.
+ * <p>
+ * Una consulta compartida sigue hasta el final aunque cancele quien la inició, para no dejar sin
+ * respuesta al resto. Las ejecuciones se cuentan en
+ * {@code single_flight.calls{name=<nombre>,result=executed|shared}}.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flux<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter shared;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("single_flight.calls").tag("name", name).tag("result", "executed")
+                .register(meterRegistry);
+        this.shared = Counter.builder("single_flight.calls").tag("name", name).tag("result", "shared")
+                .register(meterRegistry);
+    }
+
+    public Flux<V> execute(K key, Supplier<Flux<V>> call) {
+        return Flux.defer(() -> {
+            AtomicReference<Flux<V>> self = new AtomicReference<>();
+            Flux<V> flight = Flux.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(flight);
+            Flux<V> running = inFlight.putIfAbsent(key, flight);
+            if (running != null) {
+                shared.increment();
+                return running;
+            }
+            executed.increment();
+            return flight;
+        });
+    }
+
+}
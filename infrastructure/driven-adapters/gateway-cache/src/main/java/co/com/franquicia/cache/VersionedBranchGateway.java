@@ -0,0 +1,75 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.catalog.CatalogChange;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Sube la versión de la franquicia de la sucursal después de cada escritura confirmada y pasa el
+ * cambio a {@link CatalogChangeBus#publish}, que lo descarta si lo entrega el outbox.
+ */
+@RequiredArgsConstructor
+public class VersionedBranchGateway implements BranchGateway {
+
+    private final BranchGateway delegate;
+    private final CatalogVersionTracker versions;
+    private final CatalogChangeBus changes;
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return delegate.save(branch).doOnNext(this::bump);
+    }
+
+    @Override
+    public Mono<Branch> insertIfAbsent(Branch branch) {
+        return delegate.insertIfAbsent(branch).doOnNext(this::bump);
+    }
+
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseIdAfter(Long franchiseId, Long afterId, int limit) {
+        return delegate.findByFranchiseIdAfter(franchiseId, afterId, limit);
+    }
+
+    @Override
+    public Mono<Branch> updateName(Long id, String newName, Long expectedVersion) {
+        return delegate.updateName(id, newName, expectedVersion).doOnNext(this::bump);
+    }
+
+    @Override
+    public Mono<Branch> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    private void bump(Branch branch) {
+        versions.bump(branch.getFranchiseId());
+        changes.publish(branch.getFranchiseId() == null
+                ? CatalogChange.resync(null)
+                : CatalogChange.branch(CatalogChange.Type.UPSERTED, branch, versions.version(branch.getFranchiseId())));
+    }
+
+}
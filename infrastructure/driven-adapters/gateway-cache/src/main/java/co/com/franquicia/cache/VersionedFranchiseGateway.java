@@ -0,0 +1,69 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sube la versión de la franquicia y la de la lista de franquicias después de cada escritura
+ * confirmada, y pasa el cambio a {@link CatalogChangeBus#publish}, que lo descarta si lo entrega
+ * el outbox.
+ */
+@RequiredArgsConstructor
+public class VersionedFranchiseGateway implements FranchiseGateway {
+
+    private final FranchiseGateway delegate;
+    private final CatalogVersionTracker versions;
+    private final CatalogChangeBus changes;
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return delegate.save(franchise).doOnNext(this::bump);
+    }
+
+    @Override
+    public Mono<Franchise> insertIfAbsent(Franchise franchise) {
+        return delegate.insertIfAbsent(franchise).doOnNext(this::bump);
+    }
+
+    @Override
+    public Mono<Franchise> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Mono<Franchise> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Flux<Franchise> findAllAfter(Long afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public Mono<Franchise> updateName(Long id, String newName, Long expectedVersion) {
+        return delegate.updateName(id, newName, expectedVersion).doOnNext(this::bump);
+    }
+
+    private void bump(Franchise franchise) {
+        versions.bump(franchise.getId());
+        versions.bumpFranchiseList();
+        changes.publish(CatalogChange.franchise(CatalogChange.Type.UPSERTED, franchise,
+                versions.version(franchise.getId())));
+    }
+
+}
@@ -0,0 +1,183 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.StockUpdate;
+import co.com.franquicia.model.product.TopStockProduct;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sube la versión de la franquicia del producto después de cada escritura confirmada y publica el
+ * cambio en {@link CatalogChangeBus}, antes de devolver el resultado. La franquicia se obtiene de
+ * la sucursal con {@code franchiseOfBranch} (normalmente el {@code findById} cacheado de
+ * sucursales); si no se puede resolver, se invalidan todas las versiones y se publica un
+ * {@code RESYNC} para todas las franquicias. Si el outbox entrega los cambios, aquí solo se sube
+ * la versión (para que quien escribió vea su cambio en la siguiente consulta) y la publicación
+ * queda a cargo del outbox.
+ */
+@RequiredArgsConstructor
+public class VersionedProductGateway implements ProductGateway {
+
+    private final ProductGateway delegate;
+    private final CatalogVersionTracker versions;
+    private final CatalogChangeBus changes;
+    private final Function<Long, Mono<Long>> franchiseOfBranch;
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return delegate.save(product).flatMap(this::bump);
+    }
+
+    @Override
+    public Mono<Product> insertIfAbsent(Product product) {
+        return delegate.insertIfAbsent(product).flatMap(this::bump);
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return delegate.saveAll(products)
+                .collectList()
+                .flatMapMany(saved -> {
+                    Map<Long, List<Product>> byBranch = saved.stream()
+                            .collect(Collectors.groupingBy(Product::getBranchId, LinkedHashMap::new, Collectors.toList()));
+                    return Flux.fromIterable(byBranch.entrySet())
+                            .concatMap(branch -> publish(CatalogChange.Type.UPSERTED, branch.getKey(), branch.getValue()))
+                            .thenMany(Flux.fromIterable(saved));
+                });
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Mono<Product> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Flux<Product> findByBranchIdAfter(Long branchId, Long afterId, int limit) {
+        return delegate.findByBranchIdAfter(branchId, afterId, limit);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return delegate.findExistingNames(names);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return delegate.streamNames();
+    }
+
+    @Override
+    public Mono<Product> updateStock(Long id, Integer newStock, Long expectedVersion) {
+        return delegate.updateStock(id, newStock, expectedVersion).flatMap(this::bump);
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        return delegate.adjustStock(id, delta).flatMap(this::bump);
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        return delegate.updateStocks(updates)
+                .collectList()
+                .flatMapMany(updated -> {
+                    Map<Long, List<Product>> byBranch = updated.stream()
+                            .collect(Collectors.groupingBy(Product::getBranchId, LinkedHashMap::new, Collectors.toList()));
+                    return Flux.fromIterable(byBranch.entrySet())
+                            .concatMap(branch -> publish(CatalogChange.Type.UPSERTED, branch.getKey(), branch.getValue()))
+                            .thenMany(Flux.fromIterable(updated));
+                });
+    }
+
+    @Override
+    public Mono<Product> updateName(Long id, String newName, Long expectedVersion) {
+        return delegate.updateName(id, newName, expectedVersion).flatMap(this::bump);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        // la sucursal se lee antes de borrar: después ya no hay fila de la que sacarla
+        return delegate.findById(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(product -> delegate.deleteById(id)
+                        .then(product
+                                .map(deleted -> publish(CatalogChange.Type.DELETED, deleted.getBranchId(), List.of(deleted)))
+                                .orElse(Mono.empty())));
+    }
+
+    @Override
+    public Flux<Product> streamByFranchise(Long franchiseId) {
+        return delegate.streamByFranchise(franchiseId);
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(Long branchId) {
+        return delegate.streamByBranch(branchId);
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId) {
+        return delegate.findTopStockByFranchise(franchiseId);
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId, int k) {
+        return delegate.findTopStockByFranchise(franchiseId, k);
+    }
+
+    @Override
+    public Flux<ProductRanking> findTopProductsByFranchise(Long franchiseId, RankKey after, int limit) {
+        return delegate.findTopProductsByFranchise(franchiseId, after, limit);
+    }
+
+    @Override
+    public Flux<FranchiseStockTotal> findTopFranchisesByStock(RankKey after, int limit) {
+        return delegate.findTopFranchisesByStock(after, limit);
+    }
+
+    private Mono<Product> bump(Product product) {
+        return publish(CatalogChange.Type.UPSERTED, product.getBranchId(), List.of(product)).thenReturn(product);
+    }
+
+    private Mono<Void> publish(CatalogChange.Type type, Long branchId, List<Product> products) {
+        return bumpBranch(branchId)
+                .doOnNext(franchiseId -> {
+                    String version = versions.version(franchiseId);
+                    products.forEach(product -> changes.publish(CatalogChange.product(type, product, franchiseId, version)));
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> changes.publish(CatalogChange.resync(null))))
+                .then();
+    }
+
+    // franquicia a la que se atribuye la escritura, o vacío si no se pudo y se invalidó todo
+    private Mono<Long> bumpBranch(Long branchId) {
+        if (branchId == null) {
+            return Mono.fromRunnable(versions::bumpAll);
+        }
+        return franchiseOfBranch.apply(branchId)
+                .doOnNext(versions::bump)
+                .switchIfEmpty(Mono.fromRunnable(versions::bumpAll))
+                .onErrorResume(error -> Mono.fromRunnable(versions::bumpAll));
+    }
+
+}
@@ -0,0 +1,91 @@
+package co.com.franquicia.cache.config;
+
+import co.com.franquicia.cache.CatalogChangeBus;
+import co.com.franquicia.cache.CatalogVersionTracker;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.catalog.gateway.CatalogBroadcastGateway;
+import co.com.franquicia.model.catalog.gateway.CatalogOutboxGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.core.publisher.BufferOverflowStrategy;
+
+/**
+ * Caché de {@code findById} y filtros de nombres para franquicias, sucursales y productos.
+ * <p>
+ * {@code adapters.cache.enabled} activa la caché (por defecto sí); {@code max-size} limita cada
+ * caché y {@code ttl-ms} / {@code product-ttl-ms} fijan cuánto vive una entrada. Las escrituras de
+ * esta instancia actualizan la caché al momento; el TTL acota cuánto tarda en verse lo que
+ * escriban otras instancias, por eso el de productos, que cambian a menudo, es más corto.
+ * <p>
+ * {@code adapters.name-filter.enabled} activa los filtros de Bloom que evitan consultar
+ * {@code findByName} para nombres nuevos; {@code expected-names} y {@code fpp} los dimensionan.
+ * Un nombre creado por otra instancia no está en el filtro hasta la siguiente recarga: mientras
+ * tanto el índice único de la columna sigue rechazando el duplicado.
+ * <p>
+ * Las escrituras suben además la versión de la franquicia afectada ({@link CatalogVersionTracker}),
+ * de la que salen los ETag de las consultas. Son contadores de esta instancia.
+ * <p>
+ * Cada escritura se publica también en {@link CatalogChangeBus}, que alimenta el flujo de cambios
+ * por franquicia. {@code adapters.changes.buffer-size} es el buffer de cada suscriptor y
+ * {@code overflow} qué hacer cuando se llena ({@code DROP_OLDEST}, {@code DROP_LATEST} o
+ * {@code ERROR}).
+ * <p>
+ * Si algún adaptador ofrece un {@link CatalogBroadcastGateway} (el de JPA, con
+ * {@code LISTEN/NOTIFY}), los cambios se avisan a las demás instancias y los de ellas invalidan
+ * aquí cachés y versiones; sin él, lo escrito en otra instancia se ve al vencer el TTL.
+ * <p>
+ * Si las escrituras pasan por un outbox ({@link CatalogOutboxGateway}), la publicación y el aviso
+ * salen de él, a través de {@link OutboxChangePublisher}, y no de la petición que escribió.
+ */
+@Configuration
+public class GatewayCacheConfig {
+
+    // static: los BeanPostProcessor se registran antes que el resto de la configuración
+    @Bean
+    public static GatewayCachePostProcessor gatewayCachePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                      ObjectProvider<CatalogVersionTracker> versions,
+                                                                      ObjectProvider<CatalogChangeBus> changes,
+                                                                      ObjectProvider<BranchGateway> branchGateway,
+                                                                      Environment environment) {
+        return new GatewayCachePostProcessor(meterRegistry, versions, changes, branchGateway, environment);
+    }
+
+    @Bean
+    public static CatalogVersionTracker catalogVersionTracker() {
+        return new CatalogVersionTracker();
+    }
+
+    @Bean
+    public static CatalogChangeBus catalogChangeBus(MeterRegistry meterRegistry,
+                                                    ObjectProvider<CatalogBroadcastGateway> broadcaster,
+                                                    ObjectProvider<CatalogOutboxGateway> outbox,
+                                                    @Value("${adapters.changes.buffer-size:256}") int bufferSize,
+                                                    @Value("${adapters.changes.overflow:DROP_OLDEST}") BufferOverflowStrategy overflow) {
+        return new CatalogChangeBus(bufferSize, overflow, meterRegistry, broadcaster::getIfAvailable, outbox::getIfAvailable);
+    }
+
+    @Bean
+    public NameFilterRefresher nameFilterRefresher(GatewayCachePostProcessor gatewayCachePostProcessor,
+                                                   @Value("${adapters.name-filter.refresh-interval-ms:600000}") long refreshIntervalMs) {
+        return new NameFilterRefresher(gatewayCachePostProcessor, refreshIntervalMs);
+    }
+
+    @Bean
+    public RemoteChangeListener remoteChangeListener(GatewayCachePostProcessor gatewayCachePostProcessor,
+                                                     CatalogVersionTracker catalogVersionTracker,
+                                                     CatalogChangeBus catalogChangeBus,
+                                                     ObjectProvider<CatalogBroadcastGateway> broadcaster) {
+        return new RemoteChangeListener(gatewayCachePostProcessor, catalogVersionTracker, catalogChangeBus, broadcaster);
+    }
+
+    @Bean
+    public OutboxChangePublisher outboxChangePublisher(RemoteChangeListener remoteChangeListener,
+                                                       ObjectProvider<CatalogBroadcastGateway> broadcaster) {
+        return new OutboxChangePublisher(remoteChangeListener, broadcaster);
+    }
+
+}
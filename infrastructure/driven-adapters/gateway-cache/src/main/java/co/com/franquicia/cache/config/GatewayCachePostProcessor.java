@@ -0,0 +1,215 @@
+package co.com.franquicia.cache.config;
+
+import co.com.franquicia.cache.CacheInvalidatingInventoryGateway;
+import co.com.franquicia.cache.CachedBranchGateway;
+import co.com.franquicia.cache.CachedFranchiseGateway;
+import co.com.franquicia.cache.CachedIdempotencyGateway;
+import co.com.franquicia.cache.CachedProductGateway;
+import co.com.franquicia.cache.CatalogChangeBus;
+import co.com.franquicia.cache.CatalogVersionTracker;
+import co.com.franquicia.cache.NameFilter;
+import co.com.franquicia.cache.NameFilteredBranchGateway;
+import co.com.franquicia.cache.NameFilteredFranchiseGateway;
+import co.com.franquicia.cache.NameFilteredProductGateway;
+import co.com.franquicia.cache.ReactiveCache;
+import co.com.franquicia.cache.SingleFlight;
+import co.com.franquicia.cache.VersionedBranchGateway;
+import co.com.franquicia.cache.VersionedFranchiseGateway;
+import co.com.franquicia.cache.VersionedProductGateway;
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import co.com.franquicia.model.inventory.gateway.InventoryGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Envuelve los adaptadores de los gateways, sean JPA o R2DBC, con sus decoradores: primero el
+ * filtro de nombres, luego la caché de {@code findById} y por fuera el que sube las versiones del
+ * catálogo y publica los cambios. Así los casos de uso reciben la versión decorada sin que ningún adaptador dependa de
+ * esta capa. Las cachés y los filtros se crean al envolver el primer adaptador que los usa.
+ * <p>
+ * Las claves de idempotencia llevan delante una caché acotada ({@code adapters.idempotency.max-size})
+ * de las respuestas ya guardadas.
+ */
+class GatewayCachePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<CatalogVersionTracker> versions;
+    private final ObjectProvider<CatalogChangeBus> changes;
+    private final ObjectProvider<BranchGateway> branchGateway;
+    private final boolean cacheEnabled;
+    private final long maximumSize;
+    private final Duration ttl;
+    private final Duration productTtl;
+    private final boolean nameFilterEnabled;
+    private final long expectedNames;
+    private final double fpp;
+    private final boolean idempotencyEnabled;
+    private final long idempotencyMaximumSize;
+    private final Duration idempotencyTtl;
+
+    private ReactiveCache<Long, Franchise> franchiseCache;
+    private ReactiveCache<Long, Branch> branchCache;
+    private ReactiveCache<Long, Product> productCache;
+    private NameFilter franchiseNames;
+    private NameFilter branchNames;
+    private NameFilter productNames;
+
+    GatewayCachePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                              ObjectProvider<CatalogVersionTracker> versions,
+                              ObjectProvider<CatalogChangeBus> changes,
+                              ObjectProvider<BranchGateway> branchGateway,
+                              Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.versions = versions;
+        this.changes = changes;
+        this.branchGateway = branchGateway;
+        this.cacheEnabled = environment.getProperty("adapters.cache.enabled", Boolean.class, true);
+        this.maximumSize = environment.getProperty("adapters.cache.max-size", Long.class, 10_000L);
+        this.ttl = Duration.ofMillis(environment.getProperty("adapters.cache.ttl-ms", Long.class, 600_000L));
+        this.productTtl = Duration.ofMillis(environment.getProperty("adapters.cache.product-ttl-ms", Long.class, 30_000L));
+        this.nameFilterEnabled = environment.getProperty("adapters.name-filter.enabled", Boolean.class, true);
+        this.expectedNames = environment.getProperty("adapters.name-filter.expected-names", Long.class, 100_000L);
+        this.fpp = environment.getProperty("adapters.name-filter.fpp", Double.class, 0.01);
+        this.idempotencyEnabled = environment.getProperty("adapters.idempotency.enabled", Boolean.class, true);
+        this.idempotencyMaximumSize = environment.getProperty("adapters.idempotency.max-size", Long.class, 10_000L);
+        this.idempotencyTtl = Duration.ofMillis(environment.getProperty("adapters.idempotency.ttl-ms", Long.class, 86_400_000L));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof FranchiseGateway gateway) {
+            FranchiseGateway decorated = gateway;
+            if (nameFilterEnabled) {
+                franchiseNames().bind(gateway::streamNames);
+                decorated = new NameFilteredFranchiseGateway(decorated, franchiseNames());
+            }
+            if (cacheEnabled) {
+                decorated = new CachedFranchiseGateway(decorated, franchiseCache());
+            }
+            return new VersionedFranchiseGateway(decorated, versions.getObject(), changes.getObject());
+        }
+        if (bean instanceof BranchGateway gateway) {
+            BranchGateway decorated = gateway;
+            if (nameFilterEnabled) {
+                branchNames().bind(gateway::streamNames);
+                decorated = new NameFilteredBranchGateway(decorated, branchNames());
+            }
+            if (cacheEnabled) {
+                decorated = new CachedBranchGateway(decorated, branchCache(),
+                        new SingleFlight<>("branches_by_franchise", meterRegistry.getObject()));
+            }
+            return new VersionedBranchGateway(decorated, versions.getObject(), changes.getObject());
+        }
+        if (bean instanceof ProductGateway gateway) {
+            ProductGateway decorated = gateway;
+            if (nameFilterEnabled) {
+                productNames().bind(gateway::streamNames);
+                decorated = new NameFilteredProductGateway(decorated, productNames());
+            }
+            if (cacheEnabled) {
+                decorated = new CachedProductGateway(decorated, productCache(),
+                        new SingleFlight<>("top_stock", meterRegistry.getObject()));
+            }
+            // la sucursal se busca en el bean ya decorado, con su caché de findById
+            return new VersionedProductGateway(decorated, versions.getObject(), changes.getObject(),
+                    branchId -> branchGateway.getObject().findById(branchId).mapNotNull(Branch::getFranchiseId));
+        }
+        if (bean instanceof InventoryGateway gateway) {
+            return new CacheInvalidatingInventoryGateway(gateway,
+                    cacheEnabled ? productCache() : null,
+                    nameFilterEnabled ? productNames() : null,
+                    versions.getObject(),
+                    changes.getObject());
+        }
+        if (bean instanceof IdempotencyGateway gateway && idempotencyEnabled && idempotencyMaximumSize > 0) {
+            return new CachedIdempotencyGateway(gateway,
+                    new ReactiveCache<>("idempotency", idempotencyMaximumSize, idempotencyTtl, meterRegistry.getObject()));
+        }
+        return bean;
+    }
+
+    /**
+     * Aplica un cambio hecho por otra instancia: saca de la caché la entidad y registra su nombre
+     * en el filtro. Un {@code RESYNC} vacía las cachés y recarga los filtros.
+     */
+    synchronized void evict(CatalogChange change) {
+        if (change.getType() == CatalogChange.Type.RESYNC) {
+            Stream.of(franchiseCache, branchCache, productCache).filter(Objects::nonNull).forEach(ReactiveCache::invalidateAll);
+            nameFilters().forEach(filter -> filter.reload().subscribe());
+            return;
+        }
+        if (change.getId() == null || change.getAggregate() == null) return;
+        switch (change.getAggregate()) {
+            case FRANCHISE -> evict(franchiseCache, franchiseNames, change);
+            case BRANCH -> evict(branchCache, branchNames, change);
+            case PRODUCT -> evict(productCache, productNames, change);
+        }
+    }
+
+    private static void evict(ReactiveCache<Long, ?> cache, NameFilter names, CatalogChange change) {
+        if (cache != null) cache.invalidate(change.getId());
+        if (names != null && change.getName() != null) names.put(change.getName());
+    }
+
+    /** Filtros creados hasta ahora; tras instanciar los singletons, todos. */
+    synchronized List<NameFilter> nameFilters() {
+        return Stream.of(franchiseNames, branchNames, productNames).filter(Objects::nonNull).toList();
+    }
+
+    private synchronized ReactiveCache<Long, Franchise> franchiseCache() {
+        if (franchiseCache == null) {
+            franchiseCache = new ReactiveCache<>("franchises", maximumSize, ttl, meterRegistry.getObject());
+        }
+        return franchiseCache;
+    }
+
+    private synchronized ReactiveCache<Long, Branch> branchCache() {
+        if (branchCache == null) {
+            branchCache = new ReactiveCache<>("branches", maximumSize, ttl, meterRegistry.getObject());
+        }
+        return branchCache;
+    }
+
+    private synchronized ReactiveCache<Long, Product> productCache() {
+        if (productCache == null) {
+            productCache = new ReactiveCache<>("products", maximumSize, productTtl, meterRegistry.getObject());
+        }
+        return productCache;
+    }
+
+    private synchronized NameFilter franchiseNames() {
+        if (franchiseNames == null) {
+            franchiseNames = new NameFilter("franchises", expectedNames, fpp, meterRegistry.getObject());
+        }
+        return franchiseNames;
+    }
+
+    private synchronized NameFilter branchNames() {
+        if (branchNames == null) {
+            branchNames = new NameFilter("branches", expectedNames, fpp, meterRegistry.getObject());
+        }
+        return branchNames;
+    }
+
+    private synchronized NameFilter productNames() {
+        if (productNames == null) {
+            productNames = new NameFilter("products", expectedNames, fpp, meterRegistry.getObject());
+        }
+        return productNames;
+    }
+
+}
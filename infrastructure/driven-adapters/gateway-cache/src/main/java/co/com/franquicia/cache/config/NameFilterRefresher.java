@@ -0,0 +1,51 @@
+package co.com.franquicia.cache.config;
+
+import co.com.franquicia.cache.NameFilter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Carga los filtros de nombres cuando ya existen todos los adaptadores y los recarga cada
+ * {@code adapters.name-filter.refresh-interval-ms} (0 = solo al arrancar). Las recargas van de
+ * una en una; si una tarda más que el intervalo, el siguiente turno se salta.
+ */
+class NameFilterRefresher implements SmartInitializingSingleton, DisposableBean {
+
+    private final GatewayCachePostProcessor processor;
+    private final long refreshIntervalMs;
+    private final Scheduler scheduler = Schedulers.newSingle("name-filter");
+    private Disposable ticker;
+
+    NameFilterRefresher(GatewayCachePostProcessor processor, long refreshIntervalMs) {
+        this.processor = processor;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<NameFilter> filters = processor.nameFilters();
+        if (filters.isEmpty()) return;
+        Flux<Long> ticks = refreshIntervalMs > 0
+                ? Flux.interval(Duration.ZERO, Duration.ofMillis(refreshIntervalMs), scheduler).onBackpressureDrop()
+                : Flux.just(0L);
+        ticker = ticks
+                .concatMap(tick -> Flux.fromIterable(filters).concatMap(NameFilter::reload), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+}
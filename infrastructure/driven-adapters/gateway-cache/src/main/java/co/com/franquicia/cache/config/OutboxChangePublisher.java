@@ -0,0 +1,35 @@
+package co.com.franquicia.cache.config;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.CatalogChangeListener;
+import co.com.franquicia.model.catalog.gateway.CatalogBroadcastGateway;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consumidor del outbox que lleva cada cambio confirmado al flujo de cambios de esta instancia y
+ * lo avisa a las demás. El registro pudo escribirlo otra instancia, así que aquí se aplica como
+ * uno remoto ({@link RemoteChangeListener}: caché, filtro de nombres, versión y entrega a los
+ * suscriptores); si lo escribió esta, repetirlo solo sube otra vez la versión de la franquicia.
+ * Las demás lo reciben por {@link CatalogBroadcastGateway}, si lo hay.
+ */
+class OutboxChangePublisher implements CatalogChangeListener {
+
+    private final RemoteChangeListener local;
+    private final ObjectProvider<CatalogBroadcastGateway> broadcaster;
+
+    OutboxChangePublisher(RemoteChangeListener local, ObjectProvider<CatalogBroadcastGateway> broadcaster) {
+        this.local = local;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public Mono<Void> onChange(CatalogChange change) {
+        return Mono.fromRunnable(() -> local.apply(change))
+                .then(Mono.defer(() -> {
+                    CatalogBroadcastGateway gateway = broadcaster.getIfAvailable();
+                    return gateway == null ? Mono.<Void>empty() : gateway.broadcast(change);
+                }));
+    }
+
+}
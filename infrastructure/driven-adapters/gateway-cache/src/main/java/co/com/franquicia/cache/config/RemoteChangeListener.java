@@ -0,0 +1,67 @@
+package co.com.franquicia.cache.config;
+
+import co.com.franquicia.cache.CatalogChangeBus;
+import co.com.franquicia.cache.CatalogVersionTracker;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.gateway.CatalogBroadcastGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import reactor.core.Disposable;
+
+/**
+ * Aplica en esta instancia los cambios hechos en otras: invalida la caché y registra el nombre en
+ * el filtro, sube la versión de la franquicia (con la numeración de esta instancia) y entrega el
+ * cambio a los suscriptores locales del flujo. Sin {@link CatalogBroadcastGateway} (p. ej. con el
+ * perfil {@code r2dbc}) no se suscribe a nada. {@link OutboxChangePublisher} aplica igual los
+ * cambios que entrega el outbox.
+ */
+@Slf4j
+class RemoteChangeListener implements SmartInitializingSingleton, DisposableBean {
+
+    private final GatewayCachePostProcessor processor;
+    private final CatalogVersionTracker versions;
+    private final CatalogChangeBus changes;
+    private final ObjectProvider<CatalogBroadcastGateway> broadcaster;
+    private Disposable subscription;
+
+    RemoteChangeListener(GatewayCachePostProcessor processor, CatalogVersionTracker versions,
+                         CatalogChangeBus changes, ObjectProvider<CatalogBroadcastGateway> broadcaster) {
+        this.processor = processor;
+        this.versions = versions;
+        this.changes = changes;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        CatalogBroadcastGateway gateway = broadcaster.getIfAvailable();
+        if (gateway == null) return;
+        subscription = gateway.remoteChanges().subscribe(this::apply);
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    void apply(CatalogChange change) {
+        try {
+            processor.evict(change);
+            Long franchiseId = change.getFranchiseId();
+            versions.bump(franchiseId);
+            if (change.getAggregate() == CatalogChange.Aggregate.FRANCHISE) {
+                versions.bumpFranchiseList();
+            }
+            changes.deliver(change.toBuilder()
+                    .version(franchiseId == null ? null : versions.version(franchiseId))
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo aplicar el cambio remoto {}", change, e);
+        }
+    }
+
+}
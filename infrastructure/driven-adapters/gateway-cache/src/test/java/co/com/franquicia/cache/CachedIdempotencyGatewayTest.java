@@ -0,0 +1,91 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachedIdempotencyGatewayTest {
+
+    private static final String FINGERPRINT = "POST /api/v1/products/create";
+
+    @Mock
+    private IdempotencyGateway delegate;
+
+    private CachedIdempotencyGateway cachedGateway;
+    private IdempotentResponse completed;
+
+    @BeforeEach
+    void setUp() {
+        cachedGateway = new CachedIdempotencyGateway(delegate,
+                new ReactiveCache<>("idempotency", 100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+        completed = IdempotentResponse.builder()
+                .key("k-1").fingerprint(FINGERPRINT).status(200).body("{\"status\":200}").build();
+    }
+
+    @Test
+    void givenCompletedResponse_whenClaim_thenReplaysFromMemoryWithoutDelegate() {
+        // Arrange
+        when(delegate.complete(completed)).thenReturn(Mono.just(true));
+        cachedGateway.complete(completed).block();
+
+        // Act
+        Mono<IdempotentResponse> actualResult = cachedGateway.claim("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(completed)
+                .verifyComplete();
+        verify(delegate, never()).claim("k-1", FINGERPRINT);
+    }
+
+    @Test
+    void givenLostReservation_whenComplete_thenDoesNotCacheResponse() {
+        // Arrange
+        IdempotentResponse pending = completed.toBuilder().status(null).body(null).build();
+        when(delegate.complete(completed)).thenReturn(Mono.just(false));
+        when(delegate.claim("k-1", FINGERPRINT)).thenReturn(Mono.just(pending));
+        cachedGateway.complete(completed).block();
+
+        // Act
+        Mono<IdempotentResponse> actualResult = cachedGateway.claim("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(pending)
+                .verifyComplete();
+        verify(delegate).claim("k-1", FINGERPRINT);
+    }
+
+    @Test
+    void givenPendingClaim_whenClaimTwice_thenAsksDelegateEachTime() {
+        // Arrange
+        IdempotentResponse pending = completed.toBuilder().status(null).body(null).build();
+        when(delegate.claim("k-1", FINGERPRINT)).thenReturn(Mono.just(pending));
+
+        // Act
+        cachedGateway.claim("k-1", FINGERPRINT).block();
+        Mono<IdempotentResponse> actualResult = cachedGateway.claim("k-1", FINGERPRINT);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(pending)
+                .verifyComplete();
+        verify(delegate, times(2)).claim("k-1", FINGERPRINT);
+    }
+
+}
@@ -0,0 +1,94 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachedProductGatewayTest {
+
+    @Mock
+    private ProductGateway delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachedProductGateway cachedProductGateway;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachedProductGateway = new CachedProductGateway(delegate,
+                new ReactiveCache<>("products", 100, Duration.ofMinutes(1), meterRegistry),
+                new SingleFlight<>("top_stock", meterRegistry));
+        product = Product.builder().id(10L).branchId(4L).name("AirPods Pro 2").stock(200).build();
+    }
+
+    @Test
+    void givenCachedProduct_whenFindByIdTwice_thenQueriesDelegateOnce() {
+        // Arrange
+        when(delegate.findById(10L)).thenReturn(Mono.just(product));
+
+        // Act
+        cachedProductGateway.findById(10L).block();
+        Mono<Product> actualResult = cachedProductGateway.findById(10L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(product)
+                .verifyComplete();
+        verify(delegate, times(1)).findById(10L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void givenCachedProduct_whenUpdateStock_thenFindByIdReturnsWrittenRow() {
+        // Arrange
+        Product updated = product.toBuilder().stock(150).build();
+        when(delegate.findById(10L)).thenReturn(Mono.just(product));
+        when(delegate.updateStock(10L, 150, null)).thenReturn(Mono.just(updated));
+        cachedProductGateway.findById(10L).block();
+
+        // Act
+        cachedProductGateway.updateStock(10L, 150, null).block();
+        Mono<Product> actualResult = cachedProductGateway.findById(10L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(updated)
+                .verifyComplete();
+        verify(delegate, times(1)).findById(10L);
+    }
+
+    @Test
+    void givenCachedProduct_whenDeleteById_thenNextFindByIdGoesToDelegate() {
+        // Arrange
+        when(delegate.findById(10L)).thenReturn(Mono.just(product), Mono.empty());
+        when(delegate.deleteById(10L)).thenReturn(Mono.empty());
+        cachedProductGateway.findById(10L).block();
+
+        // Act
+        cachedProductGateway.deleteById(10L).block();
+        Mono<Product> actualResult = cachedProductGateway.findById(10L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+        verify(delegate, times(2)).findById(10L);
+    }
+
+}
@@ -0,0 +1,73 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.franchise.Franchise;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CatalogChangeBusTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogChangeBus bus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bus = new CatalogChangeBus(1, BufferOverflowStrategy.DROP_OLDEST, meterRegistry);
+    }
+
+    @Test
+    void givenChangesOfSeveralFranchises_whenSubscribed_thenReceivesOwnChangesAndGlobalResync() {
+        // Arrange
+        CatalogChange own = change(1L);
+        CatalogChange other = change(2L);
+        CatalogChange resync = CatalogChange.resync(null);
+
+        // Act
+        StepVerifier.create(bus.changes(1L))
+                .then(() -> {
+                    bus.publish(other);
+                    bus.publish(own);
+                    bus.publish(resync);
+                })
+                // Assert
+                .expectNext(own, resync)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void givenSlowSubscriber_whenBufferOverflows_thenDropsAndSendsResyncBeforeNextChange() {
+        // Arrange
+        CatalogChange first = change(1L).toBuilder().version("v1").build();
+        CatalogChange last = change(1L).toBuilder().version("v4").build();
+
+        // Act
+        StepVerifier.create(bus.changes(1L), 0)
+                .then(() -> {
+                    bus.publish(first);
+                    bus.publish(change(1L).toBuilder().version("v2").build());
+                    bus.publish(change(1L).toBuilder().version("v3").build());
+                    bus.publish(last);
+                })
+                .thenRequest(10)
+                // Assert
+                .expectNext(first)
+                .assertNext(change -> assertEquals(CatalogChange.Type.RESYNC, change.getType()))
+                .expectNext(last)
+                .thenCancel()
+                .verify();
+        assertEquals(2.0, meterRegistry.get("catalog_changes.dropped").counter().count());
+    }
+
+    private CatalogChange change(Long franchiseId) {
+        return CatalogChange.franchise(CatalogChange.Type.UPSERTED,
+                Franchise.builder().id(franchiseId).name("Franquicia " + franchiseId).build(), "v");
+    }
+
+}
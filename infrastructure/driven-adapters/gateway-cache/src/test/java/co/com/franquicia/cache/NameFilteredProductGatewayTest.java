@@ -0,0 +1,137 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NameFilteredProductGatewayTest {
+
+    @Mock
+    private ProductGateway delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NameFilter names;
+    private NameFilteredProductGateway filteredGateway;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        names = new NameFilter("products", 1_000, 0.01, meterRegistry);
+        names.bind(() -> Flux.just("AirPods Pro 2", "iPhone 15"));
+        filteredGateway = new NameFilteredProductGateway(delegate, names);
+        product = Product.builder().id(10L).branchId(4L).name("AirPods Pro 2").stock(200).build();
+    }
+
+    @Test
+    void givenLoadedFilter_whenFindByNameOfNewName_thenSkipsDelegate() {
+        // Arrange
+        names.reload().block();
+
+        // Act
+        Mono<Product> actualResult = filteredGateway.findByName("Galaxy S24");
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+        verify(delegate, never()).findByName(anyString());
+        assertEquals(1.0, meterRegistry.get("name_filter.lookups").tag("filter", "products")
+                .tag("result", "absent").counter().count());
+    }
+
+    @Test
+    void givenLoadedFilter_whenFindByNameOfExistingName_thenQueriesDelegate() {
+        // Arrange
+        names.reload().block();
+        when(delegate.findByName("AirPods Pro 2")).thenReturn(Mono.just(product));
+
+        // Act
+        Mono<Product> actualResult = filteredGateway.findByName("AirPods Pro 2");
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(product)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenFilterNotLoaded_whenFindByName_thenQueriesDelegate() {
+        // Arrange
+        when(delegate.findByName("Galaxy S24")).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Product> actualResult = filteredGateway.findByName("Galaxy S24");
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+        verify(delegate).findByName("Galaxy S24");
+    }
+
+    @Test
+    void givenLoadedFilter_whenProductInserted_thenItsNameGoesToDelegate() {
+        // Arrange
+        names.reload().block();
+        Product created = Product.builder().id(11L).branchId(4L).name("Galaxy S24").stock(5).build();
+        when(delegate.insertIfAbsent(created)).thenReturn(Mono.just(created));
+        when(delegate.findByName("Galaxy S24")).thenReturn(Mono.just(created));
+
+        // Act
+        filteredGateway.insertIfAbsent(created).block();
+        Mono<Product> actualResult = filteredGateway.findByName("Galaxy S24");
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(created)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenLoadedFilter_whenFindExistingNames_thenQueriesOnlyPossibleNames() {
+        // Arrange
+        names.reload().block();
+        when(delegate.findExistingNames(List.of("iPhone 15"))).thenReturn(Flux.just("iPhone 15"));
+
+        // Act
+        Flux<String> actualResult = filteredGateway.findExistingNames(List.of("Galaxy S24", "iPhone 15"));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext("iPhone 15")
+                .verifyComplete();
+    }
+
+    @Test
+    void givenSuspendedFilter_whenFindByName_thenQueriesDelegateUntilReload() {
+        // Arrange
+        names.reload().block();
+        names.suspend();
+        when(delegate.findByName("Galaxy S24")).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Product> actualResult = filteredGateway.findByName("Galaxy S24");
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+        verify(delegate).findByName("Galaxy S24");
+    }
+
+}
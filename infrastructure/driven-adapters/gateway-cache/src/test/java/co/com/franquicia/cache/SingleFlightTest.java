@@ -0,0 +1,87 @@
+package co.com.franquicia.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<Long, String> singleFlight;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("top_stock", meterRegistry);
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void givenCallInFlight_whenSameKeyRequested_thenSharesExecutionAndRows() {
+        // Arrange
+        Sinks.Many<String> rows = Sinks.many().replay().all();
+        Flux<String> first = singleFlight.execute(1L, () -> count(rows.asFlux()));
+        Flux<String> second = singleFlight.execute(1L, () -> count(rows.asFlux()));
+
+        // Act
+        CompletableFuture<List<String>> firstResult = first.collectList().toFuture();
+        rows.tryEmitNext("Sucursal Norte");
+        CompletableFuture<List<String>> secondResult = second.collectList().toFuture();
+        rows.tryEmitNext("Sucursal Sur");
+        rows.tryEmitComplete();
+
+        // Assert
+        assertEquals(List.of("Sucursal Norte", "Sucursal Sur"), firstResult.join());
+        assertEquals(List.of("Sucursal Norte", "Sucursal Sur"), secondResult.join());
+        assertEquals(1, executions.get());
+        assertEquals(1.0, meterRegistry.get("single_flight.calls").tag("result", "shared").counter().count());
+    }
+
+    @Test
+    void givenFinishedCall_whenSameKeyRequestedAgain_thenExecutesAgain() {
+        // Arrange
+        singleFlight.execute(1L, () -> count(Flux.just("Sucursal Norte"))).blockLast();
+
+        // Act
+        Flux<String> actualResult = singleFlight.execute(1L, () -> count(Flux.just("Sucursal Centro")));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext("Sucursal Centro")
+                .verifyComplete();
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void givenFailedCall_whenSameKeyRequestedAgain_thenExecutesAgain() {
+        // Arrange
+        StepVerifier.create(singleFlight.execute(1L, () -> count(Flux.error(new IllegalStateException("caída")))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        // Act
+        Flux<String> actualResult = singleFlight.execute(1L, () -> count(Flux.just("Sucursal Norte")));
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext("Sucursal Norte")
+                .verifyComplete();
+        assertEquals(2, executions.get());
+    }
+
+    private Flux<String> count(Flux<String> rows) {
+        executions.incrementAndGet();
+        return rows;
+    }
+
+}
@@ -0,0 +1,110 @@
+package co.com.franquicia.cache;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class VersionedProductGatewayTest {
+
+    @Mock
+    private ProductGateway delegate;
+
+    private CatalogVersionTracker versions;
+    private CatalogChangeBus changes;
+    private VersionedProductGateway versionedGateway;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        versions = new CatalogVersionTracker();
+        changes = new CatalogChangeBus(16, BufferOverflowStrategy.DROP_OLDEST, new SimpleMeterRegistry());
+        versionedGateway = new VersionedProductGateway(delegate, versions, changes,
+                branchId -> branchId == 4L ? Mono.just(1L) : Mono.empty());
+        product = Product.builder().id(10L).branchId(4L).name("AirPods Pro 2").stock(200).build();
+    }
+
+    @Test
+    void givenProductOfFranchise_whenUpdateStock_thenOnlyThatFranchiseVersionChanges() {
+        // Arrange
+        String franchiseBefore = versions.version(1L);
+        String otherBefore = versions.version(2L);
+        when(delegate.updateStock(10L, 150, null)).thenReturn(Mono.just(product.toBuilder().stock(150).build()));
+
+        // Act
+        Mono<Product> actualResult = versionedGateway.updateStock(10L, 150, null);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextCount(1)
+                .verifyComplete();
+        assertNotEquals(franchiseBefore, versions.version(1L));
+        assertEquals(otherBefore, versions.version(2L));
+    }
+
+    @Test
+    void givenProductOfUnknownBranch_whenUpdateStock_thenAllVersionsChange() {
+        // Arrange
+        Product orphan = product.toBuilder().branchId(99L).build();
+        String otherBefore = versions.version(2L);
+        when(delegate.updateStock(10L, 150, null)).thenReturn(Mono.just(orphan));
+
+        // Act
+        versionedGateway.updateStock(10L, 150, null).block();
+
+        // Assert
+        assertNotEquals(otherBefore, versions.version(2L));
+    }
+
+    @Test
+    void givenExistingProduct_whenDeleteById_thenDeletesOnceAndBumpsItsFranchise() {
+        // Arrange
+        String franchiseBefore = versions.version(1L);
+        when(delegate.findById(10L)).thenReturn(Mono.just(product));
+        when(delegate.deleteById(10L)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Void> actualResult = versionedGateway.deleteById(10L);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+        verify(delegate).deleteById(10L);
+        assertNotEquals(franchiseBefore, versions.version(1L));
+    }
+
+    @Test
+    void givenFranchiseSubscriber_whenUpdateStock_thenReceivesChangeWithNewVersion() {
+        // Arrange
+        when(delegate.updateStock(10L, 150, null)).thenReturn(Mono.just(product.toBuilder().stock(150).build()));
+
+        // Act
+        StepVerifier.create(changes.changes(1L))
+                .then(() -> versionedGateway.updateStock(10L, 150, null).block())
+                // Assert
+                .assertNext(change -> {
+                    assertEquals(CatalogChange.Type.UPSERTED, change.getType());
+                    assertEquals(CatalogChange.Aggregate.PRODUCT, change.getAggregate());
+                    assertEquals(10L, change.getId());
+                    assertEquals(150, change.getStock());
+                    assertEquals(versions.version(1L), change.getVersion());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+}
@@ -0,0 +1,91 @@
+package co.com.franquicia.cache.config;
+
+import co.com.franquicia.cache.CatalogChangeBus;
+import co.com.franquicia.cache.CatalogVersionTracker;
+import co.com.franquicia.cache.VersionedProductGateway;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.gateway.CatalogBroadcastGateway;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxChangePublisherTest {
+
+    @Mock
+    private ProductGateway delegate;
+
+    @Mock
+    private CatalogBroadcastGateway broadcaster;
+
+    private CatalogVersionTracker versions;
+    private CatalogChangeBus changes;
+    private VersionedProductGateway versionedGateway;
+    private OutboxChangePublisher publisher;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("broadcaster", broadcaster));
+        versions = new CatalogVersionTracker();
+        // el outbox está entregando los cambios
+        changes = new CatalogChangeBus(16, BufferOverflowStrategy.DROP_OLDEST, new SimpleMeterRegistry(),
+                () -> broadcaster, () -> () -> true);
+        versionedGateway = new VersionedProductGateway(delegate, versions, changes, branchId -> Mono.just(1L));
+        GatewayCachePostProcessor processor = new GatewayCachePostProcessor(
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                new StaticListableBeanFactory().getBeanProvider(CatalogVersionTracker.class),
+                new StaticListableBeanFactory().getBeanProvider(CatalogChangeBus.class),
+                new StaticListableBeanFactory().getBeanProvider(BranchGateway.class),
+                new MockEnvironment());
+        publisher = new OutboxChangePublisher(
+                new RemoteChangeListener(processor, versions, changes, beans.getBeanProvider(CatalogBroadcastGateway.class)),
+                beans.getBeanProvider(CatalogBroadcastGateway.class));
+        product = Product.builder().id(10L).branchId(4L).name("AirPods Pro 2").stock(150).version(3L).build();
+    }
+
+    @Test
+    void givenOutboxRelaying_whenProductWritten_thenSubscriberReceivesTheChangeFromTheOutbox() {
+        // Arrange
+        when(delegate.updateStock(10L, 150, null)).thenReturn(Mono.just(product));
+        CatalogChange recorded = CatalogChange.product(CatalogChange.Type.UPSERTED, product, 1L, null)
+                .toBuilder().sequence(7L).build();
+        when(broadcaster.broadcast(recorded)).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(changes.changes(1L))
+                .then(() -> {
+                    versionedGateway.updateStock(10L, 150, null).block();
+                    publisher.onChange(recorded).block();
+                })
+                // Assert
+                .assertNext(change -> {
+                    assertEquals(7L, change.getSequence());
+                    assertEquals(10L, change.getId());
+                    assertEquals(150, change.getStock());
+                    assertEquals(versions.version(1L), change.getVersion());
+                })
+                .thenCancel()
+                .verify();
+        verify(broadcaster).broadcast(recorded);
+    }
+
+}
@@ -1,32 +1,58 @@
 package co.com.franquicia.jpa.adapter;
 
 import co.com.franquicia.jpa.entity.BranchEntity;
+import co.com.franquicia.jpa.helper.JdbcCursor;
 import co.com.franquicia.jpa.mapper.BranchEntityMapper;
+import co.com.franquicia.jpa.readmodel.TopStockIndex;
 import co.com.franquicia.jpa.repository.BranchJpaRepository;
+import co.com.franquicia.jpa.repository.NameJdbcRepository;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
 import co.com.franquicia.model.branch.Branch;
 import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.VersionConflictException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
 
 @Repository
+@Profile("!r2dbc")
 @RequiredArgsConstructor
 public class BranchRepositoryAdapter implements BranchGateway {
 
     private final BranchJpaRepository repository;
     private final BranchEntityMapper mapper;
-
+    private final Scheduler scheduler;
+    private final TopStockIndex topStockIndex;
+    private final NameJdbcRepository nameRepository;
+    private final OutboxJdbcRepository outbox;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
     public Mono<Branch> save(Branch branch) {
-        return Mono.fromCallable(() -> {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
             BranchEntity saved = repository.save(mapper.toEntity(branch));
-            return mapper.toModel(saved);
-        });
+            return recorded(mapper.toModel(saved));
+        })).subscribeOn(scheduler).doOnNext(topStockIndex::onBranchSaved);
+    }
+
+    @Override
+    public Mono<Branch> insertIfAbsent(Branch branch) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> recorded(
+                        repository.insertIfAbsent(branch.getFranchiseId(), branch.getName())
+                                .map(mapper::toModel)
+                                .orElse(null))))
+                .subscribeOn(scheduler)
+                .doOnNext(topStockIndex::onBranchSaved);
     }
 
     @Override
@@ -34,7 +60,15 @@ public class BranchRepositoryAdapter implements BranchGateway {
         return Mono.fromCallable(() -> repository.findById(id)
                         .map(mapper::toModel)
                         .orElse(null))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return Mono.fromCallable(() -> repository.findAllById(ids))
+                .flatMapMany(Flux::fromIterable)
+                .map(mapper::toModel)
+                .subscribeOn(scheduler);
     }
 
     @Override
@@ -42,17 +76,28 @@ public class BranchRepositoryAdapter implements BranchGateway {
         return Mono.fromCallable(() -> repository.findByFranchiseId(franchiseId))
                 .flatMapMany(Flux::fromIterable)
                 .map(mapper::toModel)
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseIdAfter(Long franchiseId, Long afterId, int limit) {
+        return Mono.fromCallable(() -> repository.findByFranchiseIdAndIdGreaterThanOrderByIdAsc(
+                        franchiseId, afterId == null ? 0L : afterId, Limit.of(limit)))
+                .flatMapMany(Flux::fromIterable)
+                .map(mapper::toModel)
+                .subscribeOn(scheduler);
     }
 
     @Override
     @Transactional
-    public Mono<Branch> updateName(Long id, String newName) {
-        return Mono.fromCallable(() -> {
-            int updated = repository.updateName(id, newName);
-            if (updated == 0) return null;
-            return repository.findById(id).map(mapper::toModel).orElse(null);
-        }).subscribeOn(Schedulers.boundedElastic());
+    public Mono<Branch> updateName(Long id, String newName, Long expectedVersion) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+            int updated = expectedVersion == null
+                    ? repository.updateName(id, newName)
+                    : repository.updateNameIfVersion(id, newName, expectedVersion);
+            if (updated == 0) return conflictOrMissing(id, expectedVersion);
+            return recorded(repository.findById(id).map(mapper::toModel).orElse(null));
+        })).subscribeOn(scheduler).doOnNext(topStockIndex::onBranchSaved);
     }
 
     @Override
@@ -60,7 +105,30 @@ public class BranchRepositoryAdapter implements BranchGateway {
         return Mono.fromCallable(() -> repository.findByName(name)
                         .map(mapper::toModel)
                         .orElse(null))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return JdbcCursor.stream(nameRepository::openBranchNames, scheduler);
+    }
+
+    // la condición no se cumplió: si la sucursal existe es que cambió de versión
+    private Branch conflictOrMissing(Long id, Long expectedVersion) {
+        if (expectedVersion != null) {
+            repository.findById(id).ifPresent(current -> {
+                throw new VersionConflictException("la sucursal", id, current.getVersion());
+            });
+        }
+        return null;
+    }
+
+    // dentro de la transacción de la escritura: el cambio y su registro se confirman juntos
+    private Branch recorded(Branch branch) {
+        if (branch != null) {
+            outbox.append(CatalogChange.branch(CatalogChange.Type.UPSERTED, branch, null));
+        }
+        return branch;
     }
 
 }
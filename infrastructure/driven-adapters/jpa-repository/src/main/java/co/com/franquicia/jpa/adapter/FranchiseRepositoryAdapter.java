@@ -1,30 +1,52 @@
 package co.com.franquicia.jpa.adapter;
 
 import co.com.franquicia.jpa.entity.FranchiseEntity;
+import co.com.franquicia.jpa.helper.JdbcCursor;
 import co.com.franquicia.jpa.mapper.FranchiseEntityMapper;
 import co.com.franquicia.jpa.repository.FranchiseJpaRepository;
+import co.com.franquicia.jpa.repository.NameJdbcRepository;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.VersionConflictException;
 import co.com.franquicia.model.franchise.Franchise;
 import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 @Repository
+@Profile("!r2dbc")
 @RequiredArgsConstructor
 public class FranchiseRepositoryAdapter implements FranchiseGateway {
 
     private final FranchiseJpaRepository repository;
     private final FranchiseEntityMapper mapper;
+    private final Scheduler scheduler;
+    private final NameJdbcRepository nameRepository;
+    private final OutboxJdbcRepository outbox;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
     public Mono<Franchise> save(Franchise franchise) {
-        return Mono.fromCallable(() ->  mapper.toModel(repository.save(
-                mapper.toEntity(franchise))))
-                .subscribeOn(Schedulers.boundedElastic());
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> recorded(
+                        mapper.toModel(repository.save(mapper.toEntity(franchise))))))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Franchise> insertIfAbsent(Franchise franchise) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> recorded(
+                        repository.insertIfAbsent(franchise.getName())
+                                .map(mapper::toModel)
+                                .orElse(null))))
+                .subscribeOn(scheduler);
     }
 
     @Override
@@ -32,7 +54,7 @@ public class FranchiseRepositoryAdapter implements FranchiseGateway {
         return Mono.fromCallable(() -> repository.findById(id)
                         .map(mapper::toModel)
                         .orElse(null))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
     }
 
     @Override
@@ -40,7 +62,7 @@ public class FranchiseRepositoryAdapter implements FranchiseGateway {
         return Mono.fromCallable(() -> repository.findByName(name)
                         .map(mapper::toModel)
                         .orElse(null))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
     }
 
     @Override
@@ -48,17 +70,51 @@ public class FranchiseRepositoryAdapter implements FranchiseGateway {
         return Mono.fromCallable(() -> repository.findAll())
                 .flatMapMany(Flux::fromIterable)
                 .map(mapper::toModel)
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<Franchise> findAllAfter(Long afterId, int limit) {
+        return Mono.fromCallable(() -> repository.findByIdGreaterThanOrderByIdAsc(
+                        afterId == null ? 0L : afterId, Limit.of(limit)))
+                .flatMapMany(Flux::fromIterable)
+                .map(mapper::toModel)
+                .subscribeOn(scheduler);
     }
 
     @Override
     @Transactional
-    public Mono<Franchise> updateName(Long id, String newName) {
-        return Mono.fromCallable(() -> {
-            int updated = repository.updateName(id, newName);
-            if (updated == 0) return null;
-            return repository.findById(id).map(mapper::toModel).orElse(null);
-        }).subscribeOn(Schedulers.boundedElastic());
+    public Mono<Franchise> updateName(Long id, String newName, Long expectedVersion) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+            int updated = expectedVersion == null
+                    ? repository.updateName(id, newName)
+                    : repository.updateNameIfVersion(id, newName, expectedVersion);
+            if (updated == 0) return conflictOrMissing(id, expectedVersion);
+            return recorded(repository.findById(id).map(mapper::toModel).orElse(null));
+        })).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return JdbcCursor.stream(nameRepository::openFranchiseNames, scheduler);
+    }
+
+    // la condición no se cumplió: si la franquicia existe es que cambió de versión
+    private Franchise conflictOrMissing(Long id, Long expectedVersion) {
+        if (expectedVersion != null) {
+            repository.findById(id).ifPresent(current -> {
+                throw new VersionConflictException("la franquicia", id, current.getVersion());
+            });
+        }
+        return null;
+    }
+
+    // dentro de la transacción de la escritura: el cambio y su registro se confirman juntos
+    private Franchise recorded(Franchise franchise) {
+        if (franchise != null) {
+            outbox.append(CatalogChange.franchise(CatalogChange.Type.UPSERTED, franchise, null));
+        }
+        return franchise;
     }
 
 }
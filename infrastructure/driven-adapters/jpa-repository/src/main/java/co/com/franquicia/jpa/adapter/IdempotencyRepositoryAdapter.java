@@ -0,0 +1,60 @@
+package co.com.franquicia.jpa.adapter;
+
+import co.com.franquicia.jpa.repository.IdempotencyJdbcRepository;
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Claves de idempotencia en PostgreSQL, compartidas por todas las réplicas. Usa JDBC directo, así
+ * que sirve con ambos perfiles, como el de importación.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepositoryAdapter implements IdempotencyGateway {
+
+    private final IdempotencyJdbcRepository repository;
+    private final Scheduler scheduler;
+
+    @Override
+    public Mono<IdempotentResponse> claim(String key, String fingerprint) {
+        return Mono.fromCallable(() -> repository.claim(key, fingerprint).orElse(null))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Boolean> complete(IdempotentResponse response) {
+        return Mono.fromCallable(() -> repository.complete(response) == 1)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> keepAlive(String key, String fingerprint) {
+        if (!repository.isEnabled()) return Mono.empty();
+        return Flux.interval(repository.renewInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromCallable(() -> repository.renew(key, fingerprint))
+                        .subscribeOn(scheduler)
+                        // un fallo puntual no suelta la reserva: se vuelve a intentar en el siguiente
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo renovar la reserva de la Idempotency-Key {}", key, e);
+                            return Mono.just(true);
+                        }))
+                .takeWhile(Boolean::booleanValue)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> repository.release(key))
+                .subscribeOn(scheduler)
+                .then();
+    }
+
+}
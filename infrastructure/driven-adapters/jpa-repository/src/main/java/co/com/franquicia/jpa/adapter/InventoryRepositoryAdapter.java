@@ -0,0 +1,63 @@
+package co.com.franquicia.jpa.adapter;
+
+import co.com.franquicia.jpa.outbox.OutboxRelay;
+import co.com.franquicia.jpa.readmodel.TopStockIndex;
+import co.com.franquicia.jpa.repository.InventoryImportSession;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import co.com.franquicia.model.inventory.InventoryRow;
+import co.com.franquicia.model.inventory.gateway.InventoryGateway;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.sql.DataSource;
+
+/**
+ * Importación masiva de inventario con {@code COPY}. Usa JDBC directo sobre el
+ * {@link DataSource}, que existe con ambos perfiles, así que no depende de {@code r2dbc}.
+ * <p>
+ * El cuerpo se consume por bloques: el siguiente bloque solo se pide cuando el anterior
+ * ya se escribió en el {@code COPY}, de modo que la memoria usada no depende del tamaño del archivo.
+ * <p>
+ * Con el outbox activo y su relay presente (perfil JPA) los productos importados se registran en
+ * el outbox dentro de la transacción del {@code MERGE}; con {@code r2dbc} nadie lo vaciaría.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryRepositoryAdapter implements InventoryGateway {
+
+    static final int COPY_CHUNK_SIZE = 5_000;
+
+    private final DataSource dataSource;
+    private final Scheduler scheduler;
+    private final ObjectProvider<TopStockIndex> topStockIndex;
+    private final OutboxJdbcRepository outbox;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+
+    @Override
+    public Flux<InventoryImportEvent> importRows(Flux<InventoryRow> rows) {
+        return Flux.usingWhen(
+                Mono.fromCallable(() -> new InventoryImportSession(dataSource.getConnection(), recordsOutbox()))
+                        .subscribeOn(scheduler),
+                session -> rows.buffer(COPY_CHUNK_SIZE)
+                        .concatMap(chunk -> Mono.fromCallable(() -> session.copy(chunk))
+                                .subscribeOn(scheduler)
+                                .flatMapIterable(events -> events))
+                        .concatWith(Mono.fromCallable(session::mergeAndCommit)
+                                .subscribeOn(scheduler)
+                                .doOnNext(events -> topStockIndex.ifAvailable(TopStockIndex::requestRebuild))
+                                .flatMapIterable(events -> events)),
+                session -> Mono.empty(),
+                (session, error) -> Mono.fromRunnable(session::rollback).subscribeOn(scheduler),
+                session -> Mono.fromRunnable(session::rollback).subscribeOn(scheduler));
+    }
+
+    private boolean recordsOutbox() {
+        return outbox.isEnabled() && outboxRelay.getIfAvailable() != null;
+    }
+
+}
@@ -1,31 +1,91 @@
 package co.com.franquicia.jpa.adapter;
 
+import co.com.franquicia.jpa.buffer.StockDeltaBuffer;
+import co.com.franquicia.jpa.entity.ProductEntity;
+import co.com.franquicia.jpa.helper.JdbcCursor;
 import co.com.franquicia.jpa.mapper.ProductEntityMapper;
+import co.com.franquicia.jpa.readmodel.TopStockIndex;
+import co.com.franquicia.jpa.repository.NameJdbcRepository;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.jpa.repository.ProductJdbcRepository;
 import co.com.franquicia.jpa.repository.ProductJpaRepository;
+import co.com.franquicia.jpa.repository.StockLedgerJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
 import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.StockUpdate;
 import co.com.franquicia.model.product.TopStockProduct;
 import co.com.franquicia.model.product.gateway.ProductGateway;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Profile("!r2dbc")
 @RequiredArgsConstructor
 public class ProductRepositoryAdapter implements ProductGateway {
 
     private final ProductJpaRepository repository;
     private final ProductEntityMapper mapper;
+    private final Scheduler scheduler;
+    private final StockDeltaBuffer stockDeltaBuffer;
+    private final ProductJdbcRepository jdbcRepository;
+    private final TopStockIndex topStockIndex;
+    private final NameJdbcRepository nameRepository;
+    private final OutboxJdbcRepository outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedgerJdbcRepository ledger;
 
     @Override
     @Transactional
     public Mono<Product> save(Product product) {
         return Mono.fromCallable(() -> {
             product.validateStock();
-            return mapper.toModel(repository.save(mapper.toEntity(product)));
-        }).subscribeOn(Schedulers.boundedElastic());
+            return transactionTemplate.execute(status -> recorded(
+                    mapper.toModel(repository.save(mapper.toEntity(product)))));
+        }).subscribeOn(scheduler).doOnNext(topStockIndex::onProductSaved);
+    }
+
+    @Override
+    public Mono<Product> insertIfAbsent(Product product) {
+        return Mono.fromCallable(() -> {
+            product.validateStock();
+            return transactionTemplate.execute(status -> recorded(
+                    repository.insertIfAbsent(product.getBranchId(), product.getName(), product.getStock())
+                            .map(mapper::toModel)
+                            .orElse(null)));
+        }).subscribeOn(scheduler).doOnNext(topStockIndex::onProductSaved);
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return Mono.fromCallable(() -> {
+                    products.forEach(Product::validateStock);
+                    return transactionTemplate.execute(status -> {
+                        List<Product> saved = repository.saveAll(products.stream().map(mapper::toEntity).toList())
+                                .stream()
+                                .map(mapper::toModel)
+                                .toList();
+                        outbox.appendAll(saved.stream().map(this::upserted).toList());
+                        return saved;
+                    });
+                })
+                .flatMapMany(Flux::fromIterable)
+                .subscribeOn(scheduler)
+                .doOnNext(topStockIndex::onProductSaved);
     }
 
     @Override
@@ -33,7 +93,7 @@ public class ProductRepositoryAdapter implements ProductGateway {
         return Mono.fromCallable(() -> repository.findById(id)
                         .map(mapper::toModel)
                         .orElse(null))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
     }
 
     @Override
@@ -41,48 +101,199 @@ public class ProductRepositoryAdapter implements ProductGateway {
         return Mono.fromCallable(() -> repository.findByName(name)
                         .map(mapper::toModel)
                         .orElse(null))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<Product> findByBranchIdAfter(Long branchId, Long afterId, int limit) {
+        return Mono.fromCallable(() -> repository.findByBranchIdAndIdGreaterThanOrderByIdAsc(
+                        branchId, afterId == null ? 0L : afterId, Limit.of(limit)))
+                .flatMapMany(Flux::fromIterable)
+                .map(mapper::toModel)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return Mono.fromCallable(() -> repository.findExistingNames(names))
+                .flatMapMany(Flux::fromIterable)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return JdbcCursor.stream(nameRepository::openProductNames, scheduler);
     }
 
     @Override
     @Transactional
-    public Mono<Product> updateStock(Long id, Integer newStock) {
+    public Mono<Product> updateStock(Long id, Integer newStock, Long expectedVersion) {
         return Mono.fromCallable(() -> {
             if (newStock < 0) throw new IllegalArgumentException("Stock must be >= 0");
-            int updated = repository.updateStock(id, newStock);
-            if (updated == 0) return null;
-            return repository.findById(id).map(mapper::toModel).orElse(null);
-        }).subscribeOn(Schedulers.boundedElastic());
+            return transactionTemplate.execute(status -> {
+                ledger.markReason("SET");
+                Optional<ProductEntity> updated = expectedVersion == null
+                        ? repository.updateStock(id, newStock)
+                        : repository.updateStockIfVersion(id, newStock, expectedVersion);
+                if (updated.isEmpty()) return conflictOrMissing(id, expectedVersion);
+                return recorded(mapper.toModel(updated.get()));
+            });
+        }).subscribeOn(scheduler).doOnNext(topStockIndex::onProductSaved);
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        if (stockDeltaBuffer.isEnabled()) {
+            return stockDeltaBuffer.enqueue(id, delta).doOnNext(topStockIndex::onProductSaved);
+        }
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+                    ledger.markReason("ADJUSTED");
+                    return recorded(repository.adjustStock(id, delta)
+                            .map(mapper::toModel)
+                            .orElse(null));
+                }))
+                .subscribeOn(scheduler)
+                .doOnNext(topStockIndex::onProductSaved);
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+                    ledger.markReason("SET");
+                    List<Product> updated = jdbcRepository.setStockBatch(
+                                    updates.stream().map(StockUpdate::getId).toArray(Long[]::new),
+                                    updates.stream().map(update -> update.isById() ? null : update.getBranchId()).toArray(Long[]::new),
+                                    updates.stream().map(update -> update.isById() ? null : update.getName()).toArray(String[]::new),
+                                    updates.stream().map(StockUpdate::getStock).toArray(Integer[]::new))
+                            .stream()
+                            .map(mapper::toModel)
+                            .toList();
+                    outbox.appendAll(updated.stream().map(this::upserted).toList());
+                    return updated;
+                }))
+                .flatMapMany(Flux::fromIterable)
+                .subscribeOn(scheduler)
+                .doOnNext(topStockIndex::onProductSaved);
     }
 
     @Override
     @Transactional
-    public Mono<Product> updateName(Long id, String newName) {
-        return Mono.fromCallable(() -> {
-            int updated = repository.updateName(id, newName);
-            if (updated == 0) return null;
-            return repository.findById(id).map(mapper::toModel).orElse(null);
-        }).subscribeOn(Schedulers.boundedElastic());
+    public Mono<Product> updateName(Long id, String newName, Long expectedVersion) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+            int updated = expectedVersion == null
+                    ? repository.updateName(id, newName)
+                    : repository.updateNameIfVersion(id, newName, expectedVersion);
+            if (updated == 0) return conflictOrMissing(id, expectedVersion);
+            return recorded(repository.findById(id).map(mapper::toModel).orElse(null));
+        })).subscribeOn(scheduler).doOnNext(topStockIndex::onProductSaved);
     }
 
     @Override
     @Transactional
     public Mono<Void> deleteById(Long id) {
-        return Mono.fromRunnable(() -> repository.deleteById(id))
-                .subscribeOn(Schedulers.boundedElastic())
-                .then();
+        return Mono.fromRunnable(() -> transactionTemplate.executeWithoutResult(status ->
+                        repository.findById(id).ifPresent(entity -> {
+                            repository.delete(entity);
+                            outbox.append(CatalogChange.product(CatalogChange.Type.DELETED, mapper.toModel(entity), null, null));
+                        })))
+                .subscribeOn(scheduler)
+                .then()
+                .doOnSuccess(ignored -> topStockIndex.onProductDeleted(id));
+    }
+
+    @Override
+    public Flux<Product> streamByFranchise(Long franchiseId) {
+        return JdbcCursor.stream(() -> jdbcRepository.openCursorByFranchise(franchiseId), scheduler)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(Long branchId) {
+        return JdbcCursor.stream(() -> jdbcRepository.openCursorByBranch(branchId), scheduler)
+                .map(mapper::toModel);
     }
 
     @Override
     public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId) {
         return Mono.fromCallable(() -> repository.findTopStockByFranchise(franchiseId))
                 .flatMapMany(Flux::fromIterable)
-                .map(row -> TopStockProduct.builder()
+                .map(this::toTopStockProduct)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId, int k) {
+        if (topStockIndex.isReady()) {
+            return Flux.defer(() -> Flux.fromIterable(topStockIndex.top(franchiseId, k)));
+        }
+        return Mono.fromCallable(() -> repository.findTopStockByFranchise(franchiseId, k))
+                .flatMapMany(Flux::fromIterable)
+                .map(this::toTopStockProduct)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<ProductRanking> findTopProductsByFranchise(Long franchiseId, RankKey after, int limit) {
+        RankKey from = after != null ? after : RankKey.first();
+        return Mono.fromCallable(() -> repository.findTopProductsByFranchise(
+                        franchiseId, from.getScore(), from.getId(), from.getPosition(), limit))
+                .flatMapMany(Flux::fromIterable)
+                .map(row -> ProductRanking.builder()
+                        .position(row.getPosition())
+                        .productId(row.getProduct_id())
+                        .productName(row.getProduct_name())
                         .branchId(row.getBranch_id())
                         .branchName(row.getBranch_name())
-                        .productName(row.getProduct_name())
                         .stock(row.getStock())
                         .build())
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Flux<FranchiseStockTotal> findTopFranchisesByStock(RankKey after, int limit) {
+        RankKey from = after != null ? after : RankKey.first();
+        return Mono.fromCallable(() -> repository.findTopFranchisesByStock(
+                        from.getScore(), from.getId(), from.getPosition(), limit))
+                .flatMapMany(Flux::fromIterable)
+                .map(row -> FranchiseStockTotal.builder()
+                        .position(row.getPosition())
+                        .franchiseId(row.getFranchise_id())
+                        .franchiseName(row.getFranchise_name())
+                        .totalStock(row.getTotal_stock())
+                        .productCount(row.getProduct_count())
+                        .build())
+                .subscribeOn(scheduler);
+    }
+
+    private TopStockProduct toTopStockProduct(ProductJpaRepository.TopStockRow row) {
+        return TopStockProduct.builder()
+                .branchId(row.getBranch_id())
+                .branchName(row.getBranch_name())
+                .productName(row.getProduct_name())
+                .stock(row.getStock())
+                .build();
     }
+
+    // la condición no se cumplió: si el producto existe es que cambió de versión
+    private Product conflictOrMissing(Long id, Long expectedVersion) {
+        if (expectedVersion != null) {
+            repository.findById(id).ifPresent(current -> {
+                throw new VersionConflictException("el producto", id, current.getVersion());
+            });
+        }
+        return null;
+    }
+
+    // dentro de la transacción de la escritura: el cambio y su registro se confirman juntos
+    private Product recorded(Product product) {
+        if (product != null) {
+            outbox.append(upserted(product));
+        }
+        return product;
+    }
+
+    private CatalogChange upserted(Product product) {
+        return CatalogChange.product(CatalogChange.Type.UPSERTED, product, null, null);
+    }
+
 }
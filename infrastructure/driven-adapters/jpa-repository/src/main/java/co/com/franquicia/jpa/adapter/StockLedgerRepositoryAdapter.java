@@ -0,0 +1,36 @@
+package co.com.franquicia.jpa.adapter;
+
+import co.com.franquicia.jpa.repository.StockLedgerJdbcRepository;
+import co.com.franquicia.model.product.ProductStockAt;
+import co.com.franquicia.model.product.gateway.StockLedgerGateway;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consultas sobre el historial de stock. Los movimientos los escribe un trigger, así que este
+ * adaptador sirve con ambos perfiles, como el de importación.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockLedgerRepositoryAdapter implements StockLedgerGateway {
+
+    private final StockLedgerJdbcRepository ledger;
+    private final Scheduler scheduler;
+
+    @Override
+    public Mono<LocalDateTime> historySince() {
+        return Mono.fromCallable(() -> ledger.historySince().orElse(null))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<ProductStockAt> stockAt(Long productId, LocalDateTime at) {
+        return Mono.fromCallable(() -> ledger.stockAt(productId, at).orElse(null))
+                .subscribeOn(scheduler);
+    }
+
+}
@@ -0,0 +1,239 @@
+package co.com.franquicia.jpa.buffer;
+
+import co.com.franquicia.jpa.entity.ProductEntity;
+import co.com.franquicia.jpa.mapper.ProductEntityMapper;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.jpa.repository.ProductJdbcRepository;
+import co.com.franquicia.jpa.repository.ProductJpaRepository;
+import co.com.franquicia.jpa.repository.StockLedgerJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.product.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acumulador write-behind de ajustes de stock, una entrada por producto.
+ * <p>
+ * Los ajustes que llegan dentro de la misma ventana ({@code adapters.stock-buffer.window-ms})
+ * se suman por producto y se aplican con una única sentencia para todo el lote; se fuerza el
+ * vaciado antes si se acumulan {@code adapters.stock-buffer.max-ops} operaciones. Si la suma de
+ * un producto dejaría su stock negativo, sus ajustes se reintentan uno a uno para que cada
+ * llamada conserve su propio resultado. Cada {@link Mono} devuelto se completa cuando su ajuste
+ * queda confirmado en la base de datos, y al apagar la aplicación se vacía lo pendiente; un ajuste
+ * que llega después se rechaza o, si entró mientras se apagaba, se aplica en el acto.
+ * <p>
+ * Cada escritura se hace como la de un ajuste sin buffer: en una transacción que marca el motivo
+ * {@code ADJUSTED} en el historial y registra en el outbox las filas que cambió.
+ */
+@Slf4j
+@Component
+@Profile("!r2dbc")
+public class StockDeltaBuffer {
+
+    private final ProductJdbcRepository jdbcRepository;
+    private final ProductJpaRepository jpaRepository;
+    private final ProductEntityMapper mapper;
+    private final OutboxJdbcRepository outbox;
+    private final StockLedgerJdbcRepository ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxOps;
+
+    private final Map<Long, List<PendingDelta>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingOps = new AtomicInteger();
+    private final Scheduler flushScheduler = Schedulers.newSingle("stock-delta-buffer");
+    private final Counter operations;
+    private final Counter rowsWritten;
+    private final Counter flushes;
+    private Disposable ticker;
+    private volatile boolean stopped;
+
+    public StockDeltaBuffer(ProductJdbcRepository jdbcRepository,
+                            ProductJpaRepository jpaRepository,
+                            ProductEntityMapper mapper,
+                            OutboxJdbcRepository outbox,
+                            StockLedgerJdbcRepository ledger,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${adapters.stock-buffer.enabled:false}") boolean enabled,
+                            @Value("${adapters.stock-buffer.window-ms:20}") long windowMs,
+                            @Value("${adapters.stock-buffer.max-ops:500}") int maxOps) {
+        this.jdbcRepository = jdbcRepository;
+        this.jpaRepository = jpaRepository;
+        this.mapper = mapper;
+        this.outbox = outbox;
+        this.ledger = ledger;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxOps = maxOps;
+        this.operations = Counter.builder("stock.buffer.operations")
+                .description("Ajustes de stock recibidos por el buffer")
+                .register(meterRegistry);
+        this.rowsWritten = Counter.builder("stock.buffer.rows")
+                .description("Filas de producto escritas por el buffer")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("stock.buffer.flushes")
+                .description("Lotes enviados a la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("stock.buffer.coalescing.ratio", this, StockDeltaBuffer::coalescingRatio)
+                .description("Ajustes recibidos por cada fila escrita")
+                .register(meterRegistry);
+        Gauge.builder("stock.buffer.pending", pendingOps, AtomicInteger::get)
+                .description("Ajustes a la espera del próximo vaciado")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            ticker = flushScheduler.schedulePeriodically(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        flush();
+        flushScheduler.dispose();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<Product> enqueue(Long productId, Integer delta) {
+        return Mono.create(sink -> {
+            if (stopped) {
+                sink.error(new IllegalStateException("El buffer de ajustes de stock está detenido"));
+                return;
+            }
+            pending.compute(productId, (id, deltas) -> {
+                List<PendingDelta> list = deltas != null ? deltas : new ArrayList<>();
+                list.add(new PendingDelta(delta, sink));
+                return list;
+            });
+            operations.increment();
+            int queued = pendingOps.incrementAndGet();
+            if (stopped) {
+                // stop() pudo vaciar antes de que entrara: no queda ningún vaciado pendiente
+                flush();
+            } else if (queued >= maxOps) {
+                flushScheduler.schedule(this::flush);
+            }
+        });
+    }
+
+    synchronized void flush() {
+        Map<Long, List<PendingDelta>> batch = drain();
+        if (batch.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        List<Integer> sums = new ArrayList<>(batch.size());
+        List<Long> oneByOne = new ArrayList<>();
+        batch.forEach((id, deltas) -> {
+            long sum = deltas.stream().mapToLong(PendingDelta::delta).sum();
+            if (sum < Integer.MIN_VALUE || sum > Integer.MAX_VALUE) {
+                oneByOne.add(id);
+            } else {
+                ids.add(id);
+                sums.add((int) sum);
+            }
+        });
+
+        try {
+            Map<Long, Product> applied = new HashMap<>();
+            if (!ids.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ledger.markReason("ADJUSTED");
+                    for (ProductEntity entity : jdbcRepository.adjustStockBatch(ids.toArray(Long[]::new), sums.toArray(Integer[]::new))) {
+                        applied.put(entity.getId(), mapper.toModel(entity));
+                    }
+                    outbox.appendAll(applied.values().stream().map(this::upserted).toList());
+                });
+                flushes.increment();
+                rowsWritten.increment(applied.size());
+            }
+            batch.forEach((id, deltas) -> {
+                Product product = applied.get(id);
+                if (product != null) {
+                    deltas.forEach(pendingDelta -> pendingDelta.sink().success(product));
+                } else {
+                    applyOneByOne(id, deltas);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("No se pudo aplicar el lote de {} productos", batch.size(), e);
+            batch.values().forEach(deltas -> deltas.forEach(pendingDelta -> pendingDelta.sink().error(e)));
+        }
+    }
+
+    private Map<Long, List<PendingDelta>> drain() {
+        Map<Long, List<PendingDelta>> batch = new HashMap<>();
+        for (Long id : pending.keySet()) {
+            List<PendingDelta> deltas = pending.remove(id);
+            if (deltas != null) {
+                batch.put(id, deltas);
+                pendingOps.addAndGet(-deltas.size());
+            }
+        }
+        return batch;
+    }
+
+    private void applyOneByOne(Long id, List<PendingDelta> deltas) {
+        for (PendingDelta pendingDelta : deltas) {
+            try {
+                Product product = transactionTemplate.execute(status -> {
+                    ledger.markReason("ADJUSTED");
+                    Product adjusted = jpaRepository.adjustStock(id, pendingDelta.delta()).map(mapper::toModel).orElse(null);
+                    if (adjusted != null) {
+                        outbox.append(upserted(adjusted));
+                    }
+                    return adjusted;
+                });
+                pendingDelta.sink().success(product);
+                rowsWritten.increment();
+            } catch (RuntimeException e) {
+                pendingDelta.sink().error(e);
+            }
+        }
+    }
+
+    private CatalogChange upserted(Product product) {
+        return CatalogChange.product(CatalogChange.Type.UPSERTED, product, null, null);
+    }
+
+    private double coalescingRatio() {
+        double rows = rowsWritten.count();
+        return rows == 0 ? 0 : operations.count() / rows;
+    }
+
+    private record PendingDelta(int delta, MonoSink<Product> sink) {
+    }
+
+}
@@ -0,0 +1,39 @@
+package co.com.franquicia.jpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler donde los adaptadores JPA ejecutan las llamadas bloqueantes de JDBC.
+ * <p>
+ * {@code adapters.jpa.scheduler} acepta {@code bounded-elastic} (por defecto, limitado a
+ * 10 x núcleos con cola) o {@code virtual-threads} (un hilo virtual por tarea, sin límite
+ * ni cola propios; el tope real lo impone el pool de Hikari).
+ */
+@Configuration
+public class JpaSchedulerConfig {
+
+    static final String VIRTUAL_THREADS = "virtual-threads";
+    static final String BOUNDED_ELASTIC = "bounded-elastic";
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(@Value("${adapters.jpa.scheduler:" + BOUNDED_ELASTIC + "}") String mode) {
+        return switch (mode) {
+            case VIRTUAL_THREADS -> Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jpa-vt-", 0).factory()),
+                    "jpaVirtualThreads");
+            case BOUNDED_ELASTIC -> Schedulers.newBoundedElastic(
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                    "jpaBoundedElastic");
+            default -> throw new IllegalArgumentException(
+                    "adapters.jpa.scheduler no soportado: " + mode + " (use " + BOUNDED_ELASTIC + " o " + VIRTUAL_THREADS + ")");
+        };
+    }
+
+}
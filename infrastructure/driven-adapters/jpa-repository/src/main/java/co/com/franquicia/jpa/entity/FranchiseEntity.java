@@ -5,6 +5,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +22,6 @@ public class FranchiseEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY) // O AUTO, según tu base de datos
     private Long id;
     private String name;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,91 @@
+package co.com.franquicia.jpa.helper;
+
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+
+/**
+ * Cursor de servidor sobre una conexión dedicada. Con {@code autoCommit} desactivado y un
+ * {@code fetchSize} fijo, el driver de PostgreSQL trae las filas por bloques en lugar de
+ * cargar el resultado completo, así que la memoria no depende del número de filas.
+ */
+public final class JdbcCursor<T> implements AutoCloseable {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> rowMapper;
+    private int rowNum;
+
+    private JdbcCursor(Connection connection, PreparedStatement statement, ResultSet resultSet, RowMapper<T> rowMapper) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+    }
+
+    public static <T> JdbcCursor<T> open(DataSource dataSource, String sql, PreparedStatementSetter setter,
+                                         RowMapper<T> rowMapper, int fetchSize) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            setter.setValues(statement);
+            return new JdbcCursor<>(connection, statement, statement.executeQuery(), rowMapper);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /** Siguiente fila, o {@code null} si el cursor se agotó. */
+    public T next() throws SQLException {
+        return resultSet.next() ? rowMapper.mapRow(resultSet, rowNum++) : null;
+    }
+
+    @Override
+    public void close() {
+        try (connection; statement; resultSet) {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // la conexión vuelve al pool (o se descarta) de todas formas
+        }
+    }
+
+    /**
+     * Expone el cursor como {@link Flux}: cada fila se lee solo cuando el suscriptor la pide,
+     * y la apertura, las lecturas y el cierre (al completar, fallar o cancelar) ocurren en
+     * {@code scheduler}.
+     */
+    public static <T> Flux<T> stream(Callable<JdbcCursor<T>> opener, Scheduler scheduler) {
+        return Flux.usingWhen(
+                Mono.fromCallable(opener).subscribeOn(scheduler),
+                cursor -> Flux.<T>generate(sink -> {
+                    try {
+                        T row = cursor.next();
+                        if (row == null) {
+                            sink.complete();
+                        } else {
+                            sink.next(row);
+                        }
+                    } catch (SQLException e) {
+                        sink.error(e);
+                    }
+                }).subscribeOn(scheduler),
+                cursor -> Mono.fromRunnable(cursor::close).subscribeOn(scheduler),
+                (cursor, error) -> Mono.fromRunnable(cursor::close).subscribeOn(scheduler),
+                cursor -> Mono.fromRunnable(cursor::close).subscribeOn(scheduler));
+    }
+
+}
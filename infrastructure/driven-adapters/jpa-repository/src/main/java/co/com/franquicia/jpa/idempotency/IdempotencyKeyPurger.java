@@ -0,0 +1,82 @@
+package co.com.franquicia.jpa.idempotency;
+
+import co.com.franquicia.jpa.repository.IdempotencyJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cada {@code purge-interval-ms} borra las claves de idempotencia vencidas, por lotes de
+ * {@value #BATCH_SIZE} para no retener bloqueos largos. Una clave vencida ya se ignora al
+ * reservar, así que esto solo mantiene la tabla pequeña. Con {@code 0} no se purga.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyPurger {
+
+    static final int BATCH_SIZE = 5_000;
+
+    private final IdempotencyJdbcRepository repository;
+    private final long intervalMs;
+    private final Scheduler scheduler = Schedulers.newSingle("idempotency-purger");
+    private final Counter purged;
+    private Disposable ticker;
+
+    public IdempotencyKeyPurger(IdempotencyJdbcRepository repository,
+                                MeterRegistry meterRegistry,
+                                @Value("${adapters.idempotency.purge-interval-ms:600000}") long intervalMs) {
+        this.repository = repository;
+        this.intervalMs = intervalMs;
+        this.purged = Counter.builder("idempotency.purged")
+                .description("Claves de idempotencia vencidas borradas")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (repository.isEnabled() && intervalMs > 0) {
+            ticker = scheduler.schedulePeriodically(this::runSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    /** Borra todas las claves vencidas; devuelve cuántas. */
+    int purge() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = repository.purgeExpired(BATCH_SIZE);
+            total += deleted;
+        } while (deleted == BATCH_SIZE);
+        purged.increment(total);
+        return total;
+    }
+
+    private void runSafely() {
+        try {
+            int total = purge();
+            if (total > 0) {
+                log.debug("{} claves de idempotencia vencidas borradas", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falló la purga de claves de idempotencia", e);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package co.com.franquicia.jpa.ledger;
+
+import co.com.franquicia.jpa.repository.StockLedgerJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantenimiento del historial de stock.
+ * <p>
+ * Al arrancar deja {@code stock_ledger_settings} como dice {@code adapters.stock-ledger.enabled}
+ * (al activarlo se toma la foto inicial). Con el historial activo, cada
+ * {@code compaction-interval-ms} crea las particiones del mes actual y del siguiente, y las de
+ * meses que ya quedaron fuera de {@code retention-days} las resume en {@code stock_snapshot}
+ * (el último estado de cada producto que se movió) y las borra. Las consultas por fecha siguen
+ * respondiendo igual con la foto en lugar de los movimientos; lo que se pierde es el detalle.
+ * <p>
+ * Todas las réplicas deben tener el mismo valor de {@code enabled}: la última en arrancar es la
+ * que manda. Compactar dos veces la misma partición no hace daño, la segunda ya no la encuentra.
+ */
+@Slf4j
+@Component
+public class StockLedgerCompactor {
+
+    private final StockLedgerJdbcRepository ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final long intervalMs;
+    private final int retentionDays;
+    private final Scheduler scheduler = Schedulers.newSingle("stock-ledger-compactor");
+    private final Counter compactedPartitions;
+    private Disposable ticker;
+
+    public StockLedgerCompactor(StockLedgerJdbcRepository ledger,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${adapters.stock-ledger.compaction-interval-ms:3600000}") long intervalMs,
+                                @Value("${adapters.stock-ledger.retention-days:90}") int retentionDays) {
+        this.ledger = ledger;
+        this.transactionTemplate = transactionTemplate;
+        this.intervalMs = intervalMs;
+        this.retentionDays = retentionDays;
+        this.compactedPartitions = Counter.builder("stock_ledger.compacted_partitions")
+                .description("Particiones de stock_movement resumidas en stock_snapshot y borradas")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (ledger.isEnabled()) {
+            // antes de activar, para que los movimientos del mes no caigan en la partición por defecto
+            ensurePartitions();
+        }
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> ledger.syncSettings()))) {
+            log.info("Historial de stock {}", ledger.isEnabled() ? "activado" : "desactivado");
+        }
+        if (ledger.isEnabled() && intervalMs > 0) {
+            ticker = scheduler.schedulePeriodically(this::runSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    /** Crea las particiones que falten y compacta las vencidas; devuelve cuántas compactó. */
+    int compact() {
+        ensurePartitions();
+        YearMonth oldestKept = YearMonth.from(LocalDate.now().minusDays(retentionDays));
+        int compacted = 0;
+        for (YearMonth month : ledger.partitions()) {
+            if (!month.isBefore(oldestKept)) continue;
+            int snapshots = transactionTemplate.execute(status -> ledger.compactPartition(month));
+            log.info("Partición {} del historial de stock compactada en {} fotos", month, snapshots);
+            compactedPartitions.increment();
+            compacted++;
+        }
+        return compacted;
+    }
+
+    private void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        ledger.createPartition(current);
+        ledger.createPartition(current.plusMonths(1));
+    }
+
+    private void runSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("Falló la compactación del historial de stock", e);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package co.com.franquicia.jpa.notify;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+
+/**
+ * Carga útil de {@code pg_notify}: los campos del cambio separados por {@code |}, con los nulos
+ * vacíos y el nombre al final para que pueda contener el separador. PostgreSQL limita la carga a
+ * 8000 bytes; si un nombre no cabe se envía sin él.
+ */
+record CatalogNotification(String origin, CatalogChange change) {
+
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+    private static final int FIELDS = 10;
+
+    String encode() {
+        String withoutName = join(null);
+        String payload = join(change.getName());
+        return payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES ? payload : withoutName;
+    }
+
+    static CatalogNotification decode(String payload) {
+        String[] fields = payload.split("\\|", FIELDS);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Aviso de cambio mal formado: " + payload);
+        }
+        CatalogChange change = CatalogChange.builder()
+                .type(CatalogChange.Type.valueOf(fields[1]))
+                .aggregate(fields[2].isEmpty() ? null : CatalogChange.Aggregate.valueOf(fields[2]))
+                .id(toLong(fields[3]))
+                .franchiseId(toLong(fields[4]))
+                .branchId(toLong(fields[5]))
+                .stock(fields[6].isEmpty() ? null : Integer.valueOf(fields[6]))
+                .version(fields[7].isEmpty() ? null : fields[7])
+                .entityVersion(toLong(fields[8]))
+                .name(fields[9].isEmpty() ? null : fields[9])
+                .occurredAt(LocalDateTime.now())
+                .build();
+        return new CatalogNotification(fields[0], change);
+    }
+
+    private String join(String name) {
+        StringJoiner joiner = new StringJoiner("|");
+        joiner.add(origin)
+                .add(change.getType().name())
+                .add(change.getAggregate() == null ? "" : change.getAggregate().name())
+                .add(toText(change.getId()))
+                .add(toText(change.getFranchiseId()))
+                .add(toText(change.getBranchId()))
+                .add(toText(change.getStock()))
+                .add(toText(change.getVersion()))
+                .add(toText(change.getEntityVersion()))
+                .add(toText(name));
+        return joiner.toString();
+    }
+
+    private static String toText(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static Long toLong(String value) {
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+}
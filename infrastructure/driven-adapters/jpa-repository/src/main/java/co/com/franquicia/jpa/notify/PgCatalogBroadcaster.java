@@ -0,0 +1,180 @@
+package co.com.franquicia.jpa.notify;
+
+import co.com.franquicia.jpa.readmodel.TopStockIndex;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.gateway.CatalogBroadcastGateway;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Avisa de los cambios del catálogo a las demás instancias con {@code LISTEN/NOTIFY} de
+ * PostgreSQL, sin broker aparte.
+ * <p>
+ * El aviso se envía con {@code pg_notify} en una conexión del pool, en autocommit y después de
+ * que la escritura se confirmó, así que nadie recibe un cambio que luego se deshace. Cada
+ * instancia escucha el canal {@code adapters.jpa.notify.channel} en una conexión propia, fuera
+ * del pool, desde un hilo dedicado; descarta sus propios avisos, aplica los ajenos al
+ * {@link TopStockIndex} y los entrega por {@link #remoteChanges()} para que se invaliden las
+ * cachés locales. Si la conexión se cae reconecta cada {@code RECONNECT_DELAY_MS} y, como los
+ * avisos de ese intervalo se pierden, emite un {@code RESYNC} global.
+ * <p>
+ * {@code LISTEN} necesita una sesión propia: no funciona detrás de un pooler en modo
+ * transacción (p. ej. el endpoint {@code -pooler} de Neon). Con
+ * {@code adapters.jpa.notify.enabled=false} no se envía ni se escucha nada.
+ */
+@Slf4j
+@Component
+@Profile("!r2dbc")
+public class PgCatalogBroadcaster implements CatalogBroadcastGateway {
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final TopStockIndex topStockIndex;
+    private final Scheduler scheduler;
+    private final boolean enabled;
+    private final String channel;
+    private final String origin = UUID.randomUUID().toString();
+    private final Sinks.Many<CatalogChange> remote = Sinks.many().multicast().directBestEffort();
+    private final Scheduler listener = Schedulers.newSingle("catalog-listen");
+
+    private volatile boolean running;
+    private volatile boolean listening;
+
+    public PgCatalogBroadcaster(JdbcTemplate jdbcTemplate,
+                                DataSourceProperties dataSourceProperties,
+                                TopStockIndex topStockIndex,
+                                Scheduler scheduler,
+                                @Value("${adapters.jpa.notify.enabled:true}") boolean enabled,
+                                @Value("${adapters.jpa.notify.channel:catalog_changes}") String channel) {
+        // LISTEN no admite parámetros: el canal va en el SQL y solo se aceptan identificadores simples
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("adapters.jpa.notify.channel no válido: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.topStockIndex = topStockIndex;
+        this.scheduler = scheduler;
+        this.enabled = enabled;
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        listener.schedule(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        listener.dispose();
+    }
+
+    @Override
+    public Mono<Void> broadcast(CatalogChange change) {
+        if (!enabled) return Mono.empty();
+        return Mono.fromRunnable(() -> jdbcTemplate.queryForList(NOTIFY, channel,
+                        new CatalogNotification(origin, change).encode()))
+                .subscribeOn(scheduler)
+                .onErrorResume(error -> {
+                    log.warn("No se pudo avisar del cambio {} a las demás instancias", change, error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public Flux<CatalogChange> remoteChanges() {
+        return remote.asFlux();
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = open(); Statement statement = connection.createStatement()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.info("La base de datos no es PostgreSQL: no se escuchan cambios de otras instancias");
+                    return;
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                statement.execute("LISTEN " + channel);
+                listening = true;
+                log.info("Escuchando cambios de otras instancias en el canal {}", channel);
+                if (connectedBefore) {
+                    deliver(CatalogChange.resync(null));
+                }
+                connectedBefore = true;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (!running) return;
+                log.warn("Se perdió la conexión de avisos de cambios; se reintenta en {} ms", RECONNECT_DELAY_MS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    // un aviso que no se puede aplicar no debe cortar la escucha
+    private void receive(String payload) {
+        try {
+            CatalogNotification notification = CatalogNotification.decode(payload);
+            if (origin.equals(notification.origin())) return;
+            topStockIndex.apply(notification.change());
+            deliver(notification.change());
+        } catch (RuntimeException e) {
+            log.warn("Aviso de cambio descartado: {}", payload, e);
+        }
+    }
+
+    // solo emite el hilo de escucha
+    private void deliver(CatalogChange change) {
+        remote.tryEmitNext(change);
+    }
+
+}
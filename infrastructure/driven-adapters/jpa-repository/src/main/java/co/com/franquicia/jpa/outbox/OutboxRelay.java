@@ -0,0 +1,129 @@
+package co.com.franquicia.jpa.outbox;
+
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.CatalogChangeListener;
+import co.com.franquicia.model.catalog.gateway.CatalogOutboxGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega los registros del outbox a los {@link CatalogChangeListener} de la aplicación, fuera
+ * de la petición que los escribió.
+ * <p>
+ * Cada {@code adapters.outbox.poll-interval-ms} reclama hasta {@code batch-size} registros con
+ * {@code FOR UPDATE SKIP LOCKED}, los pasa en orden a todos los consumidores y los borra, todo en
+ * una transacción. Si un consumidor falla o tarda más de {@code DISPATCH_TIMEOUT}, la transacción
+ * se deshace y el lote entero se repite en el siguiente turno: la entrega es al menos una vez y
+ * los consumidores deben tolerar repetidos. Con varias instancias cada registro lo entrega una
+ * sola, la que lo reclamó. Si un lote sale lleno se sigue con el siguiente sin esperar.
+ * <p>
+ * Mientras está activo ({@link #isRelaying()}) es el único camino de los cambios hacia el flujo
+ * de cambios, las cachés de esta instancia y el aviso a las demás: las escrituras ya no los
+ * publican en la petición.
+ */
+@Slf4j
+@Component
+@Profile("!r2dbc")
+public class OutboxRelay implements CatalogOutboxGateway {
+
+    private static final Duration DISPATCH_TIMEOUT = Duration.ofSeconds(30);
+
+    private final OutboxJdbcRepository outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CatalogChangeListener> listeners;
+    private final long intervalMs;
+    private final int batchSize;
+    // elástico y no single: la entrega bloquea a la espera de los consumidores
+    private final Scheduler scheduler = Schedulers.newBoundedElastic(1, Integer.MAX_VALUE, "outbox-relay");
+    private final Counter delivered;
+    private final Counter failures;
+    private Disposable ticker;
+
+    public OutboxRelay(OutboxJdbcRepository outbox,
+                       TransactionTemplate transactionTemplate,
+                       ObjectProvider<CatalogChangeListener> listeners,
+                       MeterRegistry meterRegistry,
+                       @Value("${adapters.outbox.poll-interval-ms:500}") long intervalMs,
+                       @Value("${adapters.outbox.batch-size:500}") int batchSize) {
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = listeners;
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+        this.delivered = Counter.builder("outbox.delivered")
+                .description("Registros del outbox entregados a los consumidores")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.failures")
+                .description("Lotes del outbox que fallaron y se repetirán")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (outbox.isEnabled() && intervalMs > 0) {
+            ticker = scheduler.schedulePeriodically(this::runSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    @Override
+    public boolean isRelaying() {
+        return outbox.isEnabled() && intervalMs > 0;
+    }
+
+    /** Entrega un lote y devuelve cuántos registros tenía. */
+    int relay() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<CatalogChange> changes = outbox.claim(batchSize);
+            if (changes.isEmpty()) return 0;
+            List<CatalogChangeListener> targets = listeners.orderedStream().toList();
+            for (CatalogChange change : changes) {
+                Flux.fromIterable(targets)
+                        .concatMap(listener -> listener.onChange(change))
+                        .then()
+                        .block(DISPATCH_TIMEOUT);
+            }
+            outbox.delete(changes.stream().map(CatalogChange::getSequence).toList());
+            return changes.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void runSafely() {
+        try {
+            int relayed;
+            do {
+                relayed = relay();
+                delivered.increment(relayed);
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("No se pudo entregar el lote del outbox; se repite en el siguiente turno", e);
+        }
+    }
+
+}
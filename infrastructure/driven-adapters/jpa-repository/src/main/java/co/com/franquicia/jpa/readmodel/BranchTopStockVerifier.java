@@ -0,0 +1,106 @@
+package co.com.franquicia.jpa.readmodel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revisión periódica del modelo de lectura {@code branch_top_stock}.
+ * <p>
+ * El trigger de {@code product} lo mantiene al día, pero cualquier escritura que lo esquive
+ * (un {@code ALTER TABLE ... DISABLE TRIGGER}, una restauración parcial) lo dejaría desfasado.
+ * Cada {@code adapters.top-stock.verify-interval-ms} se compara contra el cálculo directo sobre
+ * {@code product} y se reconstruyen solo las sucursales que no coinciden; con {@code 0} la
+ * revisión queda desactivada.
+ */
+@Slf4j
+@Component
+public class BranchTopStockVerifier {
+
+    private static final String DRIFTED_BRANCHES = """
+            SELECT b.id
+            FROM branch b
+            LEFT JOIN LATERAL (
+                SELECT p.id, p.name, p.stock
+                FROM product p
+                WHERE p.branch_id = b.id
+                ORDER BY p.stock DESC NULLS LAST, p.id
+                LIMIT 1
+            ) t ON true
+            LEFT JOIN branch_top_stock r ON r.branch_id = b.id
+            WHERE t.id IS DISTINCT FROM r.product_id
+               OR t.name IS DISTINCT FROM r.product_name
+               OR t.stock IS DISTINCT FROM r.stock
+            UNION
+            SELECT r.branch_id
+            FROM branch_top_stock r
+            WHERE NOT EXISTS (SELECT 1 FROM branch b WHERE b.id = r.branch_id)
+            """;
+
+    private static final String RESCAN_BRANCH = "SELECT branch_top_stock_rescan(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long intervalMs;
+    private final Scheduler scheduler = Schedulers.newSingle("branch-top-stock-verifier");
+    private final Counter repairs;
+    private Disposable ticker;
+
+    public BranchTopStockVerifier(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${adapters.top-stock.verify-interval-ms:600000}") long intervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.intervalMs = intervalMs;
+        this.repairs = Counter.builder("top_stock.read_model.repairs")
+                .description("Sucursales reconstruidas en branch_top_stock por la revisión periódica")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (intervalMs > 0) {
+            ticker = scheduler.schedulePeriodically(this::runSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    /**
+     * Reconstruye las sucursales desfasadas y devuelve cuántas fueron.
+     */
+    public int verifyAndRepair() {
+        List<Long> drifted = jdbcTemplate.queryForList(DRIFTED_BRANCHES, Long.class);
+        // Cada reconstrucción va en su propia transacción para no retener el candado de la sucursal
+        drifted.forEach(branchId -> jdbcTemplate.queryForList(RESCAN_BRANCH, branchId));
+        repairs.increment(drifted.size());
+        if (!drifted.isEmpty()) {
+            log.warn("branch_top_stock desfasado en {} sucursales, reconstruidas: {}", drifted.size(), drifted);
+        }
+        return drifted.size();
+    }
+
+    private void runSafely() {
+        try {
+            verifyAndRepair();
+        } catch (RuntimeException e) {
+            log.error("Falló la revisión de branch_top_stock", e);
+        }
+    }
+
+}
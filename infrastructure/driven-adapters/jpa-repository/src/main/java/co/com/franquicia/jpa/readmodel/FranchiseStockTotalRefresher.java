@@ -0,0 +1,71 @@
+package co.com.franquicia.jpa.readmodel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresca la vista materializada {@code franchise_stock_total} cada
+ * {@code adapters.leaderboard.refresh-interval-ms} (0 la deja como quedó en la migración).
+ * Con {@code CONCURRENTLY} el ranking de franquicias se sigue leyendo durante el refresco.
+ */
+@Slf4j
+@Component
+public class FranchiseStockTotalRefresher {
+
+    private static final String REFRESH = "REFRESH MATERIALIZED VIEW CONCURRENTLY franchise_stock_total";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long intervalMs;
+    private final Scheduler scheduler = Schedulers.newSingle("franchise-stock-total");
+    private final Timer refreshes;
+    private Disposable ticker;
+
+    public FranchiseStockTotalRefresher(JdbcTemplate jdbcTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${adapters.leaderboard.refresh-interval-ms:60000}") long intervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.intervalMs = intervalMs;
+        this.refreshes = Timer.builder("leaderboard.franchise_totals.refresh")
+                .description("Duración del refresco de franchise_stock_total")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (intervalMs > 0) {
+            ticker = scheduler.schedulePeriodically(this::runSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    public void refresh() {
+        refreshes.record(() -> jdbcTemplate.execute(REFRESH));
+    }
+
+    private void runSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Falló el refresco de franchise_stock_total", e);
+        }
+    }
+
+}
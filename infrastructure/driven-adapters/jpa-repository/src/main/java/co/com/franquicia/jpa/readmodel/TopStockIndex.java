@@ -0,0 +1,355 @@
+package co.com.franquicia.jpa.readmodel;
+
+import co.com.franquicia.jpa.helper.JdbcCursor;
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.CatalogChangeListener;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.TopStockProduct;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria del ranking de stock de cada sucursal, para responder el top-K por
+ * franquicia sin ir a la base de datos.
+ * <p>
+ * Cada sucursal guarda sus productos en una skip list ordenada por stock descendente y id
+ * ascendente (el mismo orden que {@code ix_product_branch_stock}), con entradas de campos
+ * primitivos; altas, cambios y bajas cuestan O(log n) y el top-K se lee recorriendo los K
+ * primeros nodos. Se carga con un cursor al arrancar y lo actualizan las escrituras que pasan
+ * por este proceso. Lo que escriban otras instancias o procesos no llega aquí, por eso se
+ * recarga completo cada {@code adapters.top-stock.index.refresh-interval-ms} (0 = solo al
+ * arrancar).
+ * <p>
+ * Los cambios se aplican cuando la escritura termina, no en el orden en que se confirmó: cada
+ * producto guarda la {@code version} de su fila y se descarta un cambio más antiguo que el que ya
+ * tiene. Un producto borrado deja una marca hasta la siguiente recarga para que una escritura
+ * anterior que llegue tarde no lo vuelva a añadir. Los cambios de otras instancias llegan con la
+ * misma versión, por el outbox ({@link CatalogChangeListener}) o por {@code LISTEN/NOTIFY}; el de un
+ * producto cuya sucursal aún no está en el índice se guarda hasta que llega la sucursal. Mientras
+ * no termine la primera carga, o con
+ * {@code adapters.top-stock.index.enabled=false}, {@link #isReady()} es {@code false} y el
+ * adaptador consulta la base de datos.
+ */
+@Slf4j
+@Component
+@Profile("!r2dbc")
+public class TopStockIndex implements CatalogChangeListener {
+
+    private static final String ALL_BRANCHES = "SELECT id, franchise_id, name FROM branch";
+    private static final String ALL_PRODUCTS = "SELECT id, branch_id, name, stock, version FROM product";
+    private static final int FETCH_SIZE = 1_000;
+
+    /** Stock nulo: ordena después de cualquier stock válido, como {@code NULLS LAST}. */
+    private static final int NULL_STOCK = Integer.MIN_VALUE;
+
+    /** Cambio sin versión conocida: se aplica siempre. */
+    private static final long UNKNOWN_VERSION = -1;
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final long refreshIntervalMs;
+    private final Scheduler scheduler = Schedulers.newSingle("top-stock-index");
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot;
+    private List<Consumer<Snapshot>> replay;
+    private Disposable ticker;
+
+    public TopStockIndex(DataSource dataSource,
+                         @Value("${adapters.top-stock.index.enabled:false}") boolean enabled,
+                         @Value("${adapters.top-stock.index.refresh-interval-ms:300000}") long refreshIntervalMs) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        ticker = refreshIntervalMs > 0
+                ? scheduler.schedulePeriodically(this::rebuild, 0, refreshIntervalMs, TimeUnit.MILLISECONDS)
+                : scheduler.schedule(this::rebuild);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        scheduler.dispose();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /** Programa una recarga completa, p. ej. tras una importación masiva. */
+    public void requestRebuild() {
+        if (enabled) {
+            scheduler.schedule(this::rebuild);
+        }
+    }
+
+    /**
+     * Hasta {@code k} productos por sucursal de la franquicia, sucursales por id ascendente.
+     */
+    public List<TopStockProduct> top(long franchiseId, int k) {
+        Snapshot current = snapshot;
+        if (current == null) return List.of();
+
+        List<TopStockProduct> result = new ArrayList<>();
+        for (Long branchId : current.branchesByFranchise.getOrDefault(franchiseId, Collections.emptyNavigableSet())) {
+            BranchRanking ranking = current.branches.get(branchId);
+            if (ranking == null) continue;
+            int taken = 0;
+            for (Entry entry : ranking.entries) {
+                if (taken == k) break;
+                Slot slot = current.products.get(entry.productId());
+                if (slot == null) continue;
+                result.add(TopStockProduct.builder()
+                        .branchId(branchId)
+                        .branchName(ranking.name)
+                        .productName(slot.name())
+                        .stock(entry.stock() == NULL_STOCK ? null : entry.stock())
+                        .build());
+                taken++;
+            }
+        }
+        return result;
+    }
+
+    public void onProductSaved(Product product) {
+        long id = product.getId();
+        Long branchId = product.getBranchId();
+        String name = product.getName();
+        int stock = product.getStock() == null ? NULL_STOCK : product.getStock();
+        long version = product.getVersion() == null ? UNKNOWN_VERSION : product.getVersion();
+        apply(index -> index.putProduct(id, branchId, name, stock, version));
+    }
+
+    public void onProductDeleted(Long productId) {
+        apply(index -> index.deleteProduct(productId));
+    }
+
+    public void onBranchSaved(Branch branch) {
+        long id = branch.getId();
+        Long franchiseId = branch.getFranchiseId();
+        String name = branch.getName();
+        apply(index -> index.putBranch(id, franchiseId, name));
+    }
+
+    @Override
+    public Mono<Void> onChange(CatalogChange change) {
+        return Mono.fromRunnable(() -> apply(change));
+    }
+
+    /** Aplica un cambio registrado en el outbox o avisado por otra instancia. */
+    public void apply(CatalogChange change) {
+        if (change.getType() == CatalogChange.Type.RESYNC) {
+            requestRebuild();
+            return;
+        }
+        if (change.getId() == null) return;
+        if (change.getAggregate() == CatalogChange.Aggregate.PRODUCT) {
+            if (change.getType() == CatalogChange.Type.DELETED) {
+                onProductDeleted(change.getId());
+            } else {
+                onProductSaved(Product.builder()
+                        .id(change.getId())
+                        .branchId(change.getBranchId())
+                        .name(change.getName())
+                        .stock(change.getStock())
+                        .version(change.getEntityVersion())
+                        .build());
+            }
+        } else if (change.getAggregate() == CatalogChange.Aggregate.BRANCH) {
+            onBranchSaved(Branch.builder()
+                    .id(change.getId())
+                    .franchiseId(change.getFranchiseId())
+                    .name(change.getName())
+                    .build());
+        }
+    }
+
+    /**
+     * Aplica el cambio al índice vigente y, si hay una recarga en curso, lo guarda para
+     * repetirlo sobre el índice nuevo: la recarga pudo leer la fila antes de este cambio.
+     */
+    private void apply(Consumer<Snapshot> change) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current != null) change.accept(current);
+            if (replay != null) replay.add(change);
+        }
+    }
+
+    void rebuild() {
+        synchronized (writeLock) {
+            replay = new ArrayList<>();
+        }
+        try {
+            long started = System.nanoTime();
+            Snapshot fresh = load();
+            synchronized (writeLock) {
+                replay.forEach(change -> change.accept(fresh));
+                replay = null;
+                snapshot = fresh;
+            }
+            log.info("Índice de top stock cargado: {} sucursales, {} productos en {} ms",
+                    fresh.branches.size(), fresh.products.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (SQLException | RuntimeException e) {
+            synchronized (writeLock) {
+                replay = null;
+            }
+            log.error("No se pudo cargar el índice de top stock", e);
+        }
+    }
+
+    private Snapshot load() throws SQLException {
+        Snapshot fresh = new Snapshot();
+        try (JdbcCursor<Branch> branches = JdbcCursor.open(dataSource, ALL_BRANCHES, statement -> { },
+                (rs, rowNum) -> Branch.builder()
+                        .id(rs.getLong("id"))
+                        .franchiseId(rs.getObject("franchise_id", Long.class))
+                        .name(rs.getString("name"))
+                        .build(),
+                FETCH_SIZE)) {
+            for (Branch branch = branches.next(); branch != null; branch = branches.next()) {
+                fresh.putBranch(branch.getId(), branch.getFranchiseId(), branch.getName());
+            }
+        }
+        try (JdbcCursor<ProductRow> products = JdbcCursor.open(dataSource, ALL_PRODUCTS, statement -> { },
+                (rs, rowNum) -> {
+                    int stock = rs.getInt("stock");
+                    return new ProductRow(rs.getLong("id"), rs.getLong("branch_id"), rs.getString("name"),
+                            rs.wasNull() ? NULL_STOCK : stock, rs.getLong("version"));
+                },
+                FETCH_SIZE)) {
+            for (ProductRow row = products.next(); row != null; row = products.next()) {
+                fresh.putProduct(row.id(), row.branchId(), row.name(), row.stock(), row.version());
+            }
+        }
+        return fresh;
+    }
+
+    /** Producto en el ranking: stock descendente, luego id ascendente. */
+    private record Entry(int stock, long productId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byStock = Integer.compare(other.stock, stock);
+            return byStock != 0 ? byStock : Long.compare(productId, other.productId);
+        }
+    }
+
+    /** Producto indexado; sin {@code entry} es la marca de un producto borrado. */
+    private record Slot(long branchId, String name, Entry entry, long version) {
+
+        private static Slot deleted() {
+            return new Slot(0, null, null, Long.MAX_VALUE);
+        }
+    }
+
+    private record ProductRow(long id, long branchId, String name, int stock, long version) {
+    }
+
+    private static final class BranchRanking {
+        private volatile String name;
+        private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+        private BranchRanking(String name) {
+            this.name = name;
+        }
+    }
+
+    /** Estado completo del índice; solo se modifica con {@code writeLock} tomado. */
+    private static final class Snapshot {
+        private final Map<Long, BranchRanking> branches = new ConcurrentHashMap<>();
+        private final Map<Long, NavigableSet<Long>> branchesByFranchise = new ConcurrentHashMap<>();
+        private final Map<Long, Slot> products = new ConcurrentHashMap<>();
+        // productos de sucursales que el índice aún no conoce, por sucursal y producto
+        private final Map<Long, Map<Long, ProductRow>> parked = new HashMap<>();
+
+        private void putBranch(long id, Long franchiseId, String name) {
+            BranchRanking existing = branches.get(id);
+            if (existing != null) {
+                existing.name = name;
+                return;
+            }
+            branches.put(id, new BranchRanking(name));
+            if (franchiseId != null) {
+                branchesByFranchise.computeIfAbsent(franchiseId, key -> new ConcurrentSkipListSet<>()).add(id);
+            }
+            Map<Long, ProductRow> waiting = parked.remove(id);
+            if (waiting != null) {
+                waiting.values().forEach(row -> putProduct(row.id(), row.branchId(), row.name(), row.stock(), row.version()));
+            }
+        }
+
+        private void putProduct(long id, Long branchId, String name, int stock, long version) {
+            Entry entry = new Entry(stock, id);
+            Slot previous = products.get(id);
+            if (previous != null && (previous.entry() == null
+                    || (version != UNKNOWN_VERSION && version < previous.version()))) return;
+            long kept = version == UNKNOWN_VERSION && previous != null ? previous.version() : version;
+            if (branchId == null) {
+                removeProduct(id);
+                return;
+            }
+            BranchRanking ranking = branches.get(branchId);
+            if (ranking == null) {
+                // el cambio de la sucursal aún no llegó (otro aviso u otro lote del outbox): se
+                // guarda el producto y se aplica cuando llegue, sin tocar lo que ya está indexado
+                parked.computeIfAbsent(branchId, key -> new HashMap<>()).merge(id,
+                        new ProductRow(id, branchId, name, stock, version),
+                        (older, newer) -> newer.version() != UNKNOWN_VERSION && newer.version() < older.version() ? older : newer);
+                return;
+            }
+            if (previous != null && entry.equals(previous.entry()) && previous.branchId() == branchId) {
+                products.put(id, new Slot(branchId, name, entry, kept));
+                return;
+            }
+            removeProduct(id);
+            products.put(id, new Slot(branchId, name, entry, kept));
+            ranking.entries.add(entry);
+        }
+
+        private void deleteProduct(long id) {
+            parked.values().forEach(waiting -> waiting.remove(id));
+            removeProduct(id);
+            products.put(id, Slot.deleted());
+        }
+
+        private void removeProduct(long id) {
+            Slot previous = products.remove(id);
+            if (previous == null || previous.entry() == null) return;
+            BranchRanking ranking = branches.get(previous.branchId());
+            if (ranking != null) {
+                ranking.entries.remove(previous.entry());
+            }
+        }
+    }
+
+}
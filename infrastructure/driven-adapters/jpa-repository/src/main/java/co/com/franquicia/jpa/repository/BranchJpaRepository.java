@@ -1,6 +1,7 @@
 package co.com.franquicia.jpa.repository;
 
 import co.com.franquicia.jpa.entity.BranchEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -14,11 +15,28 @@ public interface BranchJpaRepository extends JpaRepository<BranchEntity, Long> {
 
     List<BranchEntity> findByFranchiseId(Long franchiseId);
 
+    List<BranchEntity> findByFranchiseIdAndIdGreaterThanOrderByIdAsc(Long franchiseId, Long afterId, Limit limit);
+
     Optional<BranchEntity> findByName(String name);
 
+    @Transactional
+    @Query(value = """
+        INSERT INTO branch (franchise_id, name)
+        SELECT f.id, :name FROM franchise f WHERE f.id = :franchiseId
+        ON CONFLICT (name) DO NOTHING
+        RETURNING *
+        """, nativeQuery = true)
+    Optional<BranchEntity> insertIfAbsent(@Param("franchiseId") Long franchiseId, @Param("name") String name);
+
     @Modifying
     @Transactional
     @Query("UPDATE BranchEntity b SET b.name = :name WHERE b.id = :id")
     int updateName(@Param("id") Long id, @Param("name") String name);
 
+    // La versión la sube el trigger de V7__entity_version.sql
+    @Modifying
+    @Transactional
+    @Query("UPDATE BranchEntity b SET b.name = :name WHERE b.id = :id AND b.version = :version")
+    int updateNameIfVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
 }
@@ -1,21 +1,36 @@
 package co.com.franquicia.jpa.repository;
 
 import co.com.franquicia.jpa.entity.FranchiseEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface FranchiseJpaRepository extends JpaRepository<FranchiseEntity, Long> {
 
     Optional<FranchiseEntity> findByName(String name);
 
+    @Transactional
+    @Query(value = "INSERT INTO franchise (name) VALUES (:name) ON CONFLICT (name) DO NOTHING RETURNING *",
+            nativeQuery = true)
+    Optional<FranchiseEntity> insertIfAbsent(@Param("name") String name);
+
+    List<FranchiseEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
     @Modifying
     @Transactional
     @Query("UPDATE FranchiseEntity f SET f.name = :name WHERE f.id = :id")
     int updateName(@Param("id") Long id, @Param("name") String name);
 
+    // La versión la sube el trigger de V7__entity_version.sql
+    @Modifying
+    @Transactional
+    @Query("UPDATE FranchiseEntity f SET f.name = :name WHERE f.id = :id AND f.version = :version")
+    int updateNameIfVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
 }
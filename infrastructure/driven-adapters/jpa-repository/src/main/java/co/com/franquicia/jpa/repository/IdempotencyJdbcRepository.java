@@ -0,0 +1,127 @@
+package co.com.franquicia.jpa.repository;
+
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Tabla {@code idempotency_key}. Mientras la petición que reservó una clave sigue en curso, su
+ * instancia renueva {@code created_at} cada tercio de {@code pending-timeout-ms}; solo una clave
+ * vencida ({@code ttl-ms}) o una reserva sin renovar durante {@code pending-timeout-ms} (la
+ * instancia que la tenía cayó) se puede volver a reservar. Con
+ * {@code adapters.idempotency.enabled=false} toda clave se reserva sin tocar la tabla.
+ */
+@Repository
+public class IdempotencyJdbcRepository {
+
+    // la reserva y la comprobación de vencimiento van en la misma sentencia: dos peticiones con la
+    // misma clave no pueden reservarla a la vez. En una reserva sin respuesta, created_at es la
+    // última renovación (RENEW), no la hora de la petición
+    private static final String CLAIM = """
+            INSERT INTO idempotency_key (key, fingerprint) VALUES (?, ?)
+            ON CONFLICT (key) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint, status = NULL, etag = NULL, body = NULL, created_at = now()
+            WHERE idempotency_key.created_at < now() - make_interval(secs => ?)
+               OR (idempotency_key.status IS NULL AND idempotency_key.created_at < now() - make_interval(secs => ?))
+            RETURNING key
+            """;
+
+    private static final String FIND = """
+            SELECT key, fingerprint, status, etag, body FROM idempotency_key
+            WHERE key = ? AND created_at >= now() - make_interval(secs => ?)
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE idempotency_key SET status = ?, etag = ?, body = ?
+            WHERE key = ? AND fingerprint = ? AND status IS NULL
+            """;
+
+    private static final String RENEW = """
+            UPDATE idempotency_key SET created_at = now()
+            WHERE key = ? AND fingerprint = ? AND status IS NULL
+            """;
+
+    private static final String RELEASE = "DELETE FROM idempotency_key WHERE key = ? AND status IS NULL";
+
+    private static final String PURGE = """
+            DELETE FROM idempotency_key WHERE key IN (
+                SELECT key FROM idempotency_key
+                WHERE created_at < now() - make_interval(secs => ?)
+                LIMIT ?
+            )
+            """;
+
+    private static final RowMapper<IdempotentResponse> RESPONSE_ROW_MAPPER = (rs, rowNum) -> IdempotentResponse.builder()
+            .key(rs.getString("key"))
+            .fingerprint(rs.getString("fingerprint"))
+            .status(rs.getObject("status", Integer.class))
+            .etag(rs.getString("etag"))
+            .body(rs.getString("body"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final double ttlSeconds;
+    private final double pendingTimeoutSeconds;
+    private final Duration renewInterval;
+
+    public IdempotencyJdbcRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${adapters.idempotency.enabled:true}") boolean enabled,
+                                     @Value("${adapters.idempotency.ttl-ms:86400000}") long ttlMs,
+                                     @Value("${adapters.idempotency.pending-timeout-ms:60000}") long pendingTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.ttlSeconds = ttlMs / 1000.0;
+        this.pendingTimeoutSeconds = pendingTimeoutMs / 1000.0;
+        this.renewInterval = Duration.ofMillis(Math.max(1, pendingTimeoutMs / 3));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Cada cuánto renovar una reserva en curso: un tercio de {@code pending-timeout-ms}. */
+    public Duration renewInterval() {
+        return renewInterval;
+    }
+
+    /** Vacío si la clave quedó reservada; si no, la fila que la tiene. */
+    public Optional<IdempotentResponse> claim(String key, String fingerprint) {
+        if (!enabled) return Optional.empty();
+        boolean claimed = !jdbcTemplate.queryForList(CLAIM, String.class, key, fingerprint, ttlSeconds, pendingTimeoutSeconds).isEmpty();
+        if (claimed) return Optional.empty();
+        // si se borró entre ambas sentencias (la otra petición falló), se trata como en curso
+        return Optional.of(jdbcTemplate.query(FIND, RESPONSE_ROW_MAPPER, key, ttlSeconds).stream()
+                .findFirst()
+                .orElse(IdempotentResponse.builder().key(key).fingerprint(fingerprint).build()));
+    }
+
+    /** Devuelve cuántas filas guardó: 0 si la clave ya no estaba reservada para esta petición. */
+    public int complete(IdempotentResponse response) {
+        if (!enabled) return 0;
+        return jdbcTemplate.update(COMPLETE, response.getStatus(), response.getEtag(), response.getBody(),
+                response.getKey(), response.getFingerprint());
+    }
+
+    /** Renueva la reserva de una petición en curso; {@code false} si la clave ya no es suya. */
+    public boolean renew(String key, String fingerprint) {
+        if (!enabled) return false;
+        return jdbcTemplate.update(RENEW, key, fingerprint) == 1;
+    }
+
+    public void release(String key) {
+        if (!enabled) return;
+        jdbcTemplate.update(RELEASE, key);
+    }
+
+    /** Borra hasta {@code limit} claves vencidas; devuelve cuántas borró. */
+    public int purgeExpired(int limit) {
+        return jdbcTemplate.update(PURGE, ttlSeconds, limit);
+    }
+
+}
@@ -0,0 +1,213 @@
+package co.com.franquicia.jpa.repository;
+
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import co.com.franquicia.model.inventory.InventoryRow;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Importación de inventario sobre una única conexión: las filas se copian con {@code COPY}
+ * a una tabla temporal y al final se validan y fusionan en {@code product} con sentencias
+ * de conjunto, todo dentro de la misma transacción. Si se pide, la misma transacción deja en el
+ * {@code outbox} un registro por producto importado, como cualquier otra escritura.
+ * <p>
+ * No es thread-safe; el adaptador garantiza que las llamadas llegan en secuencia.
+ */
+public class InventoryImportSession implements AutoCloseable {
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE product_import_staging (
+                line_no   bigint PRIMARY KEY,
+                branch_id bigint NOT NULL,
+                name      text   NOT NULL,
+                stock     integer NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING =
+            "COPY product_import_staging (line_no, branch_id, name, stock) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Saca del staging las filas que no se pueden aplicar y las devuelve con el motivo.
+     * Si un nombre se repite en el archivo gana la última línea.
+     */
+    private static final String REJECT_INVALID = """
+            WITH ranked AS (
+                SELECT s.line_no, s.branch_id, s.name,
+                       ROW_NUMBER() OVER (PARTITION BY s.name ORDER BY s.line_no DESC) AS rn
+                FROM product_import_staging s
+            ), rejected AS (
+                SELECT r.line_no,
+                       CASE
+                           WHEN r.rn > 1 THEN 'Nombre repetido en el archivo, se aplica la última línea: ' || r.name
+                           WHEN b.id IS NULL THEN 'Sucursal no encontrada con el id: ' || r.branch_id
+                           ELSE 'El producto ' || r.name || ' ya pertenece a la sucursal ' || p.branch_id
+                       END AS reason
+                FROM ranked r
+                LEFT JOIN branch b ON b.id = r.branch_id
+                LEFT JOIN product p ON p.name = r.name
+                WHERE r.rn > 1 OR b.id IS NULL OR (p.id IS NOT NULL AND p.branch_id <> r.branch_id)
+            )
+            DELETE FROM product_import_staging s
+            USING rejected x
+            WHERE s.line_no = x.line_no
+            RETURNING x.line_no, x.reason
+            """;
+
+    private static final String COUNT_CHANGES = """
+            SELECT count(*) FILTER (WHERE p.id IS NULL) AS inserted,
+                   count(p.id) AS updated
+            FROM product_import_staging s
+            LEFT JOIN product p ON p.name = s.name
+            """;
+
+    private static final String MERGE_STAGING = """
+            MERGE INTO product p
+            USING product_import_staging s ON p.name = s.name
+            WHEN MATCHED THEN UPDATE SET stock = s.stock
+            WHEN NOT MATCHED THEN INSERT (branch_id, name, stock) VALUES (s.branch_id, s.name, s.stock)
+            """;
+
+    // después del MERGE todo lo que queda en el staging está en product, con su versión ya subida
+    private static final String RECORD_OUTBOX = """
+            INSERT INTO outbox (aggregate, type, entity_id, franchise_id, branch_id, name, stock, entity_version)
+            SELECT 'PRODUCT', 'UPSERTED', p.id, b.franchise_id, p.branch_id, p.name, p.stock, p.version
+            FROM product_import_staging s
+            JOIN product p ON p.name = s.name
+            JOIN branch b ON b.id = p.branch_id
+            ORDER BY s.line_no
+            """;
+
+    // motivo de los movimientos que deje el MERGE en el historial de stock, si está activo
+    private static final String MARK_REASON = "SELECT set_config('franquicia.stock_reason', 'IMPORTED', true)";
+
+    private final Connection connection;
+    private final CopyIn copyIn;
+    private final boolean recordOutbox;
+    private long rowsCopied;
+    private long rowsRejected;
+
+    public InventoryImportSession(Connection connection, boolean recordOutbox) throws SQLException {
+        this.connection = connection;
+        this.recordOutbox = recordOutbox;
+        try {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+                statement.execute(MARK_REASON);
+            }
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Envía un bloque de filas al {@code COPY} en curso. Las filas ya rechazadas por el
+     * caso de uso no se copian y se devuelven como eventos de rechazo, seguidos del progreso.
+     */
+    public List<InventoryImportEvent> copy(List<InventoryRow> rows) throws SQLException {
+        List<InventoryImportEvent> events = new ArrayList<>();
+        StringBuilder csv = new StringBuilder();
+        for (InventoryRow row : rows) {
+            if (row.isRejected()) {
+                rowsRejected++;
+                events.add(InventoryImportEvent.rejected(row.getLineNumber(), row.getRejectionReason()));
+                continue;
+            }
+            csv.append(row.getLineNumber()).append(',')
+                    .append(row.getBranchId()).append(',')
+                    .append('"').append(row.getName().replace("\"", "\"\"")).append('"').append(',')
+                    .append(row.getStock()).append('\n');
+            rowsCopied++;
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0) {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        }
+        events.add(InventoryImportEvent.progress(rowsCopied));
+        return events;
+    }
+
+    /**
+     * Cierra el {@code COPY}, descarta las filas inválidas, aplica el resto con un único
+     * {@code MERGE}, registra los productos en el outbox si corresponde y confirma. Devuelve los rechazos de la base seguidos del resumen final,
+     * que por tanto solo se emite cuando los cambios ya son visibles.
+     */
+    public List<InventoryImportEvent> mergeAndCommit() throws SQLException {
+        copyIn.endCopy();
+        List<InventoryImportEvent> events = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(REJECT_INVALID);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                events.add(InventoryImportEvent.rejected(rs.getLong("line_no"), rs.getString("reason")));
+                rowsRejected++;
+            }
+        }
+        long inserted;
+        long updated;
+        try (PreparedStatement statement = connection.prepareStatement(COUNT_CHANGES);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            inserted = rs.getLong("inserted");
+            updated = rs.getLong("updated");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(MERGE_STAGING);
+            if (recordOutbox) {
+                statement.executeUpdate(RECORD_OUTBOX);
+            }
+        }
+        events.add(InventoryImportEvent.builder()
+                .type(InventoryImportEvent.Type.COMPLETED)
+                .rowsCopied(rowsCopied)
+                .rowsInserted(inserted)
+                .rowsUpdated(updated)
+                .rowsRejected(rowsRejected)
+                .build());
+        try {
+            connection.commit();
+        } finally {
+            close();
+        }
+        return events;
+    }
+
+    public void rollback() {
+        try {
+            if (connection.isClosed()) {
+                return;
+            }
+            if (copyIn != null && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // la conexión se descarta igualmente
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException ignored) {
+            // nada más que hacer con una conexión rota
+        }
+    }
+
+}
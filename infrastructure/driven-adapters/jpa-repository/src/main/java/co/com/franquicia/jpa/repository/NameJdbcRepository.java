@@ -0,0 +1,45 @@
+package co.com.franquicia.jpa.repository;
+
+import co.com.franquicia.jpa.helper.JdbcCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.SQLException;
+
+/**
+ * Cursores sobre la columna {@code name} de cada tabla, para recorrer todos los nombres sin
+ * cargar entidades completas. Se excluyen los nulos: {@link JdbcCursor#next()} los tomaría
+ * por el final del cursor.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NameJdbcRepository {
+
+    private static final String FRANCHISE_NAMES = "SELECT name FROM franchise WHERE name IS NOT NULL";
+    private static final String BRANCH_NAMES = "SELECT name FROM branch WHERE name IS NOT NULL";
+    private static final String PRODUCT_NAMES = "SELECT name FROM product WHERE name IS NOT NULL";
+
+    private static final int FETCH_SIZE = 5_000;
+    private static final RowMapper<String> NAME_ROW_MAPPER = (rs, rowNum) -> rs.getString(1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcCursor<String> openFranchiseNames() throws SQLException {
+        return open(FRANCHISE_NAMES);
+    }
+
+    public JdbcCursor<String> openBranchNames() throws SQLException {
+        return open(BRANCH_NAMES);
+    }
+
+    public JdbcCursor<String> openProductNames() throws SQLException {
+        return open(PRODUCT_NAMES);
+    }
+
+    private JdbcCursor<String> open(String sql) throws SQLException {
+        return JdbcCursor.open(jdbcTemplate.getDataSource(), sql, statement -> { }, NAME_ROW_MAPPER, FETCH_SIZE);
+    }
+
+}
@@ -0,0 +1,95 @@
+package co.com.franquicia.jpa.repository;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Escritura y lectura de la tabla {@code outbox}. {@link #append} debe llamarse dentro de la
+ * transacción de la escritura que registra; la franquicia de un producto se resuelve en la propia
+ * sentencia a partir de su sucursal. Con {@code adapters.outbox.enabled=false} no se registra nada.
+ */
+@Repository
+public class OutboxJdbcRepository {
+
+    private static final String APPEND = """
+            INSERT INTO outbox (aggregate, type, entity_id, franchise_id, branch_id, name, stock, entity_version)
+            VALUES (?, ?, ?::bigint,
+                    COALESCE(?::bigint, (SELECT b.franchise_id FROM branch b WHERE b.id = ?::bigint)),
+                    ?::bigint, ?::varchar, ?::integer, ?::bigint)
+            """;
+
+    private static final String CLAIM = """
+            SELECT id, aggregate, type, entity_id, franchise_id, branch_id, name, stock, entity_version, created_at
+            FROM outbox
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE = "DELETE FROM outbox WHERE id = ANY(?)";
+
+    private static final RowMapper<CatalogChange> CHANGE_ROW_MAPPER = (rs, rowNum) -> CatalogChange.builder()
+            .sequence(rs.getLong("id"))
+            .aggregate(CatalogChange.Aggregate.valueOf(rs.getString("aggregate")))
+            .type(CatalogChange.Type.valueOf(rs.getString("type")))
+            .id(rs.getObject("entity_id", Long.class))
+            .franchiseId(rs.getObject("franchise_id", Long.class))
+            .branchId(rs.getObject("branch_id", Long.class))
+            .name(rs.getString("name"))
+            .stock(rs.getObject("stock", Integer.class))
+            .entityVersion(rs.getObject("entity_version", Long.class))
+            .occurredAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public OutboxJdbcRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${adapters.outbox.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(CatalogChange change) {
+        appendAll(List.of(change));
+    }
+
+    public void appendAll(List<CatalogChange> changes) {
+        if (!enabled || changes.isEmpty()) return;
+        jdbcTemplate.batchUpdate(APPEND, changes, changes.size(), (PreparedStatement statement, CatalogChange change) -> {
+            statement.setString(1, change.getAggregate().name());
+            statement.setString(2, change.getType().name());
+            statement.setObject(3, change.getId());
+            statement.setObject(4, change.getFranchiseId());
+            statement.setObject(5, change.getBranchId());
+            statement.setObject(6, change.getBranchId());
+            statement.setObject(7, change.getName());
+            statement.setObject(8, change.getStock());
+            statement.setObject(9, change.getEntityVersion());
+        });
+    }
+
+    /** Bloquea hasta {@code limit} registros pendientes que no tenga ya otra transacción. */
+    public List<CatalogChange> claim(int limit) {
+        return jdbcTemplate.query(CLAIM, CHANGE_ROW_MAPPER, limit);
+    }
+
+    public void delete(List<Long> ids) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DELETE);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        });
+    }
+
+}
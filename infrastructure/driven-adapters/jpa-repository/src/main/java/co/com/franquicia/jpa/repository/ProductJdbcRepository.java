@@ -0,0 +1,98 @@
+package co.com.franquicia.jpa.repository;
+
+import co.com.franquicia.jpa.entity.ProductEntity;
+import co.com.franquicia.jpa.helper.JdbcCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Sentencias sobre {@code product} que Spring Data JPA no puede expresar (arreglos, lotes,
+ * cursores), ejecutadas directamente con JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductJdbcRepository {
+
+    private static final String ADJUST_STOCK_BATCH = """
+            UPDATE product p SET stock = p.stock + v.delta
+            FROM unnest(?::bigint[], ?::int[]) AS v(id, delta)
+            WHERE p.id = v.id AND p.stock::bigint + v.delta BETWEEN 0 AND 2147483647
+            RETURNING p.*
+            """;
+
+    // por id o por (sucursal, nombre); cada rama del join usa su propio índice
+    private static final String SET_STOCK_BATCH = """
+            WITH v(id, branch_id, name, stock) AS (
+                SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::varchar[], ?::int[])
+            ), target AS (
+                SELECT p.id, v.stock FROM v JOIN product p ON p.id = v.id
+                WHERE v.id IS NOT NULL
+                UNION ALL
+                SELECT p.id, v.stock FROM v JOIN product p ON p.branch_id = v.branch_id AND p.name = v.name
+                WHERE v.id IS NULL
+            )
+            UPDATE product p SET stock = t.stock
+            FROM target t
+            WHERE p.id = t.id
+            RETURNING p.*
+            """;
+
+    private static final String STREAM_BY_FRANCHISE = """
+            SELECT p.* FROM product p
+            INNER JOIN branch b ON b.id = p.branch_id
+            WHERE b.franchise_id = ?
+            ORDER BY p.branch_id, p.id
+            """;
+
+    private static final String STREAM_BY_BRANCH =
+            "SELECT p.* FROM product p WHERE p.branch_id = ? ORDER BY p.id";
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    static final RowMapper<ProductEntity> PRODUCT_ROW_MAPPER = (rs, rowNum) -> ProductEntity.builder()
+            .id(rs.getLong("id"))
+            .branchId(rs.getObject("branch_id", Long.class))
+            .name(rs.getString("name"))
+            .stock(rs.getObject("stock", Integer.class))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<ProductEntity> adjustStockBatch(Long[] ids, Integer[] deltas) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADJUST_STOCK_BATCH);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("integer", deltas));
+            return statement;
+        }, PRODUCT_ROW_MAPPER);
+    }
+
+    public List<ProductEntity> setStockBatch(Long[] ids, Long[] branchIds, String[] names, Integer[] stocks) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SET_STOCK_BATCH);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("bigint", branchIds));
+            statement.setArray(3, connection.createArrayOf("varchar", names));
+            statement.setArray(4, connection.createArrayOf("integer", stocks));
+            return statement;
+        }, PRODUCT_ROW_MAPPER);
+    }
+
+    public JdbcCursor<ProductEntity> openCursorByFranchise(Long franchiseId) throws SQLException {
+        return JdbcCursor.open(jdbcTemplate.getDataSource(), STREAM_BY_FRANCHISE,
+                statement -> statement.setLong(1, franchiseId), PRODUCT_ROW_MAPPER, STREAM_FETCH_SIZE);
+    }
+
+    public JdbcCursor<ProductEntity> openCursorByBranch(Long branchId) throws SQLException {
+        return JdbcCursor.open(jdbcTemplate.getDataSource(), STREAM_BY_BRANCH,
+                statement -> statement.setLong(1, branchId), PRODUCT_ROW_MAPPER, STREAM_FETCH_SIZE);
+    }
+
+}
@@ -1,12 +1,14 @@
 package co.com.franquicia.jpa.repository;
 
 import co.com.franquicia.jpa.entity.ProductEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,29 +16,134 @@ public interface ProductJpaRepository extends JpaRepository<ProductEntity, Long>
 
     List<ProductEntity> findByBranchId(Long branchId);
 
+    List<ProductEntity> findByBranchIdAndIdGreaterThanOrderByIdAsc(Long branchId, Long afterId, Limit limit);
+
     Optional<ProductEntity> findByName(String name);
 
-    @Modifying
     @Transactional
-    @Query("UPDATE ProductEntity p SET p.stock = :stock WHERE p.id = :id")
-    int updateStock(@Param("id") Long id, @Param("stock") Integer stock);
+    @Query(value = """
+        INSERT INTO product (branch_id, name, stock)
+        SELECT b.id, :name, :stock FROM branch b WHERE b.id = :branchId
+        ON CONFLICT (name) DO NOTHING
+        RETURNING *
+        """, nativeQuery = true)
+    Optional<ProductEntity> insertIfAbsent(@Param("branchId") Long branchId,
+                                           @Param("name") String name,
+                                           @Param("stock") Integer stock);
+
+    @Query("SELECT p.name FROM ProductEntity p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Transactional
+    @Query(value = "UPDATE product SET stock = :stock WHERE id = :id RETURNING *", nativeQuery = true)
+    Optional<ProductEntity> updateStock(@Param("id") Long id, @Param("stock") Integer stock);
+
+    // La versión la sube el trigger de V7__entity_version.sql
+    @Transactional
+    @Query(value = "UPDATE product SET stock = :stock WHERE id = :id AND version = :version RETURNING *",
+            nativeQuery = true)
+    Optional<ProductEntity> updateStockIfVersion(@Param("id") Long id, @Param("stock") Integer stock,
+                                                 @Param("version") Long version);
+
+    // la suma se comprueba en bigint: un ajuste que desbordaría el entero no se aplica
+    @Transactional
+    @Query(value = """
+        UPDATE product SET stock = stock + :delta
+        WHERE id = :id AND stock::bigint + :delta BETWEEN 0 AND 2147483647
+        RETURNING *
+        """, nativeQuery = true)
+    Optional<ProductEntity> adjustStock(@Param("id") Long id, @Param("delta") Integer delta);
 
     @Modifying
     @Transactional
     @Query("UPDATE ProductEntity p SET p.name = :name WHERE p.id = :id")
     int updateName(@Param("id") Long id, @Param("name") String name);
 
-    // Si necesitas una consulta nativa, usa nativeQuery = true y ajusta el resultado
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProductEntity p SET p.name = :name WHERE p.id = :id AND p.version = :version")
+    int updateNameIfVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+    // Lee el modelo branch_top_stock que mantienen los triggers por sentencia de V9__branch_top_stock_statement_trigger.sql
     @Query(value = """
-        SELECT DISTINCT ON (p.branch_id)
-            p.branch_id, b.name as branch_name, p.name as product_name, p.stock
-        FROM product p
-        INNER JOIN branch b ON p.branch_id = b.id
-        WHERE b.franchise_id = :franchiseId
-        ORDER BY p.branch_id, p.stock DESC
+        SELECT t.branch_id, b.name as branch_name, t.product_name, t.stock
+        FROM branch_top_stock t
+        INNER JOIN branch b ON b.id = t.branch_id
+        WHERE t.franchise_id = :franchiseId
+        ORDER BY t.branch_id
         """, nativeQuery = true)
     List<TopStockRow> findTopStockByFranchise(@Param("franchiseId") Long franchiseId);
 
+    @Query(value = """
+        SELECT b.id as branch_id, b.name as branch_name, t.name as product_name, t.stock
+        FROM branch b
+        CROSS JOIN LATERAL (
+            SELECT p.id, p.name, p.stock
+            FROM product p
+            WHERE p.branch_id = b.id
+            ORDER BY p.stock DESC NULLS LAST, p.id
+            LIMIT :k
+        ) t
+        WHERE b.franchise_id = :franchiseId
+        ORDER BY b.id, t.stock DESC NULLS LAST, t.id
+        """, nativeQuery = true)
+    List<TopStockRow> findTopStockByFranchise(@Param("franchiseId") Long franchiseId, @Param("k") int k);
+
+    // Cada sucursal aporta como mucho :limit candidatos leídos en orden de ix_product_branch_stock,
+    // así que el costo depende de sucursales x limit y no del tamaño del catálogo
+    @Query(value = """
+        SELECT t.id as product_id, t.name as product_name, t.stock, b.id as branch_id, b.name as branch_name,
+               :afterPosition + ROW_NUMBER() OVER (ORDER BY t.stock DESC, t.id) as position
+        FROM branch b
+        CROSS JOIN LATERAL (
+            SELECT p.id, p.name, p.stock
+            FROM product p
+            WHERE p.branch_id = b.id
+              AND (p.stock < :afterStock OR (p.stock = :afterStock AND p.id > :afterId))
+            ORDER BY p.stock DESC NULLS LAST, p.id
+            LIMIT :limit
+        ) t
+        WHERE b.franchise_id = :franchiseId
+        ORDER BY t.stock DESC, t.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<ProductRankingRow> findTopProductsByFranchise(@Param("franchiseId") Long franchiseId,
+                                                       @Param("afterStock") long afterStock,
+                                                       @Param("afterId") long afterId,
+                                                       @Param("afterPosition") long afterPosition,
+                                                       @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT s.franchise_id, f.name as franchise_name, s.total_stock, s.product_count,
+               :afterPosition + ROW_NUMBER() OVER (ORDER BY s.total_stock DESC, s.franchise_id) as position
+        FROM franchise_stock_total s
+        INNER JOIN franchise f ON f.id = s.franchise_id
+        WHERE s.total_stock < :afterTotal OR (s.total_stock = :afterTotal AND s.franchise_id > :afterId)
+        ORDER BY s.total_stock DESC, s.franchise_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<FranchiseStockTotalRow> findTopFranchisesByStock(@Param("afterTotal") long afterTotal,
+                                                          @Param("afterId") long afterId,
+                                                          @Param("afterPosition") long afterPosition,
+                                                          @Param("limit") int limit);
+
+    interface ProductRankingRow {
+        Long getPosition();
+        Long getProduct_id();
+        String getProduct_name();
+        Integer getStock();
+        Long getBranch_id();
+        String getBranch_name();
+    }
+
+    interface FranchiseStockTotalRow {
+        Long getPosition();
+        Long getFranchise_id();
+        String getFranchise_name();
+        Long getTotal_stock();
+        Long getProduct_count();
+    }
+
     interface TopStockRow {
         Long getBranch_id();
         String getBranch_name();
@@ -0,0 +1,177 @@
+package co.com.franquicia.jpa.repository;
+
+import co.com.franquicia.model.product.ProductStockAt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Acceso a las tablas del historial de stock ({@code stock_movement}, {@code stock_snapshot} y
+ * {@code stock_ledger_settings}). Los movimientos los escribe el trigger de {@code product}; aquí
+ * solo se fija el motivo, se activa o desactiva el historial y se mantienen las particiones.
+ */
+@Repository
+public class StockLedgerJdbcRepository {
+
+    static final String PARTITION_PREFIX = "stock_movement_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String MARK_REASON = "SELECT set_config('franquicia.stock_reason', ?, true)";
+
+    private static final String HISTORY_SINCE = "SELECT enabled_since FROM stock_ledger_settings WHERE enabled";
+
+    private static final String IS_ENABLED = "SELECT enabled FROM stock_ledger_settings";
+
+    // SHARE bloquea las escrituras de product mientras dura la foto: ninguna queda fuera de la
+    // foto y del historial a la vez. Las que esperaban ven el historial ya activo.
+    private static final String LOCK_PRODUCTS = "LOCK TABLE product IN SHARE MODE";
+
+    private static final String ENABLE = """
+            UPDATE stock_ledger_settings SET enabled = true, enabled_since = clock_timestamp()
+            """;
+
+    private static final String BASELINE = """
+            INSERT INTO stock_snapshot (product_id, taken_at, stock)
+            SELECT p.id, s.enabled_since, p.stock
+            FROM product p CROSS JOIN stock_ledger_settings s
+            ON CONFLICT (product_id, taken_at) DO NOTHING
+            """;
+
+    private static final String DISABLE = "UPDATE stock_ledger_settings SET enabled = false";
+
+    /**
+     * Lo último conocido antes de {@code at}: el movimiento más reciente o, si su partición ya se
+     * compactó, la foto más reciente. Ambas ramas son una lectura de índice con {@code LIMIT 1};
+     * las particiones posteriores a {@code at} ni se abren.
+     */
+    private static final String STOCK_AT = """
+            SELECT h.stock, h.deleted, h.at
+            FROM (
+                (SELECT m.stock, m.reason = 'DELETED' AS deleted, m.created_at AS at
+                 FROM stock_movement m
+                 WHERE m.product_id = ? AND m.created_at <= ?
+                 ORDER BY m.created_at DESC
+                 LIMIT 1)
+                UNION ALL
+                (SELECT s.stock, s.deleted, s.taken_at
+                 FROM stock_snapshot s
+                 WHERE s.product_id = ? AND s.taken_at <= ?
+                 ORDER BY s.taken_at DESC
+                 LIMIT 1)
+            ) h
+            ORDER BY h.at DESC
+            LIMIT 1
+            """;
+
+    private static final String PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'stock_movement'::regclass AND c.relname LIKE 'stock_movement_p%'
+            ORDER BY c.relname
+            """;
+
+    private static final String CREATE_PARTITION =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF stock_movement FOR VALUES FROM ('%s') TO ('%s')";
+
+    // el último estado de cada producto que se movió en la partición
+    private static final String SNAPSHOT_PARTITION = """
+            INSERT INTO stock_snapshot (product_id, taken_at, stock, deleted)
+            SELECT DISTINCT ON (m.product_id) m.product_id, m.created_at, m.stock, m.reason = 'DELETED'
+            FROM %s m
+            ORDER BY m.product_id, m.created_at DESC
+            ON CONFLICT (product_id, taken_at) DO NOTHING
+            """;
+
+    private static final String DROP_PARTITION = "DROP TABLE %s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public StockLedgerJdbcRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${adapters.stock-ledger.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Motivo de los movimientos que deje la transacción en curso; sin historial no hace nada. */
+    public void markReason(String reason) {
+        if (!enabled) return;
+        jdbcTemplate.queryForObject(MARK_REASON, String.class, reason);
+    }
+
+    public Optional<LocalDateTime> historySince() {
+        return jdbcTemplate.query(HISTORY_SINCE, (rs, rowNum) -> rs.getTimestamp("enabled_since").toLocalDateTime())
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<ProductStockAt> stockAt(Long productId, LocalDateTime at) {
+        Timestamp timestamp = Timestamp.valueOf(at);
+        return jdbcTemplate.query(STOCK_AT, (rs, rowNum) -> rs.getBoolean("deleted")
+                                ? null
+                                : ProductStockAt.builder()
+                                .productId(productId)
+                                .stock(rs.getObject("stock", Integer.class))
+                                .at(at)
+                                .recordedAt(rs.getTimestamp("at").toLocalDateTime())
+                                .build(),
+                        productId, timestamp, productId, timestamp)
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Deja la tabla de ajustes como dice {@code adapters.stock-ledger.enabled}. Al activarlo toma
+     * la foto inicial; debe llamarse dentro de una transacción. Devuelve si hubo cambio.
+     */
+    public boolean syncSettings() {
+        Boolean current = jdbcTemplate.queryForObject(IS_ENABLED, Boolean.class);
+        if (Boolean.valueOf(enabled).equals(current)) return false;
+        if (enabled) {
+            jdbcTemplate.execute(LOCK_PRODUCTS);
+            jdbcTemplate.update(ENABLE);
+            jdbcTemplate.update(BASELINE);
+        } else {
+            jdbcTemplate.update(DISABLE);
+        }
+        return true;
+    }
+
+    public List<YearMonth> partitions() {
+        return jdbcTemplate.queryForList(PARTITIONS, String.class).stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute(CREATE_PARTITION.formatted(
+                partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    /** Resume la partición del mes en {@code stock_snapshot} y la borra; dentro de una transacción. */
+    public int compactPartition(YearMonth month) {
+        String partition = partitionName(month);
+        int snapshots = jdbcTemplate.update(SNAPSHOT_PARTITION.formatted(partition));
+        jdbcTemplate.execute(DROP_PARTITION.formatted(partition));
+        return snapshots;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+}
@@ -0,0 +1,3 @@
+-- Versión de la fila del producto en el momento del cambio. OutboxRelay la entrega con el cambio
+-- para que quien lo aplique (p. ej. TopStockIndex) descarte uno más antiguo que el que ya tiene.
+ALTER TABLE outbox ADD COLUMN IF NOT EXISTS entity_version bigint;
@@ -0,0 +1,42 @@
+-- El trigger de V9 bloqueaba y recalculaba la sucursal en cada escritura de producto, aunque el
+-- producto no fuera ni pudiera pasar a ser el top: todas las escrituras de stock de una sucursal
+-- quedaban en fila hasta el commit. Ahora se lee primero la fila actual de branch_top_stock, sin
+-- candado, y solo se recalculan las sucursales donde el producto era el top o su stock nuevo
+-- llega al del top (o la sucursal aún no tiene top).
+-- Sin candado, una escritura que no alcanza el top puede cruzarse con otra que en ese momento
+-- baja el top y que, por no ver la primera sin confirmar, elige otro producto. Ese desfase lo
+-- repara BranchTopStockVerifier.
+CREATE OR REPLACE FUNCTION product_branch_top_stock_trg() RETURNS trigger AS $$
+DECLARE
+    branch_ids bigint[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT n.branch_id) INTO branch_ids
+        FROM new_rows n
+        LEFT JOIN branch_top_stock r ON r.branch_id = n.branch_id
+        WHERE r.branch_id IS NULL OR r.stock IS NULL OR n.stock >= r.stock;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT o.branch_id) INTO branch_ids
+        FROM old_rows o
+        JOIN branch_top_stock r ON r.branch_id = o.branch_id AND r.product_id = o.id;
+    ELSE
+        -- la sucursal de origen solo cambia si el producto era su top; la de destino, si lo era o
+        -- si el stock nuevo llega al del top
+        SELECT array_agg(DISTINCT v.branch_id) INTO branch_ids
+        FROM old_rows o
+        JOIN new_rows n ON n.id = o.id
+        LEFT JOIN branch_top_stock ro ON ro.branch_id = o.branch_id
+        LEFT JOIN branch_top_stock rn ON rn.branch_id = n.branch_id
+        CROSS JOIN LATERAL (VALUES
+            (o.branch_id, ro.product_id = o.id),
+            (n.branch_id, rn.branch_id IS NULL OR rn.product_id = n.id OR rn.stock IS NULL OR n.stock >= rn.stock)
+        ) AS v(branch_id, affected)
+        WHERE (o.branch_id, o.name, o.stock) IS DISTINCT FROM (n.branch_id, n.name, n.stock)
+          AND v.affected;
+    END IF;
+    IF branch_ids IS NOT NULL THEN
+        PERFORM branch_top_stock_refresh(branch_ids);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
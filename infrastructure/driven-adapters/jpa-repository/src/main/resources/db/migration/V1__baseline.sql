@@ -0,0 +1,28 @@
+-- Esquema base tal como lo dejaba Hibernate (ddl-auto: update) más la secuencia de product.
+-- Es idempotente: en una base existente (baseline-on-migrate) no cambia las tablas ya creadas
+-- y solo completa lo que hacía schema.sql.
+CREATE TABLE IF NOT EXISTS franchise (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS branch (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    franchise_id bigint,
+    name         varchar(255)
+);
+
+-- product.id usa product_seq (incremento 50) para que Hibernate pueda agrupar los INSERT
+-- en lotes; el DEFAULT deja la misma secuencia para inserts sin id (COPY, R2DBC).
+CREATE SEQUENCE IF NOT EXISTS product_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS product (
+    id        bigint PRIMARY KEY DEFAULT nextval('product_seq'),
+    branch_id bigint,
+    name      varchar(255),
+    stock     integer
+);
+
+ALTER TABLE product ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE product ALTER COLUMN id SET DEFAULT nextval('product_seq');
+SELECT setval('product_seq', GREATEST((SELECT last_value FROM product_seq), (SELECT COALESCE(MAX(id), 0) FROM product) + 50));
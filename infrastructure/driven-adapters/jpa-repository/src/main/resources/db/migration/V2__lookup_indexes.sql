@@ -0,0 +1,15 @@
+-- Los nombres son únicos por regla de negocio (cada create/rename consulta findByName);
+-- el índice único hace esa consulta un Index Scan y cierra la carrera entre dos creaciones.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_franchise_name ON franchise (name);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_branch_name ON branch (name);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_product_name ON product (name);
+
+-- Sucursales de una franquicia, también en orden de id para el listado paginado.
+CREATE INDEX IF NOT EXISTS ix_branch_franchise_id ON branch (franchise_id, id);
+
+-- Producto con mayor stock por sucursal: el LATERAL ... LIMIT 1 lee la primera entrada del
+-- índice y obtiene el nombre sin ir a la tabla.
+CREATE INDEX IF NOT EXISTS ix_product_branch_stock ON product (branch_id, stock DESC) INCLUDE (name);
+
+-- Productos de una sucursal en orden de id (listado paginado y exportación por sucursal).
+CREATE INDEX IF NOT EXISTS ix_product_branch_id ON product (branch_id, id);
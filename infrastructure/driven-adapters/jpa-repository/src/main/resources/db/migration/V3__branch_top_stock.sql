@@ -0,0 +1,121 @@
+-- Modelo de lectura: producto con mayor stock de cada sucursal (empate: menor id; un stock
+-- nulo va al final). Las columnas admiten nulos como las de product para que el trigger
+-- nunca rechace una escritura que la tabla base sí acepta.
+-- Lo mantiene un trigger sobre product, así que cubre todas las escrituras (JPA, R2DBC,
+-- importación por COPY, buffer de ajustes) sin que los adaptadores tengan que acordarse.
+CREATE TABLE IF NOT EXISTS branch_top_stock (
+    branch_id    bigint PRIMARY KEY,
+    franchise_id bigint,
+    product_id   bigint NOT NULL,
+    product_name varchar(255),
+    stock        integer
+);
+
+CREATE INDEX IF NOT EXISTS ix_branch_top_stock_franchise ON branch_top_stock (franchise_id, branch_id);
+
+-- El desempate por id forma parte del orden del índice para que el LIMIT 1 no tenga que ordenar.
+DROP INDEX IF EXISTS ix_product_branch_stock;
+CREATE INDEX ix_product_branch_stock ON product (branch_id, stock DESC NULLS LAST, id) INCLUDE (name);
+
+-- Serializa los cambios de una misma sucursal. Cada sentencia de estas funciones toma un
+-- snapshot nuevo (READ COMMITTED), así que quien obtiene el candado ve todo lo confirmado
+-- por quien lo tuvo antes y el último en confirmar deja la fila correcta.
+CREATE OR REPLACE FUNCTION branch_top_stock_lock(p_branch_id bigint) RETURNS void AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtextextended('branch_top_stock:' || p_branch_id, 0));
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recalcula la fila de la sucursal con una lectura del índice ix_product_branch_stock.
+CREATE OR REPLACE FUNCTION branch_top_stock_rescan(p_branch_id bigint) RETURNS void AS $$
+BEGIN
+    PERFORM branch_top_stock_lock(p_branch_id);
+    DELETE FROM branch_top_stock WHERE branch_id = p_branch_id;
+    INSERT INTO branch_top_stock (branch_id, franchise_id, product_id, product_name, stock)
+    SELECT b.id, b.franchise_id, t.id, t.name, t.stock
+    FROM branch b
+    CROSS JOIN LATERAL (
+        SELECT p.id, p.name, p.stock
+        FROM product p
+        WHERE p.branch_id = b.id
+        ORDER BY p.stock DESC NULLS LAST, p.id
+        LIMIT 1
+    ) t
+    WHERE b.id = p_branch_id;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un producto nuevo o que subió solo puede desplazar al actual; no hace falta recorrer la sucursal.
+CREATE OR REPLACE FUNCTION branch_top_stock_offer(p_branch_id bigint, p_product_id bigint,
+                                                  p_name varchar, p_stock integer) RETURNS void AS $$
+DECLARE
+    current_top branch_top_stock%ROWTYPE;
+BEGIN
+    PERFORM branch_top_stock_lock(p_branch_id);
+    SELECT * INTO current_top FROM branch_top_stock WHERE branch_id = p_branch_id;
+    IF NOT FOUND THEN
+        INSERT INTO branch_top_stock (branch_id, franchise_id, product_id, product_name, stock)
+        SELECT b.id, b.franchise_id, p_product_id, p_name, p_stock
+        FROM branch b
+        WHERE b.id = p_branch_id;
+    ELSIF (p_stock IS NOT NULL AND (current_top.stock IS NULL OR p_stock > current_top.stock))
+            OR (p_stock IS NOT DISTINCT FROM current_top.stock AND p_product_id < current_top.product_id) THEN
+        UPDATE branch_top_stock
+        SET product_id = p_product_id, product_name = p_name, stock = p_stock
+        WHERE branch_id = p_branch_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_branch_top_stock_trg() RETURNS trigger AS $$
+DECLARE
+    top_product_id bigint;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM branch_top_stock_offer(NEW.branch_id, NEW.id, NEW.name, NEW.stock);
+        RETURN NULL;
+    END IF;
+
+    PERFORM branch_top_stock_lock(OLD.branch_id);
+    SELECT product_id INTO top_product_id FROM branch_top_stock WHERE branch_id = OLD.branch_id;
+
+    IF TG_OP = 'DELETE' OR NEW.branch_id IS DISTINCT FROM OLD.branch_id THEN
+        IF top_product_id = OLD.id THEN
+            PERFORM branch_top_stock_rescan(OLD.branch_id);
+        END IF;
+        IF TG_OP = 'UPDATE' THEN
+            PERFORM branch_top_stock_offer(NEW.branch_id, NEW.id, NEW.name, NEW.stock);
+        END IF;
+    ELSIF top_product_id = NEW.id THEN
+        -- Si el actual sube (o solo cambia de nombre) sigue primero; si baja hay que buscar otro
+        IF NEW.stock >= OLD.stock OR (OLD.stock IS NULL AND NEW.stock IS NULL) THEN
+            UPDATE branch_top_stock
+            SET product_name = NEW.name, stock = NEW.stock
+            WHERE branch_id = NEW.branch_id;
+        ELSE
+            PERFORM branch_top_stock_rescan(NEW.branch_id);
+        END IF;
+    ELSE
+        PERFORM branch_top_stock_offer(NEW.branch_id, NEW.id, NEW.name, NEW.stock);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS product_branch_top_stock ON product;
+CREATE TRIGGER product_branch_top_stock
+    AFTER INSERT OR DELETE OR UPDATE OF branch_id, name, stock ON product
+    FOR EACH ROW EXECUTE FUNCTION product_branch_top_stock_trg();
+
+-- Carga inicial
+INSERT INTO branch_top_stock (branch_id, franchise_id, product_id, product_name, stock)
+SELECT b.id, b.franchise_id, t.id, t.name, t.stock
+FROM branch b
+CROSS JOIN LATERAL (
+    SELECT p.id, p.name, p.stock
+    FROM product p
+    WHERE p.branch_id = b.id
+    ORDER BY p.stock DESC NULLS LAST, p.id
+    LIMIT 1
+) t
+ON CONFLICT (branch_id) DO NOTHING;
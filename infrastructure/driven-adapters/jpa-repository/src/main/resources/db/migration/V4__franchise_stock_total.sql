@@ -0,0 +1,17 @@
+-- Stock total por franquicia para el ranking de franquicias. Sumar decenas de millones de
+-- filas en cada petición no es viable y un contador mantenido por trigger convertiría la fila
+-- de cada franquicia en un punto de contención para todas sus escrituras, así que se usa una
+-- vista materializada que FranchiseStockTotalRefresher refresca con CONCURRENTLY (las lecturas
+-- siguen viendo la versión anterior mientras se recalcula).
+CREATE MATERIALIZED VIEW IF NOT EXISTS franchise_stock_total AS
+SELECT f.id                              AS franchise_id,
+       COALESCE(SUM(p.stock), 0)::bigint AS total_stock,
+       COUNT(p.id)                       AS product_count
+FROM franchise f
+LEFT JOIN branch b ON b.franchise_id = f.id
+LEFT JOIN product p ON p.branch_id = b.id
+GROUP BY f.id;
+
+-- REFRESH ... CONCURRENTLY exige un índice único
+CREATE UNIQUE INDEX IF NOT EXISTS ux_franchise_stock_total ON franchise_stock_total (franchise_id);
+CREATE INDEX IF NOT EXISTS ix_franchise_stock_total_rank ON franchise_stock_total (total_stock DESC, franchise_id);
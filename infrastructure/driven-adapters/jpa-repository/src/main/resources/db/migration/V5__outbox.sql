@@ -0,0 +1,15 @@
+-- Outbox transaccional: cada escritura de los adaptadores JPA deja aquí un registro compacto en
+-- su misma transacción, así que no hay cambio confirmado sin registro ni registro sin cambio.
+-- OutboxRelay los reclama por lotes (FOR UPDATE SKIP LOCKED, para que varias instancias no se
+-- pisen), los entrega a los consumidores en proceso y los borra en la misma transacción.
+CREATE TABLE IF NOT EXISTS outbox (
+    id           bigserial PRIMARY KEY,
+    aggregate    varchar(16) NOT NULL,
+    type         varchar(16) NOT NULL,
+    entity_id    bigint,
+    franchise_id bigint,
+    branch_id    bigint,
+    name         varchar(255),
+    stock        integer,
+    created_at   timestamp   NOT NULL DEFAULT now()
+);
@@ -0,0 +1,85 @@
+-- Historial de stock: cada cambio de product.stock deja un movimiento (delta, stock resultante,
+-- motivo e instante) en stock_movement. Lo escribe un trigger sobre product, así que cubre todas
+-- las escrituras (JPA, R2DBC, importación por COPY, buffer de ajustes) en su misma transacción.
+-- product.stock sigue siendo el valor vigente que leen el top-stock y los rankings; el historial
+-- responde "¿cuánto stock había en T?" sin tocar la tabla base.
+--
+-- Se activa desde la aplicación (adapters.stock-ledger.enabled), que al activarlo toma una foto
+-- de todo el stock en stock_snapshot y guarda en enabled_since desde cuándo el historial está
+-- completo. Desactivado, el trigger solo consulta esta fila.
+CREATE TABLE IF NOT EXISTS stock_ledger_settings (
+    id            boolean PRIMARY KEY DEFAULT true CHECK (id),
+    enabled       boolean     NOT NULL DEFAULT false,
+    enabled_since timestamptz
+);
+
+INSERT INTO stock_ledger_settings (id, enabled) VALUES (true, false) ON CONFLICT (id) DO NOTHING;
+
+-- Particionada por mes: las particiones stock_movement_pAAAAMM las crea por adelantado
+-- StockLedgerCompactor y, pasado el periodo de retención, las resume en stock_snapshot y las
+-- borra de una vez, sin DELETE fila a fila. La partición por defecto recoge lo que llegue a un
+-- mes sin partición para que ninguna escritura de product falle por el historial.
+CREATE TABLE IF NOT EXISTS stock_movement (
+    product_id bigint      NOT NULL,
+    delta      integer,
+    stock      integer,
+    reason     varchar(16) NOT NULL,
+    created_at timestamptz NOT NULL DEFAULT clock_timestamp()
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS stock_movement_default PARTITION OF stock_movement DEFAULT;
+
+CREATE INDEX IF NOT EXISTS ix_stock_movement_product_time ON stock_movement (product_id, created_at DESC);
+
+DO $$
+DECLARE
+    month_start date := date_trunc('month', now())::date;
+    i integer;
+BEGIN
+    FOR i IN 0..1 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF stock_movement FOR VALUES FROM (%L) TO (%L)',
+                       'stock_movement_p' || to_char(month_start + make_interval(months => i), 'YYYYMM'),
+                       month_start + make_interval(months => i),
+                       month_start + make_interval(months => i + 1));
+    END LOOP;
+END;
+$$;
+
+-- Fotos del stock: la inicial al activar el historial y, por cada partición compactada, el último
+-- estado de cada producto que se movió en ella. deleted marca un producto que ya no existía.
+CREATE TABLE IF NOT EXISTS stock_snapshot (
+    product_id bigint      NOT NULL,
+    taken_at   timestamptz NOT NULL,
+    stock      integer,
+    deleted    boolean     NOT NULL DEFAULT false,
+    PRIMARY KEY (product_id, taken_at)
+);
+
+-- clock_timestamp() y no now(): el movimiento se fecha cuando la fila ya está bloqueada, así
+-- dos cambios del mismo producto quedan en el mismo orden en que se aplicaron aunque sus
+-- transacciones hayan empezado al revés. El motivo lo puede fijar la transacción con
+-- set_config('franquicia.stock_reason', ..., true).
+CREATE OR REPLACE FUNCTION product_stock_ledger_trg() RETURNS trigger AS $$
+BEGIN
+    IF NOT COALESCE((SELECT enabled FROM stock_ledger_settings), false) THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO stock_movement (product_id, delta, stock, reason)
+        VALUES (NEW.id, NEW.stock, NEW.stock, 'CREATED');
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO stock_movement (product_id, delta, stock, reason)
+        VALUES (OLD.id, -OLD.stock, NULL, 'DELETED');
+    ELSIF NEW.stock IS DISTINCT FROM OLD.stock THEN
+        INSERT INTO stock_movement (product_id, delta, stock, reason)
+        VALUES (NEW.id, NEW.stock - OLD.stock, NEW.stock,
+                COALESCE(NULLIF(current_setting('franquicia.stock_reason', true), ''), 'UPDATED'));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS product_stock_ledger ON product;
+CREATE TRIGGER product_stock_ledger
+    AFTER INSERT OR DELETE OR UPDATE OF stock ON product
+    FOR EACH ROW EXECUTE FUNCTION product_stock_ledger_trg();
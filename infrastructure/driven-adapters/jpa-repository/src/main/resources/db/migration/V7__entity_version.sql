@@ -0,0 +1,30 @@
+-- Versión para actualizaciones condicionales (If-Match). Hibernate la sube en lo que escribe con
+-- @Version; el trigger la sube en las escrituras que no la tocan (UPDATE nativos, importación,
+-- buffer de ajustes, R2DBC), así cualquier cambio invalida la versión que tenga un cliente.
+ALTER TABLE franchise ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE branch ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION bump_version_trg() RETURNS trigger AS $$
+BEGIN
+    IF NEW.version IS NOT DISTINCT FROM OLD.version THEN
+        NEW.version := OLD.version + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS franchise_bump_version ON franchise;
+CREATE TRIGGER franchise_bump_version
+    BEFORE UPDATE ON franchise
+    FOR EACH ROW EXECUTE FUNCTION bump_version_trg();
+
+DROP TRIGGER IF EXISTS branch_bump_version ON branch;
+CREATE TRIGGER branch_bump_version
+    BEFORE UPDATE ON branch
+    FOR EACH ROW EXECUTE FUNCTION bump_version_trg();
+
+DROP TRIGGER IF EXISTS product_bump_version ON product;
+CREATE TRIGGER product_bump_version
+    BEFORE UPDATE ON product
+    FOR EACH ROW EXECUTE FUNCTION bump_version_trg();
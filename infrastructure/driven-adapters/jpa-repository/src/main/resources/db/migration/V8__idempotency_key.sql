@@ -0,0 +1,13 @@
+-- Respuestas guardadas por Idempotency-Key. Una fila sin status es una petición en curso que
+-- reservó la clave; al terminar se guarda la respuesta (solo JSON y sin errores 5xx) o se borra.
+-- IdempotencyKeyPurger borra las vencidas por lotes usando el índice de created_at.
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    key          varchar(255) PRIMARY KEY,
+    fingerprint  varchar(512) NOT NULL,
+    status       smallint,
+    etag         varchar(64),
+    body         text,
+    created_at   timestamptz  NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,109 @@
+-- branch_top_stock pasa de un trigger por fila con pg_advisory_xact_lock a un trigger por
+-- sentencia. El anterior tomaba un candado por cada fila escrita y en el orden en que la
+-- sentencia las recorría: dos actualizaciones masivas que tocan las mismas sucursales en otro
+-- orden podían bloquearse entre sí. Ahora cada sentencia reúne sus sucursales (tablas de
+-- transición), bloquea sus filas de branch_top_stock con FOR UPDATE en orden de branch_id y las
+-- recalcula una vez. Cada sentencia de la función toma un snapshot nuevo (READ COMMITTED), así que
+-- el recálculo, hecho ya con los candados, ve lo confirmado por quien los tuvo antes.
+DROP TRIGGER IF EXISTS product_branch_top_stock ON product;
+DROP FUNCTION IF EXISTS product_branch_top_stock_trg();
+DROP FUNCTION IF EXISTS branch_top_stock_offer(bigint, bigint, varchar, integer);
+DROP FUNCTION IF EXISTS branch_top_stock_rescan(bigint);
+DROP FUNCTION IF EXISTS branch_top_stock_lock(bigint);
+
+CREATE OR REPLACE FUNCTION branch_top_stock_refresh(p_branch_ids bigint[]) RETURNS void AS $$
+BEGIN
+    -- La fila de una sucursal sin top aún no existe y no se puede bloquear: se crea primero
+    -- (si otra transacción la está creando, se espera a que confirme).
+    INSERT INTO branch_top_stock (branch_id, franchise_id, product_id, product_name, stock)
+    SELECT b.id, b.franchise_id, t.id, t.name, t.stock
+    FROM branch b
+    CROSS JOIN LATERAL (
+        SELECT p.id, p.name, p.stock
+        FROM product p
+        WHERE p.branch_id = b.id
+        ORDER BY p.stock DESC NULLS LAST, p.id
+        LIMIT 1
+    ) t
+    WHERE b.id = ANY (p_branch_ids)
+    ORDER BY b.id
+    ON CONFLICT (branch_id) DO NOTHING;
+
+    PERFORM 1 FROM branch_top_stock
+    WHERE branch_id = ANY (p_branch_ids)
+    ORDER BY branch_id
+    FOR UPDATE;
+
+    UPDATE branch_top_stock r
+    SET franchise_id = t.franchise_id, product_id = t.id, product_name = t.name, stock = t.stock
+    FROM (
+        SELECT b.id AS branch_id, b.franchise_id, top.id, top.name, top.stock
+        FROM branch b
+        CROSS JOIN LATERAL (
+            SELECT p.id, p.name, p.stock
+            FROM product p
+            WHERE p.branch_id = b.id
+            ORDER BY p.stock DESC NULLS LAST, p.id
+            LIMIT 1
+        ) top
+        WHERE b.id = ANY (p_branch_ids)
+    ) t
+    WHERE r.branch_id = t.branch_id
+      AND (r.franchise_id, r.product_id, r.product_name, r.stock)
+          IS DISTINCT FROM (t.franchise_id, t.id, t.name, t.stock);
+
+    DELETE FROM branch_top_stock r
+    WHERE r.branch_id = ANY (p_branch_ids)
+      AND NOT EXISTS (SELECT 1 FROM product p WHERE p.branch_id = r.branch_id);
+END;
+$$ LANGUAGE plpgsql;
+
+-- La usa BranchTopStockVerifier para reparar una sucursal.
+CREATE OR REPLACE FUNCTION branch_top_stock_rescan(p_branch_id bigint) RETURNS void AS $$
+BEGIN
+    PERFORM branch_top_stock_refresh(ARRAY[p_branch_id]);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un UPDATE solo cuenta si cambió sucursal, nombre o stock; si cambió de sucursal se recalculan
+-- la de origen y la de destino.
+CREATE OR REPLACE FUNCTION product_branch_top_stock_trg() RETURNS trigger AS $$
+DECLARE
+    branch_ids bigint[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT n.branch_id) INTO branch_ids FROM new_rows n;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT o.branch_id) INTO branch_ids FROM old_rows o;
+    ELSE
+        SELECT array_agg(DISTINCT v.branch_id) INTO branch_ids
+        FROM old_rows o
+        JOIN new_rows n ON n.id = o.id
+        CROSS JOIN LATERAL (VALUES (o.branch_id), (n.branch_id)) AS v(branch_id)
+        WHERE (o.branch_id, o.name, o.stock) IS DISTINCT FROM (n.branch_id, n.name, n.stock);
+    END IF;
+    IF branch_ids IS NOT NULL THEN
+        PERFORM branch_top_stock_refresh(branch_ids);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Las tablas de transición no admiten varios eventos ni lista de columnas en el mismo trigger.
+DROP TRIGGER IF EXISTS product_branch_top_stock_insert ON product;
+CREATE TRIGGER product_branch_top_stock_insert
+    AFTER INSERT ON product
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_branch_top_stock_trg();
+
+DROP TRIGGER IF EXISTS product_branch_top_stock_update ON product;
+CREATE TRIGGER product_branch_top_stock_update
+    AFTER UPDATE ON product
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_branch_top_stock_trg();
+
+DROP TRIGGER IF EXISTS product_branch_top_stock_delete ON product;
+CREATE TRIGGER product_branch_top_stock_delete
+    AFTER DELETE ON product
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_branch_top_stock_trg();
@@ -3,19 +3,25 @@ package co.com.franquicia.jpa.adapter;
 import co.com.franquicia.jpa.entity.FranchiseEntity;
 import co.com.franquicia.jpa.mapper.FranchiseEntityMapper;
 import co.com.franquicia.jpa.repository.FranchiseJpaRepository;
+import co.com.franquicia.jpa.repository.NameJdbcRepository;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
 import co.com.franquicia.model.franchise.Franchise;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,7 +35,15 @@ public class FranchiseRepositoryAdapterTest {
     @Mock
     private FranchiseEntityMapper mapper;
 
-    @InjectMocks
+    @Mock
+    private NameJdbcRepository nameRepository;
+
+    @Mock
+    private OutboxJdbcRepository outbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private FranchiseRepositoryAdapter repositoryAdapter;
 
     private Franchise inputFranchise;
@@ -38,6 +52,9 @@ public class FranchiseRepositoryAdapterTest {
 
     @BeforeEach
     void setUp() {
+        repositoryAdapter = new FranchiseRepositoryAdapter(jpaRepository, mapper, Schedulers.immediate(), nameRepository,
+                outbox, new TransactionTemplate(transactionManager));
+
         inputFranchise = Franchise.builder()
                 .name("Franquicia Colombia")
                 .build();
@@ -71,6 +88,9 @@ public class FranchiseRepositoryAdapterTest {
         verify(mapper).toEntity(any(Franchise.class));
         verify(jpaRepository).save(any(FranchiseEntity.class));
         verify(mapper).toModel(any(FranchiseEntity.class));
+        verify(outbox).append(argThat(change -> change.getAggregate() == CatalogChange.Aggregate.FRANCHISE
+                && change.getId().equals(1L)));
+        verify(transactionManager).commit(any());
     }
 
     @Test
@@ -0,0 +1,130 @@
+package co.com.franquicia.jpa.buffer;
+
+import co.com.franquicia.jpa.entity.ProductEntity;
+import co.com.franquicia.jpa.mapper.ProductEntityMapper;
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.jpa.repository.ProductJdbcRepository;
+import co.com.franquicia.jpa.repository.ProductJpaRepository;
+import co.com.franquicia.jpa.repository.StockLedgerJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.product.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockDeltaBufferTest {
+
+    @Mock
+    private ProductJdbcRepository jdbcRepository;
+
+    @Mock
+    private ProductJpaRepository jpaRepository;
+
+    @Mock
+    private ProductEntityMapper mapper;
+
+    @Mock
+    private OutboxJdbcRepository outbox;
+
+    @Mock
+    private StockLedgerJdbcRepository ledger;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockDeltaBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new StockDeltaBuffer(jdbcRepository, jpaRepository, mapper, outbox, ledger,
+                new TransactionTemplate(transactionManager), meterRegistry, true, 60_000, 500);
+    }
+
+    @Test
+    void givenDeltasForSameProduct_whenFlush_thenAppliesOneMergedRow() {
+        // Arrange
+        ProductEntity updatedEntity = ProductEntity.builder().id(1L).branchId(1L).name("AirPods Pro 2").stock(13).build();
+        Product expectedProduct = Product.builder().id(1L).branchId(1L).name("AirPods Pro 2").stock(13).build();
+
+        when(jdbcRepository.adjustStockBatch(aryEq(new Long[]{1L}), aryEq(new Integer[]{3})))
+                .thenReturn(List.of(updatedEntity));
+        when(mapper.toModel(any(ProductEntity.class))).thenReturn(expectedProduct);
+
+        CompletableFuture<Product> first = buffer.enqueue(1L, -2).toFuture();
+        CompletableFuture<Product> second = buffer.enqueue(1L, 5).toFuture();
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(expectedProduct, first.join());
+        assertEquals(expectedProduct, second.join());
+        assertEquals(2.0, meterRegistry.get("stock.buffer.coalescing.ratio").gauge().value());
+        verify(ledger).markReason("ADJUSTED");
+        verify(outbox).appendAll(argThat(changes -> changes.size() == 1
+                && changes.get(0).getType() == CatalogChange.Type.UPSERTED
+                && changes.get(0).getStock() == 13));
+    }
+
+    @Test
+    void givenMergedDeltaBelowZero_whenFlush_thenRetriesEachDeltaOnItsOwn() {
+        // Arrange
+        ProductEntity afterFirst = ProductEntity.builder().id(1L).branchId(1L).name("AirPods Pro 2").stock(0).build();
+        Product expectedProduct = Product.builder().id(1L).branchId(1L).name("AirPods Pro 2").stock(0).build();
+
+        when(jdbcRepository.adjustStockBatch(aryEq(new Long[]{1L}), aryEq(new Integer[]{-6})))
+                .thenReturn(List.of());
+        when(jpaRepository.adjustStock(eq(1L), eq(-3))).thenReturn(Optional.of(afterFirst), Optional.empty());
+        when(mapper.toModel(any(ProductEntity.class))).thenReturn(expectedProduct);
+
+        CompletableFuture<Product> first = buffer.enqueue(1L, -3).toFuture();
+        CompletableFuture<Product> second = buffer.enqueue(1L, -3).toFuture();
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(expectedProduct, first.join());
+        assertNull(second.join());
+        verify(jpaRepository, times(2)).adjustStock(eq(1L), eq(-3));
+        verify(ledger, times(3)).markReason("ADJUSTED");
+        verify(outbox).append(argThat(change -> change.getType() == CatalogChange.Type.UPSERTED && change.getStock() == 0));
+    }
+
+    @Test
+    void givenStoppedBuffer_whenEnqueue_thenRejectsAdjustment() {
+        // Arrange
+        buffer.stop();
+
+        // Act & Assert
+        StepVerifier.create(buffer.enqueue(1L, 5))
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(jdbcRepository, never()).adjustStockBatch(any(), any());
+    }
+
+}
@@ -0,0 +1,141 @@
+package co.com.franquicia.jpa.idempotency;
+
+import co.com.franquicia.jpa.repository.IdempotencyJdbcRepository;
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Claves de idempotencia sobre PostgreSQL real: reserva, respuesta guardada, vencimiento y purga.
+ * Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class IdempotencyKeyPurgerTest {
+
+    private static final String FINGERPRINT = "POST /api/v1/products/create";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.execute("TRUNCATE idempotency_key");
+        repository = new IdempotencyJdbcRepository(jdbcTemplate, true, 3_600_000, 60_000);
+    }
+
+    @Test
+    void givenCompletedKey_whenClaimAgain_thenReturnsStoredResponse() {
+        // Arrange
+        assertTrue(repository.claim("k-1", FINGERPRINT).isEmpty());
+        Optional<IdempotentResponse> inProgress = repository.claim("k-1", FINGERPRINT);
+        repository.complete(IdempotentResponse.builder()
+                .key("k-1").fingerprint(FINGERPRINT).status(200).etag("\"0\"").body("{\"status\":200}").build());
+
+        // Act
+        Optional<IdempotentResponse> actualResult = repository.claim("k-1", FINGERPRINT);
+
+        // Assert
+        assertTrue(inProgress.orElseThrow().isPending());
+        assertEquals(200, actualResult.orElseThrow().getStatus());
+        assertEquals("{\"status\":200}", actualResult.get().getBody());
+        assertEquals("\"0\"", actualResult.get().getEtag());
+    }
+
+    @Test
+    void givenKeyAlreadyCompleted_whenCompleteAgain_thenUpdatesNothing() {
+        // Arrange
+        repository.claim("k-1", FINGERPRINT);
+        IdempotentResponse response = IdempotentResponse.builder().key("k-1").fingerprint(FINGERPRINT).status(200).body("{}").build();
+        int first = repository.complete(response);
+
+        // Act
+        int actualResult = repository.complete(response.toBuilder().status(201).build());
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, actualResult);
+        assertEquals(200, repository.claim("k-1", FINGERPRINT).orElseThrow().getStatus());
+    }
+
+    @Test
+    void givenRenewedReservation_whenClaimAfterPendingTimeout_thenStaysInProgress() {
+        // Arrange
+        repository.claim("k-1", FINGERPRINT);
+        jdbcTemplate.update("UPDATE idempotency_key SET created_at = now() - interval '2 minutes' WHERE key = 'k-1'");
+        boolean renewed = repository.renew("k-1", FINGERPRINT);
+
+        // Act
+        Optional<IdempotentResponse> actualResult = repository.claim("k-1", FINGERPRINT);
+
+        // Assert
+        assertTrue(renewed);
+        assertTrue(actualResult.orElseThrow().isPending());
+    }
+
+    @Test
+    void givenReservationNotRenewed_whenClaimAfterPendingTimeout_thenIsClaimedAgain() {
+        // Arrange
+        repository.claim("k-1", FINGERPRINT);
+        jdbcTemplate.update("UPDATE idempotency_key SET created_at = now() - interval '2 minutes' WHERE key = 'k-1'");
+
+        // Act
+        Optional<IdempotentResponse> actualResult = repository.claim("k-1", FINGERPRINT);
+
+        // Assert
+        assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void givenExpiredKeys_whenPurge_thenDeletesThemAndTheirKeysCanBeClaimedAgain() {
+        // Arrange
+        repository.claim("k-old", FINGERPRINT);
+        repository.complete(IdempotentResponse.builder().key("k-old").fingerprint(FINGERPRINT).status(200).body("{}").build());
+        repository.claim("k-new", FINGERPRINT);
+        jdbcTemplate.update("UPDATE idempotency_key SET created_at = now() - interval '2 hours' WHERE key = 'k-old'");
+        IdempotencyKeyPurger purger = new IdempotencyKeyPurger(repository, new SimpleMeterRegistry(), 0);
+
+        // Act
+        int actualResult = purger.purge();
+
+        // Assert
+        assertEquals(1, actualResult);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM idempotency_key", Integer.class));
+        assertTrue(repository.claim("k-old", FINGERPRINT).isEmpty());
+    }
+
+    @Test
+    void givenReleasedKey_whenClaimAgain_thenIsClaimed() {
+        // Arrange
+        repository.claim("k-1", FINGERPRINT);
+        repository.release("k-1");
+
+        // Act
+        Optional<IdempotentResponse> actualResult = repository.claim("k-1", FINGERPRINT);
+
+        // Assert
+        assertTrue(actualResult.isEmpty());
+    }
+
+}
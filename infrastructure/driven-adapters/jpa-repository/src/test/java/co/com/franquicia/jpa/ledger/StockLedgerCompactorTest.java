@@ -0,0 +1,122 @@
+package co.com.franquicia.jpa.ledger;
+
+import co.com.franquicia.jpa.repository.StockLedgerJdbcRepository;
+import co.com.franquicia.model.product.ProductStockAt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Historial de stock sobre PostgreSQL real: movimientos del trigger, consulta por fecha y
+ * compactación de particiones vencidas. Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class StockLedgerCompactorTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private StockLedgerJdbcRepository ledger;
+    private StockLedgerCompactor compactor;
+    private long branchId;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("UPDATE stock_ledger_settings SET enabled = false, enabled_since = NULL");
+        jdbcTemplate.execute("TRUNCATE stock_movement, stock_snapshot, product, branch, franchise");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ledger = new StockLedgerJdbcRepository(jdbcTemplate, true);
+        compactor = new StockLedgerCompactor(ledger, transactionTemplate, new SimpleMeterRegistry(), 0, 90);
+
+        long franchiseId = jdbcTemplate.queryForObject(
+                "INSERT INTO franchise (name) VALUES ('Franquicia') RETURNING id", Long.class);
+        branchId = jdbcTemplate.queryForObject(
+                "INSERT INTO branch (franchise_id, name) VALUES (?, 'Sucursal') RETURNING id", Long.class, franchiseId);
+    }
+
+    @Test
+    void givenLedgerEnabled_whenStockChanges_thenStockAtReturnsValueOfEachMoment() {
+        // Arrange
+        long productId = jdbcTemplate.queryForObject(
+                "INSERT INTO product (branch_id, name, stock) VALUES (?, 'AirPods Pro 2', 5) RETURNING id",
+                Long.class, branchId);
+        compactor.start();
+        LocalDateTime beforeChanges = databaseNow();
+        transactionTemplate.executeWithoutResult(status -> {
+            ledger.markReason("SET");
+            jdbcTemplate.update("UPDATE product SET stock = 8 WHERE id = ?", productId);
+        });
+        LocalDateTime afterFirstChange = databaseNow();
+        jdbcTemplate.update("UPDATE product SET stock = stock - 5 WHERE id = ?", productId);
+
+        // Act
+        ProductStockAt atStart = ledger.stockAt(productId, beforeChanges).orElseThrow();
+        ProductStockAt afterFirst = ledger.stockAt(productId, afterFirstChange).orElseThrow();
+        ProductStockAt now = ledger.stockAt(productId, databaseNow()).orElseThrow();
+
+        // Assert
+        assertEquals(5, atStart.getStock());
+        assertEquals(8, afterFirst.getStock());
+        assertEquals(3, now.getStock());
+        assertTrue(ledger.historySince().isPresent());
+        assertEquals("SET", jdbcTemplate.queryForObject(
+                "SELECT reason FROM stock_movement WHERE product_id = ? AND delta = 3", String.class, productId));
+        assertEquals("UPDATED", jdbcTemplate.queryForObject(
+                "SELECT reason FROM stock_movement WHERE product_id = ? AND delta = -5", String.class, productId));
+        compactor.stop();
+    }
+
+    @Test
+    void givenExpiredPartition_whenCompact_thenMovementsAreReplacedBySnapshot() {
+        // Arrange
+        YearMonth expired = YearMonth.of(2020, 1);
+        ledger.createPartition(expired);
+        jdbcTemplate.update("""
+                INSERT INTO stock_movement (product_id, delta, stock, reason, created_at)
+                VALUES (10, 4, 4, 'CREATED', '2020-01-05 10:00'), (10, 3, 7, 'ADJUSTED', '2020-01-20 10:00')
+                """);
+
+        // Act
+        int compacted = compactor.compact();
+
+        // Assert
+        assertEquals(1, compacted);
+        assertFalse(ledger.partitions().contains(expired));
+        assertTrue(ledger.partitions().contains(YearMonth.now()));
+        ProductStockAt stock = ledger.stockAt(10L, LocalDateTime.of(2020, 2, 1, 0, 0)).orElseThrow();
+        assertEquals(7, stock.getStock());
+        assertEquals(LocalDateTime.of(2020, 1, 20, 10, 0), stock.getRecordedAt());
+        assertFalse(ledger.stockAt(10L, LocalDateTime.of(2020, 1, 1, 0, 0)).isPresent());
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT clock_timestamp()", Timestamp.class).toLocalDateTime();
+    }
+
+}
@@ -0,0 +1,49 @@
+package co.com.franquicia.jpa.notify;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.product.Product;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CatalogNotificationTest {
+
+    @Test
+    void givenProductChangeWithSeparatorInName_whenEncodeAndDecode_thenKeepsAllFields() {
+        // Arrange
+        Product product = Product.builder().id(10L).branchId(4L).name("Cable USB-C | 2 m").stock(150).version(6L).build();
+        CatalogChange change = CatalogChange.product(CatalogChange.Type.UPSERTED, product, 1L, "3k9x1c.0.42");
+
+        // Act
+        CatalogNotification actualResult = CatalogNotification.decode(new CatalogNotification("nodo-a", change).encode());
+
+        // Assert
+        assertEquals("nodo-a", actualResult.origin());
+        assertEquals(CatalogChange.Type.UPSERTED, actualResult.change().getType());
+        assertEquals(CatalogChange.Aggregate.PRODUCT, actualResult.change().getAggregate());
+        assertEquals(10L, actualResult.change().getId());
+        assertEquals(1L, actualResult.change().getFranchiseId());
+        assertEquals(4L, actualResult.change().getBranchId());
+        assertEquals(150, actualResult.change().getStock());
+        assertEquals("3k9x1c.0.42", actualResult.change().getVersion());
+        assertEquals(6L, actualResult.change().getEntityVersion());
+        assertEquals("Cable USB-C | 2 m", actualResult.change().getName());
+    }
+
+    @Test
+    void givenGlobalResync_whenEncodeAndDecode_thenKeepsNullFields() {
+        // Arrange
+        CatalogChange change = CatalogChange.resync(null);
+
+        // Act
+        CatalogNotification actualResult = CatalogNotification.decode(new CatalogNotification("nodo-a", change).encode());
+
+        // Assert
+        assertEquals(CatalogChange.Type.RESYNC, actualResult.change().getType());
+        assertNull(actualResult.change().getAggregate());
+        assertNull(actualResult.change().getFranchiseId());
+        assertNull(actualResult.change().getName());
+    }
+
+}
@@ -0,0 +1,83 @@
+package co.com.franquicia.jpa.notify;
+
+import co.com.franquicia.jpa.readmodel.TopStockIndex;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.franchise.Franchise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Avisos entre dos instancias a través de {@code LISTEN/NOTIFY}. Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PgCatalogBroadcasterTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private PgCatalogBroadcaster sender;
+    private PgCatalogBroadcaster receiver;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        sender = broadcaster();
+        receiver = broadcaster();
+        receiver.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!receiver.isListening() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(receiver.isListening());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.stop();
+        receiver.stop();
+    }
+
+    @Test
+    void givenTwoInstances_whenOneBroadcasts_thenTheOtherReceivesTheChange() {
+        // Arrange
+        CatalogChange change = CatalogChange.franchise(CatalogChange.Type.UPSERTED,
+                Franchise.builder().id(1L).name("Franquicia Norte").build(), "3k9x1c.0.7");
+
+        // Act
+        StepVerifier.create(receiver.remoteChanges())
+                .then(() -> sender.broadcast(change).block())
+                // Assert
+                .assertNext(received -> {
+                    assertEquals(CatalogChange.Aggregate.FRANCHISE, received.getAggregate());
+                    assertEquals(1L, received.getId());
+                    assertEquals("Franquicia Norte", received.getName());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    private PgCatalogBroadcaster broadcaster() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(POSTGRES.getJdbcUrl());
+        properties.setUsername(POSTGRES.getUsername());
+        properties.setPassword(POSTGRES.getPassword());
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        return new PgCatalogBroadcaster(new JdbcTemplate(dataSource), properties,
+                new TopStockIndex(dataSource, false, 0), Schedulers.boundedElastic(), true, "catalog_changes");
+    }
+
+}
@@ -0,0 +1,109 @@
+package co.com.franquicia.jpa.outbox;
+
+import co.com.franquicia.jpa.repository.OutboxJdbcRepository;
+import co.com.franquicia.model.catalog.CatalogChange;
+import co.com.franquicia.model.catalog.CatalogChangeListener;
+import co.com.franquicia.model.product.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Registro en el outbox dentro de la transacción y entrega al menos una vez.
+ * Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class OutboxRelayTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OutboxJdbcRepository outbox;
+    private long franchiseId;
+    private long branchId;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE outbox, product, branch, franchise");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        outbox = new OutboxJdbcRepository(jdbcTemplate, true);
+
+        franchiseId = jdbcTemplate.queryForObject(
+                "INSERT INTO franchise (name) VALUES ('Franquicia') RETURNING id", Long.class);
+        branchId = jdbcTemplate.queryForObject(
+                "INSERT INTO branch (franchise_id, name) VALUES (?, 'Sucursal') RETURNING id", Long.class, franchiseId);
+    }
+
+    @Test
+    void givenRolledBackWrite_whenRelay_thenNothingIsRecorded() {
+        // Arrange
+        Product product = Product.builder().id(10L).branchId(branchId).name("A").stock(5).build();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(CatalogChange.product(CatalogChange.Type.UPSERTED, product, null, null));
+            throw new IllegalStateException("falla la escritura");
+        }));
+
+        // Assert
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM outbox", Integer.class));
+    }
+
+    @Test
+    void givenFailingListener_whenRelay_thenRecordIsKeptAndDeliveredAgain() {
+        // Arrange
+        Product product = Product.builder().id(10L).branchId(branchId).name("A").stock(5).build();
+        transactionTemplate.executeWithoutResult(status ->
+                outbox.append(CatalogChange.product(CatalogChange.Type.UPSERTED, product, null, null)));
+        List<CatalogChange> received = new ArrayList<>();
+        boolean[] fail = {true};
+        CatalogChangeListener listener = change -> {
+            received.add(change);
+            return fail[0] ? Mono.error(new IllegalStateException("consumidor caído")) : Mono.empty();
+        };
+        OutboxRelay relay = new OutboxRelay(outbox, transactionTemplate,
+                new StaticListableBeanFactory(Map.of("listener", listener)).getBeanProvider(CatalogChangeListener.class),
+                new SimpleMeterRegistry(), 0, 100);
+
+        // Act
+        assertThrows(IllegalStateException.class, relay::relay);
+        fail[0] = false;
+        int relayed = relay.relay();
+
+        // Assert
+        assertEquals(1, relayed);
+        assertEquals(2, received.size());
+        assertEquals(received.get(0).getSequence(), received.get(1).getSequence());
+        assertEquals(franchiseId, received.get(1).getFranchiseId());
+        assertEquals(5, received.get(1).getStock());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM outbox", Integer.class));
+    }
+
+}
@@ -0,0 +1,183 @@
+package co.com.franquicia.jpa.readmodel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba que el trigger de {@code product} mantiene {@code branch_top_stock} y que la
+ * revisión periódica repara las filas desfasadas. Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class BranchTopStockReadModelTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+    }
+
+    @Test
+    void givenBranchWithProducts_whenHigherStockInserted_thenBecomesTop() {
+        // Arrange
+        long branchId = newBranch("alta");
+        insertProduct(branchId, "alta-1", 10);
+
+        // Act
+        long productId = insertProduct(branchId, "alta-2", 50);
+
+        // Assert
+        Map<String, Object> top = top(branchId);
+        assertEquals(productId, ((Number) top.get("product_id")).longValue());
+        assertEquals(50, top.get("stock"));
+    }
+
+    @Test
+    void givenTopProduct_whenStockDecreasedBelowOther_thenRescanPicksNext() {
+        // Arrange
+        long branchId = newBranch("baja");
+        long topId = insertProduct(branchId, "baja-1", 100);
+        long otherId = insertProduct(branchId, "baja-2", 40);
+
+        // Act
+        jdbcTemplate.update("UPDATE product SET stock = 5 WHERE id = ?", topId);
+
+        // Assert
+        Map<String, Object> top = top(branchId);
+        assertEquals(otherId, ((Number) top.get("product_id")).longValue());
+        assertEquals(40, top.get("stock"));
+    }
+
+    @Test
+    void givenTopProduct_whenRenamed_thenReadModelKeepsNewName() {
+        // Arrange
+        long branchId = newBranch("nombre");
+        long topId = insertProduct(branchId, "nombre-1", 100);
+
+        // Act
+        jdbcTemplate.update("UPDATE product SET name = 'nombre-renombrado' WHERE id = ?", topId);
+
+        // Assert
+        assertEquals("nombre-renombrado", top(branchId).get("product_name"));
+    }
+
+    @Test
+    void givenOnlyProduct_whenDeleted_thenBranchLeavesReadModel() {
+        // Arrange
+        long branchId = newBranch("borrado");
+        long productId = insertProduct(branchId, "borrado-1", 7);
+
+        // Act
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+
+        // Assert
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM branch_top_stock WHERE branch_id = ?", Integer.class, branchId));
+    }
+
+    @Test
+    void givenTwoBranches_whenOneStatementUpdatesBoth_thenEachBranchIsRecomputed() {
+        // Arrange
+        long firstBranchId = newBranch("lote-1");
+        long secondBranchId = newBranch("lote-2");
+        long firstTopId = insertProduct(firstBranchId, "lote-1-a", 100);
+        long firstOtherId = insertProduct(firstBranchId, "lote-1-b", 20);
+        insertProduct(secondBranchId, "lote-2-a", 10);
+        long secondRaisedId = insertProduct(secondBranchId, "lote-2-b", 5);
+
+        // Act
+        jdbcTemplate.update("UPDATE product SET stock = CASE id WHEN ? THEN 1 ELSE 60 END WHERE id IN (?, ?)",
+                firstTopId, firstTopId, secondRaisedId);
+
+        // Assert
+        assertEquals(firstOtherId, ((Number) top(firstBranchId).get("product_id")).longValue());
+        assertEquals(secondRaisedId, ((Number) top(secondBranchId).get("product_id")).longValue());
+        assertEquals(60, top(secondBranchId).get("stock"));
+    }
+
+    @Test
+    void givenUncommittedNonTopWrite_whenLockingTopRow_thenRowIsFree() throws Exception {
+        // Arrange
+        long branchId = newBranch("sin-candado");
+        long topId = insertProduct(branchId, "sin-candado-1", 100);
+        long otherId = insertProduct(branchId, "sin-candado-2", 10);
+
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("UPDATE product SET stock = 20 WHERE id = ?")) {
+                statement.setLong(1, otherId);
+                statement.executeUpdate();
+            }
+
+            // Act
+            Long locked = jdbcTemplate.queryForObject(
+                    "SELECT product_id FROM branch_top_stock WHERE branch_id = ? FOR UPDATE NOWAIT", Long.class, branchId);
+
+            // Assert
+            assertEquals(topId, locked);
+            connection.rollback();
+        }
+    }
+
+    @Test
+    void givenDriftedRow_whenVerifyAndRepair_thenRowIsRebuilt() {
+        // Arrange
+        long branchId = newBranch("desfase");
+        long productId = insertProduct(branchId, "desfase-1", 30);
+        jdbcTemplate.update("UPDATE branch_top_stock SET stock = 999 WHERE branch_id = ?", branchId);
+        BranchTopStockVerifier verifier = new BranchTopStockVerifier(jdbcTemplate, new SimpleMeterRegistry(), 0);
+
+        // Act
+        int repaired = verifier.verifyAndRepair();
+
+        // Assert
+        assertTrue(repaired >= 1);
+        Map<String, Object> top = top(branchId);
+        assertEquals(productId, ((Number) top.get("product_id")).longValue());
+        assertEquals(30, top.get("stock"));
+    }
+
+    private static long newBranch(String suffix) {
+        Long franchiseId = jdbcTemplate.queryForObject(
+                "INSERT INTO franchise (name) VALUES (?) RETURNING id", Long.class, "Franquicia " + suffix);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO branch (franchise_id, name) VALUES (?, ?) RETURNING id", Long.class,
+                franchiseId, "Sucursal " + suffix);
+    }
+
+    private static long insertProduct(long branchId, String name, int stock) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO product (branch_id, name, stock) VALUES (?, ?, ?) RETURNING id", Long.class,
+                branchId, name, stock);
+    }
+
+    private static Map<String, Object> top(long branchId) {
+        return jdbcTemplate.queryForMap("SELECT * FROM branch_top_stock WHERE branch_id = ?", branchId);
+    }
+
+}
@@ -0,0 +1,140 @@
+package co.com.franquicia.jpa.readmodel;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.TopStockProduct;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga del índice desde la base de datos y mantenimiento con los cambios del proceso.
+ * Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class TopStockIndexTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private TopStockIndex index;
+    private long franchiseId;
+    private long branchId;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE product, branch, franchise");
+
+        franchiseId = jdbcTemplate.queryForObject(
+                "INSERT INTO franchise (name) VALUES ('Franquicia') RETURNING id", Long.class);
+        branchId = jdbcTemplate.queryForObject(
+                "INSERT INTO branch (franchise_id, name) VALUES (?, 'Sucursal') RETURNING id", Long.class, franchiseId);
+        jdbcTemplate.update("""
+                INSERT INTO product (branch_id, name, stock)
+                VALUES (?, 'A', 10), (?, 'B', 30), (?, 'C', 20), (?, 'D', 30)
+                """, branchId, branchId, branchId, branchId);
+
+        index = new TopStockIndex(dataSource, true, 0);
+    }
+
+    @Test
+    void givenLoadedIndex_whenTop_thenReturnsKProductsByStockThenId() {
+        // Act
+        index.rebuild();
+        List<TopStockProduct> top = index.top(franchiseId, 3);
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(List.of("B", "D", "C"), top.stream().map(TopStockProduct::getProductName).toList());
+        assertEquals("Sucursal", top.get(0).getBranchName());
+    }
+
+    @Test
+    void givenLoadedIndex_whenProductChangesAndIsDeleted_thenRankingFollows() {
+        // Arrange
+        index.rebuild();
+        long productA = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = 'A'", Long.class);
+        long productB = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = 'B'", Long.class);
+
+        // Act
+        index.onProductSaved(Product.builder().id(productA).branchId(branchId).name("A").stock(99).build());
+        index.onProductDeleted(productB);
+        index.onBranchSaved(Branch.builder().id(branchId).franchiseId(franchiseId).name("Sucursal Norte").build());
+        List<TopStockProduct> top = index.top(franchiseId, 2);
+
+        // Assert
+        assertEquals(List.of("A", "D"), top.stream().map(TopStockProduct::getProductName).toList());
+        assertEquals(99, top.get(0).getStock());
+        assertEquals("Sucursal Norte", top.get(0).getBranchName());
+    }
+
+    @Test
+    void givenChangesArrivingOutOfOrder_whenProductSaved_thenOlderVersionsAreIgnored() {
+        // Arrange
+        index.rebuild();
+        long productA = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = 'A'", Long.class);
+        long productB = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = 'B'", Long.class);
+
+        // Act
+        index.onProductSaved(Product.builder().id(productA).branchId(branchId).name("A").stock(99).version(2L).build());
+        index.onProductSaved(Product.builder().id(productA).branchId(branchId).name("A").stock(1).version(1L).build());
+        index.onProductDeleted(productB);
+        index.onProductSaved(Product.builder().id(productB).branchId(branchId).name("B").stock(50).version(1L).build());
+        List<TopStockProduct> top = index.top(franchiseId, 2);
+
+        // Assert
+        assertEquals(List.of("A", "D"), top.stream().map(TopStockProduct::getProductName).toList());
+        assertEquals(99, top.get(0).getStock());
+    }
+
+    @Test
+    void givenProductOfUnknownBranch_whenBranchArrivesLater_thenProductIsIndexed() {
+        // Arrange
+        index.rebuild();
+        long newBranchId = jdbcTemplate.queryForObject(
+                "INSERT INTO branch (franchise_id, name) VALUES (?, 'Nueva') RETURNING id", Long.class, franchiseId);
+
+        // Act
+        index.onProductSaved(Product.builder().id(1_000L).branchId(newBranchId).name("E").stock(5).version(1L).build());
+        index.onBranchSaved(Branch.builder().id(newBranchId).franchiseId(franchiseId).name("Nueva").build());
+        List<TopStockProduct> top = index.top(franchiseId, 1);
+
+        // Assert
+        assertEquals(List.of("B", "E"), top.stream().map(TopStockProduct::getProductName).toList());
+        assertEquals("Nueva", top.get(1).getBranchName());
+    }
+
+    @Test
+    void givenDisabledIndex_whenQueried_thenIsNotReady() {
+        // Arrange
+        TopStockIndex disabled = new TopStockIndex(jdbcTemplate.getDataSource(), false, 0);
+
+        // Act
+        disabled.requestRebuild();
+
+        // Assert
+        assertFalse(disabled.isReady());
+        assertEquals(List.of(), disabled.top(franchiseId, 3));
+    }
+
+}
@@ -0,0 +1,146 @@
+package co.com.franquicia.jpa.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN que las consultas calientes usan los índices de las migraciones
+ * en lugar de recorrer {@code product} completo. Requiere Docker; sin él se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ProductQueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        connection = POSTGRES.createConnection("");
+        try (Statement statement = connection.createStatement()) {
+            // 50 franquicias x 20 sucursales x 100 productos
+            statement.execute("INSERT INTO franchise (name) SELECT 'Franquicia ' || g FROM generate_series(1, 50) g");
+            statement.execute("""
+                    INSERT INTO branch (franchise_id, name)
+                    SELECT f.id, 'Sucursal ' || f.id || '-' || g FROM franchise f, generate_series(1, 20) g
+                    """);
+            statement.execute("""
+                    INSERT INTO product (branch_id, name, stock)
+                    SELECT b.id, 'Producto ' || b.id || '-' || g, (random() * 1000)::int
+                    FROM branch b, generate_series(1, 100) g
+                    """);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void givenReadModel_whenExplainTopStockByFranchise_thenReadsBranchTopStockWithoutTouchingProduct() throws Exception {
+        // Arrange
+        String topStockQuery = ProductJpaRepository.class
+                .getMethod("findTopStockByFranchise", Long.class)
+                .getAnnotation(Query.class)
+                .value()
+                .replace(":franchiseId", "?");
+
+        // Act
+        String plan = explain(topStockQuery, 7L);
+
+        // Assert
+        assertTrue(plan.contains("branch_top_stock"), plan);
+        assertFalse(plan.contains(" on product"), plan);
+    }
+
+    @Test
+    void givenIndexedSchema_whenExplainBranchRescan_thenUsesCoveringIndexWithoutSeqScanOnProduct() throws Exception {
+        // Arrange: la misma lectura que hace branch_top_stock_rescan
+        String rescanQuery = """
+                SELECT b.id, b.franchise_id, t.id, t.name, t.stock
+                FROM branch b
+                CROSS JOIN LATERAL (
+                    SELECT p.id, p.name, p.stock
+                    FROM product p
+                    WHERE p.branch_id = b.id
+                    ORDER BY p.stock DESC NULLS LAST, p.id
+                    LIMIT 1
+                ) t
+                WHERE b.id = ?
+                """;
+
+        // Act
+        String plan = explain(rescanQuery, 140L);
+
+        // Assert
+        assertTrue(plan.contains("ix_product_branch_stock"), plan);
+        assertFalse(plan.contains("Seq Scan on product"), plan);
+    }
+
+    @Test
+    void givenIndexedSchema_whenExplainFranchiseProductLeaderboard_thenReadsPerBranchIndexWithoutSeqScanOnProduct() throws Exception {
+        // Arrange: los parámetros se numeran en el orden en que aparecen en la consulta
+        String leaderboardQuery = ProductJpaRepository.class
+                .getMethod("findTopProductsByFranchise", Long.class, long.class, long.class, long.class, int.class)
+                .getAnnotation(Query.class)
+                .value()
+                .replaceAll(":\\w+", "?");
+
+        // Act
+        String plan = explain(leaderboardQuery, 0L, 500L, 500L, 42L, 10, 7L, 10);
+
+        // Assert
+        assertTrue(plan.contains("ix_product_branch_stock"), plan);
+        assertFalse(plan.contains("Seq Scan on product"), plan);
+    }
+
+    @Test
+    void givenIndexedSchema_whenExplainFindByName_thenUsesUniqueNameIndex() throws Exception {
+        // Act
+        String plan = explain("SELECT * FROM product WHERE name = ?", "Producto 42-7");
+
+        // Assert
+        assertTrue(plan.contains("ux_product_name"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    private static String explain(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+}
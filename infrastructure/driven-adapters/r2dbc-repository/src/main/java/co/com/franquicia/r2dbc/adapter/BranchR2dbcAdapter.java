@@ -0,0 +1,94 @@
+package co.com.franquicia.r2dbc.adapter;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.model.branch.gateway.BranchGateway;
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.r2dbc.entity.BranchData;
+import co.com.franquicia.r2dbc.mapper.BranchDataMapper;
+import co.com.franquicia.r2dbc.repository.BranchR2dbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class BranchR2dbcAdapter implements BranchGateway {
+
+    private final BranchR2dbcRepository repository;
+    private final BranchDataMapper mapper;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return repository.save(mapper.toData(branch))
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Branch> insertIfAbsent(Branch branch) {
+        return repository.insertIfAbsent(branch.getFranchiseId(), branch.getName())
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return repository.findById(id)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return repository.findAllById(ids)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return repository.findByFranchiseId(franchiseId)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseIdAfter(Long franchiseId, Long afterId, int limit) {
+        return repository.findByFranchiseIdAfter(franchiseId, afterId == null ? 0L : afterId, limit)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Branch> updateName(Long id, String newName, Long expectedVersion) {
+        Mono<Integer> updated = expectedVersion == null
+                ? repository.updateName(id, newName)
+                : repository.updateNameIfVersion(id, newName, expectedVersion);
+        return updated
+                .filter(count -> count > 0)
+                .flatMap(count -> repository.findById(id))
+                .switchIfEmpty(Mono.defer(() -> conflictOrMissing(id, expectedVersion)))
+                .map(mapper::toModel)
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Branch> findByName(String name) {
+        return repository.findByName(name)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return repository.findAllNames();
+    }
+
+    // la condición no se cumplió: si la sucursal existe es que cambió de versión
+    private Mono<BranchData> conflictOrMissing(Long id, Long expectedVersion) {
+        if (expectedVersion == null) return Mono.empty();
+        return repository.findById(id)
+                .flatMap(current -> Mono.error(new VersionConflictException("la sucursal", id, current.getVersion())));
+    }
+
+}
@@ -0,0 +1,86 @@
+package co.com.franquicia.r2dbc.adapter;
+
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.franchise.gateway.FranchiseGateway;
+import co.com.franquicia.r2dbc.entity.FranchiseData;
+import co.com.franquicia.r2dbc.mapper.FranchiseDataMapper;
+import co.com.franquicia.r2dbc.repository.FranchiseR2dbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class FranchiseR2dbcAdapter implements FranchiseGateway {
+
+    private final FranchiseR2dbcRepository repository;
+    private final FranchiseDataMapper mapper;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return repository.save(mapper.toData(franchise))
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Franchise> insertIfAbsent(Franchise franchise) {
+        return repository.insertIfAbsent(franchise.getName())
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Franchise> findById(Long id) {
+        return repository.findById(id)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Franchise> findByName(String name) {
+        return repository.findByName(name)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return repository.findAllNames();
+    }
+
+    @Override
+    public Flux<Franchise> findAllAfter(Long afterId, int limit) {
+        return repository.findAllAfter(afterId == null ? 0L : afterId, limit)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return repository.findAll()
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Franchise> updateName(Long id, String newName, Long expectedVersion) {
+        Mono<Integer> updated = expectedVersion == null
+                ? repository.updateName(id, newName)
+                : repository.updateNameIfVersion(id, newName, expectedVersion);
+        return updated
+                .filter(count -> count > 0)
+                .flatMap(count -> repository.findById(id))
+                .switchIfEmpty(Mono.defer(() -> conflictOrMissing(id, expectedVersion)))
+                .map(mapper::toModel)
+                .as(transactionalOperator::transactional);
+    }
+
+    // la condición no se cumplió: si la franquicia existe es que cambió de versión
+    private Mono<FranchiseData> conflictOrMissing(Long id, Long expectedVersion) {
+        if (expectedVersion == null) return Mono.empty();
+        return repository.findById(id)
+                .flatMap(current -> Mono.error(new VersionConflictException("la franquicia", id, current.getVersion())));
+    }
+
+}
@@ -0,0 +1,323 @@
+package co.com.franquicia.r2dbc.adapter;
+
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.model.franchise.FranchiseStockTotal;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.ProductRanking;
+import co.com.franquicia.model.product.StockUpdate;
+import co.com.franquicia.model.product.TopStockProduct;
+import co.com.franquicia.model.product.gateway.ProductGateway;
+import co.com.franquicia.r2dbc.entity.ProductData;
+import co.com.franquicia.r2dbc.mapper.ProductDataMapper;
+import co.com.franquicia.r2dbc.repository.ProductR2dbcRepository;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class ProductR2dbcAdapter implements ProductGateway {
+
+    private static final String TOP_STOCK_BY_FRANCHISE = """
+            SELECT t.branch_id, b.name as branch_name, t.product_name, t.stock
+            FROM branch_top_stock t
+            INNER JOIN branch b ON b.id = t.branch_id
+            WHERE t.franchise_id = :franchiseId
+            ORDER BY t.branch_id
+            """;
+
+    private static final String TOP_K_STOCK_BY_FRANCHISE = """
+            SELECT b.id as branch_id, b.name as branch_name, t.name as product_name, t.stock
+            FROM branch b
+            CROSS JOIN LATERAL (
+                SELECT p.id, p.name, p.stock
+                FROM product p
+                WHERE p.branch_id = b.id
+                ORDER BY p.stock DESC NULLS LAST, p.id
+                LIMIT :k
+            ) t
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY b.id, t.stock DESC NULLS LAST, t.id
+            """;
+
+    private static final String TOP_PRODUCTS_BY_FRANCHISE = """
+            SELECT t.id as product_id, t.name as product_name, t.stock, b.id as branch_id, b.name as branch_name,
+                   :afterPosition + ROW_NUMBER() OVER (ORDER BY t.stock DESC, t.id) as position
+            FROM branch b
+            CROSS JOIN LATERAL (
+                SELECT p.id, p.name, p.stock
+                FROM product p
+                WHERE p.branch_id = b.id
+                  AND (p.stock < :afterStock OR (p.stock = :afterStock AND p.id > :afterId))
+                ORDER BY p.stock DESC NULLS LAST, p.id
+                LIMIT :limit
+            ) t
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY t.stock DESC, t.id
+            LIMIT :limit
+            """;
+
+    private static final String TOP_FRANCHISES_BY_STOCK = """
+            SELECT s.franchise_id, f.name as franchise_name, s.total_stock, s.product_count,
+                   :afterPosition + ROW_NUMBER() OVER (ORDER BY s.total_stock DESC, s.franchise_id) as position
+            FROM franchise_stock_total s
+            INNER JOIN franchise f ON f.id = s.franchise_id
+            WHERE s.total_stock < :afterTotal OR (s.total_stock = :afterTotal AND s.franchise_id > :afterId)
+            ORDER BY s.total_stock DESC, s.franchise_id
+            LIMIT :limit
+            """;
+
+    private static final String STREAM_BY_FRANCHISE = """
+            SELECT p.* FROM product p
+            INNER JOIN branch b ON b.id = p.branch_id
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY p.branch_id, p.id
+            """;
+
+    private static final String STREAM_BY_BRANCH =
+            "SELECT p.* FROM product p WHERE p.branch_id = :branchId ORDER BY p.id";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String SET_STOCK_BATCH = """
+            WITH v(id, branch_id, name, stock) AS (
+                SELECT * FROM unnest(:ids::bigint[], :branchIds::bigint[], :names::varchar[], :stocks::int[])
+            ), target AS (
+                SELECT p.id, v.stock FROM v JOIN product p ON p.id = v.id
+                WHERE v.id IS NOT NULL
+                UNION ALL
+                SELECT p.id, v.stock FROM v JOIN product p ON p.branch_id = v.branch_id AND p.name = v.name
+                WHERE v.id IS NULL
+            )
+            UPDATE product p SET stock = t.stock
+            FROM target t
+            WHERE p.id = t.id
+            RETURNING p.*
+            """;
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO product (branch_id, name, stock) VALUES ($1, $2, $3) RETURNING *";
+
+    private final ProductR2dbcRepository repository;
+    private final ProductDataMapper mapper;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return Mono.fromRunnable(product::validateStock)
+                .then(Mono.defer(() -> repository.save(mapper.toData(product))))
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Product> insertIfAbsent(Product product) {
+        return Mono.fromRunnable(product::validateStock)
+                .then(Mono.defer(() -> repository.insertIfAbsent(product.getBranchId(), product.getName(), product.getStock())))
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return Mono.fromRunnable(() -> products.forEach(Product::validateStock))
+                .thenMany(databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(INSERT_PRODUCT);
+                    for (int i = 0; i < products.size(); i++) {
+                        if (i > 0) statement.add();
+                        Product product = products.get(i);
+                        statement.bind(0, product.getBranchId())
+                                .bind(1, product.getName())
+                                .bind(2, product.getStock());
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> result.map(ProductR2dbcAdapter::toProduct));
+                }))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return repository.findById(id)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Product> findByName(String name) {
+        return repository.findByName(name)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<String> streamNames() {
+        return repository.findAllNames();
+    }
+
+    @Override
+    public Flux<Product> findByBranchIdAfter(Long branchId, Long afterId, int limit) {
+        return repository.findByBranchIdAfter(branchId, afterId == null ? 0L : afterId, limit)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<String> findExistingNames(Collection<String> names) {
+        return repository.findExistingNames(names);
+    }
+
+    @Override
+    public Mono<Product> updateStock(Long id, Integer newStock, Long expectedVersion) {
+        if (newStock < 0) return Mono.error(new IllegalArgumentException("Stock must be >= 0"));
+        Mono<ProductData> updated = expectedVersion == null
+                ? repository.updateStock(id, newStock)
+                : repository.updateStockIfVersion(id, newStock, expectedVersion);
+        return updated
+                .switchIfEmpty(Mono.defer(() -> conflictOrMissing(id, expectedVersion)))
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        return repository.adjustStock(id, delta)
+                .map(mapper::toModel);
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        return databaseClient.sql(SET_STOCK_BATCH)
+                .bind("ids", updates.stream().map(StockUpdate::getId).toArray(Long[]::new))
+                .bind("branchIds", updates.stream().map(update -> update.isById() ? null : update.getBranchId()).toArray(Long[]::new))
+                .bind("names", updates.stream().map(update -> update.isById() ? null : update.getName()).toArray(String[]::new))
+                .bind("stocks", updates.stream().map(StockUpdate::getStock).toArray(Integer[]::new))
+                .map(ProductR2dbcAdapter::toProduct)
+                .all();
+    }
+
+    @Override
+    public Mono<Product> updateName(Long id, String newName, Long expectedVersion) {
+        Mono<Integer> updated = expectedVersion == null
+                ? repository.updateName(id, newName)
+                : repository.updateNameIfVersion(id, newName, expectedVersion);
+        return updated
+                .filter(count -> count > 0)
+                .flatMap(count -> repository.findById(id))
+                .switchIfEmpty(Mono.defer(() -> conflictOrMissing(id, expectedVersion)))
+                .map(mapper::toModel)
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return repository.deleteById(id);
+    }
+
+    @Override
+    public Flux<Product> streamByFranchise(Long franchiseId) {
+        return databaseClient.sql(STREAM_BY_FRANCHISE)
+                .bind("franchiseId", franchiseId)
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ProductR2dbcAdapter::toProduct)
+                .all();
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(Long branchId) {
+        return databaseClient.sql(STREAM_BY_BRANCH)
+                .bind("branchId", branchId)
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ProductR2dbcAdapter::toProduct)
+                .all();
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId) {
+        return databaseClient.sql(TOP_STOCK_BY_FRANCHISE)
+                .bind("franchiseId", franchiseId)
+                .map(ProductR2dbcAdapter::toTopStockProduct)
+                .all();
+    }
+
+    @Override
+    public Flux<TopStockProduct> findTopStockByFranchise(Long franchiseId, int k) {
+        return databaseClient.sql(TOP_K_STOCK_BY_FRANCHISE)
+                .bind("franchiseId", franchiseId)
+                .bind("k", k)
+                .map(ProductR2dbcAdapter::toTopStockProduct)
+                .all();
+    }
+
+    @Override
+    public Flux<ProductRanking> findTopProductsByFranchise(Long franchiseId, RankKey after, int limit) {
+        RankKey from = after != null ? after : RankKey.first();
+        return databaseClient.sql(TOP_PRODUCTS_BY_FRANCHISE)
+                .bind("franchiseId", franchiseId)
+                .bind("afterStock", from.getScore())
+                .bind("afterId", from.getId())
+                .bind("afterPosition", from.getPosition())
+                .bind("limit", limit)
+                .map((row, metadata) -> ProductRanking.builder()
+                        .position(row.get("position", Long.class))
+                        .productId(row.get("product_id", Long.class))
+                        .productName(row.get("product_name", String.class))
+                        .branchId(row.get("branch_id", Long.class))
+                        .branchName(row.get("branch_name", String.class))
+                        .stock(row.get("stock", Integer.class))
+                        .build())
+                .all();
+    }
+
+    @Override
+    public Flux<FranchiseStockTotal> findTopFranchisesByStock(RankKey after, int limit) {
+        RankKey from = after != null ? after : RankKey.first();
+        return databaseClient.sql(TOP_FRANCHISES_BY_STOCK)
+                .bind("afterTotal", from.getScore())
+                .bind("afterId", from.getId())
+                .bind("afterPosition", from.getPosition())
+                .bind("limit", limit)
+                .map((row, metadata) -> FranchiseStockTotal.builder()
+                        .position(row.get("position", Long.class))
+                        .franchiseId(row.get("franchise_id", Long.class))
+                        .franchiseName(row.get("franchise_name", String.class))
+                        .totalStock(row.get("total_stock", Long.class))
+                        .productCount(row.get("product_count", Long.class))
+                        .build())
+                .all();
+    }
+
+    private static TopStockProduct toTopStockProduct(Row row, RowMetadata metadata) {
+        return TopStockProduct.builder()
+                .branchId(row.get("branch_id", Long.class))
+                .branchName(row.get("branch_name", String.class))
+                .productName(row.get("product_name", String.class))
+                .stock(row.get("stock", Integer.class))
+                .build();
+    }
+
+    private static Product toProduct(Row row, RowMetadata metadata) {
+        return Product.builder()
+                .id(row.get("id", Long.class))
+                .branchId(row.get("branch_id", Long.class))
+                .name(row.get("name", String.class))
+                .stock(row.get("stock", Integer.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    // la condición no se cumplió: si el producto existe es que cambió de versión
+    private Mono<ProductData> conflictOrMissing(Long id, Long expectedVersion) {
+        if (expectedVersion == null) return Mono.empty();
+        return repository.findById(id)
+                .flatMap(current -> Mono.error(new VersionConflictException("el producto", id, current.getVersion())));
+    }
+
+}
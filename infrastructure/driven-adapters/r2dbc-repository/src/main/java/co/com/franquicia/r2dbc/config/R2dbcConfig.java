@@ -0,0 +1,51 @@
+package co.com.franquicia.r2dbc.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Adaptador R2DBC, activo solo con el perfil {@code r2dbc}.
+ * <p>
+ * La autoconfiguración R2DBC de Spring Boot se excluye en {@code application.yaml} para que
+ * el perfil JPA no intente crear un {@code ConnectionFactory} ni un segundo
+ * {@code TransactionManager}; el gestor reactivo se expone únicamente a través de un
+ * {@link TransactionalOperator}, así {@code @Transactional} sigue resolviendo al de JPA.
+ */
+@Configuration
+@Profile("r2dbc")
+@EnableR2dbcRepositories(basePackages = "co.com.franquicia.r2dbc.repository")
+public class R2dbcConfig extends AbstractR2dbcConfiguration {
+
+    @Value("${spring.r2dbc.url}")
+    private String url;
+
+    @Value("${spring.r2dbc.username}")
+    private String username;
+
+    @Value("${spring.r2dbc.password}")
+    private String password;
+
+    @Override
+    @Bean
+    public ConnectionFactory connectionFactory() {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+    }
+
+    @Bean
+    public TransactionalOperator r2dbcTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+}
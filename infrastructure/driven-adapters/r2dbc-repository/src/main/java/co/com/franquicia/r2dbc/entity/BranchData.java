@@ -0,0 +1,24 @@
+package co.com.franquicia.r2dbc.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("branch")
+public class BranchData {
+
+    @Id
+    private Long id;
+    private Long franchiseId;
+    private String name;
+    @Version
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package co.com.franquicia.r2dbc.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("product")
+public class ProductData {
+
+    @Id
+    private Long id;
+    private Long branchId;
+    private String name;
+    private Integer stock;
+    @Version
+    private Long version;
+}
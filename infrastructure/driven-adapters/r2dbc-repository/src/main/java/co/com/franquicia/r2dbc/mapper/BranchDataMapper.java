@@ -0,0 +1,14 @@
+package co.com.franquicia.r2dbc.mapper;
+
+import co.com.franquicia.model.branch.Branch;
+import co.com.franquicia.r2dbc.entity.BranchData;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BranchDataMapper {
+
+    Branch toModel(BranchData branchData);
+    BranchData toData(Branch branch);
+}
@@ -0,0 +1,14 @@
+package co.com.franquicia.r2dbc.mapper;
+
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.r2dbc.entity.FranchiseData;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface FranchiseDataMapper {
+
+    Franchise toModel(FranchiseData franchiseData);
+    FranchiseData toData(Franchise franchise);
+}
@@ -0,0 +1,14 @@
+package co.com.franquicia.r2dbc.mapper;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.r2dbc.entity.ProductData;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ProductDataMapper {
+
+    Product toModel(ProductData productData);
+    ProductData toData(Product product);
+}
@@ -0,0 +1,42 @@
+package co.com.franquicia.r2dbc.repository;
+
+import co.com.franquicia.r2dbc.entity.BranchData;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface BranchR2dbcRepository extends R2dbcRepository<BranchData, Long> {
+
+    Flux<BranchData> findByFranchiseId(Long franchiseId);
+
+    @Query("SELECT * FROM branch WHERE franchise_id = :franchiseId AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<BranchData> findByFranchiseIdAfter(@Param("franchiseId") Long franchiseId,
+                                            @Param("afterId") Long afterId,
+                                            @Param("limit") int limit);
+
+    Mono<BranchData> findByName(String name);
+
+    @Query("SELECT name FROM branch WHERE name IS NOT NULL")
+    Flux<String> findAllNames();
+
+    @Query("""
+            INSERT INTO branch (franchise_id, name)
+            SELECT f.id, :name FROM franchise f WHERE f.id = :franchiseId
+            ON CONFLICT (name) DO NOTHING
+            RETURNING *
+            """)
+    Mono<BranchData> insertIfAbsent(@Param("franchiseId") Long franchiseId, @Param("name") String name);
+
+    @Modifying
+    @Query("UPDATE branch SET name = :name WHERE id = :id")
+    Mono<Integer> updateName(@Param("id") Long id, @Param("name") String name);
+
+    // la versión la sube el trigger de V7__entity_version.sql
+    @Modifying
+    @Query("UPDATE branch SET name = :name WHERE id = :id AND version = :version")
+    Mono<Integer> updateNameIfVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+}
@@ -0,0 +1,33 @@
+package co.com.franquicia.r2dbc.repository;
+
+import co.com.franquicia.r2dbc.entity.FranchiseData;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface FranchiseR2dbcRepository extends R2dbcRepository<FranchiseData, Long> {
+
+    Mono<FranchiseData> findByName(String name);
+
+    @Query("SELECT name FROM franchise WHERE name IS NOT NULL")
+    Flux<String> findAllNames();
+
+    @Query("INSERT INTO franchise (name) VALUES (:name) ON CONFLICT (name) DO NOTHING RETURNING *")
+    Mono<FranchiseData> insertIfAbsent(@Param("name") String name);
+
+    @Query("SELECT * FROM franchise WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<FranchiseData> findAllAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE franchise SET name = :name WHERE id = :id")
+    Mono<Integer> updateName(@Param("id") Long id, @Param("name") String name);
+
+    // la versión la sube el trigger de V7__entity_version.sql
+    @Modifying
+    @Query("UPDATE franchise SET name = :name WHERE id = :id AND version = :version")
+    Mono<Integer> updateNameIfVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+}
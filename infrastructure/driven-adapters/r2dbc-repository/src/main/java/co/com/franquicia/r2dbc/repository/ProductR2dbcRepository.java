@@ -0,0 +1,63 @@
+package co.com.franquicia.r2dbc.repository;
+
+import co.com.franquicia.r2dbc.entity.ProductData;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ProductR2dbcRepository extends R2dbcRepository<ProductData, Long> {
+
+    Flux<ProductData> findByBranchId(Long branchId);
+
+    @Query("SELECT * FROM product WHERE branch_id = :branchId AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<ProductData> findByBranchIdAfter(@Param("branchId") Long branchId,
+                                          @Param("afterId") Long afterId,
+                                          @Param("limit") int limit);
+
+    Mono<ProductData> findByName(String name);
+
+    @Query("SELECT name FROM product WHERE name IS NOT NULL")
+    Flux<String> findAllNames();
+
+    @Query("""
+            INSERT INTO product (branch_id, name, stock)
+            SELECT b.id, :name, :stock FROM branch b WHERE b.id = :branchId
+            ON CONFLICT (name) DO NOTHING
+            RETURNING *
+            """)
+    Mono<ProductData> insertIfAbsent(@Param("branchId") Long branchId,
+                                     @Param("name") String name,
+                                     @Param("stock") Integer stock);
+
+    @Query("SELECT name FROM product WHERE name IN (:names)")
+    Flux<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("UPDATE product SET stock = :stock WHERE id = :id RETURNING *")
+    Mono<ProductData> updateStock(@Param("id") Long id, @Param("stock") Integer stock);
+
+    // la versión la sube el trigger de V7__entity_version.sql
+    @Query("UPDATE product SET stock = :stock WHERE id = :id AND version = :version RETURNING *")
+    Mono<ProductData> updateStockIfVersion(@Param("id") Long id, @Param("stock") Integer stock,
+                                           @Param("version") Long version);
+
+    @Query("""
+            UPDATE product SET stock = stock + :delta
+            WHERE id = :id AND stock::bigint + :delta BETWEEN 0 AND 2147483647
+            RETURNING *
+            """)
+    Mono<ProductData> adjustStock(@Param("id") Long id, @Param("delta") Integer delta);
+
+    @Modifying
+    @Query("UPDATE product SET name = :name WHERE id = :id")
+    Mono<Integer> updateName(@Param("id") Long id, @Param("name") String name);
+
+    @Modifying
+    @Query("UPDATE product SET name = :name WHERE id = :id AND version = :version")
+    Mono<Integer> updateNameIfVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+}
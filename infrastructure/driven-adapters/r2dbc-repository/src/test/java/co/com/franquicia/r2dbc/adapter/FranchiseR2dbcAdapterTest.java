@@ -0,0 +1,91 @@
+package co.com.franquicia.r2dbc.adapter;
+
+import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.r2dbc.entity.FranchiseData;
+import co.com.franquicia.r2dbc.mapper.FranchiseDataMapper;
+import co.com.franquicia.r2dbc.repository.FranchiseR2dbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FranchiseR2dbcAdapterTest {
+
+    @Mock
+    private FranchiseR2dbcRepository repository;
+
+    @Mock
+    private FranchiseDataMapper mapper;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private FranchiseR2dbcAdapter adapter;
+
+    private FranchiseData franchiseData;
+    private Franchise expectedFranchise;
+
+    @BeforeEach
+    void setUp() {
+        franchiseData = FranchiseData.builder()
+                .id(1L)
+                .name("Franquicia Colombia")
+                .build();
+
+        expectedFranchise = Franchise.builder()
+                .id(1L)
+                .name("Franquicia Colombia")
+                .build();
+    }
+
+    @Test
+    void givenValidFranchise_whenSave_thenFranchiseSavedSuccessfully() {
+        // Arrange
+        Franchise inputFranchise = Franchise.builder().name("Franquicia Colombia").build();
+
+        when(mapper.toData(any(Franchise.class))).thenReturn(franchiseData);
+        when(repository.save(any(FranchiseData.class))).thenReturn(Mono.just(franchiseData));
+        when(mapper.toModel(any(FranchiseData.class))).thenReturn(expectedFranchise);
+
+        // Act
+        Mono<Franchise> actualResult = adapter.save(inputFranchise);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNext(expectedFranchise)
+                .verifyComplete();
+
+        verify(repository).save(any(FranchiseData.class));
+    }
+
+    @Test
+    void givenNonExistentId_whenUpdateName_thenReturnsEmptyMonoWithoutReading() {
+        // Arrange
+        when(repository.updateName(eq(99L), eq("Nuevo Nombre"))).thenReturn(Mono.just(0));
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Mono<Franchise> actualResult = adapter.updateName(99L, "Nuevo Nombre", null);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .verifyComplete();
+
+        verify(repository, never()).findById(eq(99L));
+    }
+
+}
@@ -3,14 +3,23 @@ package co.com.franquicia.restconsumer.api;
 import co.com.franquicia.restconsumer.dto.request.BranchRequest;
 import co.com.franquicia.restconsumer.dto.request.FranchiseRequest;
 import co.com.franquicia.restconsumer.dto.request.ProductRequest;
+import co.com.franquicia.restconsumer.dto.request.StockAdjustmentRequest;
+import co.com.franquicia.restconsumer.dto.request.StockUpdateRequest;
 import co.com.franquicia.restconsumer.dto.response.ApiResponseDto;
+import co.com.franquicia.restconsumer.dto.response.CatalogChangeResponse;
 import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import co.com.franquicia.restconsumer.dto.response.InventoryImportEventResponse;
+import co.com.franquicia.restconsumer.dto.response.StockUpdateResultResponse;
 import co.com.franquicia.restconsumer.handler.BranchHandler;
+import co.com.franquicia.restconsumer.handler.CatalogChangeHandler;
 import co.com.franquicia.restconsumer.handler.FranchiseHandler;
+import co.com.franquicia.restconsumer.handler.InventoryHandler;
+import co.com.franquicia.restconsumer.handler.LeaderboardHandler;
 import co.com.franquicia.restconsumer.handler.ProductHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,12 +28,14 @@ import org.springdoc.core.annotations.RouterOperation;
 import org.springdoc.core.annotations.RouterOperations;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.web.reactive.function.server.RequestPredicates.*;
 
 
@@ -171,7 +182,10 @@ public class RouterConfig {
                             operationId = "updateFranchiseName",
                             tags = {"Franquicias"},
                             summary = "Actualizar nombre de franquicia",
-                            parameters = {@Parameter(in = ParameterIn.PATH, name = "id", description = "ID de la franquicia")},
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "id", description = "ID de la franquicia"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-Match", description = "ETag recibido al leer o escribir (la versión entre comillas); si ya no es la vigente se responde 412 sin escribir")
+                            },
                             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                                     description = "Nuevo nombre de la franquicia",
                                     required = true,
@@ -202,6 +216,24 @@ public class RouterConfig {
                                 "name": "Franquicia Colombia Premium"
                               }
                             }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "412",
+                                            description = "El ETag de If-Match ya no es la versión vigente; el ETag de la respuesta trae la actual",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 412,
+                              "error": "Precondition Failed",
+                              "message": "Versión desactualizada para la franquicia con id 1: la versión actual es 4",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/franchises/1/name"
+                            }
                             """
                                                     )
                                             )
@@ -297,8 +329,17 @@ public class RouterConfig {
                     operation = @Operation(
                             operationId = "getAllFranchises",
                             tags = {"Franquicias"},
-                            summary = "Listar todas las franquicias",
+                            summary = "Listar franquicias (paginado por cursor)",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.QUERY, name = "size", description = "Tamaño de página (1-500, por defecto 50)", example = "50"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Cursor devuelto en nextCursor por la página anterior"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-None-Match", description = "ETag de una respuesta anterior; si sigue vigente se responde 304 sin cuerpo")
+                            },
                             responses = {
+                                    @ApiResponse(
+                                            responseCode = "304",
+                                            description = "Sin cambios desde el ETag enviado en If-None-Match"
+                                    ),
                                     @ApiResponse(
                                             responseCode = "200",
                                             description = "Lista de franquicias obtenida exitosamente",
@@ -311,16 +352,19 @@ public class RouterConfig {
                                 {
                                   "status": 200,
                                   "message": "Franquicias obtenidas exitosamente",
-                                  "data": [
-                                    {
-                                      "id": 1,
-                                      "name": "Franquicia Colombia"
-                                    },
-                                    {
-                                      "id": 2,
-                                      "name": "Franquicia Ecuador"
-                                    }
-                                  ]
+                                  "data": {
+                                    "items": [
+                                      {
+                                        "id": 1,
+                                        "name": "Franquicia Colombia"
+                                      },
+                                      {
+                                        "id": 2,
+                                        "name": "Franquicia Ecuador"
+                                      }
+                                    ],
+                                    "nextCursor": "azoy"
+                                  }
                                 }
                                 """
                                                             ),
@@ -330,7 +374,9 @@ public class RouterConfig {
                                 {
                                   "status": 200,
                                   "message": "No hay franquicias registradas",
-                                  "data": []
+                                  "data": {
+                                    "items": []
+                                  }
                                 }
                                 """
                                                             )
@@ -524,7 +570,10 @@ public class RouterConfig {
                             operationId = "updateBranchName",
                             tags = {"Sucursales"},
                             summary = "Actualizar nombre de sucursal",
-                            parameters = {@Parameter(in = ParameterIn.PATH, name = "id")},
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "id"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-Match", description = "ETag recibido al leer o escribir (la versión entre comillas); si ya no es la vigente se responde 412 sin escribir")
+                            },
                             responses = {
                                     @ApiResponse(
                                             responseCode = "200",
@@ -542,6 +591,24 @@ public class RouterConfig {
                                 "name": "Sucursal Bogotá Centro"
                               }
                             }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "412",
+                                            description = "El ETag de If-Match ya no es la versión vigente; el ETag de la respuesta trae la actual",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 412,
+                              "error": "Precondition Failed",
+                              "message": "Versión desactualizada para la sucursal con id 4: la versión actual es 4",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/branches/4/name"
+                            }
                             """
                                                     )
                                             )
@@ -647,9 +714,18 @@ public class RouterConfig {
                     operation = @Operation(
                             operationId = "getBranchesByFranchise",
                             tags = {"Sucursales"},
-                            summary = "Listar sucursales por franquicia",
-                            parameters = {@Parameter(in = ParameterIn.PATH, name = "franchiseId")},
+                            summary = "Listar sucursales por franquicia (paginado por cursor)",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "franchiseId"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "size", description = "Tamaño de página (1-500, por defecto 50)", example = "50"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Cursor devuelto en nextCursor por la página anterior"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-None-Match", description = "ETag de una respuesta anterior; si sigue vigente se responde 304 sin cuerpo")
+                            },
                             responses = {
+                                    @ApiResponse(
+                                            responseCode = "304",
+                                            description = "Sin cambios desde el ETag enviado en If-None-Match"
+                                    ),
                                     @ApiResponse(
                                             responseCode = "200",
                                             description = "Sucursales obtenidas exitosamente.",
@@ -662,23 +738,26 @@ public class RouterConfig {
                                 {
                                   "status": 200,
                                   "message": "Sucursales obtenidas exitosamente.",
-                                  "data": [
-                                    {
-                                        "id": 4,
-                                        "franchiseId": 1,
-                                        "name": "Sucursal Bogotá Norte"
-                                    },
-                                    {
-                                        "id": 5,
-                                        "franchiseId": 1,
-                                        "name": "Sucursal Centro"
-                                    },
-                                    {
-                                        "id": 6,
-                                        "franchiseId": 1,
-                                        "name": "Sucursal Bogotá Centro"
-                                    }
-                                  ]
+                                  "data": {
+                                    "items": [
+                                      {
+                                          "id": 4,
+                                          "franchiseId": 1,
+                                          "name": "Sucursal Bogotá Norte"
+                                      },
+                                      {
+                                          "id": 5,
+                                          "franchiseId": 1,
+                                          "name": "Sucursal Centro"
+                                      },
+                                      {
+                                          "id": 6,
+                                          "franchiseId": 1,
+                                          "name": "Sucursal Bogotá Centro"
+                                      }
+                                    ],
+                                    "nextCursor": "azo2"
+                                  }
                                 }
                                 """
                                                             ),
@@ -688,7 +767,9 @@ public class RouterConfig {
                                 {
                                   "status": 200,
                                   "message": "Sucursales obtenidas exitosamente.",
-                                  "data": []
+                                  "data": {
+                                    "items": []
+                                  }
                                 }
                                 """
                                                             )
@@ -882,6 +963,150 @@ public class RouterConfig {
                             }
                     )
             ),
+            @RouterOperation(
+                    path = "/api/v1/products/stock",
+                    method = RequestMethod.PUT,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "updateStocks",
+                    operation = @Operation(
+                            operationId = "updateProductStocks",
+                            tags = {"Productos"},
+                            summary = "Actualizar stock de muchos productos",
+                            description = "Fija el stock de cada producto, identificado por id o por sucursal_id y nombre_producto. "
+                                    + "Se escribe en bloques de 500 con una sola sentencia por bloque; cada bloque se confirma "
+                                    + "por separado. La respuesta es NDJSON con un resultado por elemento, en el mismo orden, "
+                                    + "y se envía a medida que se confirma cada bloque. No admite If-Match.",
+                            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                                    description = "Arreglo JSON o NDJSON con el nuevo stock de cada producto",
+                                    required = true,
+                                    content = {
+                                            @Content(
+                                                    mediaType = "application/json",
+                                                    array = @ArraySchema(schema = @Schema(implementation = StockUpdateRequest.class)),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                        [
+                          {"id": 10, "stock_producto": 150},
+                          {"sucursal_id": 4, "nombre_producto": "AirPods Pro 2", "stock_producto": 80}
+                        ]
+                        """
+                                                    )
+                                            ),
+                                            @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    schema = @Schema(implementation = StockUpdateRequest.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                        {"id": 10, "stock_producto": 150}
+                        {"sucursal_id": 4, "nombre_producto": "AirPods Pro 2", "stock_producto": 80}
+                        """
+                                                    )
+                                            )
+                                    }
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Flujo NDJSON con el resultado de cada elemento",
+                                            content = @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    schema = @Schema(implementation = StockUpdateResultResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {"status":"UPDATED","lineNumber":1,"product":{"id":10,"branchId":4,"name":"iPhone 15","stock":150,"version":8}}
+                            {"status":"NOT_FOUND","lineNumber":2,"reason":"Producto no encontrado con el nombre AirPods Pro 2 en la sucursal 4"}
+                            {"status":"REJECTED","lineNumber":3,"reason":"El campo stock_producto es obligatorio y debe ser >= 0"}
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/products/bulk",
+                    method = RequestMethod.POST,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "createBulk",
+                    operation = @Operation(
+                            operationId = "createProductsBulk",
+                            tags = {"Productos"},
+                            summary = "Crear productos en lote",
+                            description = "Acepta un arreglo JSON o NDJSON (application/x-ndjson). Se procesa en bloques de 500 productos que se validan e insertan en lote; cada bloque se confirma por separado",
+                            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                                    description = "Productos a crear",
+                                    required = true,
+                                    content = @Content(
+                                            array = @ArraySchema(schema = @Schema(implementation = ProductRequest.class)),
+                                            examples = @ExampleObject(
+                                                    value = """
+                        [
+                          { "sucursal_id": 1, "nombre_producto": "AirPods Pro 2", "stock_producto": 200 },
+                          { "sucursal_id": 1, "nombre_producto": "JBL Flip 6", "stock_producto": 250 }
+                        ]
+                        """
+                                            )
+                                    )
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Productos creados exitosamente",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ApiResponseDto.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 200,
+                              "message": "Se crearon 2 Productos exitosamente.",
+                              "data": [
+                                { "id": 51, "branchId": 1, "name": "AirPods Pro 2", "stock": 200 },
+                                { "id": 52, "branchId": 1, "name": "JBL Flip 6", "stock": 250 }
+                              ]
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Sucursal inexistente, nombre duplicado o campo inválido",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "Ya existe un producto con el nombre: AirPods Pro 2",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/products/bulk"
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "500",
+                                            description = "Error interno del servidor",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 500,
+                              "error": "Internal Server Error",
+                              "message": "Error al conectar con la base de datos",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/products/bulk"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
             @RouterOperation(
                     path = "/api/v1/products/{id}/stock",
                     method = RequestMethod.PUT,
@@ -891,7 +1116,10 @@ public class RouterConfig {
                             operationId = "updateProductStock",
                             tags = {"Productos"},
                             summary = "Actualizar stock de producto",
-                            parameters = {@Parameter(in = ParameterIn.PATH, name = "id", description = "ID del producto")},
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "id", description = "ID del producto"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-Match", description = "ETag recibido al leer o escribir (la versión entre comillas); si ya no es la vigente se responde 412 sin escribir")
+                            },
                             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                                     description = "Nuevo stock del producto",
                                     required = true,
@@ -924,6 +1152,24 @@ public class RouterConfig {
                                 "stock": 180
                               }
                             }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "412",
+                                            description = "El ETag de If-Match ya no es la versión vigente; el ETag de la respuesta trae la actual",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 412,
+                              "error": "Precondition Failed",
+                              "message": "Versión desactualizada para el producto con id 10: la versión actual es 4",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/products/10/stock"
+                            }
                             """
                                                     )
                                             )
@@ -999,6 +1245,107 @@ public class RouterConfig {
                             }
                     )
             ),
+            @RouterOperation(
+                    path = "/api/v1/products/{id}/stock",
+                    method = RequestMethod.PATCH,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "adjustStock",
+                    operation = @Operation(
+                            operationId = "adjustProductStock",
+                            tags = {"Productos"},
+                            summary = "Ajustar stock de producto",
+                            description = "Suma o resta unidades al stock de forma atómica en la base de datos; rechaza el ajuste si el stock quedaría negativo",
+                            parameters = {@Parameter(in = ParameterIn.PATH, name = "id", description = "ID del producto")},
+                            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                                    description = "Unidades a sumar o restar",
+                                    required = true,
+                                    content = @Content(
+                                            schema = @Schema(implementation = StockAdjustmentRequest.class),
+                                            examples = @ExampleObject(
+                                                    value = """
+                        {
+                          "ajuste_stock": -3
+                        }
+                        """
+                                            )
+                                    )
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Stock ajustado exitosamente",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ApiResponseDto.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 200,
+                              "message": "El Stock se Ajusto exitosamente.",
+                              "data": {
+                                "id": 10,
+                                "branchId": 4,
+                                "name": "AirPods Pro 2",
+                                "stock": 177
+                              }
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Producto no encontrado o stock insuficiente",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = {
+                                                            @ExampleObject(
+                                                                    name = "Producto no encontrado",
+                                                                    value = """
+                                {
+                                  "status": 400,
+                                  "error": "Bad Request",
+                                  "message": "Producto no encontrado con id: 999",
+                                  "timestamp": "2025-12-18T10:30:00",
+                                  "path": "/api/v1/products/999/stock"
+                                }
+                                """
+                                                            ),
+                                                            @ExampleObject(
+                                                                    name = "Stock insuficiente",
+                                                                    value = """
+                                {
+                                  "status": 400,
+                                  "error": "Bad Request",
+                                  "message": "Stock insuficiente para el producto con id: 10 (stock actual: 2, ajuste: -3)",
+                                  "timestamp": "2025-12-18T10:30:00",
+                                  "path": "/api/v1/products/10/stock"
+                                }
+                                """
+                                                            )
+                                                    }
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "500",
+                                            description = "Error interno del servidor",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 500,
+                              "error": "Internal Server Error",
+                              "message": "Error al conectar con la base de datos",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/products/10/stock"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
             @RouterOperation(
                     path = "/api/v1/products/{id}/name",
                     method = RequestMethod.PUT,
@@ -1008,7 +1355,10 @@ public class RouterConfig {
                             operationId = "updateProductName",
                             tags = {"Productos"},
                             summary = "Actualizar nombre de producto",
-                            parameters = {@Parameter(in = ParameterIn.PATH, name = "id", description = "ID del producto")},
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "id", description = "ID del producto"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-Match", description = "ETag recibido al leer o escribir (la versión entre comillas); si ya no es la vigente se responde 412 sin escribir")
+                            },
                             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                                     description = "Nuevo nombre del producto",
                                     required = true,
@@ -1041,6 +1391,24 @@ public class RouterConfig {
                                 "stock": 180
                               }
                             }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "412",
+                                            description = "El ETag de If-Match ya no es la versión vigente; el ETag de la respuesta trae la actual",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 412,
+                              "error": "Precondition Failed",
+                              "message": "Versión desactualizada para el producto con id 10: la versión actual es 4",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/products/10/name"
+                            }
                             """
                                                     )
                                             )
@@ -1206,10 +1574,18 @@ public class RouterConfig {
                     operation = @Operation(
                             operationId = "getTopStockByFranchise",
                             tags = {"Productos"},
-                            summary = "Producto con mayor stock por sucursal",
-                            description = "Retorna el producto con mayor stock de cada sucursal de una franquicia",
-                            parameters = {@Parameter(in = ParameterIn.PATH, name = "franchiseId", description = "ID de la franquicia")},
+                            summary = "Productos con mayor stock por sucursal",
+                            description = "Retorna los k productos con mayor stock de cada sucursal de una franquicia (por defecto solo el primero)",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "franchiseId", description = "ID de la franquicia"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "k", description = "Productos por sucursal (1-100, por defecto 1)", example = "3"),
+                                    @Parameter(in = ParameterIn.HEADER, name = "If-None-Match", description = "ETag de una respuesta anterior; si sigue vigente se responde 304 sin cuerpo")
+                            },
                             responses = {
+                                    @ApiResponse(
+                                            responseCode = "304",
+                                            description = "Sin cambios desde el ETag enviado en If-None-Match"
+                                    ),
                                     @ApiResponse(
                                             responseCode = "200",
                                             description = "Listado de productos con mayor stock por sucursal",
@@ -1300,20 +1676,565 @@ public class RouterConfig {
                                     )
                             }
                     )
-            )
-    })
-    public RouterFunction<ServerResponse> productRoutes(ProductHandler handler) {
-        return RouterFunctions
-                .route(POST(API_V1 + "/products/create").and(accept(APPLICATION_JSON)),
-                        handler::create)
-                .andRoute(PUT(API_V1 + "/products/{id}/stock").and(accept(APPLICATION_JSON)),
-                        handler::updateStock)
-                .andRoute(PUT(API_V1 + "/products/{id}/name").and(accept(APPLICATION_JSON)),
-                        handler::updateName)
-                .andRoute(DELETE(API_V1 + "/products/{id}"),
-                        handler::delete)
+            ),
+            @RouterOperation(
+                    path = "/api/v1/branches/{branchId}/products",
+                    method = RequestMethod.GET,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "getByBranch",
+                    operation = @Operation(
+                            operationId = "getProductsByBranch",
+                            tags = {"Productos"},
+                            summary = "Listar productos por sucursal (paginado por cursor)",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "branchId", description = "ID de la sucursal"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "size", description = "Tamaño de página (1-500, por defecto 50)", example = "50"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Cursor devuelto en nextCursor por la página anterior")
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Productos obtenidos exitosamente.",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ApiResponseDto.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 200,
+                              "message": "Productos obtenidos exitosamente.",
+                              "data": {
+                                "items": [
+                                  {
+                                    "id": 10,
+                                    "branchId": 4,
+                                    "name": "AirPods Pro 2",
+                                    "stock": 200
+                                  }
+                                ],
+                                "nextCursor": "azoxMA"
+                              }
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Sucursal no encontrada o parámetros de paginación inválidos",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "El cursor de paginación no es válido",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/branches/4/products"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/products/{id}/stock",
+                    method = RequestMethod.GET,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "getStockAt",
+                    operation = @Operation(
+                            operationId = "getProductStockAt",
+                            tags = {"Productos"},
+                            summary = "Consultar el stock de un producto en una fecha",
+                            description = "Responde con el historial de movimientos de stock (adapters.stock-ledger.enabled). " +
+                                    "Sin el parámetro at devuelve el stock actual según el historial.",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "id", description = "ID del producto"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "at", description = "Fecha y hora (AAAA-MM-DDTHH:MM:SS, hora del servidor)", example = "2025-12-18T10:30:00")
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Stock del producto en la fecha indicada obtenido exitosamente.",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ApiResponseDto.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 200,
+                              "message": "Stock del producto en la fecha indicada obtenido exitosamente.",
+                              "data": {
+                                "productId": 10,
+                                "stock": 150,
+                                "at": "2025-12-18T10:30:00",
+                                "recordedAt": "2025-12-18T08:12:45.120"
+                              }
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Historial desactivado, fecha sin historial o producto inexistente en esa fecha",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "El historial de stock no está habilitado",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/products/10/stock"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            )
+    })
+    public RouterFunction<ServerResponse> productRoutes(ProductHandler handler) {
+        return RouterFunctions
+                .route(POST(API_V1 + "/products/create").and(accept(APPLICATION_JSON)),
+                        handler::create)
+                .andRoute(POST(API_V1 + "/products/bulk").and(contentType(APPLICATION_JSON, APPLICATION_NDJSON)),
+                        handler::createBulk)
+                .andRoute(PUT(API_V1 + "/products/stock").and(contentType(APPLICATION_JSON, APPLICATION_NDJSON)),
+                        handler::updateStocks)
+                .andRoute(PUT(API_V1 + "/products/{id}/stock").and(accept(APPLICATION_JSON)),
+                        handler::updateStock)
+                .andRoute(PATCH(API_V1 + "/products/{id}/stock").and(accept(APPLICATION_JSON)),
+                        handler::adjustStock)
+                .andRoute(GET(API_V1 + "/products/{id}/stock"),
+                        handler::getStockAt)
+                .andRoute(PUT(API_V1 + "/products/{id}/name").and(accept(APPLICATION_JSON)),
+                        handler::updateName)
+                .andRoute(DELETE(API_V1 + "/products/{id}"),
+                        handler::delete)
                 .andRoute(GET(API_V1 + "/franchises/{franchiseId}/top-stock-products"),
-                        handler::getTopStockByFranchise);
+                        handler::getTopStockByFranchise)
+                .andRoute(GET(API_V1 + "/branches/{branchId}/products"),
+                        handler::getByBranch);
+    }
+
+    @Bean
+    @RouterOperations({
+            @RouterOperation(
+                    path = "/api/v1/inventory/import",
+                    method = RequestMethod.POST,
+                    beanClass = InventoryHandler.class,
+                    beanMethod = "importInventory",
+                    operation = @Operation(
+                            operationId = "importInventory",
+                            tags = {"Inventario"},
+                            summary = "Importar inventario (CSV o NDJSON)",
+                            description = "Crea o actualiza el stock de productos por nombre a partir de un archivo CSV "
+                                    + "(sucursal_id,nombre_producto,stock_producto) o NDJSON. El archivo se procesa en "
+                                    + "streaming y la respuesta es NDJSON: eventos PROGRESS mientras se copian las filas, "
+                                    + "un REJECTED por cada línea descartada y un COMPLETED con el resumen una vez confirmados los cambios.",
+                            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                                    description = "Archivo de inventario",
+                                    required = true,
+                                    content = {
+                                            @Content(
+                                                    mediaType = "text/csv",
+                                                    examples = @ExampleObject(
+                                                            value = """
+                        sucursal_id,nombre_producto,stock_producto
+                        4,AirPods Pro 2,200
+                        4,"Cargador USB-C, 30W",75
+                        """
+                                                    )
+                                            ),
+                                            @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    schema = @Schema(implementation = ProductRequest.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                        {"sucursal_id": 4, "nombre_producto": "AirPods Pro 2", "stock_producto": 200}
+                        {"sucursal_id": 4, "nombre_producto": "Cargador USB-C 30W", "stock_producto": 75}
+                        """
+                                                    )
+                                            )
+                                    }
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Flujo NDJSON con el avance de la importación",
+                                            content = @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    schema = @Schema(implementation = InventoryImportEventResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {"type":"PROGRESS","rowsCopied":5000}
+                            {"type":"REJECTED","lineNumber":42,"reason":"Sucursal no encontrada con el id: 999"}
+                            {"type":"COMPLETED","rowsCopied":9998,"rowsInserted":1200,"rowsUpdated":8797,"rowsRejected":3}
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/franchises/{franchiseId}/inventory/export",
+                    method = RequestMethod.GET,
+                    beanClass = InventoryHandler.class,
+                    beanMethod = "exportFranchise",
+                    operation = @Operation(
+                            operationId = "exportFranchiseInventory",
+                            tags = {"Inventario"},
+                            summary = "Exportar inventario de una franquicia",
+                            description = "Devuelve todos los productos de la franquicia en streaming. Con Accept: text/csv "
+                                    + "responde un CSV (mismo formato que la importación); en otro caso NDJSON.",
+                            parameters = @Parameter(
+                                    name = "franchiseId",
+                                    in = ParameterIn.PATH,
+                                    required = true,
+                                    description = "ID de la franquicia",
+                                    example = "1"
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Productos de la franquicia",
+                                            content = {
+                                                    @Content(
+                                                            mediaType = "application/x-ndjson",
+                                                            examples = @ExampleObject(
+                                                                    value = """
+                            {"id":10,"branchId":4,"name":"AirPods Pro 2","stock":200}
+                            {"id":11,"branchId":4,"name":"JBL Flip 6","stock":250}
+                            """
+                                                            )
+                                                    ),
+                                                    @Content(
+                                                            mediaType = "text/csv",
+                                                            examples = @ExampleObject(
+                                                                    value = """
+                            sucursal_id,nombre_producto,stock_producto
+                            4,AirPods Pro 2,200
+                            4,JBL Flip 6,250
+                            """
+                                                            )
+                                                    )
+                                            }
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Franquicia no encontrada",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "Franquicia no encontrada con el id: 999",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/franchises/999/inventory/export"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/branches/{branchId}/inventory/export",
+                    method = RequestMethod.GET,
+                    beanClass = InventoryHandler.class,
+                    beanMethod = "exportBranch",
+                    operation = @Operation(
+                            operationId = "exportBranchInventory",
+                            tags = {"Inventario"},
+                            summary = "Exportar inventario de una sucursal",
+                            description = "Devuelve todos los productos de la sucursal en streaming. Con Accept: text/csv "
+                                    + "responde un CSV (mismo formato que la importación); en otro caso NDJSON.",
+                            parameters = @Parameter(
+                                    name = "branchId",
+                                    in = ParameterIn.PATH,
+                                    required = true,
+                                    description = "ID de la sucursal",
+                                    example = "4"
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Productos de la sucursal",
+                                            content = @Content(
+                                                    mediaType = "application/x-ndjson",
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {"id":10,"branchId":4,"name":"AirPods Pro 2","stock":200}
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Sucursal no encontrada",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "Sucursal no encontrada con el id: 999",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/branches/999/inventory/export"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            )
+    })
+    public RouterFunction<ServerResponse> inventoryRoutes(InventoryHandler handler) {
+        return RouterFunctions
+                .route(POST(API_V1 + "/inventory/import").and(contentType(MediaType.valueOf("text/csv"), APPLICATION_NDJSON)),
+                        handler::importInventory)
+                .andRoute(GET(API_V1 + "/franchises/{franchiseId}/inventory/export"),
+                        handler::exportFranchise)
+                .andRoute(GET(API_V1 + "/branches/{branchId}/inventory/export"),
+                        handler::exportBranch);
+    }
+
+    @Bean
+    @RouterOperations({
+            @RouterOperation(
+                    path = "/api/v1/franchises/{franchiseId}/leaderboard/products",
+                    method = RequestMethod.GET,
+                    beanClass = LeaderboardHandler.class,
+                    beanMethod = "getTopProductsByFranchise",
+                    operation = @Operation(
+                            operationId = "getTopProductsByFranchise",
+                            tags = {"Rankings"},
+                            summary = "Productos con mayor stock de una franquicia",
+                            description = "Ranking de todos los productos de la franquicia por stock descendente "
+                                    + "(empates por id de producto), paginado con size/cursor",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "franchiseId", description = "ID de la franquicia"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "size", description = "Tamaño de página (1-500, por defecto 50)", example = "50"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Cursor devuelto en nextCursor por la página anterior")
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Página del ranking",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ApiResponseDto.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 200,
+                              "message": "Ranking de productos de la franquicia obtenido exitosamente.",
+                              "data": {
+                                "items": [
+                                  {
+                                    "position": 1,
+                                    "productId": 12,
+                                    "productName": "JBL Flip 6",
+                                    "branchId": 6,
+                                    "branchName": "Sucursal Bogotá Centro",
+                                    "stock": 250
+                                  }
+                                ],
+                                "nextCursor": "cjoyNTA6MTI6MQ"
+                              }
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Franquicia no encontrada o parámetros inválidos",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "Franquicia no encontrada con el id: 999",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/franchises/999/leaderboard/products"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/api/v1/leaderboard/franchises",
+                    method = RequestMethod.GET,
+                    beanClass = LeaderboardHandler.class,
+                    beanMethod = "getTopFranchisesByStock",
+                    operation = @Operation(
+                            operationId = "getTopFranchisesByStock",
+                            tags = {"Rankings"},
+                            summary = "Franquicias con mayor stock total",
+                            description = "Ranking de franquicias por stock total descendente (empates por id). El total "
+                                    + "se recalcula periódicamente, así que puede ir algunos segundos atrasado.",
+                            parameters = {
+                                    @Parameter(in = ParameterIn.QUERY, name = "size", description = "Tamaño de página (1-500, por defecto 50)", example = "50"),
+                                    @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Cursor devuelto en nextCursor por la página anterior")
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Página del ranking",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ApiResponseDto.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 200,
+                              "message": "Ranking de franquicias por stock total obtenido exitosamente.",
+                              "data": {
+                                "items": [
+                                  {
+                                    "position": 1,
+                                    "franchiseId": 1,
+                                    "franchiseName": "Franquicia Colombia",
+                                    "totalStock": 15230,
+                                    "productCount": 87
+                                  }
+                                ],
+                                "nextCursor": null
+                              }
+                            }
+                            """
+                                                    )
+                                            )
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Parámetros inválidos",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "El cursor de paginación no es válido",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/leaderboard/franchises"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            )
+    })
+    public RouterFunction<ServerResponse> leaderboardRoutes(LeaderboardHandler handler) {
+        return RouterFunctions
+                .route(GET(API_V1 + "/franchises/{franchiseId}/leaderboard/products"),
+                        handler::getTopProductsByFranchise)
+                .andRoute(GET(API_V1 + "/leaderboard/franchises"),
+                        handler::getTopFranchisesByStock);
+    }
+
+    @Bean
+    @RouterOperations({
+            @RouterOperation(
+                    path = "/api/v1/franchises/{franchiseId}/changes",
+                    method = RequestMethod.GET,
+                    beanClass = CatalogChangeHandler.class,
+                    beanMethod = "stream",
+                    operation = @Operation(
+                            operationId = "streamFranchiseChanges",
+                            tags = {"Franquicias"},
+                            summary = "Seguir los cambios de una franquicia",
+                            description = "Mantiene abierta la respuesta y envía cada cambio de la franquicia, sus sucursales "
+                                    + "y sus productos a medida que se confirma, en lugar de consultar periódicamente. "
+                                    + "El primer evento es un RESYNC con la versión vigente. Con Accept: text/event-stream "
+                                    + "responde SSE (id = versión, event = tipo, y un comentario de latido cada 15 s); "
+                                    + "en otro caso NDJSON. Un cliente que no consume a tiempo pierde eventos y recibe "
+                                    + "un RESYNC: debe volver a leer (con If-None-Match) en vez de aplicar cambios.",
+                            parameters = @Parameter(
+                                    name = "franchiseId",
+                                    in = ParameterIn.PATH,
+                                    required = true,
+                                    description = "ID de la franquicia",
+                                    example = "1"
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Flujo de cambios de la franquicia",
+                                            content = {
+                                                    @Content(
+                                                            mediaType = "text/event-stream",
+                                                            schema = @Schema(implementation = CatalogChangeResponse.class),
+                                                            examples = @ExampleObject(
+                                                                    value = """
+                            id:3k9x1c.0.41
+                            event:RESYNC
+                            data:{"type":"RESYNC","franchiseId":1,"version":"3k9x1c.0.41","occurredAt":"2025-12-18T10:30:00"}
+
+                            id:3k9x1c.0.42
+                            event:UPSERTED
+                            data:{"type":"UPSERTED","aggregate":"PRODUCT","id":10,"franchiseId":1,"branchId":4,"name":"AirPods Pro 2","stock":150,"version":"3k9x1c.0.42","occurredAt":"2025-12-18T10:30:05"}
+
+                            :heartbeat
+                            """
+                                                            )
+                                                    ),
+                                                    @Content(
+                                                            mediaType = "application/x-ndjson",
+                                                            schema = @Schema(implementation = CatalogChangeResponse.class),
+                                                            examples = @ExampleObject(
+                                                                    value = """
+                            {"type":"RESYNC","franchiseId":1,"version":"3k9x1c.0.41","occurredAt":"2025-12-18T10:30:00"}
+                            {"type":"UPSERTED","aggregate":"PRODUCT","id":10,"franchiseId":1,"branchId":4,"name":"AirPods Pro 2","stock":150,"version":"3k9x1c.0.42","occurredAt":"2025-12-18T10:30:05"}
+                            """
+                                                            )
+                                                    )
+                                            }
+                                    ),
+                                    @ApiResponse(
+                                            responseCode = "400",
+                                            description = "Franquicia no encontrada",
+                                            content = @Content(
+                                                    schema = @Schema(implementation = ErrorResponse.class),
+                                                    examples = @ExampleObject(
+                                                            value = """
+                            {
+                              "status": 400,
+                              "error": "Bad Request",
+                              "message": "Franquicia no encontrada con el id: 999",
+                              "timestamp": "2025-12-18T10:30:00",
+                              "path": "/api/v1/franchises/999/changes"
+                            }
+                            """
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            )
+    })
+    public RouterFunction<ServerResponse> catalogChangeRoutes(CatalogChangeHandler handler) {
+        return RouterFunctions
+                .route(GET(API_V1 + "/franchises/{franchiseId}/changes"),
+                        handler::stream);
     }
 
 }
@@ -0,0 +1,25 @@
+package co.com.franquicia.restconsumer.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para sumar o restar unidades al stock de un producto")
+public class StockAdjustmentRequest {
+
+    @Schema(
+            description = "Unidades a sumar (positivo) o restar (negativo) del stock actual",
+            example = "-3",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    @JsonProperty("ajuste_stock")
+    private Integer delta;
+
+}
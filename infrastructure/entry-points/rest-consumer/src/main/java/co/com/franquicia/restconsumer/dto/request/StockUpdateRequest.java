@@ -0,0 +1,46 @@
+package co.com.franquicia.restconsumer.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Elemento de la actualización masiva de stock: el producto va por id o por sucursal y nombre")
+public class StockUpdateRequest {
+
+    @Schema(
+            description = "ID del producto; si viene, se ignoran sucursal_id y nombre_producto",
+            example = "10"
+    )
+    private Long id;
+
+    @Schema(
+            description = "ID de la sucursal del producto (sin id)",
+            example = "4"
+    )
+    @JsonProperty("sucursal_id")
+    private Long branchId;
+
+    @Schema(
+            description = "Nombre del producto (sin id)",
+            example = "AirPods Pro 2"
+    )
+    @JsonProperty("nombre_producto")
+    private String name;
+
+    @Schema(
+            description = "Nuevo stock del producto",
+            example = "150",
+            requiredMode = Schema.RequiredMode.REQUIRED,
+            minimum = "0"
+    )
+    @JsonProperty("stock_producto")
+    private Integer stock;
+
+}
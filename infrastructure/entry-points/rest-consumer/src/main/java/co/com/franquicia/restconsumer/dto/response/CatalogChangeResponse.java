@@ -0,0 +1,59 @@
+package co.com.franquicia.restconsumer.dto.response;
+
+import co.com.franquicia.model.catalog.CatalogChange;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Value
+@Builder
+@Schema(description = "Cambio en el catálogo de una franquicia (una línea NDJSON o un evento SSE por cambio)")
+public class CatalogChangeResponse {
+
+    @Schema(description = "Tipo de cambio; RESYNC indica que hay que volver a leer", example = "UPSERTED",
+            allowableValues = {"UPSERTED", "DELETED", "RESYNC"})
+    String type;
+
+    @Schema(description = "Entidad modificada", example = "PRODUCT", allowableValues = {"FRANCHISE", "BRANCH", "PRODUCT"})
+    String aggregate;
+
+    @Schema(description = "ID de la entidad modificada", example = "10")
+    Long id;
+
+    @Schema(description = "ID de la franquicia", example = "1")
+    Long franchiseId;
+
+    @Schema(description = "ID de la sucursal del producto", example = "4")
+    Long branchId;
+
+    @Schema(description = "Nombre de la entidad", example = "AirPods Pro 2")
+    String name;
+
+    @Schema(description = "Stock del producto", example = "150")
+    Integer stock;
+
+    @Schema(description = "Versión de la franquicia tras el cambio; es el ETag de sus consultas", example = "3k9x1c.0.42")
+    String version;
+
+    @Schema(description = "Momento del cambio", example = "2025-12-18T10:30:00")
+    LocalDateTime occurredAt;
+
+    public static CatalogChangeResponse from(CatalogChange change) {
+        return CatalogChangeResponse.builder()
+                .type(change.getType().name())
+                .aggregate(change.getAggregate() == null ? null : change.getAggregate().name())
+                .id(change.getId())
+                .franchiseId(change.getFranchiseId())
+                .branchId(change.getBranchId())
+                .name(change.getName())
+                .stock(change.getStock())
+                .version(change.getVersion())
+                .occurredAt(change.getOccurredAt())
+                .build();
+    }
+
+}
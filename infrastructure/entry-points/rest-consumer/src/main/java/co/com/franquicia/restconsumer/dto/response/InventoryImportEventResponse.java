@@ -0,0 +1,48 @@
+package co.com.franquicia.restconsumer.dto.response;
+
+import co.com.franquicia.model.inventory.InventoryImportEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Value
+@Builder
+@Schema(description = "Evento de avance de una importación de inventario (una línea NDJSON por evento)")
+public class InventoryImportEventResponse {
+
+    @Schema(description = "Tipo de evento", example = "PROGRESS", allowableValues = {"PROGRESS", "REJECTED", "COMPLETED"})
+    String type;
+
+    @Schema(description = "Línea del archivo rechazada", example = "42")
+    Long lineNumber;
+
+    @Schema(description = "Motivo del rechazo", example = "Sucursal no encontrada con el id: 999")
+    String reason;
+
+    @Schema(description = "Filas enviadas a la base hasta el momento", example = "5000")
+    Long rowsCopied;
+
+    @Schema(description = "Productos creados", example = "1200")
+    Long rowsInserted;
+
+    @Schema(description = "Productos actualizados", example = "3790")
+    Long rowsUpdated;
+
+    @Schema(description = "Filas rechazadas", example = "10")
+    Long rowsRejected;
+
+    public static InventoryImportEventResponse from(InventoryImportEvent event) {
+        return InventoryImportEventResponse.builder()
+                .type(event.getType().name())
+                .lineNumber(event.getLineNumber())
+                .reason(event.getReason())
+                .rowsCopied(event.getRowsCopied())
+                .rowsInserted(event.getRowsInserted())
+                .rowsUpdated(event.getRowsUpdated())
+                .rowsRejected(event.getRowsRejected())
+                .build();
+    }
+
+}
@@ -0,0 +1,23 @@
+package co.com.franquicia.restconsumer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Value
+@Builder
+@Schema(description = "Página de un listado paginado por cursor")
+public class PageResponse<T> {
+
+    @Schema(description = "Elementos de la página, ordenados por id")
+    List<T> items;
+
+    @Schema(description = "Cursor opaco para pedir la siguiente página (parámetro cursor); ausente en la última página",
+            example = "azox")
+    String nextCursor;
+
+}
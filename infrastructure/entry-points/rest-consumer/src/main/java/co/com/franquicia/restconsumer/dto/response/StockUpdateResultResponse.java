@@ -0,0 +1,37 @@
+package co.com.franquicia.restconsumer.dto.response;
+
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.StockUpdateResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Value
+@Builder
+@Schema(description = "Resultado de un elemento de la actualización masiva de stock (una línea NDJSON por elemento)")
+public class StockUpdateResultResponse {
+
+    @Schema(description = "Resultado", example = "UPDATED", allowableValues = {"UPDATED", "NOT_FOUND", "REJECTED"})
+    String status;
+
+    @Schema(description = "Posición del elemento en la carga, desde 1", example = "42")
+    Long lineNumber;
+
+    @Schema(description = "Producto tal como quedó (solo UPDATED)")
+    Product product;
+
+    @Schema(description = "Motivo del rechazo o de no encontrarlo", example = "Producto no encontrado con el id: 999")
+    String reason;
+
+    public static StockUpdateResultResponse from(StockUpdateResult result) {
+        return StockUpdateResultResponse.builder()
+                .status(result.getStatus().name())
+                .lineNumber(result.getLineNumber())
+                .product(result.getProduct())
+                .reason(result.getReason())
+                .build();
+    }
+
+}
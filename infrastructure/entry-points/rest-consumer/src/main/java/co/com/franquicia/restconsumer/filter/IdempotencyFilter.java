@@ -0,0 +1,233 @@
+package co.com.franquicia.restconsumer.filter;
+
+import co.com.franquicia.model.idempotency.IdempotencyKeyConflictException;
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import co.com.franquicia.usecase.idempotency.IdempotentRequestUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * {@code Idempotency-Key} en las escrituras de franquicias, sucursales y productos. La primera
+ * petición con una clave la reserva y, al terminar, se guarda su respuesta (código, ETag y cuerpo);
+ * un reintento con la misma clave recibe esa respuesta, con {@value #REPLAYED_HEADER}, sin volver
+ * a ejecutar el caso de uso. La clave se asocia al método, la ruta y un SHA-256 del cuerpo: usarla
+ * en otra petición, aunque solo cambie el cuerpo, responde 422, y repetirla mientras la primera
+ * sigue en curso, 409. Mientras se ejecuta, la reserva se renueva para que no se dé por abandonada.
+ * <p>
+ * Para calcular ese hash el cuerpo se lee entero antes de pasar la petición, que luego lo recibe
+ * desde memoria. Con la clave, un cuerpo de más de {@value #MAX_HASHED_BODY} bytes responde 413.
+ * <p>
+ * Solo se guardan las respuestas JSON que no son 5xx. Un error del servidor o una respuesta en
+ * streaming (p. ej. NDJSON) liberan la clave, así que el reintento se ejecuta de nuevo. Sin el
+ * encabezado la petición pasa sin cambios.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter implements WebFilter {
+
+    static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_STORED_BODY = 64 * 1024;
+    static final int MAX_HASHED_BODY = 1024 * 1024;
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private static final List<PathPattern> PATHS = List.of(
+            PathPatternParser.defaultInstance.parse("/api/v1/franchises/**"),
+            PathPatternParser.defaultInstance.parse("/api/v1/branches/**"),
+            PathPatternParser.defaultInstance.parse("/api/v1/products/**"));
+
+    private final IdempotentRequestUseCase useCase;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = request.getHeaders().getFirst(HEADER);
+        if (key == null || !applies(request)) {
+            return chain.filter(exchange);
+        }
+        return DataBufferUtils.join(request.getBody(), MAX_HASHED_BODY)
+                .map(IdempotencyFilter::readAndRelease)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> claim(exchange.mutate().request(new CachedBodyRequest(request, body)).build(),
+                        chain, key, fingerprint(request, body)))
+                .onErrorResume(DataBufferLimitException.class, e -> Mono.just(reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE,
+                        "El cuerpo de una petición con " + HEADER + " no puede superar " + MAX_HASHED_BODY + " bytes")))
+                .flatMap(Function.identity());
+    }
+
+    private Mono<Void> claim(ServerWebExchange exchange, WebFilterChain chain, String key, String fingerprint) {
+        // los errores de la reserva se resuelven aquí; los de la petición siguen su curso normal
+        return useCase.begin(key, fingerprint)
+                .map(stored -> replay(exchange, stored))
+                .defaultIfEmpty(Mono.defer(() -> execute(exchange, chain, key, fingerprint)))
+                .onErrorResume(IdempotencyKeyConflictException.class, e -> Mono.just(reject(exchange,
+                        e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage())))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(reject(exchange, HttpStatus.BAD_REQUEST, e.getMessage())))
+                .flatMap(Function.identity());
+    }
+
+    static String fingerprint(ServerHttpRequest request, byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return request.getMethod().name() + " " + request.getPath().value() + " " + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    private static byte[] readAndRelease(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static boolean applies(ServerHttpRequest request) {
+        return WRITE_METHODS.contains(request.getMethod())
+                && PATHS.stream().anyMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()));
+    }
+
+    private Mono<Void> execute(ServerWebExchange exchange, WebFilterChain chain, String key, String fingerprint) {
+        RecordingResponse response = new RecordingResponse(exchange.getResponse());
+        return useCase.whileReserved(key, fingerprint, chain.filter(exchange.mutate().response(response).build()))
+                .onErrorResume(error -> useCase.abandon(key).then(Mono.error(error)))
+                .then(Mono.defer(() -> response.recorded(key, fingerprint)
+                        .map(useCase::complete)
+                        .orElseGet(() -> useCase.abandon(key))));
+    }
+
+    private static Mono<Void> replay(ServerWebExchange exchange, IdempotentResponse stored) {
+        return Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatusCode.valueOf(stored.getStatus()));
+            response.getHeaders().set(REPLAYED_HEADER, "true");
+            if (stored.getEtag() != null) {
+                response.getHeaders().setETag(stored.getEtag());
+            }
+            if (stored.getBody() == null) {
+                return response.setComplete();
+            }
+            response.getHeaders().setContentType(APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(stored.getBody().getBytes(StandardCharsets.UTF_8))));
+        });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message) {
+        return Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().setContentType(APPLICATION_JSON);
+            return response.writeWith(Mono.fromCallable(() -> response.bufferFactory().wrap(
+                    objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                            .status(status.value())
+                            .error(status.getReasonPhrase())
+                            .message(message)
+                            .timestamp(LocalDateTime.now())
+                            .path(exchange.getRequest().getPath().value())
+                            .build()))));
+        });
+    }
+
+    /** Devuelve el cuerpo ya leído para calcular la huella, cada vez que se suscriben a él. */
+    private static final class CachedBodyRequest extends ServerHttpRequestDecorator {
+
+        private final byte[] body;
+
+        CachedBodyRequest(ServerHttpRequest delegate, byte[] body) {
+            super(delegate);
+            this.body = body;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> body.length == 0
+                    ? Flux.empty()
+                    : Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+        }
+
+    }
+
+    /** Copia el cuerpo JSON a medida que se escribe, para poder guardarlo al terminar. */
+    private static final class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private byte[] body;
+        private boolean streamed;
+
+        RecordingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            MediaType contentType = getHeaders().getContentType();
+            if (contentType == null || !APPLICATION_JSON.isCompatibleWith(contentType)) {
+                streamed = true;
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = readAndRelease(joined);
+                this.body = bytes;
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            streamed = true;
+            return super.writeAndFlushWith(body);
+        }
+
+        Optional<IdempotentResponse> recorded(String key, String fingerprint) {
+            HttpStatusCode status = getStatusCode();
+            if (streamed || status == null || status.is5xxServerError()
+                    || (body != null && body.length > MAX_STORED_BODY)) {
+                return Optional.empty();
+            }
+            return Optional.of(IdempotentResponse.builder()
+                    .key(key)
+                    .fingerprint(fingerprint)
+                    .status(status.value())
+                    .etag(getHeaders().getETag())
+                    .body(body == null ? null : new String(body, StandardCharsets.UTF_8))
+                    .build());
+        }
+
+    }
+
+}
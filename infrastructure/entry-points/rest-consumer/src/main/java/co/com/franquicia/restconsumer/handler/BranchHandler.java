@@ -1,11 +1,13 @@
 package co.com.franquicia.restconsumer.handler;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
 import co.com.franquicia.restconsumer.dto.request.BranchRequest;
 import co.com.franquicia.restconsumer.dto.response.ApiResponseDto;
 import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
 import co.com.franquicia.usecase.branch.CreateBranchUseCase;
 import co.com.franquicia.usecase.branch.GetBranchesByFranchiseUseCase;
 import co.com.franquicia.usecase.branch.UpdateBranchNameUseCase;
+import co.com.franquicia.usecase.catalog.GetCatalogVersionUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -24,6 +26,7 @@ public class BranchHandler {
     private final CreateBranchUseCase createUseCase;
     private final UpdateBranchNameUseCase updateUseCase;
     private final GetBranchesByFranchiseUseCase getByFranchiseUseCase;
+    private final GetCatalogVersionUseCase versionUseCase;
 
     public Mono<ServerResponse> create(ServerRequest request) {
         return request.bodyToMono(BranchRequest.class)
@@ -59,15 +62,15 @@ public class BranchHandler {
         return request.bodyToMono(BranchRequest.class)
                 .filter(req -> req.getName() != null && !req.getName().isBlank())
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El campo nombre_sucursal es obligatorio y no puede estar vacío ni ser nulo")))
-                .flatMap(req -> updateUseCase.execute(id, req.getName()))
-                .map(branch -> ApiResponseDto.builder()
-                        .status(200)
-                        .message("La Sucursal se Actualizo exitosamente.")
-                        .data(branch)
-                        .build())
-                .flatMap(response -> ServerResponse.ok()
+                .flatMap(req -> updateUseCase.execute(id, req.getName(), ConditionalWrite.expectedVersion(request)))
+                .flatMap(branch -> ConditionalWrite.ok(branch.getVersion())
                         .contentType(APPLICATION_JSON)
-                        .bodyValue(response))
+                        .bodyValue(ApiResponseDto.builder()
+                                .status(200)
+                                .message("La Sucursal se Actualizo exitosamente.")
+                                .data(branch)
+                                .build()))
+                .onErrorResume(VersionConflictException.class, e -> ConditionalWrite.preconditionFailed(request, e))
                 .onErrorResume(IllegalArgumentException.class, e ->
                         ServerResponse.badRequest()
                                 .contentType(APPLICATION_JSON)
@@ -83,16 +86,18 @@ public class BranchHandler {
 
     public Mono<ServerResponse> getByFranchise(ServerRequest request) {
         Long franchiseId = Long.valueOf(request.pathVariable("franchiseId"));
-        return getByFranchiseUseCase.execute(franchiseId)
-                .collectList()
-                .map(branches -> ApiResponseDto.builder()
-                        .status(200)
-                        .message("Sucursales obtenidas exitosamente.")
-                        .data(branches)
-                        .build())
-                .flatMap(response -> ServerResponse.ok()
-                        .contentType(APPLICATION_JSON)
-                        .bodyValue(response))
+        return Mono.fromSupplier(() -> Pagination.query(request))
+                .flatMap(query -> ConditionalGet.respond(request, versionUseCase.execute(franchiseId), etag ->
+                        getByFranchiseUseCase.execute(franchiseId, query.afterId(), query.size())
+                                .map(page -> ApiResponseDto.builder()
+                                        .status(200)
+                                        .message("Sucursales obtenidas exitosamente.")
+                                        .data(Pagination.toResponse(page))
+                                        .build())
+                                .flatMap(response -> ServerResponse.ok()
+                                        .eTag(etag)
+                                        .contentType(APPLICATION_JSON)
+                                        .bodyValue(response))))
                 .onErrorResume(IllegalArgumentException.class, e ->
                         ServerResponse.badRequest()
                                 .contentType(APPLICATION_JSON)
@@ -0,0 +1,84 @@
+package co.com.franquicia.restconsumer.handler;
+
+import co.com.franquicia.restconsumer.dto.response.CatalogChangeResponse;
+import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import co.com.franquicia.usecase.catalog.WatchFranchiseChangesUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeHandler {
+
+    // por debajo del timeout de inactividad habitual de balanceadores y proxies
+    static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final WatchFranchiseChangesUseCase watchUseCase;
+
+    /**
+     * Con {@code Accept: text/event-stream} responde SSE, con la versión como id del evento y un
+     * comentario cada {@link #HEARTBEAT} para que no se corte la conexión; en otro caso NDJSON.
+     * Como en la exportación, se espera el primer evento (siempre un {@code RESYNC} inmediato)
+     * antes de fijar el código, para que una franquicia inexistente responda 400.
+     */
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        Long franchiseId = Long.valueOf(request.pathVariable("franchiseId"));
+        boolean sse = request.headers().accept().stream()
+                .anyMatch(type -> !type.isWildcardType() && type.isCompatibleWith(TEXT_EVENT_STREAM));
+        return watchUseCase.execute(franchiseId)
+                .map(CatalogChangeResponse::from)
+                .<Flux<CatalogChangeResponse>>switchOnFirst((first, changes) -> first.hasError()
+                        ? Mono.error(first.getThrowable())
+                        : Mono.just(changes), false)
+                .single()
+                .flatMap(changes -> sse
+                        ? ServerResponse.ok()
+                                .contentType(TEXT_EVENT_STREAM)
+                                .body(Flux.merge(changes.map(this::toEvent), heartbeats()),
+                                        new ParameterizedTypeReference<ServerSentEvent<CatalogChangeResponse>>() {
+                                        })
+                        : ServerResponse.ok()
+                                .contentType(APPLICATION_NDJSON)
+                                .body(changes, CatalogChangeResponse.class))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        ServerResponse.badRequest()
+                                .contentType(APPLICATION_JSON)
+                                .bodyValue(ErrorResponse.builder()
+                                        .status(HttpStatus.BAD_REQUEST.value())
+                                        .error("Bad Request")
+                                        .message(e.getMessage())
+                                        .timestamp(LocalDateTime.now())
+                                        .path(request.path())
+                                        .build())
+                );
+    }
+
+    private ServerSentEvent<CatalogChangeResponse> toEvent(CatalogChangeResponse change) {
+        return ServerSentEvent.builder(change)
+                .id(change.getVersion())
+                .event(change.getType())
+                .build();
+    }
+
+    // un cliente lento pierde latidos, no eventos: el intervalo no se encola
+    private Flux<ServerSentEvent<CatalogChangeResponse>> heartbeats() {
+        return Flux.interval(HEARTBEAT)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<CatalogChangeResponse>builder().comment("heartbeat").build());
+    }
+
+}
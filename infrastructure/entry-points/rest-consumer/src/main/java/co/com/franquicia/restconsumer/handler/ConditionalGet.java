@@ -0,0 +1,46 @@
+package co.com.franquicia.restconsumer.handler;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * GET condicional con ETag débil a partir de la versión del catálogo. Si el cliente envía en
+ * {@code If-None-Match} la versión vigente se responde 304 sin consultar la base de datos ni
+ * serializar nada; si no, se genera la respuesta con el ETag nuevo. La versión se lee antes que
+ * los datos: una escritura entre ambas lecturas, como mucho, hace que el siguiente GET traiga
+ * el cuerpo otra vez.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static Mono<ServerResponse> respond(ServerRequest request, Mono<String> version,
+                                        Function<String, Mono<ServerResponse>> render) {
+        return version
+                .map(value -> "W/\"" + value + "\"")
+                .flatMap(etag -> matches(request, etag)
+                        ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build()
+                        : render.apply(etag));
+    }
+
+    // comparación débil (RFC 9110 §13.1.2): se ignora el prefijo W/ de ambos lados
+    private static boolean matches(ServerRequest request, String etag) {
+        String opaque = stripWeak(etag);
+        return request.headers().header(HttpHeaders.IF_NONE_MATCH).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || stripWeak(candidate).equals(opaque));
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+}
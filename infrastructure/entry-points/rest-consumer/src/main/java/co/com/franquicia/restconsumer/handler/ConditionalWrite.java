@@ -0,0 +1,68 @@
+package co.com.franquicia.restconsumer.handler;
+
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Actualización condicional con la versión de la entidad como ETag fuerte ({@code "7"}). Si el
+ * cliente envía en {@code If-Match} la versión que leyó, la escritura solo se aplica si nadie la
+ * cambió entretanto; si no, 412 con la versión vigente en el {@code ETag}. Sin {@code If-Match}
+ * (o con {@code *}) se escribe sin condición, como antes.
+ */
+final class ConditionalWrite {
+
+    private ConditionalWrite() {
+    }
+
+    /** Versión esperada según {@code If-Match}; {@code null} si no hay condición. */
+    static Long expectedVersion(ServerRequest request) {
+        List<String> values = request.headers().header(HttpHeaders.IF_MATCH);
+        if (values.isEmpty()) return null;
+        String value = values.get(0).trim();
+        if (values.size() > 1 || value.contains(",")) {
+            throw new IllegalArgumentException("El encabezado If-Match admite una sola versión");
+        }
+        if (value.equals("*")) return null;
+        // If-Match usa comparación fuerte (RFC 9110 §13.1.1): un ETag débil nunca coincide
+        if (!value.startsWith("\"") || !value.endsWith("\"") || value.length() < 3) {
+            throw new IllegalArgumentException("El encabezado If-Match debe ser la versión entre comillas, p. ej. \"7\"");
+        }
+        try {
+            return Long.valueOf(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El encabezado If-Match debe ser la versión entre comillas, p. ej. \"7\"");
+        }
+    }
+
+    /** 200 con la versión nueva en el {@code ETag}, para encadenar la siguiente escritura. */
+    static ServerResponse.BodyBuilder ok(Long version) {
+        ServerResponse.BodyBuilder builder = ServerResponse.ok();
+        return version == null ? builder : builder.eTag("\"" + version + "\"");
+    }
+
+    static Mono<ServerResponse> preconditionFailed(ServerRequest request, VersionConflictException e) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(HttpStatus.PRECONDITION_FAILED);
+        if (e.getCurrentVersion() != null) {
+            builder.eTag("\"" + e.getCurrentVersion() + "\"");
+        }
+        return builder.contentType(APPLICATION_JSON)
+                .bodyValue(ErrorResponse.builder()
+                        .status(HttpStatus.PRECONDITION_FAILED.value())
+                        .error("Precondition Failed")
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .path(request.path())
+                        .build());
+    }
+
+}
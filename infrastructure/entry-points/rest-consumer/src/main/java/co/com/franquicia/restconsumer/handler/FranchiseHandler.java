@@ -1,8 +1,10 @@
 package co.com.franquicia.restconsumer.handler;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
 import co.com.franquicia.restconsumer.dto.response.ApiResponseDto;
 import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
 import co.com.franquicia.restconsumer.dto.request.FranchiseRequest;
+import co.com.franquicia.usecase.catalog.GetCatalogVersionUseCase;
 import co.com.franquicia.usecase.franchise.CreateFranchiseUseCase;
 import co.com.franquicia.usecase.franchise.GetAllFranchisesUseCase;
 import co.com.franquicia.usecase.franchise.UpdateFranchiseNameUseCase;
@@ -24,6 +26,7 @@ public class FranchiseHandler {
     private final CreateFranchiseUseCase createUseCase;
     private final UpdateFranchiseNameUseCase updateUseCase;
     private final GetAllFranchisesUseCase getAllUseCase;
+    private final GetCatalogVersionUseCase versionUseCase;
 
     public Mono<ServerResponse> create(ServerRequest request) {
         return request.bodyToMono(FranchiseRequest.class)
@@ -56,15 +59,15 @@ public class FranchiseHandler {
         return request.bodyToMono(FranchiseRequest.class)
                 .filter(req -> req.getName() != null && !req.getName().isBlank())
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El campo nombre_franquicia es obligatorio y no puede estar vacío ni ser nulo")))
-                .flatMap(req -> updateUseCase.execute(id, req.getName()))
-                .map(franchise -> ApiResponseDto.builder()
-                        .status(200)
-                        .message("La franquicia se Actualizo exitosamente.")
-                        .data(franchise)
-                        .build())
-                .flatMap(response -> ServerResponse.ok()
+                .flatMap(req -> updateUseCase.execute(id, req.getName(), ConditionalWrite.expectedVersion(request)))
+                .flatMap(franchise -> ConditionalWrite.ok(franchise.getVersion())
                         .contentType(APPLICATION_JSON)
-                        .bodyValue(response))
+                        .bodyValue(ApiResponseDto.builder()
+                                .status(200)
+                                .message("La franquicia se Actualizo exitosamente.")
+                                .data(franchise)
+                                .build()))
+                .onErrorResume(VersionConflictException.class, e -> ConditionalWrite.preconditionFailed(request, e))
                 .onErrorResume(IllegalArgumentException.class, e ->
                         ServerResponse.badRequest()
                                 .contentType(APPLICATION_JSON)
@@ -79,16 +82,18 @@ public class FranchiseHandler {
     }
 
     public Mono<ServerResponse> getAll(ServerRequest request) {
-        return getAllUseCase.execute()
-                .collectList()
-                .map(franchises -> ApiResponseDto.builder()
-                        .status(200)
-                        .message("Franquicias obtenidas exitosamente.")
-                        .data(franchises)
-                        .build())
-                .flatMap(response -> ServerResponse.ok()
-                        .contentType(APPLICATION_JSON)
-                        .bodyValue(response))
+        return Mono.fromSupplier(() -> Pagination.query(request))
+                .flatMap(query -> ConditionalGet.respond(request, versionUseCase.execute(null), etag ->
+                        getAllUseCase.execute(query.afterId(), query.size())
+                                .map(page -> ApiResponseDto.builder()
+                                        .status(200)
+                                        .message("Franquicias obtenidas exitosamente.")
+                                        .data(Pagination.toResponse(page))
+                                        .build())
+                                .flatMap(response -> ServerResponse.ok()
+                                        .eTag(etag)
+                                        .contentType(APPLICATION_JSON)
+                                        .bodyValue(response))))
                 .onErrorResume(IllegalArgumentException.class, e ->
                         ServerResponse.badRequest()
                                 .contentType(APPLICATION_JSON)
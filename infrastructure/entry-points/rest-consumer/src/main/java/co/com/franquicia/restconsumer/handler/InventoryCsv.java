@@ -0,0 +1,93 @@
+package co.com.franquicia.restconsumer.handler;
+
+import co.com.franquicia.model.inventory.InventoryRow;
+import co.com.franquicia.model.product.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura y escritura de líneas CSV de inventario con el formato {@code sucursal_id,nombre_producto,stock_producto}.
+ * El nombre puede ir entre comillas dobles (con {@code ""} como comilla escapada) si contiene comas.
+ * Las líneas mal formadas no detienen la importación: se devuelven marcadas como rechazadas.
+ * La exportación usa el mismo formato, de modo que un archivo exportado puede volver a importarse.
+ */
+final class InventoryCsv {
+
+    static final String HEADER = "sucursal_id,nombre_producto,stock_producto";
+
+    private InventoryCsv() {
+    }
+
+    static boolean isHeader(String line) {
+        return line.trim().toLowerCase().startsWith("sucursal_id");
+    }
+
+    static InventoryRow parse(long lineNumber, String line) {
+        List<String> fields = split(line);
+        if (fields == null || fields.size() != 3) {
+            return rejected(lineNumber, "Línea con formato inválido, se esperan 3 columnas: " + HEADER);
+        }
+        try {
+            return InventoryRow.builder()
+                    .lineNumber(lineNumber)
+                    .branchId(Long.valueOf(fields.get(0).trim()))
+                    .name(fields.get(1).trim())
+                    .stock(Integer.valueOf(fields.get(2).trim()))
+                    .build();
+        } catch (NumberFormatException e) {
+            return rejected(lineNumber, "sucursal_id y stock_producto deben ser numéricos");
+        }
+    }
+
+    static String format(Product product) {
+        return product.getBranchId() + "," + quote(product.getName()) + "," + product.getStock() + "\n";
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static InventoryRow rejected(long lineNumber, String reason) {
+        return InventoryRow.builder()
+                .lineNumber(lineNumber)
+                .rejectionReason(reason)
+                .build();
+    }
+
+    /** Devuelve {@code null} si hay comillas sin cerrar. */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+}
@@ -0,0 +1,109 @@
+package co.com.franquicia.restconsumer.handler;
+
+import co.com.franquicia.model.inventory.InventoryRow;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.restconsumer.dto.request.ProductRequest;
+import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import co.com.franquicia.restconsumer.dto.response.InventoryImportEventResponse;
+import co.com.franquicia.usecase.inventory.ExportBranchInventoryUseCase;
+import co.com.franquicia.usecase.inventory.ExportFranchiseInventoryUseCase;
+import co.com.franquicia.usecase.inventory.ImportInventoryUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+@Component
+@RequiredArgsConstructor
+public class InventoryHandler {
+
+    static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private final ImportInventoryUseCase importUseCase;
+    private final ExportFranchiseInventoryUseCase exportFranchiseUseCase;
+    private final ExportBranchInventoryUseCase exportBranchUseCase;
+
+    public Mono<ServerResponse> importInventory(ServerRequest request) {
+        Flux<InventoryImportEventResponse> events = importUseCase.execute(readRows(request))
+                .map(InventoryImportEventResponse::from);
+        return ServerResponse.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(events, InventoryImportEventResponse.class);
+    }
+
+    public Mono<ServerResponse> exportFranchise(ServerRequest request) {
+        Long franchiseId = Long.valueOf(request.pathVariable("franchiseId"));
+        return export(request, exportFranchiseUseCase.execute(franchiseId), "inventario-franquicia-" + franchiseId);
+    }
+
+    public Mono<ServerResponse> exportBranch(ServerRequest request) {
+        Long branchId = Long.valueOf(request.pathVariable("branchId"));
+        return export(request, exportBranchUseCase.execute(branchId), "inventario-sucursal-" + branchId);
+    }
+
+    /**
+     * Espera la primera señal antes de fijar el código de respuesta, para que una franquicia o
+     * sucursal inexistente siga respondiendo 400; el resto de filas se escribe a medida que el
+     * cliente las consume.
+     */
+    private Mono<ServerResponse> export(ServerRequest request, Flux<Product> products, String fileName) {
+        boolean csv = request.headers().accept().stream()
+                .anyMatch(type -> !type.isWildcardType() && type.isCompatibleWith(TEXT_CSV));
+        return products
+                .<Flux<Product>>switchOnFirst((first, rows) -> first.hasError()
+                        ? Mono.error(first.getThrowable())
+                        : Mono.just(rows), false)
+                .single()
+                .flatMap(rows -> csv
+                        ? ServerResponse.ok()
+                                .contentType(TEXT_CSV)
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + ".csv\"")
+                                .body(Flux.concat(Mono.just(InventoryCsv.HEADER + "\n"), rows.map(InventoryCsv::format)), String.class)
+                        : ServerResponse.ok()
+                                .contentType(APPLICATION_NDJSON)
+                                .body(rows, Product.class))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        ServerResponse.badRequest()
+                                .contentType(APPLICATION_JSON)
+                                .bodyValue(ErrorResponse.builder()
+                                        .status(HttpStatus.BAD_REQUEST.value())
+                                        .error("Bad Request")
+                                        .message(e.getMessage())
+                                        .timestamp(LocalDateTime.now())
+                                        .path(request.path())
+                                        .build())
+                );
+    }
+
+    private Flux<InventoryRow> readRows(ServerRequest request) {
+        boolean csv = request.headers().contentType()
+                .map(TEXT_CSV::isCompatibleWith)
+                .orElse(false);
+        if (csv) {
+            // El StringDecoder entrega el cuerpo ya partido por líneas y sin acumularlo
+            return request.bodyToFlux(String.class)
+                    .index()
+                    .filter(line -> !line.getT2().isBlank()
+                            && !(line.getT1() == 0 && InventoryCsv.isHeader(line.getT2())))
+                    .map(line -> InventoryCsv.parse(line.getT1() + 1, line.getT2()));
+        }
+        return request.bodyToFlux(ProductRequest.class)
+                .index((index, req) -> InventoryRow.builder()
+                        .lineNumber(index + 1)
+                        .branchId(req.getBranchId())
+                        .name(req.getName())
+                        .stock(req.getStock())
+                        .build());
+    }
+
+}
@@ -0,0 +1,66 @@
+package co.com.franquicia.restconsumer.handler;
+
+import co.com.franquicia.restconsumer.dto.response.ApiResponseDto;
+import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import co.com.franquicia.usecase.leaderboard.GetFranchiseProductLeaderboardUseCase;
+import co.com.franquicia.usecase.leaderboard.GetFranchiseStockLeaderboardUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@Component
+@RequiredArgsConstructor
+public class LeaderboardHandler {
+
+    private final GetFranchiseProductLeaderboardUseCase productLeaderboardUseCase;
+    private final GetFranchiseStockLeaderboardUseCase franchiseLeaderboardUseCase;
+
+    public Mono<ServerResponse> getTopProductsByFranchise(ServerRequest request) {
+        Long franchiseId = Long.valueOf(request.pathVariable("franchiseId"));
+        return Mono.fromSupplier(() -> Pagination.rankQuery(request))
+                .flatMap(query -> productLeaderboardUseCase.execute(franchiseId, query.after(), query.size()))
+                .map(page -> ApiResponseDto.builder()
+                        .status(200)
+                        .message("Ranking de productos de la franquicia obtenido exitosamente.")
+                        .data(Pagination.toResponse(page))
+                        .build())
+                .flatMap(response -> ServerResponse.ok()
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(response))
+                .onErrorResume(IllegalArgumentException.class, e -> badRequest(request, e));
+    }
+
+    public Mono<ServerResponse> getTopFranchisesByStock(ServerRequest request) {
+        return Mono.fromSupplier(() -> Pagination.rankQuery(request))
+                .flatMap(query -> franchiseLeaderboardUseCase.execute(query.after(), query.size()))
+                .map(page -> ApiResponseDto.builder()
+                        .status(200)
+                        .message("Ranking de franquicias por stock total obtenido exitosamente.")
+                        .data(Pagination.toResponse(page))
+                        .build())
+                .flatMap(response -> ServerResponse.ok()
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(response))
+                .onErrorResume(IllegalArgumentException.class, e -> badRequest(request, e));
+    }
+
+    private Mono<ServerResponse> badRequest(ServerRequest request, IllegalArgumentException e) {
+        return ServerResponse.badRequest()
+                .contentType(APPLICATION_JSON)
+                .bodyValue(ErrorResponse.builder()
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .error("Bad Request")
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .path(request.path())
+                        .build());
+    }
+
+}
@@ -0,0 +1,109 @@
+package co.com.franquicia.restconsumer.handler;
+
+import co.com.franquicia.model.page.Page;
+import co.com.franquicia.model.page.RankKey;
+import co.com.franquicia.model.page.RankedPage;
+import co.com.franquicia.restconsumer.dto.response.PageResponse;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Parámetros {@code size} y {@code cursor} de los listados paginados. El cursor es opaco para
+ * el cliente: codifica el último id entregado, que es la clave desde la que sigue la consulta
+ * (en los rankings, el puntaje, el id y el puesto de la última fila).
+ */
+final class Pagination {
+
+    static final int DEFAULT_SIZE = 50;
+    static final int MAX_SIZE = 500;
+
+    private static final String CURSOR_PREFIX = "k:";
+    private static final String RANK_CURSOR_PREFIX = "r:";
+
+    record Query(Long afterId, int size) {
+    }
+
+    record RankQuery(RankKey after, int size) {
+    }
+
+    private Pagination() {
+    }
+
+    static Query query(ServerRequest request) {
+        return new Query(
+                request.queryParam("cursor").map(Pagination::decode).orElse(null),
+                request.queryParam("size").map(Pagination::parseSize).orElse(DEFAULT_SIZE));
+    }
+
+    static RankQuery rankQuery(ServerRequest request) {
+        return new RankQuery(
+                request.queryParam("cursor").map(Pagination::decodeRank).orElse(null),
+                request.queryParam("size").map(Pagination::parseSize).orElse(DEFAULT_SIZE));
+    }
+
+    static <T> PageResponse<T> toResponse(RankedPage<T> page) {
+        return PageResponse.<T>builder()
+                .items(page.getItems())
+                .nextCursor(page.getNextAfter() == null ? null : encodeRank(page.getNextAfter()))
+                .build();
+    }
+
+    static <T> PageResponse<T> toResponse(Page<T> page) {
+        return PageResponse.<T>builder()
+                .items(page.getItems())
+                .nextCursor(page.getNextAfterId() == null ? null : encode(page.getNextAfterId()))
+                .build();
+    }
+
+    private static int parseSize(String value) {
+        try {
+            int size = Integer.parseInt(value);
+            if (size >= 1 && size <= MAX_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException ignored) {
+            // se reporta abajo con el mismo mensaje
+        }
+        throw new IllegalArgumentException("El parámetro size debe ser un número entre 1 y " + MAX_SIZE);
+    }
+
+    static String encode(Long afterId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + afterId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // base64 o número inválidos
+        }
+        throw new IllegalArgumentException("El cursor de paginación no es válido");
+    }
+
+    static String encodeRank(RankKey key) {
+        String raw = RANK_CURSOR_PREFIX + key.getScore() + ":" + key.getId() + ":" + key.getPosition();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RankKey decodeRank(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(RANK_CURSOR_PREFIX)) {
+                String[] parts = decoded.substring(RANK_CURSOR_PREFIX.length()).split(":");
+                if (parts.length == 3) {
+                    return new RankKey(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+            // base64 o números inválidos
+        }
+        throw new IllegalArgumentException("El cursor de paginación no es válido");
+    }
+
+}
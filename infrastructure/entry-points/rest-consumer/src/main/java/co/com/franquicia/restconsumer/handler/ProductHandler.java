@@ -1,33 +1,54 @@
 package co.com.franquicia.restconsumer.handler;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
+import co.com.franquicia.model.product.Product;
+import co.com.franquicia.model.product.StockUpdate;
 import co.com.franquicia.restconsumer.dto.request.ProductRequest;
+import co.com.franquicia.restconsumer.dto.request.StockAdjustmentRequest;
+import co.com.franquicia.restconsumer.dto.request.StockUpdateRequest;
 import co.com.franquicia.restconsumer.dto.response.ApiResponseDto;
 import co.com.franquicia.restconsumer.dto.response.ErrorResponse;
+import co.com.franquicia.restconsumer.dto.response.StockUpdateResultResponse;
+import co.com.franquicia.usecase.catalog.GetCatalogVersionUseCase;
+import co.com.franquicia.usecase.product.AdjustProductStockUseCase;
 import co.com.franquicia.usecase.product.CreateProductUseCase;
+import co.com.franquicia.usecase.product.CreateProductsBulkUseCase;
 import co.com.franquicia.usecase.product.DeleteProductUseCase;
+import co.com.franquicia.usecase.product.GetProductStockAtUseCase;
+import co.com.franquicia.usecase.product.GetProductsByBranchUseCase;
 import co.com.franquicia.usecase.product.GetTopStockByFranchiseUseCase;
 import co.com.franquicia.usecase.product.UpdateProductNameUseCase;
 import co.com.franquicia.usecase.product.UpdateProductStockUseCase;
+import co.com.franquicia.usecase.product.UpdateProductStocksBulkUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 
 @Component
 @RequiredArgsConstructor
 public class ProductHandler {
 
     private final CreateProductUseCase createUseCase;
+    private final CreateProductsBulkUseCase createBulkUseCase;
     private final UpdateProductStockUseCase updateStockUseCase;
+    private final AdjustProductStockUseCase adjustStockUseCase;
     private final UpdateProductNameUseCase updateNameUseCase;
     private final DeleteProductUseCase deleteUseCase;
     private final GetTopStockByFranchiseUseCase getTopStockUseCase;
+    private final GetProductsByBranchUseCase getByBranchUseCase;
+    private final GetCatalogVersionUseCase versionUseCase;
+    private final GetProductStockAtUseCase stockAtUseCase;
+    private final UpdateProductStocksBulkUseCase updateStocksUseCase;
 
     public Mono<ServerResponse> create(ServerRequest request) {
         return request.bodyToMono(ProductRequest.class)
@@ -63,15 +84,103 @@ public class ProductHandler {
                 );
     }
 
+    public Mono<ServerResponse> createBulk(ServerRequest request) {
+        return createBulkUseCase.execute(request.bodyToFlux(ProductRequest.class).map(this::toValidProduct))
+                .collectList()
+                .map(products -> ApiResponseDto.builder()
+                        .status(200)
+                        .message("Se crearon " + products.size() + " Productos exitosamente.")
+                        .data(products)
+                        .build())
+                .flatMap(response -> ServerResponse.ok()
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(response))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        ServerResponse.badRequest()
+                                .contentType(APPLICATION_JSON)
+                                .bodyValue(ErrorResponse.builder()
+                                        .status(HttpStatus.BAD_REQUEST.value())
+                                        .error("Bad Request")
+                                        .message(e.getMessage())
+                                        .timestamp(LocalDateTime.now())
+                                        .path(request.path())
+                                        .build())
+                );
+    }
+
+    private Product toValidProduct(ProductRequest req) {
+        if (req.getName() == null || req.getName().isBlank()) {
+            throw new IllegalArgumentException("El campo nombre_producto es obligatorio y no puede estar vacío ni ser nulo");
+        }
+        if (req.getBranchId() == null) {
+            throw new IllegalArgumentException("El campo sucursal_id es obligatorio y no puede estar vacío ni ser nulo");
+        }
+        if (req.getStock() == null || req.getStock() < 0) {
+            throw new IllegalArgumentException("El campo stock_producto es obligatorio y no puede estar vacío ni ser nulo y mayor que 0");
+        }
+        return Product.builder()
+                .branchId(req.getBranchId())
+                .name(req.getName())
+                .stock(req.getStock())
+                .build();
+    }
+
     public Mono<ServerResponse> updateStock(ServerRequest request) {
         Long id = Long.valueOf(request.pathVariable("id"));
         return request.bodyToMono(ProductRequest.class)
                 .filter(req -> req.getStock() != null && !req.getStock().toString().isBlank() && req.getStock() >= 0)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El campo stock_producto es obligatorio y no puede estar vacío ni ser nulo y mayor que 0")))
-                .flatMap(req -> updateStockUseCase.execute(id, req.getStock()))
+                .flatMap(req -> updateStockUseCase.execute(id, req.getStock(), ConditionalWrite.expectedVersion(request)))
+                .flatMap(product -> ConditionalWrite.ok(product.getVersion())
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(ApiResponseDto.builder()
+                                .status(200)
+                                .message("El Stock se Actualizo exitosamente.")
+                                .data(product)
+                                .build()))
+                .onErrorResume(VersionConflictException.class, e -> ConditionalWrite.preconditionFailed(request, e))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        ServerResponse.badRequest()
+                                .contentType(APPLICATION_JSON)
+                                .bodyValue(ErrorResponse.builder()
+                                        .status(HttpStatus.BAD_REQUEST.value())
+                                        .error("Bad Request")
+                                        .message(e.getMessage())
+                                        .timestamp(LocalDateTime.now())
+                                        .path(request.path())
+                                        .build())
+                );
+    }
+
+    /**
+     * Cuerpo en arreglo JSON o NDJSON, leído sin acumularlo. La respuesta es NDJSON con un resultado
+     * por elemento y se escribe a medida que se confirma cada bloque; un elemento inválido o
+     * inexistente no detiene el resto.
+     */
+    public Mono<ServerResponse> updateStocks(ServerRequest request) {
+        Flux<StockUpdateResultResponse> results = updateStocksUseCase.execute(request.bodyToFlux(StockUpdateRequest.class)
+                        .index((index, req) -> StockUpdate.builder()
+                                .lineNumber(index + 1)
+                                .id(req.getId())
+                                .branchId(req.getBranchId())
+                                .name(req.getName())
+                                .stock(req.getStock())
+                                .build()))
+                .map(StockUpdateResultResponse::from);
+        return ServerResponse.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(results, StockUpdateResultResponse.class);
+    }
+
+    public Mono<ServerResponse> adjustStock(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return request.bodyToMono(StockAdjustmentRequest.class)
+                .filter(req -> req.getDelta() != null && req.getDelta() != 0)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El campo ajuste_stock es obligatorio y debe ser distinto de 0")))
+                .flatMap(req -> adjustStockUseCase.execute(id, req.getDelta()))
                 .map(product -> ApiResponseDto.builder()
                         .status(200)
-                        .message("El Stock se Actualizo exitosamente.")
+                        .message("El Stock se Ajusto exitosamente.")
                         .data(product)
                         .build())
                 .flatMap(response -> ServerResponse.ok()
@@ -95,15 +204,15 @@ public class ProductHandler {
         return request.bodyToMono(ProductRequest.class)
                 .filter(req -> req.getName() != null && !req.getName().isBlank())
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El campo nombre_producto es obligatorio y no puede estar vacío ni ser nulo")))
-                .flatMap(req -> updateNameUseCase.execute(id, req.getName()))
-                .map(product -> ApiResponseDto.builder()
-                        .status(200)
-                        .message("El Nombre del producto se Actualizo exitosamente.")
-                        .data(product)
-                        .build())
-                .flatMap(response -> ServerResponse.ok()
+                .flatMap(req -> updateNameUseCase.execute(id, req.getName(), ConditionalWrite.expectedVersion(request)))
+                .flatMap(product -> ConditionalWrite.ok(product.getVersion())
                         .contentType(APPLICATION_JSON)
-                        .bodyValue(response))
+                        .bodyValue(ApiResponseDto.builder()
+                                .status(200)
+                                .message("El Nombre del producto se Actualizo exitosamente.")
+                                .data(product)
+                                .build()))
+                .onErrorResume(VersionConflictException.class, e -> ConditionalWrite.preconditionFailed(request, e))
                 .onErrorResume(IllegalArgumentException.class, e ->
                         ServerResponse.badRequest()
                                 .contentType(APPLICATION_JSON)
@@ -141,14 +250,42 @@ public class ProductHandler {
 
     public Mono<ServerResponse> getTopStockByFranchise(ServerRequest request) {
         Long franchiseId = Long.valueOf(request.pathVariable("franchiseId"));
-        return getTopStockUseCase.execute(franchiseId)
-                .collectList()
-                .filter(topStockProducts -> !topStockProducts.isEmpty() && topStockProducts.size() > 0)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("No se encontraron productos con stock")))
-                .map(topStockProducts -> ApiResponseDto.builder()
+        return Mono.fromSupplier(() -> request.queryParam("k").map(ProductHandler::parseK).orElse(1))
+                .flatMap(k -> ConditionalGet.respond(request, versionUseCase.execute(franchiseId), etag ->
+                        getTopStockUseCase.execute(franchiseId, k)
+                                .collectList()
+                                .filter(topStockProducts -> !topStockProducts.isEmpty() && topStockProducts.size() > 0)
+                                .switchIfEmpty(Mono.error(new IllegalArgumentException("No se encontraron productos con stock")))
+                                .map(topStockProducts -> ApiResponseDto.builder()
+                                        .status(200)
+                                        .message("Top de productos con mayor stock por franquicia obtenido exitosamente.")
+                                        .data(topStockProducts)
+                                        .build())
+                                .flatMap(response -> ServerResponse.ok()
+                                        .eTag(etag)
+                                        .contentType(APPLICATION_JSON)
+                                        .bodyValue(response))))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        ServerResponse.badRequest()
+                                .contentType(APPLICATION_JSON)
+                                .bodyValue(ErrorResponse.builder()
+                                        .status(HttpStatus.BAD_REQUEST.value())
+                                        .error("Bad Request")
+                                        .message(e.getMessage())
+                                        .timestamp(LocalDateTime.now())
+                                        .path(request.path())
+                                        .build())
+                );
+    }
+
+    public Mono<ServerResponse> getByBranch(ServerRequest request) {
+        Long branchId = Long.valueOf(request.pathVariable("branchId"));
+        return Mono.fromSupplier(() -> Pagination.query(request))
+                .flatMap(query -> getByBranchUseCase.execute(branchId, query.afterId(), query.size()))
+                .map(page -> ApiResponseDto.builder()
                         .status(200)
-                        .message("Top de productos con mayor stock por franquicia obtenido exitosamente.")
-                        .data(topStockProducts)
+                        .message("Productos obtenidos exitosamente.")
+                        .data(Pagination.toResponse(page))
                         .build())
                 .flatMap(response -> ServerResponse.ok()
                         .contentType(APPLICATION_JSON)
@@ -165,4 +302,47 @@ public class ProductHandler {
                                         .build())
                 );
     }
+
+    public Mono<ServerResponse> getStockAt(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return Mono.fromSupplier(() -> request.queryParam("at").map(ProductHandler::parseAt).orElseGet(LocalDateTime::now))
+                .flatMap(at -> stockAtUseCase.execute(id, at))
+                .map(stock -> ApiResponseDto.builder()
+                        .status(200)
+                        .message("Stock del producto en la fecha indicada obtenido exitosamente.")
+                        .data(stock)
+                        .build())
+                .flatMap(response -> ServerResponse.ok()
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(response))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        ServerResponse.badRequest()
+                                .contentType(APPLICATION_JSON)
+                                .bodyValue(ErrorResponse.builder()
+                                        .status(HttpStatus.BAD_REQUEST.value())
+                                        .error("Bad Request")
+                                        .message(e.getMessage())
+                                        .timestamp(LocalDateTime.now())
+                                        .path(request.path())
+                                        .build())
+                );
+    }
+
+    private static int parseK(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "El parámetro k debe ser un número entre 1 y " + GetTopStockByFranchiseUseCase.MAX_K);
+        }
+    }
+
+    private static LocalDateTime parseAt(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("El parámetro at debe tener el formato AAAA-MM-DDTHH:MM:SS");
+        }
+    }
+
 }
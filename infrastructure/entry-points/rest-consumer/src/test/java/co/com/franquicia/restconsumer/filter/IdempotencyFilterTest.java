@@ -0,0 +1,85 @@
+package co.com.franquicia.restconsumer.filter;
+
+import co.com.franquicia.model.idempotency.IdempotentResponse;
+import co.com.franquicia.model.idempotency.gateway.IdempotencyGateway;
+import co.com.franquicia.usecase.idempotency.IdempotentRequestUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyFilterTest {
+
+    private static final String KEY = "6f1c2e80-pos-0042";
+    private static final String PATH = "/api/v1/products/10/stock";
+
+    @Mock
+    private IdempotencyGateway gateway;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(new IdempotentRequestUseCase(gateway), new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void givenKeyReusedWithAnotherBody_whenFilter_thenResponds422() {
+        // Arrange
+        MockServerHttpRequest first = MockServerHttpRequest.patch(PATH).header(IdempotencyFilter.HEADER, KEY).body("{\"ajuste_stock\": -3}");
+        String storedFingerprint = IdempotencyFilter.fingerprint(first, "{\"ajuste_stock\": -3}".getBytes(StandardCharsets.UTF_8));
+        when(gateway.claim(eq(KEY), anyString())).thenReturn(Mono.just(IdempotentResponse.builder()
+                .key(KEY).fingerprint(storedFingerprint).status(200).body("{}").build()));
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.patch(PATH).header(IdempotencyFilter.HEADER, KEY).body("{\"ajuste_stock\": 5}"));
+        WebFilterChain chain = ignored -> Mono.error(new AssertionError("no debe ejecutarse"));
+
+        // Act
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void givenNewKey_whenFilter_thenChainReadsSameBody() {
+        // Arrange
+        String body = "{\"ajuste_stock\": -3}";
+        when(gateway.claim(eq(KEY), anyString())).thenReturn(Mono.empty());
+        when(gateway.keepAlive(eq(KEY), anyString())).thenReturn(Mono.never());
+        when(gateway.release(KEY)).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.patch(PATH).header(IdempotencyFilter.HEADER, KEY).body(body));
+        AtomicReference<String> received = new AtomicReference<>();
+        WebFilterChain chain = mutated -> DataBufferUtils.join(mutated.getRequest().getBody())
+                .doOnNext(joined -> received.set(joined.toString(StandardCharsets.UTF_8)))
+                .then();
+
+        // Act
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        assertEquals(body, received.get());
+        verify(gateway).claim(KEY, IdempotencyFilter.fingerprint(exchange.getRequest(), body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -1,7 +1,10 @@
 package co.com.franquicia.restconsumer.handler;
 
+import co.com.franquicia.model.catalog.VersionConflictException;
 import co.com.franquicia.model.franchise.Franchise;
+import co.com.franquicia.model.page.Page;
 import co.com.franquicia.restconsumer.dto.request.FranchiseRequest;
+import co.com.franquicia.usecase.catalog.GetCatalogVersionUseCase;
 import co.com.franquicia.usecase.franchise.CreateFranchiseUseCase;
 import co.com.franquicia.usecase.franchise.GetAllFranchisesUseCase;
 import co.com.franquicia.usecase.franchise.UpdateFranchiseNameUseCase;
@@ -11,17 +14,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +42,15 @@ public class FranchiseHandlerTest {
     @Mock
     private GetAllFranchisesUseCase getAllUseCase;
 
+    @Mock
+    private GetCatalogVersionUseCase versionUseCase;
+
     @Mock
     private ServerRequest serverRequest;
 
+    @Mock
+    private ServerRequest.Headers headers;
+
     @InjectMocks
     private FranchiseHandler franchiseHandler;
 
@@ -121,7 +133,8 @@ public class FranchiseHandlerTest {
         when(serverRequest.pathVariable("id")).thenReturn("1");
         when(serverRequest.bodyToMono(FranchiseRequest.class))
                 .thenReturn(Mono.just(franchiseRequest));
-        when(updateUseCase.execute(eq(franchiseId), eq("Franquicia Colombia")))
+        when(serverRequest.headers()).thenReturn(headers);
+        when(updateUseCase.execute(eq(franchiseId), eq("Franquicia Colombia"), isNull()))
                 .thenReturn(Mono.just(updatedFranchise));
 
         // Act
@@ -135,13 +148,61 @@ public class FranchiseHandlerTest {
 
         verify(serverRequest).pathVariable("id");
         verify(serverRequest).bodyToMono(FranchiseRequest.class);
-        verify(updateUseCase).execute(eq(franchiseId), eq("Franquicia Colombia"));
+        verify(updateUseCase).execute(eq(franchiseId), eq("Franquicia Colombia"), isNull());
+    }
+
+    @Test
+    void givenStaleIfMatch_whenUpdateName_thenReturns412WithCurrentETag() {
+        // Arrange
+        when(serverRequest.pathVariable("id")).thenReturn("1");
+        when(serverRequest.path()).thenReturn("/api/v1/franchises/1");
+        when(serverRequest.bodyToMono(FranchiseRequest.class))
+                .thenReturn(Mono.just(franchiseRequest));
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.header(HttpHeaders.IF_MATCH)).thenReturn(List.of("\"3\""));
+        when(updateUseCase.execute(eq(1L), eq("Franquicia Colombia"), eq(3L)))
+                .thenReturn(Mono.error(new VersionConflictException("la franquicia", 1L, 4L)));
+
+        // Act
+        Mono<ServerResponse> actualResult = franchiseHandler.updateName(serverRequest);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextMatches(response ->
+                        response.statusCode() == HttpStatus.PRECONDITION_FAILED
+                                && "\"4\"".equals(response.headers().getETag()))
+                .verifyComplete();
+    }
+
+    @Test
+    void givenMalformedIfMatch_whenUpdateName_thenReturns400WithoutCallingUseCase() {
+        // Arrange
+        when(serverRequest.pathVariable("id")).thenReturn("1");
+        when(serverRequest.path()).thenReturn("/api/v1/franchises/1");
+        when(serverRequest.bodyToMono(FranchiseRequest.class))
+                .thenReturn(Mono.just(franchiseRequest));
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.header(HttpHeaders.IF_MATCH)).thenReturn(List.of("W/\"3\""));
+
+        // Act
+        Mono<ServerResponse> actualResult = franchiseHandler.updateName(serverRequest);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextMatches(response ->
+                        response.statusCode() == HttpStatus.BAD_REQUEST)
+                .verifyComplete();
+
+        verifyNoInteractions(updateUseCase);
     }
 
     @Test
     void givenValidRequest_whenGetAll_thenReturns200WithFranchiseList() {
         // Arrange
-        when(getAllUseCase.execute()).thenReturn(Flux.fromIterable(expectedFranchiseList));
+        when(versionUseCase.execute(isNull())).thenReturn(Mono.just("a1.0.3"));
+        when(serverRequest.headers()).thenReturn(headers);
+        when(getAllUseCase.execute(isNull(), eq(Pagination.DEFAULT_SIZE)))
+                .thenReturn(Mono.just(Page.<Franchise>builder().items(expectedFranchiseList).nextAfterId(2L).build()));
 
         // Act
         Mono<ServerResponse> actualResult = franchiseHandler.getAll(serverRequest);
@@ -149,16 +210,59 @@ public class FranchiseHandlerTest {
         // Assert
         StepVerifier.create(actualResult)
                 .expectNextMatches(response ->
-                        response.statusCode() == HttpStatus.OK)
+                        response.statusCode() == HttpStatus.OK
+                                && "W/\"a1.0.3\"".equals(response.headers().getETag()))
+                .verifyComplete();
+
+        verify(getAllUseCase).execute(isNull(), eq(Pagination.DEFAULT_SIZE));
+    }
+
+    @Test
+    void givenCurrentETag_whenGetAll_thenReturns304WithoutCallingUseCase() {
+        // Arrange
+        when(versionUseCase.execute(isNull())).thenReturn(Mono.just("a1.0.3"));
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.header(HttpHeaders.IF_NONE_MATCH)).thenReturn(List.of("W/\"a1.0.3\""));
+
+        // Act
+        Mono<ServerResponse> actualResult = franchiseHandler.getAll(serverRequest);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextMatches(response ->
+                        response.statusCode() == HttpStatus.NOT_MODIFIED)
                 .verifyComplete();
 
-        verify(getAllUseCase).execute();
+        verifyNoInteractions(getAllUseCase);
+    }
+
+    @Test
+    void givenStaleETag_whenGetAll_thenReturns200WithNewETag() {
+        // Arrange
+        when(versionUseCase.execute(isNull())).thenReturn(Mono.just("a1.0.4"));
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.header(HttpHeaders.IF_NONE_MATCH)).thenReturn(List.of("W/\"a1.0.3\""));
+        when(getAllUseCase.execute(isNull(), eq(Pagination.DEFAULT_SIZE)))
+                .thenReturn(Mono.just(Page.<Franchise>builder().items(expectedFranchiseList).build()));
+
+        // Act
+        Mono<ServerResponse> actualResult = franchiseHandler.getAll(serverRequest);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextMatches(response ->
+                        response.statusCode() == HttpStatus.OK
+                                && "W/\"a1.0.4\"".equals(response.headers().getETag()))
+                .verifyComplete();
     }
 
     @Test
     void givenEmptyDatabase_whenGetAll_thenReturns200WithEmptyList() {
         // Arrange
-        when(getAllUseCase.execute()).thenReturn(Flux.empty());
+        when(versionUseCase.execute(isNull())).thenReturn(Mono.just("a1.0.0"));
+        when(serverRequest.headers()).thenReturn(headers);
+        when(getAllUseCase.execute(isNull(), eq(Pagination.DEFAULT_SIZE)))
+                .thenReturn(Mono.just(Page.<Franchise>builder().items(List.of()).build()));
 
         // Act
         Mono<ServerResponse> actualResult = franchiseHandler.getAll(serverRequest);
@@ -169,7 +273,25 @@ public class FranchiseHandlerTest {
                         response.statusCode() == HttpStatus.OK)
                 .verifyComplete();
 
-        verify(getAllUseCase).execute();
+        verify(getAllUseCase).execute(isNull(), eq(Pagination.DEFAULT_SIZE));
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetAll_thenReturns400WithoutCallingUseCase() {
+        // Arrange
+        when(serverRequest.queryParam("cursor")).thenReturn(Optional.of("no-es-un-cursor"));
+        when(serverRequest.path()).thenReturn("/api/v1/franchises");
+
+        // Act
+        Mono<ServerResponse> actualResult = franchiseHandler.getAll(serverRequest);
+
+        // Assert
+        StepVerifier.create(actualResult)
+                .expectNextMatches(response ->
+                        response.statusCode() == HttpStatus.BAD_REQUEST)
+                .verifyComplete();
+
+        verifyNoInteractions(getAllUseCase);
     }
 
 }